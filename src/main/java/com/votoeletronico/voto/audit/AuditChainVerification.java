@@ -0,0 +1,22 @@
+package com.votoeletronico.voto.audit;
+
+/**
+ * Outcome of the verification of one audit stream's chain
+ *
+ * @param streamKey       stream whose chain was verified
+ * @param afterId         entries up to this id were covered by a watermark or signed commitment
+ * @param lastVerifiedId  last entry known good after the run
+ * @param firstBrokenId   first entry that failed a check, or null when the chain is valid
+ * @param reason          what failed at firstBrokenId
+ */
+public record AuditChainVerification(
+        String streamKey,
+        boolean valid,
+        long afterId,
+        long entriesVerified,
+        long lastVerifiedId,
+        Long firstBrokenId,
+        String reason,
+        long durationMillis
+) {
+}
@@ -0,0 +1,267 @@
+package com.votoeletronico.voto.audit;
+
+import com.votoeletronico.voto.audit.AuditEntryHasher.EntryDigest;
+import com.votoeletronico.voto.repository.AuditCommitmentRepository;
+import com.votoeletronico.voto.repository.AuditCommitmentRepository.Commitment;
+import com.votoeletronico.voto.repository.AuditLogJdbcRepository;
+import com.votoeletronico.voto.repository.AuditLogJdbcRepository.ChainEntry;
+import com.votoeletronico.voto.repository.AuditStreamRepository;
+import com.votoeletronico.voto.service.crypto.CheckpointSigner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming, incremental verifier of the audit streams' chains.
+ *
+ * A stream's entries are read in id order (the order they were chained in) through a cursor
+ * with a fixed fetch size, and each hash is recomputed with one reused {@link EntryDigest},
+ * so memory stays flat however long the chain is. A run over a stream starts after the newer
+ * of this node's verified watermark for it and its newest trusted signed commitment, once the
+ * stored hash at that point is found unchanged, and ends by moving the watermark and
+ * committing to the verified chain, with the stream's Merkle root at the same size. Checking
+ * one election only reads its own stream. Runs on one node are serialized.
+ */
+@Slf4j
+@Component
+public class AuditChainVerifier {
+
+    private static final int COMMITMENT_CANDIDATES = 5;
+
+    private final AuditLogJdbcRepository auditLogJdbcRepository;
+    private final AuditCommitmentRepository auditCommitmentRepository;
+    private final AuditEntryHasher auditEntryHasher;
+    private final CheckpointSigner checkpointSigner;
+    private final AuditMerkleLog auditMerkleLog;
+    private final AuditStreamRepository auditStreamRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Counter entriesCounter;
+    private final Timer runTimer;
+
+    // Verified watermark of each stream: every entry up to its id checked, in memory of this node
+    private final Map<String, Watermark> watermarks = new ConcurrentHashMap<>();
+    private volatile double lastRunEntriesPerSecond;
+
+    public AuditChainVerifier(AuditLogJdbcRepository auditLogJdbcRepository,
+                              AuditCommitmentRepository auditCommitmentRepository,
+                              AuditEntryHasher auditEntryHasher,
+                              CheckpointSigner checkpointSigner,
+                              AuditMerkleLog auditMerkleLog,
+                              AuditStreamRepository auditStreamRepository,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry) {
+        this.auditLogJdbcRepository = auditLogJdbcRepository;
+        this.auditCommitmentRepository = auditCommitmentRepository;
+        this.auditEntryHasher = auditEntryHasher;
+        this.checkpointSigner = checkpointSigner;
+        this.auditMerkleLog = auditMerkleLog;
+        this.auditStreamRepository = auditStreamRepository;
+        this.readOnlyTransaction = new TransactionTemplate(Objects.requireNonNull(transactionTemplate.getTransactionManager()));
+        this.readOnlyTransaction.setReadOnly(true);
+
+        this.entriesCounter = Counter.builder("voto.audit.verify.entries")
+                .description("Audit entries whose hash and link were verified")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("voto.audit.verify.duration")
+                .description("Time of one audit chain verification run")
+                .register(meterRegistry);
+        Gauge.builder("voto.audit.verify.last.id", this, verifier -> verifier.watermarks.values().stream()
+                        .mapToLong(Watermark::id)
+                        .max()
+                        .orElse(0))
+                .description("Id of the newest audit entry verified on this node, over all streams")
+                .register(meterRegistry);
+        Gauge.builder("voto.audit.verify.rate", this, verifier -> verifier.lastRunEntriesPerSecond)
+                .description("Entries per second of the last audit chain verification run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Verify every audit stream as of now, in stream key order
+     *
+     * @param full recheck from the first entries, ignoring the watermarks and commitments
+     */
+    public synchronized List<AuditChainVerification> verify(boolean full) {
+        return auditStreamRepository.findAllHeads().stream()
+                .map(head -> verifyStream(head.streamKey(), full))
+                .toList();
+    }
+
+    /**
+     * Verify one audit stream as of now
+     *
+     * @param full recheck from the stream's first entry, ignoring the watermark and commitments
+     */
+    public synchronized AuditChainVerification verifyStream(String streamKey, boolean full) {
+        long started = System.nanoTime();
+
+        long afterId = 0;
+        long baseCount = 0;
+        byte[] seedHash = null;
+        if (!full) {
+            Watermark watermark = watermarks.get(streamKey);
+            long watermarkId = watermark != null ? watermark.id() : 0;
+            Commitment commitment = findTrustedCommitment(streamKey);
+            if (commitment != null && commitment.lastEntryId() > watermarkId) {
+                afterId = commitment.lastEntryId();
+                baseCount = commitment.entryCount();
+                seedHash = commitment.rootHash();
+            } else if (watermark != null) {
+                if (!Arrays.equals(watermark.hash(), auditLogJdbcRepository.findEntryHash(watermark.id()))) {
+                    return result(streamKey, false, watermark.id(), 0, 0, watermark.id(),
+                            "Entry changed after it was verified", started);
+                }
+                afterId = watermark.id();
+                baseCount = watermark.count();
+                seedHash = watermark.hash();
+            }
+        }
+
+        Run run = new Run(auditEntryHasher.newEntryDigest(), afterId, seedHash);
+        try {
+            readOnlyTransaction.executeWithoutResult(status ->
+                    auditLogJdbcRepository.forEachChainEntry(streamKey, run.lastId, run::check));
+        } catch (StopRun e) {
+            // run holds the failure
+        }
+        entriesCounter.increment(run.verified);
+
+        if (run.brokenId != null) {
+            return result(streamKey, false, afterId, run.verified, run.lastId, run.brokenId, run.reason, started);
+        }
+        if (run.verified > 0) {
+            long entryCount = baseCount + run.verified;
+            saveCommitment(streamKey, run.lastId, entryCount, run.prevHash);
+            watermarks.put(streamKey, new Watermark(run.lastId, run.prevHash, entryCount));
+        }
+        return result(streamKey, true, afterId, run.verified, run.lastId, null, null, started);
+    }
+
+    /**
+     * Newest commitment of a stream whose signature holds and whose last entry is unchanged
+     */
+    private Commitment findTrustedCommitment(String streamKey) {
+        for (Commitment commitment : auditCommitmentRepository.findLatest(streamKey, COMMITMENT_CANDIDATES)) {
+            if (!checkpointSigner.verify(commitment.signedMessage(), commitment.signature())) {
+                log.warn("Ignoring audit commitment of stream {} at entry ID {}: bad signature",
+                        streamKey, commitment.lastEntryId());
+                continue;
+            }
+            if (!Arrays.equals(commitment.rootHash(), auditLogJdbcRepository.findEntryHash(commitment.lastEntryId()))) {
+                // The committed entry was altered or removed: recheck everything
+                log.error("Audit entry ID {} no longer matches its signed commitment", commitment.lastEntryId());
+                return null;
+            }
+            return commitment;
+        }
+        return null;
+    }
+
+    private void saveCommitment(String streamKey, long lastEntryId, long entryCount, byte[] rootHash) {
+        // Publish the Merkle root too, when the stream's tree holds exactly the committed entries
+        byte[] merkleRoot = auditMerkleLog.leaf(lastEntryId)
+                .filter(leaf -> leaf.index() + 1 == entryCount)
+                .map(leaf -> auditMerkleLog.root(streamKey, entryCount))
+                .orElse(null);
+        if (merkleRoot == null) {
+            log.warn("Audit commitment of stream {} at entry ID {} has no Merkle root: the tree does not end there "
+                    + "with {} leaves", streamKey, lastEntryId, entryCount);
+        }
+
+        // Microsecond precision: the timestamp is signed and must survive the round trip
+        Instant createdAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        byte[] signature = checkpointSigner.sign(
+                Commitment.signedMessage(streamKey, lastEntryId, entryCount, rootHash, merkleRoot, createdAt));
+        auditCommitmentRepository.insert(
+                new Commitment(streamKey, lastEntryId, entryCount, rootHash, merkleRoot, createdAt, signature));
+    }
+
+    private AuditChainVerification result(String streamKey, boolean valid, long afterId, long verified,
+                                          long lastVerifiedId, Long brokenId, String reason, long started) {
+        long elapsedNanos = System.nanoTime() - started;
+        runTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (verified > 0) {
+            lastRunEntriesPerSecond = verified * 1e9 / Math.max(1, elapsedNanos);
+        }
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        if (valid) {
+            log.info("Audit stream {} chain integrity verified: {} entries after entry ID {} in {} ms",
+                    streamKey, verified, afterId, durationMillis);
+        } else {
+            log.error("Audit stream {} chain broken at entry ID {}: {}", streamKey, brokenId, reason);
+        }
+        return new AuditChainVerification(streamKey, valid, afterId, verified, lastVerifiedId, brokenId, reason, durationMillis);
+    }
+
+    /**
+     * Last entry verified in a stream, its hash and the stream's length up to it
+     */
+    private record Watermark(long id, byte[] hash, long count) {
+    }
+
+    /**
+     * State of one run; only touched by the thread reading the cursor
+     */
+    private static final class Run {
+
+        private final EntryDigest digest;
+        private long lastId;
+        private byte[] prevHash;
+        private long verified;
+        private Long brokenId;
+        private String reason;
+
+        Run(EntryDigest digest, long afterId, byte[] seedHash) {
+            this.digest = digest;
+            this.lastId = afterId;
+            this.prevHash = seedHash;
+        }
+
+        void check(ChainEntry entry) {
+            if (!Arrays.equals(prevHash, entry.prevHash())) {
+                fail(entry.id(), prevHash == null
+                        ? "First entry has a previous hash"
+                        : "Previous hash does not match the hash of entry " + lastId);
+            }
+            byte[] recomputed = digest.hash(entry.eventType(), entry.eventData(), entry.ts(), entry.prevHash());
+            if (!Arrays.equals(recomputed, entry.entryHash())) {
+                fail(entry.id(), "Entry hash does not match its contents");
+            }
+            prevHash = entry.entryHash();
+            lastId = entry.id();
+            verified++;
+        }
+
+        private void fail(long id, String why) {
+            brokenId = id;
+            reason = why;
+            throw StopRun.INSTANCE;
+        }
+    }
+
+    /**
+     * Ends a run's cursor at the first broken entry
+     */
+    private static final class StopRun extends RuntimeException {
+
+        static final StopRun INSTANCE = new StopRun();
+
+        private StopRun() {
+            super(null, null, false, false);
+        }
+    }
+}
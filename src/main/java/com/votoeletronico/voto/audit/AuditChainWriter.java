@@ -0,0 +1,94 @@
+package com.votoeletronico.voto.audit;
+
+import com.votoeletronico.voto.domain.audit.AuditLog;
+import com.votoeletronico.voto.repository.AuditLogJdbcRepository;
+import com.votoeletronico.voto.repository.AuditStreamRepository;
+import com.votoeletronico.voto.repository.AuditStreamRepository.StreamHead;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends entries to the hash chain of an audit stream.
+ *
+ * Each batch locks its stream's head row, which holds the tail (last id and hash), the
+ * length and the Merkle root of the stream, so writers of different streams never wait
+ * for each other. Ids are reserved under the head lock, so id order is chain order within
+ * a stream. The batch is added to the stream's {@link AuditMerkleLog} tree and the head
+ * moved in the same transaction.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditChainWriter {
+
+    private static final String SIGNER_KEY_ID = "system-v1"; // In production, use actual key management
+
+    private final AuditLogJdbcRepository auditLogJdbcRepository;
+    private final AuditStreamRepository auditStreamRepository;
+    private final AuditEntryHasher auditEntryHasher;
+    private final AuditMerkleLog auditMerkleLog;
+
+    /**
+     * Chain and insert a batch of events of one stream, in order
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public List<AuditLog> append(String streamKey, List<AuditEvent> events) {
+        StreamHead head = auditStreamRepository.lockHead(streamKey);
+
+        List<Long> ids = auditLogJdbcRepository.nextIds(events.size());
+        List<AuditLog> entries = new ArrayList<>(events.size());
+        byte[] prevHash = head.lastEntryHash();
+
+        for (int i = 0; i < events.size(); i++) {
+            AuditEvent event = events.get(i);
+            AuditLog entry = AuditLog.builder()
+                    .id(ids.get(i))
+                    .streamKey(streamKey)
+                    .eventType(event.eventType())
+                    .eventData(event.eventData())
+                    .prevHash(prevHash)
+                    .signerKeyId(SIGNER_KEY_ID)
+                    .ts(event.ts())
+                    .build();
+
+            entry.setEntryHash(auditEntryHasher.entryHash(entry));
+            entry.setSignature(auditEntryHasher.sign(entry));
+
+            entries.add(entry);
+            prevHash = entry.getEntryHash();
+        }
+
+        auditLogJdbcRepository.batchInsert(entries);
+        byte[] merkleRoot = auditMerkleLog.append(head, entries);
+
+        AuditLog last = entries.get(entries.size() - 1);
+        auditStreamRepository.updateHead(new StreamHead(streamKey, last.getId(), last.getEntryHash(),
+                head.entryCount() + entries.size(), merkleRoot));
+        return entries;
+    }
+
+    /**
+     * Give a stream head its Merkle root if it has none yet (a stream chained before trees
+     * were kept per stream)
+     *
+     * @return the head, with its root
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public StreamHead syncHead(String streamKey) {
+        StreamHead head = auditStreamRepository.lockHead(streamKey);
+        if (head.entryCount() == 0 || head.merkleRoot() != null) {
+            return head;
+        }
+        StreamHead synced = new StreamHead(streamKey, head.lastEntryId(), head.lastEntryHash(), head.entryCount(),
+                auditMerkleLog.sync(head));
+        auditStreamRepository.updateHead(synced);
+        log.info("Audit stream {} now has a Merkle root at {} entries", streamKey, synced.entryCount());
+        return synced;
+    }
+}
@@ -0,0 +1,18 @@
+package com.votoeletronico.voto.audit;
+
+import com.votoeletronico.voto.domain.audit.AuditEventType;
+
+import java.time.Instant;
+
+/**
+ * An audit event waiting to be chained
+ *
+ * @param streamKey audit stream the event is chained in (see {@link AuditStreams})
+ */
+public record AuditEvent(
+        String streamKey,
+        AuditEventType eventType,
+        String eventData,
+        Instant ts
+) {
+}
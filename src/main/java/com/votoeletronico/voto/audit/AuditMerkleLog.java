@@ -0,0 +1,298 @@
+package com.votoeletronico.voto.audit;
+
+import com.votoeletronico.voto.domain.audit.AuditLog;
+import com.votoeletronico.voto.exception.BusinessException;
+import com.votoeletronico.voto.exception.ResourceNotFoundException;
+import com.votoeletronico.voto.repository.AuditLogJdbcRepository;
+import com.votoeletronico.voto.repository.AuditLogJdbcRepository.AuditChainTail;
+import com.votoeletronico.voto.repository.AuditMerkleRepository;
+import com.votoeletronico.voto.repository.AuditMerkleRepository.Leaf;
+import com.votoeletronico.voto.repository.AuditMerkleRepository.Node;
+import com.votoeletronico.voto.repository.AuditMerkleRepository.NodeRef;
+import com.votoeletronico.voto.repository.AuditMerkleRepository.TrailEntry;
+import com.votoeletronico.voto.repository.AuditStreamRepository.StreamHead;
+import com.votoeletronico.voto.service.merkle.MerkleLog;
+import com.votoeletronico.voto.service.merkle.MerkleLog.NodeSource;
+import com.votoeletronico.voto.service.merkle.MerkleTree;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * RFC 6962 Merkle trees over the audit streams, one per stream, kept next to the hash chains.
+ *
+ * Leaf i of a stream's tree is SHA-256(0x00 || entry_hash) of the i-th entry chained in
+ * that stream. The chain writer adds each batch's leaves in its own transaction, under the
+ * stream's head lock, so a tree always holds exactly its stream's chained entries. Only
+ * complete nodes are stored; the right edge of the tree (one pending node per level) is
+ * read back with one query per batch, and the new root folded from it is kept on the
+ * stream head. A head without a root (the system stream after the migration that added
+ * streams) is first caught up from its chain.
+ *
+ * A proof first computes which nodes it needs, reads them with one query, then builds
+ * the proof from them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditMerkleLog {
+
+    private static final int CATCH_UP_BATCH = 1000;
+    private static final byte[] PLACEHOLDER = new byte[MerkleTree.HASH_LENGTH];
+
+    private final AuditMerkleRepository merkleRepository;
+    private final AuditLogJdbcRepository auditLogJdbcRepository;
+
+    /**
+     * Add a chained batch as leaves of its stream's tree
+     * Must be called by the chain writer, under the stream's head lock
+     *
+     * @param head stream head before the batch
+     * @return root of the tree after the batch
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public byte[] append(StreamHead head, List<AuditLog> entries) {
+        Edge edge = edgeOf(head);
+        List<Node> nodes = new ArrayList<>(entries.size() * 2);
+        for (AuditLog entry : entries) {
+            edge.add(entry.getId(), entry.getEntryHash(), nodes);
+        }
+        merkleRepository.batchInsert(head.streamKey(), nodes);
+        return edge.root();
+    }
+
+    /**
+     * Root of a stream's tree at the head, catching the tree up with the chain if needed
+     * Must be called under the stream's head lock
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public byte[] sync(StreamHead head) {
+        return edgeOf(head).root();
+    }
+
+    private Edge edgeOf(StreamHead head) {
+        if (head.entryCount() == 0 || head.merkleRoot() != null) {
+            return loadEdge(head.streamKey(), head.entryCount(), head.lastEntryId());
+        }
+        Leaf last = merkleRepository.findLastLeaf(head.streamKey()).orElse(null);
+        Edge edge = last != null
+                ? loadEdge(head.streamKey(), last.index() + 1, last.entryId())
+                : loadEdge(head.streamKey(), 0, 0);
+        catchUp(head, edge);
+        return edge;
+    }
+
+    private Edge loadEdge(String streamKey, long size, long lastEntryId) {
+        Edge edge = new Edge(size, lastEntryId);
+        List<NodeRef> refs = new ArrayList<>();
+        for (int level = 0; level < edge.frontier.length; level++) {
+            if ((size >> level & 1) == 1) {
+                refs.add(new NodeRef(level, (size >> level) - 1));
+            }
+        }
+        Map<NodeRef, byte[]> nodes = merkleRepository.findNodes(streamKey, refs);
+        for (NodeRef ref : refs) {
+            edge.frontier[ref.level()] = require(nodes.get(ref), ref.level(), ref.index());
+        }
+        return edge;
+    }
+
+    private void catchUp(StreamHead head, Edge edge) {
+        long caughtUp = 0;
+        while (edge.lastEntryId < head.lastEntryId()) {
+            List<AuditChainTail> missing = auditLogJdbcRepository.findEntryHashes(
+                    head.streamKey(), edge.lastEntryId, head.lastEntryId(), CATCH_UP_BATCH);
+            if (missing.isEmpty()) {
+                throw new IllegalStateException("Audit Merkle tree of stream " + head.streamKey() + " ends at entry "
+                        + edge.lastEntryId + " but the chain has no entries up to " + head.lastEntryId());
+            }
+            List<Node> nodes = new ArrayList<>(missing.size() * 2);
+            for (AuditChainTail entry : missing) {
+                edge.add(entry.id(), entry.entryHash(), nodes);
+            }
+            merkleRepository.batchInsert(head.streamKey(), nodes);
+            caughtUp += missing.size();
+        }
+        if (edge.size != head.entryCount()) {
+            throw new IllegalStateException("Audit Merkle tree of stream " + head.streamKey() + " has " + edge.size
+                    + " leaves but the stream has " + head.entryCount() + " entries");
+        }
+        log.info("Audit Merkle tree of stream {} caught up with the chain: {} leaves added", head.streamKey(), caughtUp);
+    }
+
+    /**
+     * Number of leaves in the stored tree of a stream
+     */
+    public long currentSize(String streamKey) {
+        return merkleRepository.findLastLeaf(streamKey).map(leaf -> leaf.index() + 1).orElse(0L);
+    }
+
+    /**
+     * Stream and leaf index of an entry, once its stream's tree holds it
+     */
+    public Optional<Leaf> leaf(long entryId) {
+        return merkleRepository.findLeaf(entryId);
+    }
+
+    /**
+     * Root of a stream's tree of its first treeSize entries
+     */
+    public byte[] root(String streamKey, long treeSize) {
+        checkSize(streamKey, treeSize);
+        return withNodes(streamKey, nodes -> MerkleLog.root(treeSize, nodes));
+    }
+
+    /**
+     * Audit path of an entry in its stream's tree of the first treeSize entries
+     *
+     * @param treeSize size of the tree to prove against, or null for the current tree
+     */
+    public InclusionProof inclusionProof(long entryId, Long treeSize) {
+        Leaf leaf = merkleRepository.findLeaf(entryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Audit entry " + entryId + " is not in a Merkle tree"));
+        long size = treeSize != null ? treeSize : currentSize(leaf.streamKey());
+        checkSize(leaf.streamKey(), size);
+        if (leaf.index() >= size) {
+            throw new ResourceNotFoundException("Audit entry " + entryId + " is not in the Merkle tree of size " + size);
+        }
+        return withNodes(leaf.streamKey(), nodes -> new InclusionProof(leaf.streamKey(), entryId, leaf.index(), size,
+                MerkleLog.root(size, nodes), MerkleLog.inclusionPath(leaf.index(), size, nodes)));
+    }
+
+    /**
+     * Proof that a stream's tree of its first firstSize entries is a prefix of its tree of secondSize
+     */
+    public ConsistencyProof consistencyProof(String streamKey, long firstSize, long secondSize) {
+        checkSize(streamKey, secondSize);
+        if (firstSize <= 0 || firstSize > secondSize) {
+            throw new BusinessException("First tree size must be between 1 and " + secondSize);
+        }
+        return withNodes(streamKey, nodes -> new ConsistencyProof(streamKey, firstSize, secondSize,
+                MerkleLog.root(firstSize, nodes), MerkleLog.root(secondSize, nodes),
+                MerkleLog.consistencyProof(firstSize, secondSize, nodes)));
+    }
+
+    /**
+     * Entries of a stream in its tree of the first treeSize entries, each with its audit
+     * path, in chain order after afterId
+     */
+    public StreamTrail streamTrail(String streamKey, long treeSize, long afterId, int limit) {
+        checkSize(streamKey, treeSize);
+        List<TrailEntry> entries = merkleRepository.findStreamEntries(streamKey, treeSize, afterId, limit);
+        return withNodes(streamKey, nodes -> new StreamTrail(streamKey, treeSize, MerkleLog.root(treeSize, nodes),
+                entries.stream()
+                        .map(entry -> new TrailProof(entry, MerkleLog.inclusionPath(entry.leafIndex(), treeSize, nodes)))
+                        .toList()));
+    }
+
+    private void checkSize(String streamKey, long treeSize) {
+        long current = currentSize(streamKey);
+        if (current == 0) {
+            throw new ResourceNotFoundException("Audit stream " + streamKey + " has no entries");
+        }
+        if (treeSize <= 0 || treeSize > current) {
+            throw new BusinessException("Tree size must be between 1 and " + current);
+        }
+    }
+
+    /**
+     * Run a computation twice: once to learn the nodes it reads, then on those nodes
+     */
+    private <T> T withNodes(String streamKey, Function<NodeSource, T> computation) {
+        Set<NodeRef> refs = new HashSet<>();
+        computation.apply((level, index) -> {
+            refs.add(new NodeRef(level, index));
+            return PLACEHOLDER;
+        });
+        Map<NodeRef, byte[]> nodes = merkleRepository.findNodes(streamKey, refs);
+        return computation.apply((level, index) -> require(nodes.get(new NodeRef(level, index)), level, index));
+    }
+
+    private static byte[] require(byte[] node, int level, long index) {
+        if (node == null) {
+            throw new IllegalStateException("Audit Merkle tree is missing node " + index + " at level " + level);
+        }
+        return node;
+    }
+
+    /**
+     * Right edge of a tree: its size, last leaf entry and the pending left node of each
+     * level (the set bits of size)
+     */
+    private static final class Edge {
+
+        private long size;
+        private long lastEntryId;
+        private final byte[][] frontier = new byte[64][];
+
+        Edge(long size, long lastEntryId) {
+            this.size = size;
+            this.lastEntryId = lastEntryId;
+        }
+
+        void add(long entryId, byte[] entryHash, List<Node> nodes) {
+            long index = size;
+            byte[] node = MerkleTree.leafHash(entryHash);
+            nodes.add(new Node(0, index, node, entryId));
+
+            // Each odd index completes its parent with the pending left sibling
+            int level = 0;
+            while ((index & 1) == 1) {
+                node = MerkleTree.nodeHash(frontier[level], node);
+                frontier[level] = null;
+                level++;
+                index >>= 1;
+                nodes.add(new Node(level, index, node, null));
+            }
+            frontier[level] = node;
+            size++;
+            lastEntryId = entryId;
+        }
+
+        /**
+         * Root at the current size: the pending nodes folded from the smallest subtree up
+         */
+        byte[] root() {
+            byte[] root = null;
+            for (byte[] node : frontier) {
+                if (node != null) {
+                    root = root == null ? node : MerkleTree.nodeHash(node, root);
+                }
+            }
+            return root;
+        }
+    }
+
+    /**
+     * Audit path of one entry in its stream's tree
+     */
+    public record InclusionProof(String streamKey, long entryId, long leafIndex, long treeSize, byte[] root,
+                                 List<byte[]> path) {
+    }
+
+    /**
+     * Hashes proving the first tree of a stream is a prefix of the second
+     */
+    public record ConsistencyProof(String streamKey, long firstSize, long secondSize, byte[] firstRoot,
+                                   byte[] secondRoot, List<byte[]> proof) {
+    }
+
+    /**
+     * A stream's entries with their audit paths against one root
+     */
+    public record StreamTrail(String streamKey, long treeSize, byte[] root, List<TrailProof> entries) {
+    }
+
+    public record TrailProof(TrailEntry entry, List<byte[]> path) {
+    }
+}
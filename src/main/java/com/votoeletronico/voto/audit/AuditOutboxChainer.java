@@ -0,0 +1,234 @@
+package com.votoeletronico.voto.audit;
+
+import com.votoeletronico.voto.config.AuditProperties;
+import com.votoeletronico.voto.repository.AuditOutboxRepository;
+import com.votoeletronico.voto.repository.AuditOutboxRepository.OutboxEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Background chain builder for the audit outbox.
+ *
+ * chainer-threads threads per node drain audit.audit_outbox one stream at a time: each
+ * locks a stream no other chainer (on any node) holds, claims up to batch-size of its
+ * oldest events, appends them in id order through {@link AuditChainWriter} and deletes
+ * them, all in one transaction, so every committed event is chained exactly once and each
+ * stream's chain follows outbox id order. Chainers on different streams run in parallel.
+ * They wake up when an event commits on this node, and poll every poll-interval-ms for
+ * events committed elsewhere.
+ *
+ * Callers in SYNC durability mode wait in {@link #awaitChained} until their events are
+ * chained: by a chainer of this node, which tells them right after its commit, or by
+ * another node, which they notice by polling the outbox.
+ */
+@Slf4j
+@Component
+public class AuditOutboxChainer {
+
+    private static final long ERROR_BACKOFF_MS = 1000;
+
+    private final AuditOutboxRepository auditOutboxRepository;
+    private final AuditChainWriter auditChainWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditProperties auditProperties;
+
+    private final DistributionSummary batchSizeSummary;
+    private final Timer flushTimer;
+    private final Timer lagTimer;
+    private final Counter syncTimeoutCounter;
+
+    private final Map<Long, CompletableFuture<Void>> waiters = new ConcurrentHashMap<>();
+    private final Semaphore wakeups = new Semaphore(0);
+    private volatile boolean running;
+    private final List<Thread> workers = new ArrayList<>();
+
+    public AuditOutboxChainer(AuditOutboxRepository auditOutboxRepository,
+                              AuditChainWriter auditChainWriter,
+                              TransactionTemplate transactionTemplate,
+                              AuditProperties auditProperties,
+                              MeterRegistry meterRegistry) {
+        this.auditOutboxRepository = auditOutboxRepository;
+        this.auditChainWriter = auditChainWriter;
+        this.transactionTemplate = transactionTemplate;
+        this.auditProperties = auditProperties;
+
+        this.batchSizeSummary = DistributionSummary.builder("voto.audit.chain.batch.size")
+                .description("Audit entries chained per transaction")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("voto.audit.chain.flush.latency")
+                .description("Time to chain, insert and commit an audit batch")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("voto.audit.outbox.lag")
+                .description("Age of the oldest event of each chained batch")
+                .register(meterRegistry);
+        this.syncTimeoutCounter = Counter.builder("voto.audit.sync.timeouts")
+                .description("SYNC callers that stopped waiting before their events were chained")
+                .register(meterRegistry);
+        Gauge.builder("voto.audit.outbox.unchained", auditOutboxRepository, AuditOutboxRepository::countUnchained)
+                .description("Audit events committed to the outbox but not chained yet, on every node")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        for (int i = 1; i <= Math.max(1, auditProperties.getChainerThreads()); i++) {
+            Thread worker = new Thread(this::run, "audit-outbox-chainer-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * Ask the chainer to run now (an event was committed)
+     */
+    public void wakeUp() {
+        if (wakeups.availablePermits() == 0) {
+            wakeups.release();
+        }
+    }
+
+    /**
+     * Wait until committed outbox events are chained, by any node, for at most timeoutMs
+     *
+     * @return whether every event was chained in time
+     */
+    public boolean awaitChained(List<Long> outboxIds, long timeoutMs) {
+        CompletableFuture<?>[] chained = outboxIds.stream()
+                .map(id -> waiters.computeIfAbsent(id, ignored -> new CompletableFuture<>()))
+                .toArray(CompletableFuture[]::new);
+        wakeUp();
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        long pollNanos = TimeUnit.MILLISECONDS.toNanos(auditProperties.getPollIntervalMs());
+        List<Long> unchained = outboxIds;
+        try {
+            CompletableFuture<Void> all = CompletableFuture.allOf(chained);
+            for (long left = deadline - System.nanoTime(); left > 0; left = deadline - System.nanoTime()) {
+                try {
+                    all.get(Math.min(left, pollNanos), TimeUnit.NANOSECONDS);
+                    return true;
+                } catch (TimeoutException e) {
+                    // Possibly chained by another node: only the outbox tells
+                    unchained = auditOutboxRepository.findUnchained(unchained);
+                    if (unchained.isEmpty()) {
+                        return true;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Audit chain waiter failed", e.getCause());
+        } finally {
+            outboxIds.forEach(waiters::remove);
+        }
+
+        syncTimeoutCounter.increment();
+        return false;
+    }
+
+    private void run() {
+        while (running) {
+            int chained;
+            try {
+                chained = chainBatch();
+            } catch (RuntimeException e) {
+                log.error("Audit outbox chaining failed, retrying", e);
+                sleep(ERROR_BACKOFF_MS);
+                continue;
+            }
+
+            // A full batch means more is probably waiting
+            if (chained < auditProperties.getBatchSize()) {
+                try {
+                    wakeups.tryAcquire(auditProperties.getPollIntervalMs(), TimeUnit.MILLISECONDS);
+                    wakeups.drainPermits();
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Chain one batch of outbox events
+     *
+     * @return number of events chained
+     */
+    int chainBatch() {
+        List<Long> chained = transactionTemplate.execute(status -> {
+            List<OutboxEntry> batch = auditOutboxRepository.claimOldestStream(auditProperties.getBatchSize());
+            if (batch.isEmpty()) {
+                return List.<Long>of();
+            }
+
+            long start = System.nanoTime();
+            auditChainWriter.append(batch.get(0).event().streamKey(),
+                    batch.stream().map(OutboxEntry::event).toList());
+            List<Long> ids = batch.stream().map(OutboxEntry::id).toList();
+            auditOutboxRepository.deleteByIds(ids);
+
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizeSummary.record(batch.size());
+            lagTimer.record(Duration.between(batch.get(0).event().ts(), Instant.now()));
+            return ids;
+        });
+        if (chained == null) {
+            return 0;
+        }
+
+        // Committed: release SYNC callers waiting on this node
+        for (Long id : chained) {
+            CompletableFuture<Void> waiter = waiters.get(id);
+            if (waiter != null) {
+                waiter.complete(null);
+            }
+        }
+        return chained.size();
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            running = false;
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
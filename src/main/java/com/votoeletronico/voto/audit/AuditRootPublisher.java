@@ -0,0 +1,101 @@
+package com.votoeletronico.voto.audit;
+
+import com.votoeletronico.voto.repository.AuditStreamRepository;
+import com.votoeletronico.voto.repository.AuditStreamRepository.StreamHead;
+import com.votoeletronico.voto.repository.AuditStreamRepository.StreamRoot;
+import com.votoeletronico.voto.service.crypto.CheckpointSigner;
+import com.votoeletronico.voto.service.merkle.MerkleTree;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Cross-stream roots: binds the independent audit streams together.
+ *
+ * A root is the RFC 6962 Merkle root over the heads of all non-empty streams in stream
+ * key order, each leaf committing to the stream's key, last entry, length, chain hash and
+ * Merkle root. Publishing stores the root, signed, with the heads under it, so a stream's
+ * state at that time can be checked against one value without reading other streams.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditRootPublisher {
+
+    private final AuditStreamRepository auditStreamRepository;
+    private final AuditChainWriter auditChainWriter;
+    private final CheckpointSigner checkpointSigner;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Root over stream heads, or null when there are none
+     */
+    public static byte[] root(List<StreamHead> heads) {
+        if (heads.isEmpty()) {
+            return null;
+        }
+        List<List<byte[]>> levels = MerkleTree.levels(heads.stream()
+                .map(head -> MerkleTree.leafHash(head.leafData()))
+                .toList());
+        return levels.get(levels.size() - 1).get(0);
+    }
+
+    /**
+     * Heads of all non-empty streams, in key order, each with its Merkle root
+     */
+    public List<StreamHead> currentHeads() {
+        return auditStreamRepository.findAllHeads().stream()
+                .map(head -> head.merkleRoot() != null ? head : auditChainWriter.syncHead(head.streamKey()))
+                .toList();
+    }
+
+    /**
+     * Sign and store a root over the current heads, unless it equals the latest one
+     *
+     * @return the new root, if one was published
+     */
+    public Optional<StreamRoot> publish() {
+        List<StreamHead> heads = currentHeads();
+        byte[] root = root(heads);
+        if (root == null) {
+            return Optional.empty();
+        }
+        boolean unchanged = auditStreamRepository.findLatestRoot()
+                .map(latest -> Arrays.equals(latest.root(), root))
+                .orElse(false);
+        if (unchanged) {
+            return Optional.empty();
+        }
+
+        // Microsecond precision: the timestamp is signed and must survive the round trip
+        Instant createdAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        byte[] signature = checkpointSigner.sign(StreamRoot.signedMessage(root, heads.size(), createdAt));
+        Long id = transactionTemplate.execute(status ->
+                auditStreamRepository.insertRoot(root, heads, createdAt, signature));
+        log.debug("Published cross-stream audit root {} over {} streams", id, heads.size());
+        return Optional.of(new StreamRoot(Objects.requireNonNull(id), root, heads.size(), createdAt, signature));
+    }
+
+    /**
+     * Latest published root, with the heads under it, if its signature holds
+     */
+    public Optional<PublishedRoot> latest() {
+        return auditStreamRepository.findLatestRoot()
+                .filter(root -> checkpointSigner.verify(root.signedMessage(), root.signature()))
+                .map(root -> new PublishedRoot(root, auditStreamRepository.findRootLeaves(root.id())));
+    }
+
+    /**
+     * A published root and the stream heads it was computed over, in leaf order
+     */
+    public record PublishedRoot(StreamRoot root, List<StreamHead> heads) {
+    }
+}
@@ -2,19 +2,29 @@ package com.votoeletronico.voto.audit;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.votoeletronico.voto.audit.AuditMerkleLog.ConsistencyProof;
+import com.votoeletronico.voto.audit.AuditMerkleLog.InclusionProof;
+import com.votoeletronico.voto.audit.AuditMerkleLog.StreamTrail;
+import com.votoeletronico.voto.audit.AuditRootPublisher.PublishedRoot;
+import com.votoeletronico.voto.config.AuditProperties;
 import com.votoeletronico.voto.domain.audit.AuditEventType;
-import com.votoeletronico.voto.domain.audit.AuditLog;
-import com.votoeletronico.voto.repository.AuditLogRepository;
+import com.votoeletronico.voto.repository.AuditCommitmentRepository;
+import com.votoeletronico.voto.repository.AuditCommitmentRepository.Commitment;
+import com.votoeletronico.voto.repository.AuditOutboxRepository;
+import com.votoeletronico.voto.service.crypto.CheckpointSigner;
+import com.votoeletronico.voto.service.crypto.Hex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Service for creating and managing audit log entries
@@ -25,45 +35,54 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class AuditService {
 
-    private final AuditLogRepository auditLogRepository;
     private final ObjectMapper objectMapper;
-
-    private static final String SIGNER_KEY_ID = "system-v1"; // In production, use actual key management
+    private final AuditOutboxRepository auditOutboxRepository;
+    private final AuditOutboxChainer auditOutboxChainer;
+    private final AuditProperties auditProperties;
+    private final AuditChainVerifier auditChainVerifier;
+    private final AuditMerkleLog auditMerkleLog;
+    private final AuditCommitmentRepository auditCommitmentRepository;
+    private final CheckpointSigner checkpointSigner;
+    private final AuditRootPublisher auditRootPublisher;
 
     /**
      * Log an audit event
-     * Uses separate transaction to ensure audit logging even if main transaction fails
+     * Written to the outbox in the caller's transaction, so it commits (or rolls back) with the change it records
      */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logEvent(AuditEventType eventType, Map<String, Object> eventData) {
-        try {
-            String eventDataJson = objectMapper.writeValueAsString(eventData);
-
-            // Get last entry to chain hashes
-            AuditLog lastEntry = auditLogRepository.findLastEntry().orElse(null);
-            byte[] prevHash = lastEntry != null ? lastEntry.getEntryHash() : null;
+        if (!auditProperties.isEnabled()) {
+            return;
+        }
+        logEvents(List.of(event(eventType, eventData)));
+    }
 
-            // Create new entry
-            AuditLog entry = AuditLog.builder()
-                    .eventType(eventType)
-                    .eventData(eventDataJson)
-                    .prevHash(prevHash)
-                    .signerKeyId(SIGNER_KEY_ID)
-                    .ts(Instant.now())
-                    .build();
+    /**
+     * Log several audit events with one outbox batch insert
+     * In SYNC durability mode, the caller also waits for them to be chained once its transaction commits
+     */
+    public void logEvents(List<AuditEvent> events) {
+        if (!auditProperties.isEnabled() || events.isEmpty()) {
+            return;
+        }
+        List<Long> outboxIds = auditOutboxRepository.insert(events);
+        log.debug("{} audit event(s) written to outbox", events.size());
 
-            // Calculate entry hash
-            byte[] entryHash = calculateEntryHash(entry);
-            entry.setEntryHash(entryHash);
+        afterCommit(auditProperties.getDurability() == AuditProperties.Durability.SYNC
+                ? () -> awaitChained(outboxIds)
+                : auditOutboxChainer::wakeUp);
+    }
 
-            // Sign the entry (simplified - in production use real digital signatures)
-            byte[] signature = signEntry(entry);
-            entry.setSignature(signature);
+    /**
+     * Build an audit event stamped with the current time, in the stream of the election it names
+     */
+    public AuditEvent event(AuditEventType eventType, Map<String, Object> eventData) {
+        try {
+            String eventDataJson = objectMapper.writeValueAsString(eventData);
 
-            // Save
-            auditLogRepository.save(entry);
+            // Microsecond precision: the timestamp is part of the entry hash and must survive the round trip
+            Instant ts = Instant.now().truncatedTo(ChronoUnit.MICROS);
 
-            log.debug("Audit event logged: type={}, id={}", eventType, entry.getId());
+            return new AuditEvent(AuditStreams.of(eventData), eventType, eventDataJson, ts);
 
         } catch (JsonProcessingException e) {
             log.error("Failed to serialize audit event data", e);
@@ -71,6 +90,27 @@ public class AuditService {
         }
     }
 
+    private void awaitChained(List<Long> outboxIds) {
+        // The events are committed either way: a slow chain must not fail the caller's committed work
+        if (!auditOutboxChainer.awaitChained(outboxIds, auditProperties.getSyncTimeoutMs())) {
+            log.warn("{} audit event(s) not chained within {} ms; they stay in the outbox until chained",
+                    outboxIds.size(), auditProperties.getSyncTimeoutMs());
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     /**
      * Convenience method for logging with simple message
      */
@@ -85,86 +125,89 @@ public class AuditService {
     }
 
     /**
-     * Calculate SHA-256 hash of audit entry
+     * Verify integrity of every audit stream's chain
+     * Streams the entries after the last verified one of each stream, then commits to the verified chains
+     *
+     * @param full recheck from the first entries
      */
-    private byte[] calculateEntryHash(AuditLog entry) {
-        StringBuilder dataToHash = new StringBuilder();
-        dataToHash.append(entry.getEventType().name());
-        dataToHash.append("|");
-        dataToHash.append(entry.getEventData());
-        dataToHash.append("|");
-        dataToHash.append(entry.getTs().toString());
-        dataToHash.append("|");
-        if (entry.getPrevHash() != null) {
-            dataToHash.append(bytesToHex(entry.getPrevHash()));
-        }
-
-        return DigestUtils.sha256(dataToHash.toString().getBytes(StandardCharsets.UTF_8));
+    public List<AuditChainVerification> verifyChainIntegrity(boolean full) {
+        return auditChainVerifier.verify(full);
     }
 
     /**
-     * Sign audit entry (simplified implementation)
-     * In production, use proper digital signatures with private key
+     * Verify integrity of one audit stream's chain, without reading other streams
+     *
+     * @param full recheck from the stream's first entry
      */
-    private byte[] signEntry(AuditLog entry) {
-        // Simplified signature: HMAC-SHA256 of entry hash
-        // In production: use Ed25519 or RSA signatures
-        String signatureData = bytesToHex(entry.getEntryHash()) + "|" + entry.getSignerKeyId();
-        return DigestUtils.sha256(signatureData.getBytes(StandardCharsets.UTF_8));
+    public AuditChainVerification verifyStreamIntegrity(String streamKey, boolean full) {
+        return auditChainVerifier.verifyStream(streamKey, full);
     }
 
     /**
-     * Verify integrity of audit log chain
+     * Latest published commitments of a stream whose signature holds, newest first
      */
-    @Transactional(readOnly = true)
-    public boolean verifyChainIntegrity() {
-        var entries = auditLogRepository.findAllByOrderByTsAsc();
-
-        if (entries.isEmpty()) {
-            return true;
-        }
+    public List<Commitment> getCommitments(String streamKey, int limit) {
+        return auditCommitmentRepository.findLatest(streamKey, limit).stream()
+                .filter(commitment -> checkpointSigner.verify(commitment.signedMessage(), commitment.signature()))
+                .toList();
+    }
 
-        byte[] expectedPrevHash = null;
+    /**
+     * Number of entries in a stream's Merkle tree
+     */
+    public long getTreeSize(String streamKey) {
+        return auditMerkleLog.currentSize(streamKey);
+    }
 
-        for (AuditLog entry : entries) {
-            // Verify hash chain
-            if (!entry.isChainValid(expectedPrevHash)) {
-                log.error("Chain integrity violation at entry ID: {}", entry.getId());
-                return false;
-            }
+    /**
+     * Merkle root of a stream at the given size
+     */
+    public byte[] getMerkleRoot(String streamKey, long treeSize) {
+        return auditMerkleLog.root(streamKey, treeSize);
+    }
 
-            // Verify entry hash
-            byte[] calculatedHash = calculateEntryHash(entry);
-            if (!java.util.Arrays.equals(calculatedHash, entry.getEntryHash())) {
-                log.error("Entry hash mismatch at entry ID: {}", entry.getId());
-                return false;
-            }
+    /**
+     * Inclusion proof of an entry in its stream's Merkle tree
+     *
+     * @param treeSize size of the tree to prove against, or null for the current tree
+     */
+    public InclusionProof getInclusionProof(long entryId, Long treeSize) {
+        return auditMerkleLog.inclusionProof(entryId, treeSize);
+    }
 
-            expectedPrevHash = entry.getEntryHash();
-        }
+    /**
+     * Consistency proof between two sizes of a stream's Merkle tree
+     *
+     * @param secondSize larger size, or null for the current tree
+     */
+    public ConsistencyProof getConsistencyProof(String streamKey, long firstSize, Long secondSize) {
+        return auditMerkleLog.consistencyProof(streamKey, firstSize,
+                secondSize != null ? secondSize : auditMerkleLog.currentSize(streamKey));
+    }
 
-        log.info("Audit log chain integrity verified: {} entries", entries.size());
-        return true;
+    /**
+     * One page of an election's audit stream with inclusion proofs
+     *
+     * @param treeSize size of the tree to prove against, or null for the current tree
+     */
+    public StreamTrail getElectionTrail(UUID electionId, Long treeSize, long afterId, int limit) {
+        String streamKey = AuditStreams.election(electionId);
+        return auditMerkleLog.streamTrail(streamKey,
+                treeSize != null ? treeSize : auditMerkleLog.currentSize(streamKey), afterId, limit);
     }
 
     /**
-     * Get current root hash (last entry hash)
+     * Latest signed cross-stream root and the stream heads under it
      */
-    @Transactional(readOnly = true)
-    public String getCurrentRootHash() {
-        return auditLogRepository.findLastEntry()
-                .map(entry -> bytesToHex(entry.getEntryHash()))
-                .orElse(null);
+    public Optional<PublishedRoot> getLatestStreamRoot() {
+        return auditRootPublisher.latest();
     }
 
     /**
-     * Convert bytes to hex string
+     * Get current root hash (cross-stream root over the current stream heads)
      */
-    private String bytesToHex(byte[] bytes) {
-        StringBuilder sb = new StringBuilder();
-        for (byte b : bytes) {
-            sb.append(String.format("%02x", b));
-        }
-        return sb.toString();
+    public String getCurrentRootHash() {
+        byte[] root = AuditRootPublisher.root(auditRootPublisher.currentHeads());
+        return root != null ? Hex.encode(root) : null;
     }
 }
@@ -0,0 +1,43 @@
+package com.votoeletronico.voto.audit;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Stream keys of the audit log.
+ *
+ * Each election's events form their own chain, so elections are written and verified
+ * independently; everything else (auth, admin, voter registry) goes to the system stream.
+ */
+public final class AuditStreams {
+
+    public static final String SYSTEM = "system";
+
+    private static final String ELECTION_PREFIX = "election:";
+
+    private AuditStreams() {
+    }
+
+    public static String election(UUID electionId) {
+        return ELECTION_PREFIX + electionId;
+    }
+
+    /**
+     * Stream of an event: its election's, when the data names one (as electionId, or as
+     * the entity of an Election event), else the system stream
+     */
+    public static String of(Map<String, Object> eventData) {
+        Object electionId = eventData.get("electionId");
+        if (electionId == null && "Election".equals(eventData.get("entityType"))) {
+            electionId = eventData.get("entityId");
+        }
+        if (electionId == null) {
+            return SYSTEM;
+        }
+        try {
+            return election(UUID.fromString(electionId.toString()));
+        } catch (IllegalArgumentException e) {
+            return SYSTEM;
+        }
+    }
+}
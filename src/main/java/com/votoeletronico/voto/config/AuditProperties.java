@@ -0,0 +1,59 @@
+package com.votoeletronico.voto.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Audit log configuration properties.
+ *
+ * Configuration via application.yml under app.audit prefix.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.audit")
+public class AuditProperties {
+
+    /**
+     * Record audit events at all
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum entries chained and inserted per transaction
+     */
+    private int batchSize = 100;
+
+    /**
+     * How often the outbox is polled for events committed on other nodes
+     */
+    private long pollIntervalMs = 200;
+
+    /**
+     * Outbox chainer threads per node; each chains one stream at a time, so different streams are
+     * chained in parallel
+     */
+    private int chainerThreads = 2;
+
+    /**
+     * Whether callers wait for their events to be chained once their transaction commits
+     */
+    private Durability durability = Durability.ASYNC;
+
+    /**
+     * How long a SYNC caller waits for its events to be chained
+     */
+    private long syncTimeoutMs = 5000;
+
+    public enum Durability {
+        /**
+         * Return once the event is committed to the outbox; it is chained shortly after
+         */
+        ASYNC,
+
+        /**
+         * Also wait until the event is chained into the audit log (up to sync-timeout-ms)
+         */
+        SYNC
+    }
+}
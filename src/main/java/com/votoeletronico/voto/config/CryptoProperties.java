@@ -0,0 +1,36 @@
+package com.votoeletronico.voto.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cryptography configuration properties.
+ *
+ * Configuration via application.yml under app.crypto prefix.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.crypto")
+public class CryptoProperties {
+
+    /**
+     * Signature scheme of new elections: Ed25519, SHA256withECDSA or SHA256withRSA.
+     * Existing elections keep the scheme they were created with.
+     */
+    private String signatureAlgorithm = "Ed25519";
+
+    /**
+     * Secret the ballot encryption key and the sealed tally key of each election are derived
+     * from (Base64, at least 32 bytes). Nodes sharing it can encrypt and count each other's
+     * ballots; when unset, each node generates its own random keys per election.
+     */
+    private String ballotKeySecret;
+
+    /**
+     * Secret the key signing verification checkpoints is derived from (Base64, at least 32 bytes).
+     * When unset, each node signs with a random key and only trusts its own checkpoints
+     * until it restarts.
+     */
+    private String checkpointSecret;
+}
@@ -0,0 +1,22 @@
+package com.votoeletronico.voto.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Published results configuration properties.
+ *
+ * Configuration via application.yml under app.results prefix.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.results")
+public class ResultsProperties {
+
+    /**
+     * Directory where rendered result documents are also kept, so a restarted node serves
+     * them without reading the database (unset = memory only)
+     */
+    private String cacheDir;
+}
@@ -0,0 +1,79 @@
+package com.votoeletronico.voto.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tally configuration properties.
+ *
+ * Configuration via application.yml under app.tally prefix.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.tally")
+public class TallyProperties {
+
+    /**
+     * Ballots read, counted and committed per transaction
+     */
+    private int chunkSize = 5000;
+
+    /**
+     * Worker threads decrypting and counting each chunk (1 = sequential on the calling thread)
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Tally jobs a node runs at the same time
+     */
+    private int maxConcurrentJobs = 1;
+
+    /**
+     * How long a node keeps a job without checkpointing before another node may resume it
+     */
+    private long leaseTimeoutMs = 60000;
+
+    /**
+     * How often each node looks for queued or abandoned jobs
+     */
+    private long jobPollIntervalMs = 10000;
+
+    /**
+     * Ballots per partition of a partitioned tally (0 = every job is counted by a single node).
+     * Larger elections are split into ranges of this size that any node holding the
+     * election key can count.
+     */
+    private int partitionSize = 0;
+
+    /**
+     * Partitions a node counts at the same time
+     */
+    private int maxConcurrentPartitions = 1;
+
+    /**
+     * Runs a partition gets before its job fails (each error or lost lease uses one)
+     */
+    private int partitionMaxAttempts = 3;
+
+    /**
+     * How often each node looks for partitions to count, and the job's node merges them
+     */
+    private long partitionPollIntervalMs = 1000;
+
+    /**
+     * Worker threads decrypting ballots during a recount, kept apart from the tally's
+     */
+    private int recountParallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+
+    /**
+     * Upper bound on recount throughput, so a recount on a live system leaves the
+     * database and CPUs to the vote path (0 = unthrottled)
+     */
+    private long recountMaxBallotsPerSecond = 20000;
+
+    /**
+     * Recounts a node runs at the same time
+     */
+    private int maxConcurrentRecounts = 1;
+}
@@ -0,0 +1,38 @@
+package com.votoeletronico.voto.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Chain verification configuration properties.
+ *
+ * Configuration via application.yml under app.verification prefix.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.verification")
+public class VerificationProperties {
+
+    /**
+     * Segments of a ballot chain verified at the same time; each holds a database
+     * connection, so keep it below the connection pool size
+     */
+    private int parallelism = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Ballots per independently verified segment
+     */
+    private int segmentSize = 250000;
+
+    /**
+     * How often chains are verified in the background and checkpointed (0 disables it)
+     */
+    private long checkpointIntervalMs = 60000;
+
+    /**
+     * New ballots an election chain needs since its last checkpoint before the background
+     * checkpointer verifies it again
+     */
+    private long checkpointMinBallots = 10000;
+}
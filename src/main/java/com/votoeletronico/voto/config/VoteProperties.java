@@ -0,0 +1,80 @@
+package com.votoeletronico.voto.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Vote casting configuration properties.
+ *
+ * Configuration via application.yml under app.vote prefix.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.vote")
+public class VoteProperties {
+
+    /**
+     * Token validity window in minutes
+     */
+    private int tokenExpirationMinutes = 30;
+
+    /**
+     * Upper bound of ballots accepted per election
+     */
+    private long maxVotesPerElection = 100000;
+
+    /**
+     * How long a node serves a cached RUNNING election snapshot before reloading it.
+     * Bounds how long nodes other than the one that closed an election keep seeing it open.
+     */
+    private long snapshotTtlMs = 5000;
+
+    /**
+     * Group-commit settings for the ballot append pipeline
+     */
+    private GroupCommit groupCommit = new GroupCommit();
+
+    /**
+     * Online conversion of legacy text ballots to binary columns
+     */
+    private Backfill backfill = new Backfill();
+
+    @Data
+    public static class GroupCommit {
+
+        /**
+         * Coalesce concurrent votes of the same election into one transaction (opt-in)
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum ballots committed together
+         */
+        private int maxBatchSize = 64;
+
+        /**
+         * Maximum time the first ballot of a batch waits for others to join
+         */
+        private long maxLingerMs = 5;
+    }
+
+    @Data
+    public static class Backfill {
+
+        /**
+         * Run the backfill in the background after startup (one-off, for databases with ballots cast before V7)
+         */
+        private boolean enabled = false;
+
+        /**
+         * Ballots converted per transaction
+         */
+        private int batchSize = 1000;
+
+        /**
+         * Pause between batches, to leave room for live traffic
+         */
+        private long pauseMs = 50;
+    }
+}
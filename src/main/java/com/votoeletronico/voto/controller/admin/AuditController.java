@@ -1,9 +1,18 @@
 package com.votoeletronico.voto.controller.admin;
 
+import com.votoeletronico.voto.audit.AuditChainVerification;
 import com.votoeletronico.voto.audit.AuditService;
+import com.votoeletronico.voto.audit.AuditStreams;
 import com.votoeletronico.voto.domain.audit.AuditLog;
+import com.votoeletronico.voto.dto.response.AuditCommitmentResponse;
+import com.votoeletronico.voto.dto.response.AuditConsistencyProofResponse;
+import com.votoeletronico.voto.dto.response.AuditInclusionProofResponse;
 import com.votoeletronico.voto.dto.response.AuditLogResponse;
+import com.votoeletronico.voto.dto.response.AuditStreamRootResponse;
+import com.votoeletronico.voto.dto.response.AuditTrailResponse;
+import com.votoeletronico.voto.exception.ResourceNotFoundException;
 import com.votoeletronico.voto.repository.AuditLogRepository;
+import com.votoeletronico.voto.service.crypto.Hex;
 import com.votoeletronico.voto.service.mapper.AuditLogMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,10 +22,15 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/audit")
@@ -24,6 +38,9 @@ import java.util.Map;
 @Tag(name = "Audit", description = "System Audit Logs")
 public class AuditController {
 
+    private static final int MAX_COMMITMENTS = 100;
+    private static final int MAX_TRAIL_ENTRIES = 5000;
+
     private final AuditService auditService;
     private final AuditLogRepository auditLogRepository;
     private final AuditLogMapper auditLogMapper;
@@ -37,19 +54,128 @@ public class AuditController {
     }
 
     @GetMapping("/commitment")
-    @Operation(summary = "Get current root hash", description = "Get the latest hash of the audit chain")
-    public ResponseEntity<Map<String, String>> getCommitment() {
+    @Operation(summary = "Get current root hash",
+            description = "Get the cross-stream root over all audit streams, and the Merkle tree size and root of "
+                    + "one stream: the election's with electionId, else the system stream")
+    public ResponseEntity<Map<String, Object>> getCommitment(@RequestParam(required = false) UUID electionId) {
+        String streamKey = streamOf(electionId);
         String rootHash = auditService.getCurrentRootHash();
-        return ResponseEntity.ok(Map.of("rootHash", rootHash != null ? rootHash : ""));
+        long treeSize = auditService.getTreeSize(streamKey);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("rootHash", rootHash != null ? rootHash : "");
+        body.put("streamKey", streamKey);
+        body.put("treeSize", treeSize);
+        body.put("merkleRoot", treeSize > 0 ? Hex.encode(auditService.getMerkleRoot(streamKey, treeSize)) : "");
+        return ResponseEntity.ok(body);
+    }
+
+    @GetMapping("/stream-root")
+    @Operation(summary = "Get the latest cross-stream root",
+            description = "Latest signed root binding the heads of all audit streams, with the heads under it")
+    public ResponseEntity<AuditStreamRootResponse> getStreamRoot() {
+        return ResponseEntity.ok(auditService.getLatestStreamRoot()
+                .map(AuditStreamRootResponse::of)
+                .orElseThrow(() -> new ResourceNotFoundException("No cross-stream audit root has been published")));
+    }
+
+    @GetMapping("/commitments")
+    @Operation(summary = "List published commitments",
+            description = "Latest signed commitments to a verified audit stream (the election's with electionId, "
+                    + "else the system stream), newest first")
+    public ResponseEntity<List<AuditCommitmentResponse>> getCommitments(
+            @RequestParam(required = false) UUID electionId,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(auditService.getCommitments(streamOf(electionId), clamp(limit, MAX_COMMITMENTS)).stream()
+                .map(AuditCommitmentResponse::of)
+                .toList());
+    }
+
+    @GetMapping("/entries/{entryId}/proof")
+    @Operation(summary = "Get inclusion proof",
+            description = "RFC 6962 audit path of an entry in its stream's Merkle tree at treeSize (default: current)")
+    public ResponseEntity<AuditInclusionProofResponse> getInclusionProof(
+            @PathVariable long entryId,
+            @RequestParam(required = false) Long treeSize) {
+        return ResponseEntity.ok(AuditInclusionProofResponse.of(auditService.getInclusionProof(entryId, treeSize)));
+    }
+
+    @GetMapping("/consistency")
+    @Operation(summary = "Get consistency proof",
+            description = "RFC 6962 proof that an audit stream's Merkle tree (the election's with electionId, else "
+                    + "the system stream) at firstSize is a prefix of its tree at secondSize (default: current)")
+    public ResponseEntity<AuditConsistencyProofResponse> getConsistencyProof(
+            @RequestParam(required = false) UUID electionId,
+            @RequestParam long firstSize,
+            @RequestParam(required = false) Long secondSize) {
+        return ResponseEntity.ok(AuditConsistencyProofResponse.of(
+                auditService.getConsistencyProof(streamOf(electionId), firstSize, secondSize)));
+    }
+
+    @GetMapping("/elections/{electionId}/trail")
+    @Operation(summary = "Get an election's audit trail",
+            description = "Entries of an election's audit stream, each with its inclusion proof against the "
+                    + "stream's Merkle root at treeSize (default: current); page with afterId")
+    @PreAuthorize("hasAnyRole('ADMIN', 'AUDITOR')")
+    public ResponseEntity<AuditTrailResponse> getElectionTrail(
+            @PathVariable UUID electionId,
+            @RequestParam(required = false) Long treeSize,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(AuditTrailResponse.of(
+                auditService.getElectionTrail(electionId, treeSize, afterId, clamp(limit, MAX_TRAIL_ENTRIES))));
+    }
+
+    @GetMapping("/elections/{electionId}/verify-chain")
+    @Operation(summary = "Verify an election's chain integrity",
+            description = "Verifies the chain of an election's audit stream only, after its last signed commitment, "
+                    + "or from its first entry with full=true")
+    @PreAuthorize("hasAnyRole('ADMIN', 'AUDITOR')")
+    public ResponseEntity<Map<String, Object>> verifyElectionChain(
+            @PathVariable UUID electionId,
+            @RequestParam(defaultValue = "false") boolean full) {
+        Map<String, Object> body = toBody(auditService.verifyStreamIntegrity(AuditStreams.election(electionId), full));
+        body.put("timestamp", java.time.Instant.now());
+        return ResponseEntity.ok(body);
     }
 
     @GetMapping("/verify-chain")
-    @Operation(summary = "Verify chain integrity", description = "Verifies the cryptographic integrity of the audit log chain")
+    @Operation(summary = "Verify chain integrity",
+            description = "Verifies the cryptographic integrity of every audit stream's chain after its last signed "
+                    + "commitment, or from its first entry with full=true")
     @PreAuthorize("hasAnyRole('ADMIN', 'AUDITOR')")
-    public ResponseEntity<Map<String, Object>> verifyChain() {
-        boolean valid = auditService.verifyChainIntegrity();
-        return ResponseEntity.ok(Map.of(
-                "valid", valid,
-                "timestamp", java.time.Instant.now()));
+    public ResponseEntity<Map<String, Object>> verifyChain(@RequestParam(defaultValue = "false") boolean full) {
+        List<AuditChainVerification> verifications = auditService.verifyChainIntegrity(full);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("valid", verifications.stream().allMatch(AuditChainVerification::valid));
+        body.put("entriesVerified", verifications.stream().mapToLong(AuditChainVerification::entriesVerified).sum());
+        body.put("durationMillis", verifications.stream().mapToLong(AuditChainVerification::durationMillis).sum());
+        body.put("streams", verifications.stream().map(AuditController::toBody).toList());
+        body.put("timestamp", java.time.Instant.now());
+        return ResponseEntity.ok(body);
+    }
+
+    private static Map<String, Object> toBody(AuditChainVerification verification) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("streamKey", verification.streamKey());
+        body.put("valid", verification.valid());
+        body.put("afterId", verification.afterId());
+        body.put("entriesVerified", verification.entriesVerified());
+        body.put("lastVerifiedId", verification.lastVerifiedId());
+        if (!verification.valid()) {
+            body.put("firstBrokenId", verification.firstBrokenId());
+            body.put("reason", verification.reason());
+        }
+        body.put("durationMillis", verification.durationMillis());
+        return body;
+    }
+
+    private static String streamOf(UUID electionId) {
+        return electionId != null ? AuditStreams.election(electionId) : AuditStreams.SYSTEM;
+    }
+
+    private static int clamp(int limit, int max) {
+        return Math.max(1, Math.min(limit, max));
     }
 }
@@ -1,9 +1,15 @@
 package com.votoeletronico.voto.controller.admin;
 
 import com.votoeletronico.voto.domain.results.ElectionResult;
+import com.votoeletronico.voto.domain.results.RecountJob;
+import com.votoeletronico.voto.domain.results.TallyJob;
 import com.votoeletronico.voto.dto.response.ElectionResultResponse;
+import com.votoeletronico.voto.dto.response.RecountJobResponse;
+import com.votoeletronico.voto.dto.response.TallyJobResponse;
 import com.votoeletronico.voto.service.TallyService;
 import com.votoeletronico.voto.service.mapper.ElectionResultMapper;
+import com.votoeletronico.voto.service.tally.RecountService;
+import com.votoeletronico.voto.service.tally.TallyJobRunner;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -11,7 +17,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @RestController
@@ -22,12 +30,15 @@ import java.util.UUID;
 public class TallyController {
 
     private final TallyService tallyService;
+    private final TallyJobRunner tallyJobRunner;
+    private final RecountService recountService;
     private final ElectionResultMapper electionResultMapper;
 
     @PostMapping("/{id}/tally")
-    @Operation(summary = "Start election tally", description = "Decrypts votes and calculates results. Election must be CLOSED.")
+    @Operation(summary = "Start election tally", description = "Queues a background job that decrypts votes and calculates results. "
+            + "Election must be CLOSED. A failed tally is resumed from its last checkpoint.")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ElectionResultResponse> startTally(
+    public ResponseEntity<TallyJobResponse> startTally(
             @PathVariable UUID id,
             Authentication authentication) {
         // In a real scenario, we'd extract user ID from authentication
@@ -35,8 +46,27 @@ public class TallyController {
         // UserDetails structure
         UUID userId = UUID.randomUUID();
 
-        ElectionResult result = tallyService.performTally(id, userId);
-        return ResponseEntity.ok(electionResultMapper.toResponse(result));
+        TallyJob job = tallyJobRunner.startTally(id, userId);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/jobs/{jobId}")
+                        .buildAndExpand(job.id())
+                        .toUri())
+                .body(TallyJobResponse.of(job, Instant.now()));
+    }
+
+    @GetMapping("/{id}/tally")
+    @Operation(summary = "Get tally progress", description = "Progress of the election's tally job")
+    public ResponseEntity<TallyJobResponse> getTallyProgress(@PathVariable UUID id) {
+        TallyJob job = tallyService.getLatestTallyJob(id);
+        return ResponseEntity.ok(TallyJobResponse.of(job, Instant.now()));
+    }
+
+    @GetMapping("/{id}/tally/jobs/{jobId}")
+    @Operation(summary = "Get tally job progress", description = "Ballots per second, percentage done and ETA of a tally job")
+    public ResponseEntity<TallyJobResponse> getTallyJob(@PathVariable UUID id, @PathVariable UUID jobId) {
+        TallyJob job = tallyService.getTallyJob(id, jobId);
+        return ResponseEntity.ok(TallyJobResponse.of(job, Instant.now()));
     }
 
     @GetMapping("/{id}/results")
@@ -46,6 +76,32 @@ public class TallyController {
         return ResponseEntity.ok(electionResultMapper.toResponse(result));
     }
 
+    @PostMapping("/{id}/results/recount")
+    @Operation(summary = "Recount election results", description = "Starts a background job that decrypts and counts every ballot "
+            + "again, rebuilds the Merkle root and results hash, and reports any difference with the stored result. "
+            + "Read-only and throttled.")
+    public ResponseEntity<RecountJobResponse> recount(@PathVariable UUID id) {
+        RecountJob job = recountService.startRecount(id, null);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/jobs/{jobId}")
+                        .buildAndExpand(job.id())
+                        .toUri())
+                .body(RecountJobResponse.of(job));
+    }
+
+    @GetMapping("/{id}/results/recount")
+    @Operation(summary = "Get recount progress", description = "Progress, then report, of the election's latest recount")
+    public ResponseEntity<RecountJobResponse> getLatestRecount(@PathVariable UUID id) {
+        return ResponseEntity.ok(RecountJobResponse.of(recountService.getLatestRecountJob(id)));
+    }
+
+    @GetMapping("/{id}/results/recount/jobs/{jobId}")
+    @Operation(summary = "Get recount job", description = "Progress of a recount and, once completed, its comparison with the stored result")
+    public ResponseEntity<RecountJobResponse> getRecountJob(@PathVariable UUID id, @PathVariable UUID jobId) {
+        return ResponseEntity.ok(RecountJobResponse.of(recountService.getRecountJob(id, jobId)));
+    }
+
     @PostMapping("/{id}/results/publish")
     @Operation(summary = "Publish election results", description = "Make results public")
     @PreAuthorize("hasRole('ADMIN')")
@@ -12,18 +12,27 @@ import com.votoeletronico.voto.service.CandidateService;
 import com.votoeletronico.voto.service.ElectionService;
 import com.votoeletronico.voto.service.TallyService;
 import com.votoeletronico.voto.service.mapper.ElectionResultMapper;
+import com.votoeletronico.voto.service.results.PublishedResult;
+import com.votoeletronico.voto.service.results.PublishedResultCache;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Candidate Portal Controller
@@ -41,6 +50,7 @@ public class CandidatePortalController {
     private final AuthenticationService authenticationService;
     private final TallyService tallyService;
     private final ElectionResultMapper resultMapper;
+    private final PublishedResultCache publishedResultCache;
 
     @Operation(summary = "Get my candidacies", description = "Get all elections I'm registered for")
     @GetMapping("/elections")
@@ -92,11 +102,26 @@ public class CandidatePortalController {
         return ResponseEntity.ok(response);
     }
 
-    @Operation(summary = "Get election results", description = "Get results for an election (after tally)")
+    @Operation(summary = "Get election results", description = "Get results for an election (after tally). "
+            + "Once published they are served from the rendered cache with a strong ETag.")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ElectionResultResponse.class)))
     @GetMapping("/elections/{electionId}/results")
-    public ResponseEntity<ElectionResultResponse> getElectionResults(@PathVariable UUID electionId) {
-        var result = tallyService.getResults(electionId);
-        return ResponseEntity.ok(resultMapper.toResponse(result));
+    public ResponseEntity<?> getElectionResults(@PathVariable UUID electionId, WebRequest request) {
+        PublishedResult document = publishedResultCache.find(electionId).orElse(null);
+        if (document == null) {
+            // Not published yet: still changing, so read through
+            var result = tallyService.getResults(electionId);
+            return ResponseEntity.ok(resultMapper.toResponse(result));
+        }
+        if (request.checkNotModified(document.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(document.etag())
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(document.body());
     }
 
     @Operation(summary = "Get my stats", description = "Get my voting statistics for an election")
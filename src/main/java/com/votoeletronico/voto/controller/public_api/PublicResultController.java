@@ -1,19 +1,25 @@
 package com.votoeletronico.voto.controller.public_api;
 
-import com.votoeletronico.voto.domain.results.ElectionResult;
 import com.votoeletronico.voto.dto.response.ElectionResultResponse;
-import com.votoeletronico.voto.service.TallyService;
-import com.votoeletronico.voto.service.mapper.ElectionResultMapper;
+import com.votoeletronico.voto.service.results.PublishedResult;
+import com.votoeletronico.voto.service.results.PublishedResultCache;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/public/elections")
@@ -21,18 +27,26 @@ import java.util.UUID;
 @Tag(name = "Public Results", description = "Public Election Results")
 public class PublicResultController {
 
-    private final TallyService tallyService;
-    private final ElectionResultMapper electionResultMapper;
+    private final PublishedResultCache publishedResultCache;
 
     @GetMapping("/{id}/results")
-    @Operation(summary = "Get public election results", description = "Get results if they have been published")
-    public ResponseEntity<ElectionResultResponse> getPublicResults(@PathVariable UUID id) {
-        ElectionResult result = tallyService.getResults(id);
-
-        if (!result.getPublished()) {
+    @Operation(summary = "Get public election results", description = "Get results if they have been published. "
+            + "Published results never change: responses carry a strong ETag and are immutable, and a matching "
+            + "If-None-Match gets 304 Not Modified.")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ElectionResultResponse.class)))
+    public ResponseEntity<byte[]> getPublicResults(@PathVariable UUID id, WebRequest request) {
+        PublishedResult document = publishedResultCache.find(id).orElse(null);
+        if (document == null) {
             return ResponseEntity.notFound().build();
         }
-
-        return ResponseEntity.ok(electionResultMapper.toResponse(result));
+        if (request.checkNotModified(document.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(document.etag())
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(document.body());
     }
 }
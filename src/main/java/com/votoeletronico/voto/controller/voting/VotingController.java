@@ -2,15 +2,21 @@ package com.votoeletronico.voto.controller.voting;
 
 import com.votoeletronico.voto.domain.voting.EncryptedBallot;
 import com.votoeletronico.voto.dto.request.CastAbstentionRequest;
+import com.votoeletronico.voto.exception.ResourceNotFoundException;
 import com.votoeletronico.voto.dto.request.CastVoteRequest;
 import com.votoeletronico.voto.dto.request.TokenRequest;
 import com.votoeletronico.voto.dto.response.BallotVerificationResponse;
+import com.votoeletronico.voto.dto.response.MerkleProofResponse;
 import com.votoeletronico.voto.dto.response.TokenResponse;
 import com.votoeletronico.voto.dto.response.VoteReceiptResponse;
 import com.votoeletronico.voto.dto.response.VotingStatsResponse;
 import com.votoeletronico.voto.service.TokenService;
 import com.votoeletronico.voto.service.VotingService;
 import com.votoeletronico.voto.service.crypto.CryptoService;
+import com.votoeletronico.voto.service.crypto.Hex;
+import com.votoeletronico.voto.service.merkle.BallotMerkleService;
+import com.votoeletronico.voto.service.merkle.MerkleProof;
+import com.votoeletronico.voto.service.voting.ChainVerification;
 import com.votoeletronico.voto.domain.voting.BlindToken;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -25,6 +31,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
 
@@ -41,6 +48,7 @@ public class VotingController {
     private final TokenService tokenService;
     private final VotingService votingService;
     private final CryptoService cryptoService;
+    private final BallotMerkleService ballotMerkleService;
 
     @Operation(
             summary = "Request a blind token",
@@ -76,6 +84,7 @@ public class VotingController {
                 token.getSignature(),
                 token.getNonce(),
                 publicKey,
+                tokenService.getElectionSignatureAlgorithm(electionId),
                 token.getTokenValue()
         );
 
@@ -115,7 +124,7 @@ public class VotingController {
 
         VoteReceiptResponse response = new VoteReceiptResponse(
                 ballot.getId(),
-                ballot.getBallotHash(),
+                Hex.encode(ballot.getBallotHash()),
                 ballot.getCastAt(),
                 ballot.getVerificationSignature()
         );
@@ -154,7 +163,7 @@ public class VotingController {
 
         VoteReceiptResponse response = new VoteReceiptResponse(
                 ballot.getId(),
-                ballot.getBallotHash(),
+                Hex.encode(ballot.getBallotHash()),
                 ballot.getCastAt(),
                 ballot.getVerificationSignature()
         );
@@ -175,7 +184,14 @@ public class VotingController {
             @Parameter(description = "Ballot hash from your receipt")
             @PathVariable String ballotHash) {
 
-        var ballot = votingService.getBallotByHash(ballotHash);
+        byte[] hash;
+        try {
+            hash = Hex.decode(ballotHash);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.ok(BallotVerificationResponse.notFound());
+        }
+
+        var ballot = votingService.getBallotByHash(hash);
 
         if (ballot.isEmpty()) {
             return ResponseEntity.ok(BallotVerificationResponse.notFound());
@@ -190,12 +206,40 @@ public class VotingController {
 
         BallotVerificationResponse response = BallotVerificationResponse.found(
                 found.getCastAt(),
-                found.getTallied()
+                votingService.isTallied(found)
         );
 
         return ResponseEntity.ok(response);
     }
 
+    @Operation(
+            summary = "Get Merkle inclusion proof",
+            description = """
+                    Get the audit path proving that your ballot is one of the leaves of the Merkle tree
+                    whose root is published with the results. Available once the election is tallied.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Proof returned"),
+            @ApiResponse(responseCode = "404", description = "Ballot not found or election not tallied yet")
+    })
+    @GetMapping("/proof/{ballotHash}")
+    public ResponseEntity<MerkleProofResponse> getInclusionProof(
+            @PathVariable UUID electionId,
+            @Parameter(description = "Ballot hash from your receipt")
+            @PathVariable String ballotHash) {
+
+        byte[] hash;
+        try {
+            hash = Hex.decode(ballotHash);
+        } catch (IllegalArgumentException e) {
+            throw new ResourceNotFoundException("Ballot", "hash", ballotHash);
+        }
+
+        MerkleProof proof = ballotMerkleService.getProof(electionId, hash);
+        return ResponseEntity.ok(MerkleProofResponse.of(electionId, hash, proof));
+    }
+
     @Operation(
             summary = "Get voting statistics",
             description = "Get public statistics about voting progress (admin/auditor only)"
@@ -221,17 +265,31 @@ public class VotingController {
 
     @Operation(
             summary = "Verify ballot chain integrity",
-            description = "Verify the integrity of the ballot hash chain (admin/auditor only)"
+            description = "Recompute every ballot hash and check every link of the ballot hash chain "
+                    + "after the last signed checkpoint (or from the first ballot with full=true); "
+                    + "reports the first broken sequence number (admin/auditor only)"
     )
     @GetMapping("/verify-chain")
     @PreAuthorize("hasAnyRole('ADMIN', 'AUDITOR')")
-    public ResponseEntity<Map<String, Object>> verifyChain(@PathVariable UUID electionId) {
-        boolean valid = votingService.verifyBallotChain(electionId);
-
-        return ResponseEntity.ok(Map.of(
-                "electionId", electionId,
-                "chainValid", valid,
-                "message", valid ? "Ballot chain is valid" : "Ballot chain integrity check failed"
-        ));
+    public ResponseEntity<Map<String, Object>> verifyChain(
+            @PathVariable UUID electionId,
+            @Parameter(description = "Recheck from the first ballot, ignoring checkpoints")
+            @RequestParam(defaultValue = "false") boolean full) {
+        ChainVerification verification = votingService.verifyBallotChain(electionId, full);
+        boolean valid = verification.valid();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("electionId", electionId);
+        body.put("chainValid", valid);
+        body.put("message", valid ? "Ballot chain is valid" : "Ballot chain integrity check failed");
+        body.put("fromSeq", verification.fromSeq());
+        body.put("ballotsVerified", verification.ballotsVerified());
+        body.put("lastSeq", verification.lastSeq());
+        if (!valid) {
+            body.put("firstBrokenSeq", verification.firstBrokenSeq());
+            body.put("reason", verification.reason());
+        }
+        body.put("durationMillis", verification.durationMillis());
+        return ResponseEntity.ok(body);
     }
 }
@@ -31,6 +31,11 @@ public class AuditLog {
     @Column(name = "id")
     private Long id;
 
+    @NotNull
+    @Column(name = "stream_key", nullable = false, length = 100)
+    @Builder.Default
+    private String streamKey = "system";
+
     @NotNull
     @Enumerated(EnumType.STRING)
     @Column(name = "event_type", nullable = false, length = 100)
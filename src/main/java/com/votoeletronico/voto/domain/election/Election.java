@@ -7,6 +7,7 @@ import lombok.*;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
 
@@ -65,6 +66,21 @@ public class Election extends BaseEntity {
     @Column(name = "created_by")
     private UUID createdBy;
 
+    /**
+     * Signature scheme of the election's tokens and ballots (see SignatureSchemes)
+     */
+    @NotBlank
+    @Column(name = "signature_algorithm", nullable = false, length = 30, updatable = false)
+    @Builder.Default
+    private String signatureAlgorithm = "Ed25519";
+
+    /**
+     * Keep an encrypted running tally while voting (see SealedTallyService)
+     */
+    @Column(name = "sealed_tally", nullable = false, updatable = false)
+    @Builder.Default
+    private Boolean sealedTally = false;
+
     @OneToMany(mappedBy = "election", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @Builder.Default
     private List<Candidate> candidates = new ArrayList<>();
@@ -99,6 +115,13 @@ public class Election extends BaseEntity {
         return this.status == ElectionStatus.CANCELLED;
     }
 
+    /**
+     * Check if election keeps a sealed running tally
+     */
+    public boolean isSealedTally() {
+        return Boolean.TRUE.equals(this.sealedTally);
+    }
+
     /**
      * Check if election can be modified
      * Only DRAFT elections can be modified
@@ -136,6 +159,16 @@ public class Election extends BaseEntity {
         return !now.isBefore(startTs) && now.isBefore(endTs);
     }
 
+    /**
+     * Get candidates sorted by ballot number
+     * The position in this list is the candidate ordinal stored in binary ballots
+     */
+    public List<Candidate> getCandidatesInBallotOrder() {
+        List<Candidate> ordered = new ArrayList<>(candidates);
+        ordered.sort(Comparator.comparing(Candidate::getBallotNumber));
+        return ordered;
+    }
+
     /**
      * Add a candidate to this election
      */
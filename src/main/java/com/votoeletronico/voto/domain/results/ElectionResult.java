@@ -184,6 +184,17 @@ public class ElectionResult extends BaseEntity {
         this.notes = reason;
     }
 
+    /**
+     * Put a failed tally back in progress (its job resumes from the last checkpoint)
+     */
+    public void resumeTally() {
+        if (status != TallyStatus.FAILED) {
+            throw new IllegalStateException("Only a failed tally can be resumed");
+        }
+        this.status = TallyStatus.IN_PROGRESS;
+        this.notes = null;
+    }
+
     /**
      * Publish results
      */
@@ -0,0 +1,33 @@
+package com.votoeletronico.voto.domain.results;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Background recount of a tallied election.
+ * The report is only present once the recount completed.
+ */
+public record RecountJob(
+        UUID id,
+        UUID electionId,
+        TallyJobStatus status,
+        UUID requestedBy,
+        String error,
+        long totalBallots,
+        long processedBallots,
+        RecountReport report,
+        Instant createdAt,
+        Instant updatedAt,
+        Instant completedAt
+) {
+
+    /**
+     * Share of the ballots recounted so far, from 0 to 100
+     */
+    public double percentDone() {
+        if (status == TallyJobStatus.COMPLETED || totalBallots == 0) {
+            return status == TallyJobStatus.COMPLETED ? 100.0 : 0.0;
+        }
+        return Math.min(100.0, processedBallots * 100.0 / totalBallots);
+    }
+}
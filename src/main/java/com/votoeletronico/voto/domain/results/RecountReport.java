@@ -0,0 +1,40 @@
+package com.votoeletronico.voto.domain.results;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of an independent recount of an election, compared with its stored result
+ *
+ * @param differences one entry per field whose recounted value differs from the stored one
+ */
+public record RecountReport(
+        UUID electionId,
+        long ballotsRecounted,
+        long durationMillis,
+        long validVotes,
+        long abstentions,
+        long invalidVotes,
+        String merkleRoot,
+        String resultsHash,
+        List<CandidateCount> candidates,
+        List<Difference> differences
+) {
+
+    public boolean matches() {
+        return differences.isEmpty();
+    }
+
+    /**
+     * Stored and recounted votes of one candidate
+     */
+    public record CandidateCount(UUID candidateId, String candidateName, Integer ballotNumber,
+                                 long storedVotes, long recountedVotes) {
+    }
+
+    /**
+     * A field whose recounted value does not match the stored result
+     */
+    public record Difference(String field, String stored, String recounted) {
+    }
+}
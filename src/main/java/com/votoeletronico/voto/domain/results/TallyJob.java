@@ -0,0 +1,80 @@
+package com.votoeletronico.voto.domain.results;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Background tally of an election, with its last checkpoint.
+ * Ballots up to lastSeq are already counted in the checkpoint counters.
+ */
+public record TallyJob(
+        UUID id,
+        UUID electionId,
+        UUID electionResultId,
+        TallyJobStatus status,
+        UUID requestedBy,
+        int attempts,
+        String error,
+        long totalBallots,
+        long lastSeq,
+        long[] candidateVotes,
+        long validVotes,
+        long abstentions,
+        long invalidVotes,
+        String owner,
+        Instant leaseExpiresAt,
+        Instant runStartedAt,
+        long runStartBallots,
+        Instant createdAt,
+        Instant checkpointedAt,
+        Instant completedAt
+) {
+
+    /**
+     * Ballots counted so far
+     */
+    public long processedBallots() {
+        return validVotes + abstentions + invalidVotes;
+    }
+
+    /**
+     * Share of the ballots counted so far, from 0 to 100
+     */
+    public double percentDone() {
+        if (status == TallyJobStatus.COMPLETED || totalBallots == 0) {
+            return status == TallyJobStatus.COMPLETED ? 100.0 : 0.0;
+        }
+        return Math.min(100.0, processedBallots() * 100.0 / totalBallots);
+    }
+
+    /**
+     * Counting throughput of the current (or last) run
+     */
+    public double ballotsPerSecond(Instant now) {
+        if (runStartedAt == null) {
+            return 0.0;
+        }
+        Instant end = status == TallyJobStatus.RUNNING ? now
+                : completedAt != null ? completedAt
+                : checkpointedAt != null ? checkpointedAt : now;
+        double seconds = Duration.between(runStartedAt, end).toMillis() / 1000.0;
+        long counted = processedBallots() - runStartBallots;
+        return seconds > 0 && counted > 0 ? counted / seconds : 0.0;
+    }
+
+    /**
+     * Estimated time to count the remaining ballots at the current throughput (null when unknown)
+     */
+    public Duration eta(Instant now) {
+        if (status != TallyJobStatus.RUNNING) {
+            return status == TallyJobStatus.COMPLETED ? Duration.ZERO : null;
+        }
+        double rate = ballotsPerSecond(now);
+        if (rate <= 0) {
+            return null;
+        }
+        long remaining = Math.max(0, totalBallots - processedBallots());
+        return Duration.ofMillis((long) (remaining / rate * 1000));
+    }
+}
@@ -0,0 +1,33 @@
+package com.votoeletronico.voto.domain.results;
+
+/**
+ * Status of a background tally job
+ */
+public enum TallyJobStatus {
+    /**
+     * Waiting for a node to pick it up
+     */
+    QUEUED,
+
+    /**
+     * Being counted by the node holding the lease
+     */
+    RUNNING,
+
+    /**
+     * Results saved
+     */
+    COMPLETED,
+
+    /**
+     * Stopped on an error; can be re-queued and resumes from its last checkpoint
+     */
+    FAILED;
+
+    /**
+     * Check if the job still has work to do
+     */
+    public boolean isActive() {
+        return this == QUEUED || this == RUNNING;
+    }
+}
@@ -0,0 +1,44 @@
+package com.votoeletronico.voto.domain.results;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Range of ballot sequence numbers of a partitioned tally job.
+ * The counters cover the whole range once the partition is completed, and are empty before.
+ */
+public record TallyPartition(
+        UUID jobId,
+        int partitionNo,
+        UUID electionId,
+        long fromSeq,
+        long toSeq,
+        TallyJobStatus status,
+        int attempts,
+        String error,
+        String owner,
+        Instant leaseExpiresAt,
+        long[] candidateVotes,
+        long validVotes,
+        long abstentions,
+        long invalidVotes,
+        Instant completedAt
+) {
+
+    /**
+     * Number of ballots in the range
+     */
+    public long size() {
+        return toSeq - fromSeq + 1;
+    }
+
+    /**
+     * Check if the partition ran out of attempts without being counted
+     */
+    public boolean isExhausted(Instant now, int maxAttempts) {
+        if (status == TallyJobStatus.COMPLETED || attempts < maxAttempts) {
+            return false;
+        }
+        return status == TallyJobStatus.QUEUED || (leaseExpiresAt != null && leaseExpiresAt.isBefore(now));
+    }
+}
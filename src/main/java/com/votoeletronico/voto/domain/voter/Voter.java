@@ -1,12 +1,14 @@
 package com.votoeletronico.voto.domain.voter;
 
 import com.votoeletronico.voto.domain.election.Election;
+import com.votoeletronico.voto.service.crypto.Digests;
+import com.votoeletronico.voto.service.crypto.Hex;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
-import org.apache.commons.codec.digest.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -190,7 +192,7 @@ public class Voter {
      * Hash a string using SHA-256
      */
     private static String hashSHA256(String input) {
-        return DigestUtils.sha256Hex(input.toLowerCase().trim());
+        return Hex.encode(Digests.sha256(input.toLowerCase().trim().getBytes(StandardCharsets.UTF_8)));
     }
 
     /**
@@ -0,0 +1,91 @@
+package com.votoeletronico.voto.domain.voting;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Tail of an election's ballot chain.
+ * One row per election; appenders lock it to obtain the next sequence number
+ * and the predecessor hash, so the chain cannot fork across threads or nodes.
+ */
+@Entity
+@Table(name = "ballot_chain_heads")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BallotChainHead {
+
+    @Id
+    @Column(name = "election_id", updatable = false, nullable = false)
+    private UUID electionId;
+
+    /**
+     * Sequence number of the last appended ballot (0 when the chain is empty)
+     */
+    @Column(name = "last_seq", nullable = false)
+    @NotNull
+    @Builder.Default
+    private Long lastSeq = 0L;
+
+    /**
+     * Hash of the last appended ballot (null when the chain is empty)
+     */
+    @Column(name = "last_ballot_hash", length = 32)
+    private byte[] lastBallotHash;
+
+    /**
+     * Set when the election stops accepting votes (closed or cancelled)
+     */
+    @Column(name = "sealed", nullable = false)
+    @NotNull
+    @Builder.Default
+    private Boolean sealed = false;
+
+    @Column(name = "updated_at", nullable = false)
+    @NotNull
+    @Builder.Default
+    private Instant updatedAt = Instant.now();
+
+    /**
+     * Sequence number the next ballot will take
+     */
+    public long nextSeq() {
+        return lastSeq + 1;
+    }
+
+    /**
+     * Check if the chain still accepts ballots
+     */
+    public boolean isSealed() {
+        return Boolean.TRUE.equals(sealed);
+    }
+
+    /**
+     * Stop accepting ballots on this chain
+     */
+    public void seal() {
+        this.sealed = true;
+        this.updatedAt = Instant.now();
+    }
+
+    /**
+     * Move the tail to a newly appended ballot
+     */
+    public void advance(long seq, byte[] ballotHash) {
+        if (isSealed()) {
+            throw new IllegalStateException("Ballot chain is sealed");
+        }
+        if (seq != nextSeq()) {
+            throw new IllegalStateException("Ballot chain out of order: expected seq " + nextSeq() + " but got " + seq);
+        }
+        this.lastSeq = seq;
+        this.lastBallotHash = ballotHash;
+        this.updatedAt = Instant.now();
+    }
+}
@@ -4,6 +4,7 @@ import com.votoeletronico.voto.domain.election.Election;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.ColumnTransformer;
 
 import java.time.Instant;
 import java.util.UUID;
@@ -12,13 +13,20 @@ import java.util.UUID;
  * Represents an encrypted vote ballot.
  * This table is append-only (enforced by DB trigger) to ensure audit trail integrity.
  * Votes are encrypted and cannot be linked to voter identity.
+ *
+ * Binary columns are read with a fallback to the legacy Base64/hex columns
+ * until the online backfill (V7) has converted every row.
  */
 @Entity
-@Table(name = "encrypted_ballots", indexes = {
-        @Index(name = "idx_encrypted_ballots_election", columnList = "election_id"),
-        @Index(name = "idx_encrypted_ballots_ballot_hash", columnList = "ballot_hash", unique = true),
-        @Index(name = "idx_encrypted_ballots_cast_at", columnList = "cast_at")
-})
+@Table(name = "encrypted_ballots",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_encrypted_ballots_election_seq",
+                        columnNames = {"election_id", "seq"})
+        },
+        indexes = {
+                @Index(name = "idx_encrypted_ballots_ballot_hash", columnList = "ballot_hash", unique = true),
+                @Index(name = "idx_encrypted_ballots_cast_at", columnList = "cast_at")
+        })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -26,6 +34,16 @@ import java.util.UUID;
 @Builder
 public class EncryptedBallot {
 
+    /**
+     * SHA-256 over Base64 ciphertext + Base64 nonce + hex previous hash (ballots stored as text)
+     */
+    public static final short HASH_VERSION_TEXT = 1;
+
+    /**
+     * SHA-256 over raw ciphertext + nonce + previous hash
+     */
+    public static final short HASH_VERSION_BINARY = 2;
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     @Column(name = "id", updatable = false, nullable = false)
@@ -39,21 +57,38 @@ public class EncryptedBallot {
     @NotNull
     private Election election;
 
+    /**
+     * Dense 1-based position of this ballot in the election chain
+     */
+    @Column(name = "seq", nullable = false, updatable = false)
+    @NotNull
+    private Long sequenceNumber;
+
     /**
      * Encrypted vote data (contains candidate selection)
      * Encrypted with election public key
      */
-    @Column(name = "encrypted_vote", nullable = false, columnDefinition = "TEXT")
+    @Column(name = "encrypted_vote", nullable = false)
+    @ColumnTransformer(read = "coalesce(encrypted_vote, decode(encrypted_vote_b64, 'base64'))")
     @NotNull
-    private String encryptedVote;
+    private byte[] encryptedVote;
 
     /**
-     * SHA-256 hash of the entire ballot (for verification)
+     * SHA-256 hash of the entire ballot (for verification, 32 bytes)
      * Voters receive this as a receipt to verify their vote was counted
      */
-    @Column(name = "ballot_hash", nullable = false, unique = true, length = 64)
+    @Column(name = "ballot_hash", nullable = false, unique = true, length = 32)
+    @ColumnTransformer(read = "coalesce(ballot_hash, decode(ballot_hash_hex, 'hex'))")
     @NotNull
-    private String ballotHash;
+    private byte[] ballotHash;
+
+    /**
+     * Formula used for the ballot hash (see {@link #HASH_VERSION_TEXT} and {@link #HASH_VERSION_BINARY})
+     */
+    @Column(name = "hash_version", nullable = false, updatable = false)
+    @NotNull
+    @Builder.Default
+    private Short hashVersion = HASH_VERSION_BINARY;
 
     /**
      * Encryption algorithm used (e.g., "RSA-2048+AES-256-GCM")
@@ -73,8 +108,9 @@ public class EncryptedBallot {
      * Initialization vector / nonce for encryption
      */
     @Column(name = "nonce", nullable = false)
+    @ColumnTransformer(read = "coalesce(nonce, decode(nonce_b64, 'base64'))")
     @NotNull
-    private String nonce;
+    private byte[] nonce;
 
     /**
      * Timestamp when vote was cast
@@ -87,19 +123,22 @@ public class EncryptedBallot {
      * IP address hash (for audit/security, not for voter identification)
      */
     @Column(name = "ip_hash")
-    private String ipHash;
+    @ColumnTransformer(read = "coalesce(ip_hash, decode(ip_hash_hex, 'hex'))")
+    private byte[] ipHash;
 
     /**
      * User agent hash (for audit/security)
      */
     @Column(name = "user_agent_hash")
-    private String userAgentHash;
+    @ColumnTransformer(read = "coalesce(user_agent_hash, decode(user_agent_hash_hex, 'hex'))")
+    private byte[] userAgentHash;
 
     /**
      * Previous ballot hash in the chain (for integrity verification)
      */
-    @Column(name = "prev_ballot_hash", length = 64)
-    private String prevBallotHash;
+    @Column(name = "prev_ballot_hash", length = 32)
+    @ColumnTransformer(read = "coalesce(prev_ballot_hash, decode(prev_ballot_hash_hex, 'hex'))")
+    private byte[] prevBallotHash;
 
     /**
      * Verification signature (proves ballot integrity)
@@ -108,17 +147,10 @@ public class EncryptedBallot {
     private String verificationSignature;
 
     /**
-     * Flag indicating if ballot has been counted in tally
+     * Exp-ElGamal ciphertexts of the one-hot choice vector (sealed tally elections only)
      */
-    @Column(name = "tallied", nullable = false)
-    @Builder.Default
-    private Boolean tallied = false;
-
-    /**
-     * Timestamp when ballot was included in tally
-     */
-    @Column(name = "tallied_at")
-    private Instant talliedAt;
+    @Column(name = "homomorphic_vote", updatable = false)
+    private byte[] homomorphicVote;
 
     @PrePersist
     protected void onCreate() {
@@ -126,19 +158,4 @@ public class EncryptedBallot {
             castAt = Instant.now();
         }
     }
-
-    /**
-     * Mark ballot as tallied
-     */
-    public void markAsTallied() {
-        this.tallied = true;
-        this.talliedAt = Instant.now();
-    }
-
-    /**
-     * Check if ballot is valid for tallying
-     */
-    public boolean canBeTallied() {
-        return !tallied && encryptedVote != null && ballotHash != null;
-    }
 }
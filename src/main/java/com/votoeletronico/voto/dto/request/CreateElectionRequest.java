@@ -34,7 +34,11 @@ public record CreateElectionRequest(
         Boolean allowAbstention,
 
         @Schema(description = "Require justification for abstention", example = "false", defaultValue = "false")
-        Boolean requireJustification
+        Boolean requireJustification,
+
+        @Schema(description = "Keep an encrypted running tally so results are available right after closing",
+                example = "false", defaultValue = "false")
+        Boolean sealedTally
 
 ) {
     public CreateElectionRequest {
@@ -48,6 +52,9 @@ public record CreateElectionRequest(
         if (requireJustification == null) {
             requireJustification = false;
         }
+        if (sealedTally == null) {
+            sealedTally = false;
+        }
 
         // Validate date range
         if (startTs != null && endTs != null && !endTs.isAfter(startTs)) {
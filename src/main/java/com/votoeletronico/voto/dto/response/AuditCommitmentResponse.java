@@ -0,0 +1,41 @@
+package com.votoeletronico.voto.dto.response;
+
+import com.votoeletronico.voto.repository.AuditCommitmentRepository.Commitment;
+import com.votoeletronico.voto.service.crypto.Hex;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+/**
+ * A published commitment to a verified audit stream
+ */
+@Schema(description = "Signed commitment to an audit stream; later ones must be consistent with it")
+public record AuditCommitmentResponse(
+        @Schema(description = "Audit stream ('system' or 'election:<id>')")
+        String streamKey,
+
+        @Schema(description = "Last audit entry covered")
+        long lastEntryId,
+
+        @Schema(description = "Number of entries covered (Merkle tree size)")
+        long treeSize,
+
+        @Schema(description = "Hash chain value at lastEntryId (hex)")
+        String chainHash,
+
+        @Schema(description = "Merkle root of the stream at treeSize (hex), absent when the tree did not end there")
+        String merkleRoot,
+
+        Instant createdAt
+) {
+
+    public static AuditCommitmentResponse of(Commitment commitment) {
+        return new AuditCommitmentResponse(
+                commitment.streamKey(),
+                commitment.lastEntryId(),
+                commitment.entryCount(),
+                Hex.encode(commitment.rootHash()),
+                Hex.encode(commitment.merkleRoot()),
+                commitment.createdAt());
+    }
+}
@@ -0,0 +1,44 @@
+package com.votoeletronico.voto.dto.response;
+
+import com.votoeletronico.voto.audit.AuditMerkleLog.ConsistencyProof;
+import com.votoeletronico.voto.service.crypto.Hex;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * RFC 6962 consistency proof between two sizes of an audit stream's Merkle tree
+ */
+@Schema(description = """
+        Proof that an audit stream at firstSize is a prefix of the stream at secondSize, as in RFC 6962;
+        check it with the algorithm of RFC 9162, section 2.1.4.2, against roots you already hold.""")
+public record AuditConsistencyProofResponse(
+        @Schema(description = "Audit stream ('system' or 'election:<id>')")
+        String streamKey,
+
+        @Schema(description = "Smaller tree size")
+        long firstSize,
+
+        @Schema(description = "Larger tree size")
+        long secondSize,
+
+        @Schema(description = "Merkle root at firstSize (hex)")
+        String firstRoot,
+
+        @Schema(description = "Merkle root at secondSize (hex)")
+        String secondRoot,
+
+        @Schema(description = "Consistency proof hashes (hex)")
+        List<String> proof
+) {
+
+    public static AuditConsistencyProofResponse of(ConsistencyProof proof) {
+        return new AuditConsistencyProofResponse(
+                proof.streamKey(),
+                proof.firstSize(),
+                proof.secondSize(),
+                Hex.encode(proof.firstRoot()),
+                Hex.encode(proof.secondRoot()),
+                proof.proof().stream().map(Hex::encode).toList());
+    }
+}
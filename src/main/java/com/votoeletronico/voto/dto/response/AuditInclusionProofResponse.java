@@ -0,0 +1,45 @@
+package com.votoeletronico.voto.dto.response;
+
+import com.votoeletronico.voto.audit.AuditMerkleLog.InclusionProof;
+import com.votoeletronico.voto.service.crypto.Hex;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * RFC 6962 inclusion proof of one audit entry
+ */
+@Schema(description = """
+        Audit path from an entry to its stream's Merkle root at treeSize, as in RFC 6962. The leaf is
+        SHA-256(0x00 || entryHash) and interior nodes SHA-256(0x01 || left || right); the side of each
+        path hash follows from leafIndex and treeSize (RFC 9162, section 2.1.3.2).""")
+public record AuditInclusionProofResponse(
+        @Schema(description = "Audit stream of the entry ('system' or 'election:<id>')")
+        String streamKey,
+
+        @Schema(description = "Audit entry ID")
+        long entryId,
+
+        @Schema(description = "Position of the entry in its stream, from 0")
+        long leafIndex,
+
+        @Schema(description = "Number of entries in the tree the proof is for")
+        long treeSize,
+
+        @Schema(description = "Merkle root at treeSize (hex)")
+        String merkleRoot,
+
+        @Schema(description = "Audit path hashes from the leaf up (hex)")
+        List<String> path
+) {
+
+    public static AuditInclusionProofResponse of(InclusionProof proof) {
+        return new AuditInclusionProofResponse(
+                proof.streamKey(),
+                proof.entryId(),
+                proof.leafIndex(),
+                proof.treeSize(),
+                Hex.encode(proof.root()),
+                proof.path().stream().map(Hex::encode).toList());
+    }
+}
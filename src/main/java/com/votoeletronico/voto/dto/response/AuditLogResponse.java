@@ -15,6 +15,7 @@ import java.util.UUID;
 @AllArgsConstructor
 public class AuditLogResponse {
     private Long id;
+    private String streamKey;
     private AuditEventType eventType;
     private String eventData;
     private Instant ts;
@@ -0,0 +1,55 @@
+package com.votoeletronico.voto.dto.response;
+
+import com.votoeletronico.voto.audit.AuditRootPublisher.PublishedRoot;
+import com.votoeletronico.voto.service.crypto.Hex;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A signed cross-stream root and the stream heads under it
+ */
+@Schema(description = """
+        Merkle root binding every audit stream at one time, as in RFC 6962. Leaf i is
+        SHA-256(0x00 || "voto-audit-stream-head" || len(streamKey) || streamKey || lastEntryId || entryCount
+        || lastEntryHash || merkleRoot) of the i-th stream below, with big-endian integers; check a stream's
+        own commitments and consistency proofs against its merkleRoot here.""")
+public record AuditStreamRootResponse(
+        @Schema(description = "Root ID")
+        long id,
+
+        @Schema(description = "Cross-stream Merkle root (hex)")
+        String root,
+
+        Instant createdAt,
+
+        @Schema(description = "Stream heads under the root, in stream key order")
+        List<Stream> streams
+) {
+
+    @Schema(description = "Head of one audit stream when the root was published")
+    public record Stream(
+            @Schema(description = "Audit stream ('system' or 'election:<id>')")
+            String streamKey,
+            long lastEntryId,
+            @Schema(description = "Hash chain value at lastEntryId (hex)")
+            String lastEntryHash,
+            @Schema(description = "Number of entries in the stream (its Merkle tree size)")
+            long entryCount,
+            @Schema(description = "Merkle root of the stream at entryCount (hex)")
+            String merkleRoot
+    ) {
+    }
+
+    public static AuditStreamRootResponse of(PublishedRoot published) {
+        return new AuditStreamRootResponse(
+                published.root().id(),
+                Hex.encode(published.root().root()),
+                published.root().createdAt(),
+                published.heads().stream()
+                        .map(head -> new Stream(head.streamKey(), head.lastEntryId(), Hex.encode(head.lastEntryHash()),
+                                head.entryCount(), Hex.encode(head.merkleRoot())))
+                        .toList());
+    }
+}
@@ -0,0 +1,62 @@
+package com.votoeletronico.voto.dto.response;
+
+import com.votoeletronico.voto.audit.AuditMerkleLog.StreamTrail;
+import com.votoeletronico.voto.repository.AuditMerkleRepository.TrailEntry;
+import com.votoeletronico.voto.service.crypto.Hex;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Audit entries of a stream, each with its inclusion proof against the stream's Merkle root
+ */
+@Schema(description = """
+        One page of an audit stream (an election's trail). Each entry hash can be recomputed from its fields
+        (SHA-256 of "eventType|eventData|ts|hex(prevHash)") and checked against merkleRoot with its path;
+        fetch the next page with afterId = the last entryId.""")
+public record AuditTrailResponse(
+        @Schema(description = "Audit stream ('election:<id>')")
+        String streamKey,
+
+        @Schema(description = "Number of entries of the stream in the tree the proofs are for")
+        long treeSize,
+
+        @Schema(description = "Merkle root at treeSize (hex)")
+        String merkleRoot,
+
+        @Schema(description = "Entries in chain order")
+        List<Entry> entries
+) {
+
+    @Schema(description = "An audit entry and its audit path")
+    public record Entry(
+            long entryId,
+            long leafIndex,
+            String eventType,
+            String eventData,
+            Instant ts,
+            @Schema(description = "Hash of the previous entry in the stream's chain (hex)")
+            String prevHash,
+            @Schema(description = "Entry hash (hex)")
+            String entryHash,
+            @Schema(description = "Audit path hashes from the leaf up (hex)")
+            List<String> path
+    ) {
+    }
+
+    public static AuditTrailResponse of(StreamTrail trail) {
+        return new AuditTrailResponse(
+                trail.streamKey(),
+                trail.treeSize(),
+                Hex.encode(trail.root()),
+                trail.entries().stream()
+                        .map(proof -> {
+                            TrailEntry entry = proof.entry();
+                            return new Entry(entry.id(), entry.leafIndex(), entry.eventType(), entry.eventData(),
+                                    entry.ts(), Hex.encode(entry.prevHash()), Hex.encode(entry.entryHash()),
+                                    proof.path().stream().map(Hex::encode).toList());
+                        })
+                        .toList());
+    }
+}
@@ -37,6 +37,9 @@ public record ElectionResponse(
         @Schema(description = "Whether justification is required for abstention")
         Boolean requireJustification,
 
+        @Schema(description = "Whether the election keeps a sealed running tally")
+        Boolean sealedTally,
+
         @Schema(description = "User who created this election")
         UUID createdBy,
 
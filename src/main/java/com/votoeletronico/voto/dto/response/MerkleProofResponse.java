@@ -0,0 +1,58 @@
+package com.votoeletronico.voto.dto.response;
+
+import com.votoeletronico.voto.service.crypto.Hex;
+import com.votoeletronico.voto.service.merkle.MerkleProof;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Merkle inclusion proof of a ballot
+ */
+@Schema(description = """
+        Audit path from a ballot to the published Merkle root. Start with leaf = SHA-256(0x00 || ballotHash);
+        for each step, node = SHA-256(0x01 || sibling || node) if the sibling is LEFT, else
+        SHA-256(0x01 || node || sibling). The final node must equal merkleRoot.""")
+public record MerkleProofResponse(
+        @Schema(description = "Election ID")
+        UUID electionId,
+
+        @Schema(description = "Ballot hash (hex)")
+        String ballotHash,
+
+        @Schema(description = "Position of the ballot among the leaves (seq - 1)")
+        long leafIndex,
+
+        @Schema(description = "Number of leaves (ballots) in the tree")
+        long leafCount,
+
+        @Schema(description = "Merkle root published with the results (hex)")
+        String merkleRoot,
+
+        @Schema(description = "Sibling hashes from the leaf up to the root")
+        List<Step> path
+) {
+
+    @Schema(description = "One level of the audit path")
+    public record Step(
+            @Schema(description = "Sibling hash (hex)")
+            String hash,
+
+            @Schema(description = "Side of the sibling", allowableValues = {"LEFT", "RIGHT"})
+            String position
+    ) {
+    }
+
+    public static MerkleProofResponse of(UUID electionId, byte[] ballotHash, MerkleProof proof) {
+        return new MerkleProofResponse(
+                electionId,
+                Hex.encode(ballotHash),
+                proof.leafIndex(),
+                proof.leafCount(),
+                Hex.encode(proof.root()),
+                proof.path().stream()
+                        .map(step -> new Step(Hex.encode(step.sibling()), step.left() ? "LEFT" : "RIGHT"))
+                        .toList());
+    }
+}
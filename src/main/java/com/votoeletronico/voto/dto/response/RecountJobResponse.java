@@ -0,0 +1,62 @@
+package com.votoeletronico.voto.dto.response;
+
+import com.votoeletronico.voto.domain.results.RecountJob;
+import com.votoeletronico.voto.domain.results.TallyJobStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Progress and, once completed, outcome of a background recount
+ */
+@Schema(description = "Recount job progress")
+public record RecountJobResponse(
+        @Schema(description = "Job ID")
+        UUID jobId,
+
+        @Schema(description = "Election ID")
+        UUID electionId,
+
+        @Schema(description = "Job status")
+        TallyJobStatus status,
+
+        @Schema(description = "Ballots to recount")
+        long totalBallots,
+
+        @Schema(description = "Ballots recounted so far")
+        long processedBallots,
+
+        @Schema(description = "Percentage of ballots recounted")
+        double percentDone,
+
+        @Schema(description = "When the recount was started")
+        Instant createdAt,
+
+        @Schema(description = "Last progress report")
+        Instant updatedAt,
+
+        @Schema(description = "When the recount finished")
+        Instant completedAt,
+
+        @Schema(description = "Error, if the recount failed")
+        String error,
+
+        @Schema(description = "Comparison with the stored result (null until completed)")
+        RecountResponse report
+) {
+    public static RecountJobResponse of(RecountJob job) {
+        return new RecountJobResponse(
+                job.id(),
+                job.electionId(),
+                job.status(),
+                job.totalBallots(),
+                job.processedBallots(),
+                job.percentDone(),
+                job.createdAt(),
+                job.updatedAt(),
+                job.completedAt(),
+                job.error(),
+                job.report() != null ? RecountResponse.of(job.report()) : null);
+    }
+}
@@ -0,0 +1,61 @@
+package com.votoeletronico.voto.dto.response;
+
+import com.votoeletronico.voto.domain.results.RecountReport;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a read-only recount
+ */
+@Schema(description = "Recount of an election compared with its stored result")
+public record RecountResponse(
+        @Schema(description = "Election ID")
+        UUID electionId,
+
+        @Schema(description = "True when every recounted value equals the stored one")
+        boolean matches,
+
+        @Schema(description = "Ballots decrypted and counted")
+        long ballotsRecounted,
+
+        @Schema(description = "Time the recount took, in milliseconds")
+        long durationMillis,
+
+        @Schema(description = "Recounted valid votes")
+        long validVotes,
+
+        @Schema(description = "Recounted abstentions")
+        long abstentions,
+
+        @Schema(description = "Recounted invalid ballots")
+        long invalidVotes,
+
+        @Schema(description = "Recomputed ballot Merkle root (hex)")
+        String merkleRoot,
+
+        @Schema(description = "Recomputed results hash")
+        String resultsHash,
+
+        @Schema(description = "Stored and recounted votes per candidate, in ballot order")
+        List<RecountReport.CandidateCount> candidates,
+
+        @Schema(description = "Fields whose recounted value differs from the stored result")
+        List<RecountReport.Difference> differences
+) {
+    public static RecountResponse of(RecountReport report) {
+        return new RecountResponse(
+                report.electionId(),
+                report.matches(),
+                report.ballotsRecounted(),
+                report.durationMillis(),
+                report.validVotes(),
+                report.abstentions(),
+                report.invalidVotes(),
+                report.merkleRoot(),
+                report.resultsHash(),
+                report.candidates(),
+                report.differences());
+    }
+}
@@ -0,0 +1,72 @@
+package com.votoeletronico.voto.dto.response;
+
+import com.votoeletronico.voto.domain.results.TallyJob;
+import com.votoeletronico.voto.domain.results.TallyJobStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Progress of a background tally job
+ */
+@Schema(description = "Tally job progress")
+public record TallyJobResponse(
+        @Schema(description = "Job ID")
+        UUID jobId,
+
+        @Schema(description = "Election ID")
+        UUID electionId,
+
+        @Schema(description = "Job status")
+        TallyJobStatus status,
+
+        @Schema(description = "Ballots to count")
+        long totalBallots,
+
+        @Schema(description = "Ballots counted so far")
+        long processedBallots,
+
+        @Schema(description = "Percentage of ballots counted")
+        double percentDone,
+
+        @Schema(description = "Counting throughput of the current run")
+        double ballotsPerSecond,
+
+        @Schema(description = "Estimated seconds until counting finishes (null when unknown)")
+        Long etaSeconds,
+
+        @Schema(description = "Runs started, including resumptions")
+        int attempts,
+
+        @Schema(description = "When the job was queued")
+        Instant createdAt,
+
+        @Schema(description = "Last checkpoint")
+        Instant checkpointedAt,
+
+        @Schema(description = "When the results were saved")
+        Instant completedAt,
+
+        @Schema(description = "Error of the last run, if it failed")
+        String error
+) {
+    public static TallyJobResponse of(TallyJob job, Instant now) {
+        Duration eta = job.eta(now);
+        return new TallyJobResponse(
+                job.id(),
+                job.electionId(),
+                job.status(),
+                job.totalBallots(),
+                job.processedBallots(),
+                job.percentDone(),
+                job.ballotsPerSecond(now),
+                eta != null ? eta.toSeconds() : null,
+                job.attempts(),
+                job.createdAt(),
+                job.checkpointedAt(),
+                job.completedAt(),
+                job.error());
+    }
+}
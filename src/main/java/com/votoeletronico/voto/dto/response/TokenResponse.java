@@ -37,6 +37,9 @@ public record TokenResponse(
         @Schema(description = "Public key for verification (Base64)")
         String publicKey,
 
+        @Schema(description = "Signature algorithm of the token signature", example = "Ed25519")
+        String signatureAlgorithm,
+
         @Schema(description = "The actual token value - STORE THIS SECURELY!")
         String tokenValue
 ) {
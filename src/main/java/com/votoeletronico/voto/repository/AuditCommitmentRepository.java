@@ -0,0 +1,88 @@
+package com.votoeletronico.voto.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * JDBC access to audit.commitments, the signed checkpoints of the verified audit streams.
+ * Rows are only trusted once their signature has been checked by the caller.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditCommitmentRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(Commitment commitment) {
+        jdbcTemplate.update("""
+                        INSERT INTO audit.commitments (stream_key, root_hash, last_entry_id, entry_count, merkle_root,
+                                                       created_at, signature)
+                        VALUES (?, ?, ?, ?, ?, ?, ?)
+                        """,
+                commitment.streamKey(), commitment.rootHash(), commitment.lastEntryId(), commitment.entryCount(), commitment.merkleRoot(),
+                Timestamp.from(commitment.createdAt()), commitment.signature());
+    }
+
+    /**
+     * Newest signed commitments of a stream, newest first (callers check the signatures)
+     */
+    public List<Commitment> findLatest(String streamKey, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT stream_key, last_entry_id, entry_count, root_hash, merkle_root, created_at, signature
+                        FROM audit.commitments
+                        WHERE stream_key = ? AND signature IS NOT NULL
+                        ORDER BY last_entry_id DESC, id DESC
+                        LIMIT ?
+                        """,
+                (rs, rowNum) -> new Commitment(
+                        rs.getString("stream_key"),
+                        rs.getLong("last_entry_id"),
+                        rs.getLong("entry_count"),
+                        rs.getBytes("root_hash"),
+                        rs.getBytes("merkle_root"),
+                        rs.getTimestamp("created_at").toInstant(),
+                        rs.getBytes("signature")),
+                streamKey, limit);
+    }
+
+    /**
+     * Verified prefix of an audit stream, ending at lastEntryId and holding entryCount entries.
+     * merkleRoot is the stream's Merkle tree root at entryCount leaves (null when the tree did not end there).
+     */
+    public record Commitment(String streamKey, long lastEntryId, long entryCount, byte[] rootHash, byte[] merkleRoot, Instant createdAt,
+                             byte[] signature) {
+
+        private static final byte[] DOMAIN = "voto-audit-checkpoint".getBytes(StandardCharsets.US_ASCII);
+
+        /**
+         * Bytes covered by the signature
+         */
+        public static byte[] signedMessage(String streamKey, long lastEntryId, long entryCount, byte[] rootHash,
+                                           byte[] merkleRoot, Instant createdAt) {
+            byte[] stream = streamKey.getBytes(StandardCharsets.UTF_8);
+            byte[] merkle = merkleRoot != null ? merkleRoot : new byte[0];
+            return ByteBuffer.allocate(DOMAIN.length + 4 + stream.length + 8 + 8 + rootHash.length + 12 + merkle.length)
+                    .put(DOMAIN)
+                    .putInt(stream.length)
+                    .put(stream)
+                    .putLong(lastEntryId)
+                    .putLong(entryCount)
+                    .put(rootHash)
+                    .putLong(createdAt.getEpochSecond())
+                    .putInt(createdAt.getNano())
+                    .put(merkle)
+                    .array();
+        }
+
+        public byte[] signedMessage() {
+            return signedMessage(streamKey, lastEntryId, entryCount, rootHash, merkleRoot, createdAt);
+        }
+    }
+}
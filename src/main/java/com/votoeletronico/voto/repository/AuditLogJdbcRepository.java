@@ -0,0 +1,125 @@
+package com.votoeletronico.voto.repository;
+
+import com.votoeletronico.voto.domain.audit.AuditLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * JDBC access to audit.audit_log for the chain writer and verifier.
+ * Entries are immutable once written, so they skip the persistence context entirely.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditLogJdbcRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO audit.audit_log (id, stream_key, event_type, event_data, entry_hash, prev_hash, signature,
+                                         signer_key_id, ts)
+            VALUES (?, ?, ?, ?::jsonb, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String CHAIN_SQL = """
+            SELECT id, event_type, event_data::text AS event_data, ts, prev_hash, entry_hash
+            FROM audit.audit_log
+            WHERE stream_key = ? AND id > ?
+            ORDER BY id
+            """;
+
+    /**
+     * Rows per round trip while streaming the chain; bounds verifier memory
+     */
+    private static final int CHAIN_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reserve ids for a batch; allocated under the stream's head lock, so id order is chain
+     * order within a stream
+     */
+    public List<Long> nextIds(int count) {
+        return jdbcTemplate.queryForList(
+                "SELECT nextval('audit.audit_log_id_seq') FROM generate_series(1, ?)", Long.class, count);
+    }
+
+    /**
+     * Insert chained entries with a single JDBC batch (caller's transaction)
+     */
+    public void batchInsert(List<AuditLog> entries) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getId());
+            ps.setString(2, entry.getStreamKey());
+            ps.setString(3, entry.getEventType().name());
+            ps.setString(4, entry.getEventData());
+            ps.setBytes(5, entry.getEntryHash());
+            ps.setBytes(6, entry.getPrevHash());
+            ps.setBytes(7, entry.getSignature());
+            ps.setString(8, entry.getSignerKeyId());
+            ps.setTimestamp(9, Timestamp.from(entry.getTs()));
+        });
+    }
+
+    /**
+     * Stream the entries of a stream after the given id in chain order.
+     * Must run inside a transaction, or the driver reads the whole result at once.
+     */
+    public void forEachChainEntry(String streamKey, long afterId, Consumer<ChainEntry> consumer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(CHAIN_SQL);
+            ps.setFetchSize(CHAIN_FETCH_SIZE);
+            ps.setString(1, streamKey);
+            ps.setLong(2, afterId);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(new ChainEntry(
+                rs.getLong("id"),
+                rs.getString("event_type"),
+                rs.getString("event_data"),
+                rs.getTimestamp("ts").toInstant(),
+                rs.getBytes("prev_hash"),
+                rs.getBytes("entry_hash"))));
+    }
+
+    /**
+     * Ids and hashes of the entries of a stream in (afterId, toId], in chain order
+     */
+    public List<AuditChainTail> findEntryHashes(String streamKey, long afterId, long toId, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT id, entry_hash FROM audit.audit_log
+                        WHERE stream_key = ? AND id > ? AND id <= ?
+                        ORDER BY id
+                        LIMIT ?
+                        """,
+                (rs, rowNum) -> new AuditChainTail(rs.getLong("id"), rs.getBytes("entry_hash")),
+                streamKey, afterId, toId, limit);
+    }
+
+    /**
+     * Stored hash of the entry with the given id, or null if there is none
+     */
+    public byte[] findEntryHash(long id) {
+        return jdbcTemplate.query("SELECT entry_hash FROM audit.audit_log WHERE id = ?",
+                        (rs, rowNum) -> rs.getBytes(1), id).stream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * The columns of an entry covered by the chain
+     */
+    public record ChainEntry(long id, String eventType, String eventData, Instant ts, byte[] prevHash,
+                             byte[] entryHash) {
+    }
+
+    /**
+     * Id and hash of a chain entry
+     */
+    public record AuditChainTail(long id, byte[] entryHash) {
+    }
+}
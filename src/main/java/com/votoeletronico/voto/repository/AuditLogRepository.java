@@ -5,21 +5,14 @@ import com.votoeletronico.voto.domain.audit.AuditEventType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
 
-    /**
-     * Find all audit logs ordered by timestamp
-     */
-    List<AuditLog> findAllByOrderByTsAsc();
-
     /**
      * Find audit logs by event type
      */
@@ -30,12 +23,6 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
      */
     Page<AuditLog> findByTsBetween(Instant startTs, Instant endTs, Pageable pageable);
 
-    /**
-     * Find the last audit log entry (most recent)
-     */
-    @Query("SELECT a FROM AuditLog a ORDER BY a.id DESC LIMIT 1")
-    Optional<AuditLog> findLastEntry();
-
     /**
      * Count total audit log entries
      */
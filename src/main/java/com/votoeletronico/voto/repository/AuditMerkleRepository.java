@@ -0,0 +1,147 @@
+package com.votoeletronico.voto.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JDBC access to audit.merkle_nodes, the complete nodes of the Merkle tree of each audit
+ * stream. Nodes are immutable once written; leaves (level 0) point at their audit entry.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditMerkleRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO audit.merkle_nodes (stream_key, level, idx, hash, entry_id)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert nodes with a single JDBC batch (caller's transaction)
+     */
+    public void batchInsert(String streamKey, List<Node> nodes) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, nodes, nodes.size(), (ps, node) -> {
+            ps.setString(1, streamKey);
+            ps.setInt(2, node.level());
+            ps.setLong(3, node.index());
+            ps.setBytes(4, node.hash());
+            ps.setObject(5, node.entryId());
+        });
+    }
+
+    /**
+     * Last leaf of a stream's tree, if any
+     */
+    public Optional<Leaf> findLastLeaf(String streamKey) {
+        return jdbcTemplate.query("""
+                        SELECT stream_key, idx, entry_id FROM audit.merkle_nodes
+                        WHERE stream_key = ? AND level = 0
+                        ORDER BY idx DESC
+                        LIMIT 1
+                        """,
+                (rs, rowNum) -> new Leaf(rs.getString("stream_key"), rs.getLong("idx"), rs.getLong("entry_id")),
+                streamKey)
+                .stream().findFirst();
+    }
+
+    /**
+     * Leaf of an audit entry, if it has been added to its stream's tree
+     */
+    public Optional<Leaf> findLeaf(long entryId) {
+        return jdbcTemplate.query("SELECT stream_key, idx, entry_id FROM audit.merkle_nodes WHERE entry_id = ?",
+                        (rs, rowNum) -> new Leaf(rs.getString("stream_key"), rs.getLong("idx"), rs.getLong("entry_id")),
+                        entryId)
+                .stream().findFirst();
+    }
+
+    /**
+     * Read any set of nodes of a stream's tree with one query
+     *
+     * @return the nodes found, by position
+     */
+    public Map<NodeRef, byte[]> findNodes(String streamKey, Collection<NodeRef> refs) {
+        if (refs.isEmpty()) {
+            return Map.of();
+        }
+        int[] levels = new int[refs.size()];
+        long[] indexes = new long[refs.size()];
+        int i = 0;
+        for (NodeRef ref : refs) {
+            levels[i] = ref.level();
+            indexes[i] = ref.index();
+            i++;
+        }
+
+        Map<NodeRef, byte[]> nodes = new HashMap<>();
+        jdbcTemplate.query("""
+                        SELECT n.level, n.idx, n.hash
+                        FROM unnest(?::int[], ?::bigint[]) AS v(level, idx)
+                        JOIN audit.merkle_nodes n ON n.stream_key = ? AND n.level = v.level AND n.idx = v.idx
+                        """,
+                (RowCallbackHandler) rs -> nodes.put(new NodeRef(rs.getInt("level"), rs.getLong("idx")),
+                        rs.getBytes("hash")),
+                levels, indexes, streamKey);
+        return nodes;
+    }
+
+    /**
+     * Entries of a stream among the first treeSize leaves of its tree, in chain order
+     */
+    public List<TrailEntry> findStreamEntries(String streamKey, long treeSize, long afterId, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT l.id, n.idx, l.event_type, l.event_data::text AS event_data, l.ts, l.prev_hash, l.entry_hash
+                        FROM audit.audit_log l
+                        JOIN audit.merkle_nodes n ON n.stream_key = l.stream_key AND n.level = 0 AND n.entry_id = l.id
+                        WHERE l.stream_key = ?
+                          AND n.idx < ?
+                          AND l.id > ?
+                        ORDER BY l.id
+                        LIMIT ?
+                        """,
+                (rs, rowNum) -> new TrailEntry(
+                        rs.getLong("id"),
+                        rs.getLong("idx"),
+                        rs.getString("event_type"),
+                        rs.getString("event_data"),
+                        rs.getTimestamp("ts").toInstant(),
+                        rs.getBytes("prev_hash"),
+                        rs.getBytes("entry_hash")),
+                streamKey, treeSize, afterId, limit);
+    }
+
+    /**
+     * A node to insert; entryId is set on leaves only
+     */
+    public record Node(int level, long index, byte[] hash, Long entryId) {
+    }
+
+    /**
+     * Position of a node in the tree
+     */
+    public record NodeRef(int level, long index) {
+    }
+
+    /**
+     * Position of a leaf in its stream's tree and its audit entry
+     */
+    public record Leaf(String streamKey, long index, long entryId) {
+    }
+
+    /**
+     * An audit entry with its leaf index
+     */
+    public record TrailEntry(long id, long leafIndex, String eventType, String eventData, Instant ts,
+                             byte[] prevHash, byte[] entryHash) {
+    }
+}
@@ -0,0 +1,143 @@
+package com.votoeletronico.voto.repository;
+
+import com.votoeletronico.voto.audit.AuditEvent;
+import com.votoeletronico.voto.domain.audit.AuditEventType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * JDBC access to audit.audit_outbox.
+ * Inserts join the caller's transaction; chainers claim one stream at a time under a
+ * transaction-scoped advisory lock, take its rows in id order, and delete them once chained.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditOutboxRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO audit.audit_outbox (stream_key, event_type, event_data, ts)
+            VALUES (?, ?, ?::jsonb, ?)
+            """;
+
+    // First key of the two-key advisory locks taken on streams; the second is the stream key's hash
+    private static final int STREAM_LOCK_CLASS = 0x41554454;
+
+    // Streams with pending events tried per claim before giving up until the next one
+    private static final int STREAM_CANDIDATES = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert events (caller's transaction, if any)
+     *
+     * @return outbox ids of the events, in order
+     */
+    public List<Long> insert(List<AuditEvent> events) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        AuditEvent event = events.get(i);
+                        ps.setString(1, event.streamKey());
+                        ps.setString(2, event.eventType().name());
+                        ps.setString(3, event.eventData());
+                        ps.setTimestamp(4, Timestamp.from(event.ts()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return events.size();
+                    }
+                },
+                keyHolder);
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.get("id")).longValue())
+                .toList();
+    }
+
+    /**
+     * Lock the stream with the oldest pending event that no other chainer holds, and return
+     * its oldest events in id order (caller's transaction). The stream stays locked until the
+     * transaction ends, so two chainers never chain events of one stream out of order.
+     * Event data comes back in its normalized JSONB text form.
+     *
+     * @return events of one stream, or empty if every stream with pending events is held
+     */
+    public List<OutboxEntry> claimOldestStream(int limit) {
+        List<String> streamKeys = jdbcTemplate.queryForList("""
+                        SELECT stream_key
+                        FROM audit.audit_outbox
+                        GROUP BY stream_key
+                        ORDER BY min(id)
+                        LIMIT ?
+                        """,
+                String.class, STREAM_CANDIDATES);
+        for (String streamKey : streamKeys) {
+            Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?, hashtext(?))",
+                    Boolean.class, STREAM_LOCK_CLASS, streamKey);
+            if (!Boolean.TRUE.equals(locked)) {
+                continue;
+            }
+            // Read after taking the lock: rows chained by the previous holder are gone
+            List<OutboxEntry> entries = jdbcTemplate.query("""
+                            SELECT id, stream_key, event_type, event_data::text AS event_data, ts
+                            FROM audit.audit_outbox
+                            WHERE stream_key = ?
+                            ORDER BY id
+                            LIMIT ?
+                            FOR UPDATE
+                            """,
+                    (rs, rowNum) -> new OutboxEntry(
+                            rs.getLong("id"),
+                            new AuditEvent(
+                                    rs.getString("stream_key"),
+                                    AuditEventType.valueOf(rs.getString("event_type")),
+                                    rs.getString("event_data"),
+                                    rs.getTimestamp("ts").toInstant())),
+                    streamKey, limit);
+            if (!entries.isEmpty()) {
+                return entries;
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * Which of these events are still waiting to be chained
+     */
+    public List<Long> findUnchained(List<Long> ids) {
+        return jdbcTemplate.queryForList("SELECT id FROM audit.audit_outbox WHERE id = ANY(?)", Long.class,
+                (Object) ids.toArray(new Long[0]));
+    }
+
+    /**
+     * Number of events waiting to be chained, on every node (the outbox is normally near empty)
+     */
+    public long countUnchained() {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM audit.audit_outbox", Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Remove chained events
+     */
+    public void deleteByIds(List<Long> ids) {
+        jdbcTemplate.update("DELETE FROM audit.audit_outbox WHERE id = ANY(?)", (Object) ids.toArray(new Long[0]));
+    }
+
+    /**
+     * An outbox row
+     */
+    public record OutboxEntry(long id, AuditEvent event) {
+    }
+}
@@ -0,0 +1,179 @@
+package com.votoeletronico.voto.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * JDBC access to audit.stream_heads and the cross-stream roots.
+ * A stream's head row is locked for the whole append, which serializes writers of that
+ * stream only.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditStreamRepository {
+
+    private static final String HEAD_COLUMNS = "stream_key, last_entry_id, last_entry_hash, entry_count, merkle_root";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Lock the head of a stream until the current transaction ends, creating it if needed
+     */
+    public StreamHead lockHead(String streamKey) {
+        jdbcTemplate.update("INSERT INTO audit.stream_heads (stream_key) VALUES (?) ON CONFLICT (stream_key) DO NOTHING",
+                streamKey);
+        return jdbcTemplate.queryForObject(
+                "SELECT " + HEAD_COLUMNS + " FROM audit.stream_heads WHERE stream_key = ? FOR UPDATE",
+                AuditStreamRepository::mapHead, streamKey);
+    }
+
+    /**
+     * Move the head of a locked stream
+     */
+    public void updateHead(StreamHead head) {
+        jdbcTemplate.update("""
+                        UPDATE audit.stream_heads
+                        SET last_entry_id = ?, last_entry_hash = ?, entry_count = ?, merkle_root = ?, updated_at = NOW()
+                        WHERE stream_key = ?
+                        """,
+                head.lastEntryId(), head.lastEntryHash(), head.entryCount(), head.merkleRoot(), head.streamKey());
+    }
+
+    /**
+     * Heads of all non-empty streams, in stream key order
+     */
+    public List<StreamHead> findAllHeads() {
+        return jdbcTemplate.query("SELECT " + HEAD_COLUMNS + " FROM audit.stream_heads WHERE entry_count > 0 "
+                + "ORDER BY stream_key", AuditStreamRepository::mapHead);
+    }
+
+    /**
+     * Store a cross-stream root and the heads under it
+     *
+     * @return id of the root
+     */
+    public long insertRoot(byte[] root, List<StreamHead> heads, Instant createdAt, byte[] signature) {
+        Long rootId = jdbcTemplate.queryForObject("""
+                        INSERT INTO audit.stream_roots (root, stream_count, created_at, signature)
+                        VALUES (?, ?, ?, ?)
+                        RETURNING id
+                        """,
+                Long.class, root, heads.size(), Timestamp.from(createdAt), signature);
+
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO audit.stream_root_leaves (root_id, leaf_index, stream_key, last_entry_id,
+                                                              last_entry_hash, entry_count, merkle_root)
+                        VALUES (?, ?, ?, ?, ?, ?, ?)
+                        """,
+                IntStream.range(0, heads.size()).boxed().toList(), heads.size(), (ps, leafIndex) -> {
+                    StreamHead head = heads.get(leafIndex);
+                    ps.setLong(1, rootId);
+                    ps.setInt(2, leafIndex);
+                    ps.setString(3, head.streamKey());
+                    ps.setLong(4, head.lastEntryId());
+                    ps.setBytes(5, head.lastEntryHash());
+                    ps.setLong(6, head.entryCount());
+                    ps.setBytes(7, head.merkleRoot());
+                });
+        return Objects.requireNonNull(rootId);
+    }
+
+    /**
+     * Newest cross-stream root, if any was published
+     */
+    public Optional<StreamRoot> findLatestRoot() {
+        return jdbcTemplate.query("""
+                        SELECT id, root, stream_count, created_at, signature
+                        FROM audit.stream_roots
+                        ORDER BY id DESC
+                        LIMIT 1
+                        """,
+                (rs, rowNum) -> new StreamRoot(
+                        rs.getLong("id"),
+                        rs.getBytes("root"),
+                        rs.getInt("stream_count"),
+                        rs.getTimestamp("created_at").toInstant(),
+                        rs.getBytes("signature")))
+                .stream().findFirst();
+    }
+
+    /**
+     * Heads under a cross-stream root, in leaf order
+     */
+    public List<StreamHead> findRootLeaves(long rootId) {
+        return jdbcTemplate.query("SELECT " + HEAD_COLUMNS + " FROM audit.stream_root_leaves WHERE root_id = ? "
+                + "ORDER BY leaf_index", AuditStreamRepository::mapHead, rootId);
+    }
+
+    private static StreamHead mapHead(ResultSet rs, int rowNum) throws SQLException {
+        return new StreamHead(
+                rs.getString("stream_key"),
+                rs.getLong("last_entry_id"),
+                rs.getBytes("last_entry_hash"),
+                rs.getLong("entry_count"),
+                rs.getBytes("merkle_root"));
+    }
+
+    /**
+     * Tail of a stream: its last entry, its length and its Merkle root at that length
+     */
+    public record StreamHead(String streamKey, long lastEntryId, byte[] lastEntryHash, long entryCount,
+                             byte[] merkleRoot) {
+
+        private static final byte[] DOMAIN = "voto-audit-stream-head".getBytes(StandardCharsets.US_ASCII);
+
+        /**
+         * Bytes of the head as a leaf of a cross-stream root
+         */
+        public byte[] leafData() {
+            byte[] stream = streamKey.getBytes(StandardCharsets.UTF_8);
+            return ByteBuffer.allocate(DOMAIN.length + 4 + stream.length + 8 + 8
+                            + lastEntryHash.length + merkleRoot.length)
+                    .put(DOMAIN)
+                    .putInt(stream.length)
+                    .put(stream)
+                    .putLong(lastEntryId)
+                    .putLong(entryCount)
+                    .put(lastEntryHash)
+                    .put(merkleRoot)
+                    .array();
+        }
+    }
+
+    /**
+     * A published cross-stream root over streamCount stream heads
+     */
+    public record StreamRoot(long id, byte[] root, int streamCount, Instant createdAt, byte[] signature) {
+
+        private static final byte[] DOMAIN = "voto-audit-stream-root".getBytes(StandardCharsets.US_ASCII);
+
+        /**
+         * Bytes covered by the signature
+         */
+        public static byte[] signedMessage(byte[] root, int streamCount, Instant createdAt) {
+            return ByteBuffer.allocate(DOMAIN.length + root.length + 4 + 12)
+                    .put(DOMAIN)
+                    .put(root)
+                    .putInt(streamCount)
+                    .putLong(createdAt.getEpochSecond())
+                    .putInt(createdAt.getNano())
+                    .array();
+        }
+
+        public byte[] signedMessage() {
+            return signedMessage(root, streamCount, createdAt);
+        }
+    }
+}
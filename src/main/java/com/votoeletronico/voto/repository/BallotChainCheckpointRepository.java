@@ -0,0 +1,98 @@
+package com.votoeletronico.voto.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC access to ballot_chain_checkpoints.
+ * Rows are only trusted once their signature has been checked by the caller.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BallotChainCheckpointRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Save a checkpoint; a checkpoint already written at the same seq is kept
+     */
+    public void insert(Checkpoint checkpoint) {
+        jdbcTemplate.update("""
+                        INSERT INTO ballot_chain_checkpoints (election_id, seq, ballot_hash, created_at, signature)
+                        VALUES (?, ?, ?, ?, ?)
+                        ON CONFLICT (election_id, seq) DO NOTHING
+                        """,
+                checkpoint.electionId(), checkpoint.seq(), checkpoint.ballotHash(),
+                Timestamp.from(checkpoint.createdAt()), checkpoint.signature());
+    }
+
+    /**
+     * Newest checkpoints of an election at or below maxSeq, newest first
+     */
+    public List<Checkpoint> findLatest(UUID electionId, long maxSeq, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT election_id, seq, ballot_hash, created_at, signature
+                        FROM ballot_chain_checkpoints
+                        WHERE election_id = ? AND seq <= ?
+                        ORDER BY seq DESC
+                        LIMIT ?
+                        """,
+                (rs, rowNum) -> new Checkpoint(
+                        rs.getObject("election_id", UUID.class),
+                        rs.getLong("seq"),
+                        rs.getBytes("ballot_hash"),
+                        rs.getTimestamp("created_at").toInstant(),
+                        rs.getBytes("signature")),
+                electionId, maxSeq, limit);
+    }
+
+    /**
+     * Elections whose chain grew by at least minBallots since their newest checkpoint
+     */
+    public List<UUID> findElectionsBehind(long minBallots, int limit) {
+        return jdbcTemplate.queryForList("""
+                        SELECT h.election_id
+                        FROM ballot_chain_heads h
+                        WHERE h.last_seq - COALESCE(
+                            (SELECT MAX(c.seq) FROM ballot_chain_checkpoints c WHERE c.election_id = h.election_id), 0) >= ?
+                        ORDER BY h.updated_at
+                        LIMIT ?
+                        """,
+                UUID.class, Math.max(1, minBallots), limit);
+    }
+
+    /**
+     * Verified prefix of an election's ballot chain, ending at seq
+     */
+    public record Checkpoint(UUID electionId, long seq, byte[] ballotHash, Instant createdAt, byte[] signature) {
+
+        private static final byte[] DOMAIN = "voto-ballot-checkpoint".getBytes(StandardCharsets.US_ASCII);
+
+        /**
+         * Bytes covered by the signature
+         */
+        public static byte[] signedMessage(UUID electionId, long seq, byte[] ballotHash, Instant createdAt) {
+            return ByteBuffer.allocate(DOMAIN.length + 16 + 8 + ballotHash.length + 12)
+                    .put(DOMAIN)
+                    .putLong(electionId.getMostSignificantBits())
+                    .putLong(electionId.getLeastSignificantBits())
+                    .putLong(seq)
+                    .put(ballotHash)
+                    .putLong(createdAt.getEpochSecond())
+                    .putInt(createdAt.getNano())
+                    .array();
+        }
+
+        public byte[] signedMessage() {
+            return signedMessage(electionId, seq, ballotHash, createdAt);
+        }
+    }
+}
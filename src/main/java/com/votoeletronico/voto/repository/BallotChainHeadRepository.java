@@ -0,0 +1,35 @@
+package com.votoeletronico.voto.repository;
+
+import com.votoeletronico.voto.domain.voting.BallotChainHead;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BallotChainHeadRepository extends JpaRepository<BallotChainHead, UUID> {
+
+    /**
+     * Lock the chain head of an election (SELECT ... FOR UPDATE)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM BallotChainHead h WHERE h.electionId = :electionId")
+    Optional<BallotChainHead> findForUpdate(@Param("electionId") UUID electionId);
+
+    /**
+     * Create an empty chain head if the election has none yet
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO ballot_chain_heads (election_id, last_seq, updated_at)
+            VALUES (:electionId, 0, NOW())
+            ON CONFLICT (election_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("electionId") UUID electionId);
+}
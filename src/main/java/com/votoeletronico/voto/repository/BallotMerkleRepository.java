@@ -0,0 +1,107 @@
+package com.votoeletronico.voto.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC access to ballot_merkle_trees and ballot_merkle_nodes.
+ * Interior levels are stored as pages of concatenated 32-byte nodes; a proof reads
+ * one node per level with substring(), never a whole page.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BallotMerkleRepository {
+
+    private static final int NODE_LENGTH = 32;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Remove the tree of an election (nodes cascade)
+     */
+    public void deleteTree(UUID electionId) {
+        jdbcTemplate.update("DELETE FROM ballot_merkle_trees WHERE election_id = ?", electionId);
+    }
+
+    /**
+     * Store one page of a level (the tree row is inserted last, in the same transaction)
+     */
+    public void insertPage(UUID electionId, int level, int page, byte[] nodes) {
+        jdbcTemplate.update("INSERT INTO ballot_merkle_nodes (election_id, level, page, nodes) VALUES (?, ?, ?, ?)",
+                electionId, level, page, nodes);
+    }
+
+    public void insertTree(UUID electionId, long leafCount, byte[] root, int storedFromLevel, int pageSize) {
+        jdbcTemplate.update("""
+                        INSERT INTO ballot_merkle_trees (election_id, leaf_count, root, stored_from_level, page_size)
+                        VALUES (?, ?, ?, ?, ?)
+                        """,
+                electionId, leafCount, root, storedFromLevel, pageSize);
+    }
+
+    public Optional<TreeInfo> findTree(UUID electionId) {
+        return jdbcTemplate.query("""
+                                SELECT leaf_count, root, stored_from_level, page_size
+                                FROM ballot_merkle_trees
+                                WHERE election_id = ?
+                                """,
+                        (rs, rowNum) -> new TreeInfo(
+                                rs.getLong("leaf_count"),
+                                rs.getBytes("root"),
+                                rs.getInt("stored_from_level"),
+                                rs.getInt("page_size")),
+                        electionId)
+                .stream().findFirst();
+    }
+
+    /**
+     * Read single nodes, at most one per level, with one query
+     *
+     * @return node by level
+     */
+    public Map<Integer, byte[]> findNodes(UUID electionId, int pageSize, List<NodeRef> refs) {
+        if (refs.isEmpty()) {
+            return Map.of();
+        }
+        int[] levels = new int[refs.size()];
+        int[] pages = new int[refs.size()];
+        int[] positions = new int[refs.size()];
+        for (int i = 0; i < refs.size(); i++) {
+            NodeRef ref = refs.get(i);
+            levels[i] = ref.level();
+            pages[i] = (int) (ref.index() / pageSize);
+            positions[i] = (int) (ref.index() % pageSize) * NODE_LENGTH + 1;
+        }
+
+        Map<Integer, byte[]> nodes = new HashMap<>();
+        jdbcTemplate.query("""
+                        SELECT v.level, substring(n.nodes FROM v.position FOR 32) AS node
+                        FROM unnest(?::int[], ?::int[], ?::int[]) AS v(level, page, position)
+                        JOIN ballot_merkle_nodes n
+                          ON n.election_id = ? AND n.level = v.level AND n.page = v.page
+                        """,
+                (RowCallbackHandler) rs -> nodes.put(rs.getInt("level"), rs.getBytes("node")),
+                levels, pages, positions, electionId);
+        return nodes;
+    }
+
+    /**
+     * Size and root of a stored tree
+     */
+    public record TreeInfo(long leafCount, byte[] root, int storedFromLevel, int pageSize) {
+    }
+
+    /**
+     * Position of a node in the tree
+     */
+    public record NodeRef(int level, long index) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.votoeletronico.voto.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC access to blind_tokens for the hot vote path.
+ * Consumption is a single conditional update, so no entity is loaded or saved.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BlindTokenJdbcRepository {
+
+    private static final String CONSUME_SQL = """
+            UPDATE blind_tokens
+            SET status = 'CONSUMED', consumed_at = ?, ballot_id = ?, updated_at = ?
+            WHERE token_hash = ?
+            AND election_id = ?
+            AND status = 'ISSUED'
+            AND expires_at > ?
+            RETURNING id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Consume an ISSUED, unexpired token of an election (caller's transaction)
+     * Concurrent calls for the same token serialize on its row; exactly one gets the id back.
+     */
+    public Optional<UUID> consume(UUID electionId, String tokenHash, UUID ballotId, Instant now) {
+        Timestamp ts = Timestamp.from(now);
+        List<UUID> ids = jdbcTemplate.query(CONSUME_SQL,
+                (rs, rowNum) -> rs.getObject("id", UUID.class),
+                ts, ballotId, ts, tokenHash, electionId, ts);
+        return ids.stream().findFirst();
+    }
+}
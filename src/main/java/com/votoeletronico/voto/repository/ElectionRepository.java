@@ -80,6 +80,12 @@ public interface ElectionRepository extends JpaRepository<Election, UUID> {
             """)
     Optional<Election> findByIdWithCandidates(@Param("id") UUID id);
 
+    /**
+     * Current status of an election, read without loading the entity
+     */
+    @Query("SELECT e.status FROM Election e WHERE e.id = :id")
+    Optional<ElectionStatus> findStatusById(@Param("id") UUID id);
+
     /**
      * Count elections by status
      */
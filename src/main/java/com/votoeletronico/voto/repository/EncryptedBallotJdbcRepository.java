@@ -0,0 +1,188 @@
+package com.votoeletronico.voto.repository;
+
+import com.votoeletronico.voto.domain.voting.EncryptedBallot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * JDBC access to encrypted_ballots for the hot append path.
+ * Ballots are immutable once written, so they skip the persistence context entirely,
+ * on the way in and when the tally streams them back out.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EncryptedBallotJdbcRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO encrypted_ballots (
+                id, election_id, seq, encrypted_vote, ballot_hash, hash_version, encryption_algorithm, key_id, nonce,
+                cast_at, ip_hash, user_agent_hash, prev_ballot_hash, verification_signature, homomorphic_vote
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String CHUNK_SQL = """
+            SELECT seq,
+                   id,
+                   coalesce(encrypted_vote, decode(encrypted_vote_b64, 'base64')) AS encrypted_vote,
+                   coalesce(nonce, decode(nonce_b64, 'base64')) AS nonce,
+                   coalesce(ballot_hash, decode(ballot_hash_hex, 'hex')) AS ballot_hash
+            FROM encrypted_ballots
+            WHERE election_id = ? AND seq > ? AND seq <= ?
+            ORDER BY seq
+            LIMIT ?
+            """;
+
+    private static final String HASHES_SQL = """
+            SELECT coalesce(ballot_hash, decode(ballot_hash_hex, 'hex'))
+            FROM encrypted_ballots
+            WHERE election_id = ?
+            ORDER BY seq
+            """;
+
+    private static final String HASH_RANGE_SQL = """
+            SELECT coalesce(ballot_hash, decode(ballot_hash_hex, 'hex'))
+            FROM encrypted_ballots
+            WHERE election_id = ? AND seq BETWEEN ? AND ?
+            ORDER BY seq
+            """;
+
+    private static final String CHAIN_RANGE_SQL = """
+            SELECT seq,
+                   hash_version,
+                   coalesce(encrypted_vote, decode(encrypted_vote_b64, 'base64')) AS encrypted_vote,
+                   coalesce(nonce, decode(nonce_b64, 'base64')) AS nonce,
+                   coalesce(prev_ballot_hash, decode(prev_ballot_hash_hex, 'hex')) AS prev_ballot_hash,
+                   coalesce(ballot_hash, decode(ballot_hash_hex, 'hex')) AS ballot_hash
+            FROM encrypted_ballots
+            WHERE election_id = ? AND seq BETWEEN ? AND ?
+            ORDER BY seq
+            """;
+
+    private static final String HASH_AT_SQL = """
+            SELECT coalesce(ballot_hash, decode(ballot_hash_hex, 'hex'))
+            FROM encrypted_ballots
+            WHERE election_id = ? AND seq = ?
+            """;
+
+    private static final int HASH_FETCH_SIZE = 10000;
+
+    private static final int CHAIN_FETCH_SIZE = 2000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert ballots with a single JDBC batch (caller's transaction)
+     */
+    public void batchInsert(UUID electionId, List<EncryptedBallot> ballots) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, ballots, ballots.size(), (ps, ballot) -> {
+            ps.setObject(1, ballot.getId());
+            ps.setObject(2, electionId);
+            ps.setLong(3, ballot.getSequenceNumber());
+            ps.setBytes(4, ballot.getEncryptedVote());
+            ps.setBytes(5, ballot.getBallotHash());
+            ps.setShort(6, ballot.getHashVersion());
+            ps.setString(7, ballot.getEncryptionAlgorithm());
+            ps.setString(8, ballot.getKeyId());
+            ps.setBytes(9, ballot.getNonce());
+            ps.setTimestamp(10, Timestamp.from(ballot.getCastAt()));
+            ps.setBytes(11, ballot.getIpHash());
+            ps.setBytes(12, ballot.getUserAgentHash());
+            ps.setBytes(13, ballot.getPrevBallotHash());
+            ps.setString(14, ballot.getVerificationSignature());
+            ps.setBytes(15, ballot.getHomomorphicVote());
+        });
+    }
+
+    /**
+     * Next chunk of an election's ballots in chain order (keyset pagination on seq)
+     * Only the columns needed to count and commit to the ballots are read.
+     */
+    public List<BallotRow> findChunk(UUID electionId, long afterSeq, int limit) {
+        return findChunk(electionId, afterSeq, Long.MAX_VALUE, limit);
+    }
+
+    /**
+     * Next chunk of an election's ballots in chain order, stopping at toSeq (inclusive)
+     */
+    public List<BallotRow> findChunk(UUID electionId, long afterSeq, long toSeq, int limit) {
+        return jdbcTemplate.query(CHUNK_SQL,
+                (rs, rowNum) -> new BallotRow(
+                        rs.getLong("seq"),
+                        rs.getObject("id", UUID.class),
+                        rs.getBytes("encrypted_vote"),
+                        rs.getBytes("nonce"),
+                        rs.getBytes("ballot_hash")),
+                electionId, afterSeq, toSeq, limit);
+    }
+
+    /**
+     * Stream the hashes of an election's ballots in chain order with a server-side cursor
+     * Must run inside a transaction, otherwise the driver fetches every row at once.
+     */
+    public void forEachBallotHash(UUID electionId, Consumer<byte[]> consumer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(HASHES_SQL);
+            ps.setFetchSize(HASH_FETCH_SIZE);
+            ps.setObject(1, electionId);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getBytes(1)));
+    }
+
+    /**
+     * Hashes of the ballots with seq in [fromSeq, toSeq], in chain order
+     */
+    public List<byte[]> findHashes(UUID electionId, long fromSeq, long toSeq) {
+        return jdbcTemplate.query(HASH_RANGE_SQL, (rs, rowNum) -> rs.getBytes(1), electionId, fromSeq, toSeq);
+    }
+
+    /**
+     * Stream the ballots with seq in [fromSeq, toSeq] in chain order with a server-side cursor,
+     * with every column their hash covers. Must run inside a transaction, like {@link #forEachBallotHash}.
+     */
+    public void forEachChainRow(UUID electionId, long fromSeq, long toSeq, Consumer<ChainRow> consumer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(CHAIN_RANGE_SQL);
+            ps.setFetchSize(CHAIN_FETCH_SIZE);
+            ps.setObject(1, electionId);
+            ps.setLong(2, fromSeq);
+            ps.setLong(3, toSeq);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(new ChainRow(
+                rs.getLong("seq"),
+                rs.getShort("hash_version"),
+                rs.getBytes("encrypted_vote"),
+                rs.getBytes("nonce"),
+                rs.getBytes("prev_ballot_hash"),
+                rs.getBytes("ballot_hash"))));
+    }
+
+    /**
+     * Stored hash of the ballot with the given seq, or null if there is none
+     */
+    public byte[] findHash(UUID electionId, long seq) {
+        return jdbcTemplate.query(HASH_AT_SQL, (rs, rowNum) -> rs.getBytes(1), electionId, seq).stream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * The parts of a stored ballot read by the tally
+     */
+    public record BallotRow(long seq, UUID id, byte[] encryptedVote, byte[] nonce, byte[] ballotHash) {
+    }
+
+    /**
+     * The parts of a stored ballot its hash is computed from, with the stored hash
+     */
+    public record ChainRow(long seq, short hashVersion, byte[] encryptedVote, byte[] nonce, byte[] prevBallotHash,
+                           byte[] ballotHash) {
+    }
+}
@@ -16,15 +16,31 @@ import java.util.UUID;
 @Repository
 public interface EncryptedBallotRepository extends JpaRepository<EncryptedBallot, UUID> {
 
+    /**
+     * Find ballot id by hash, using the binary hash index
+     * Rows not yet converted by the V7 backfill are matched on the legacy hex column
+     */
+    @Query(value = """
+            SELECT id FROM encrypted_ballots WHERE ballot_hash = :ballotHash
+            UNION ALL
+            SELECT id FROM encrypted_ballots WHERE ballot_hash IS NULL AND ballot_hash_hex = encode(:ballotHash, 'hex')
+            LIMIT 1
+            """, nativeQuery = true)
+    Optional<UUID> findIdByBallotHash(@Param("ballotHash") byte[] ballotHash);
+
     /**
      * Find ballot by hash (voter receipt verification)
      */
-    Optional<EncryptedBallot> findByBallotHash(String ballotHash);
+    default Optional<EncryptedBallot> findByBallotHash(byte[] ballotHash) {
+        return findIdByBallotHash(ballotHash).flatMap(this::findById);
+    }
 
     /**
      * Check if ballot hash exists
      */
-    boolean existsByBallotHash(String ballotHash);
+    default boolean existsByBallotHash(byte[] ballotHash) {
+        return findIdByBallotHash(ballotHash).isPresent();
+    }
 
     /**
      * Find all ballots for an election
@@ -56,55 +72,25 @@ public interface EncryptedBallotRepository extends JpaRepository<EncryptedBallot
             @Param("end") Instant end
     );
 
-    /**
-     * Find untallied ballots for an election
-     */
-    @Query("""
-            SELECT b FROM EncryptedBallot b
-            WHERE b.election.id = :electionId
-            AND b.tallied = false
-            ORDER BY b.castAt ASC
-            """)
-    List<EncryptedBallot> findUntalliedBallots(@Param("electionId") UUID electionId);
-
-    /**
-     * Find last ballot (for hash chain)
-     */
-    @Query("""
-            SELECT b FROM EncryptedBallot b
-            WHERE b.election.id = :electionId
-            ORDER BY b.castAt DESC
-            LIMIT 1
-            """)
-    Optional<EncryptedBallot> findLastBallot(@Param("electionId") UUID electionId);
-
-    /**
-     * Get ballot statistics for election
-     */
-    @Query("""
-            SELECT
-                COUNT(b) as total,
-                COUNT(CASE WHEN b.tallied = true THEN 1 END) as tallied,
-                COUNT(CASE WHEN b.tallied = false THEN 1 END) as pending
-            FROM EncryptedBallot b
-            WHERE b.election.id = :electionId
-            """)
-    Object[] getBallotStatistics(@Param("electionId") UUID electionId);
-
     /**
      * Find ballots by key ID (for key rotation scenarios)
      */
     List<EncryptedBallot> findByElectionIdAndKeyId(UUID electionId, String keyId);
 
     /**
-     * Verify ballot chain integrity
+     * Read a slice of the ballot chain (range scan on the election/seq key)
      */
     @Query("""
             SELECT b FROM EncryptedBallot b
             WHERE b.election.id = :electionId
-            ORDER BY b.castAt ASC
+            AND b.sequenceNumber BETWEEN :fromSeq AND :toSeq
+            ORDER BY b.sequenceNumber ASC
             """)
-    List<EncryptedBallot> findBallotsForChainVerification(@Param("electionId") UUID electionId);
+    List<EncryptedBallot> findChainRange(
+            @Param("electionId") UUID electionId,
+            @Param("fromSeq") long fromSeq,
+            @Param("toSeq") long toSeq
+    );
 
     /**
      * Get ballots cast per hour (for monitoring)
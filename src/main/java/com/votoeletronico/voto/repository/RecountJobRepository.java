@@ -0,0 +1,153 @@
+package com.votoeletronico.voto.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.votoeletronico.voto.domain.results.RecountJob;
+import com.votoeletronico.voto.domain.results.RecountReport;
+import com.votoeletronico.voto.domain.results.TallyJobStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC access to recount_jobs.
+ * A recount is run by the node that accepted it; every later write is conditional on the
+ * job still running, so a recount declared abandoned stays failed.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RecountJobRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Create a running recount of an election
+     */
+    public UUID create(UUID electionId, UUID requestedBy, long totalBallots) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("""
+                        INSERT INTO recount_jobs (id, election_id, status, requested_by, total_ballots)
+                        VALUES (?, ?, 'RUNNING', ?, ?)
+                        """,
+                id, electionId, requestedBy, totalBallots);
+        return id;
+    }
+
+    public Optional<RecountJob> findById(UUID id) {
+        return jdbcTemplate.query("SELECT * FROM recount_jobs WHERE id = ?", this::mapRow, id).stream().findFirst();
+    }
+
+    /**
+     * The most recent recount of an election
+     */
+    public Optional<RecountJob> findLatestByElectionId(UUID electionId) {
+        return jdbcTemplate.query("""
+                        SELECT *
+                        FROM recount_jobs
+                        WHERE election_id = ?
+                        ORDER BY created_at DESC
+                        LIMIT 1
+                        """,
+                this::mapRow, electionId).stream().findFirst();
+    }
+
+    /**
+     * Record the ballots recounted so far
+     *
+     * @return false if the job is no longer running
+     */
+    public boolean progress(UUID id, long processedBallots, Instant now) {
+        return jdbcTemplate.update("""
+                        UPDATE recount_jobs
+                        SET processed_ballots = ?, updated_at = ?
+                        WHERE id = ? AND status = 'RUNNING'
+                        """,
+                processedBallots, Timestamp.from(now), id) == 1;
+    }
+
+    /**
+     * Save the report of a finished recount
+     *
+     * @return false if the job is no longer running
+     */
+    public boolean complete(UUID id, RecountReport report, Instant now) {
+        return jdbcTemplate.update("""
+                        UPDATE recount_jobs
+                        SET status = 'COMPLETED', processed_ballots = ?, report = ?::jsonb, updated_at = ?, completed_at = ?
+                        WHERE id = ? AND status = 'RUNNING'
+                        """,
+                report.ballotsRecounted(), toJson(report), Timestamp.from(now), Timestamp.from(now), id) == 1;
+    }
+
+    /**
+     * Mark a recount failed
+     *
+     * @return false if the job is no longer running
+     */
+    public boolean fail(UUID id, String error, Instant now) {
+        return jdbcTemplate.update("""
+                        UPDATE recount_jobs
+                        SET status = 'FAILED', error = ?, updated_at = ?
+                        WHERE id = ? AND status = 'RUNNING'
+                        """,
+                error, Timestamp.from(now), id) == 1;
+    }
+
+    /**
+     * Fail a recount whose node stopped reporting progress before the given time
+     *
+     * @return false if the job finished or is still making progress
+     */
+    public boolean failAbandoned(UUID id, Instant staleBefore, Instant now) {
+        return jdbcTemplate.update("""
+                        UPDATE recount_jobs
+                        SET status = 'FAILED', error = 'Abandoned: the node running the recount stopped', updated_at = ?
+                        WHERE id = ? AND status = 'RUNNING' AND updated_at < ?
+                        """,
+                Timestamp.from(now), id, Timestamp.from(staleBefore)) == 1;
+    }
+
+    private RecountJob mapRow(ResultSet rs, int rowNum) throws SQLException {
+        String report = rs.getString("report");
+        return new RecountJob(
+                rs.getObject("id", UUID.class),
+                rs.getObject("election_id", UUID.class),
+                TallyJobStatus.valueOf(rs.getString("status")),
+                rs.getObject("requested_by", UUID.class),
+                rs.getString("error"),
+                rs.getLong("total_ballots"),
+                rs.getLong("processed_ballots"),
+                report != null ? fromJson(report) : null,
+                instant(rs.getTimestamp("created_at")),
+                instant(rs.getTimestamp("updated_at")),
+                instant(rs.getTimestamp("completed_at")));
+    }
+
+    private String toJson(RecountReport report) {
+        try {
+            return objectMapper.writeValueAsString(report);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize recount report", e);
+        }
+    }
+
+    private RecountReport fromJson(String report) {
+        try {
+            return objectMapper.readValue(report, RecountReport.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read recount report", e);
+        }
+    }
+
+    private static Instant instant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
@@ -0,0 +1,75 @@
+package com.votoeletronico.voto.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC access to sealed_tallies.
+ * One row per sealed tally election, holding the homomorphic sum of its ballots.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SealedTallyRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Encrypted aggregate of an election and the number of ballots summed into it
+     */
+    public record SealedTally(UUID electionId, byte[] publicKey, int slots, byte[] aggregate, long ballotCount) {
+    }
+
+    /**
+     * Create the row of an election with an empty aggregate
+     */
+    public void create(UUID electionId, byte[] publicKey, int slots, byte[] aggregate) {
+        jdbcTemplate.update("""
+                        INSERT INTO sealed_tallies (election_id, public_key, slots, aggregate)
+                        VALUES (?, ?, ?, ?)
+                        """,
+                electionId, publicKey, slots, aggregate);
+    }
+
+    /**
+     * Get the sealed tally of an election
+     */
+    public Optional<SealedTally> find(UUID electionId) {
+        return query("SELECT * FROM sealed_tallies WHERE election_id = ?", electionId);
+    }
+
+    /**
+     * Get and lock the sealed tally of an election (caller's transaction)
+     */
+    public Optional<SealedTally> findForUpdate(UUID electionId) {
+        return query("SELECT * FROM sealed_tallies WHERE election_id = ? FOR UPDATE", electionId);
+    }
+
+    /**
+     * Replace the aggregate after adding a batch of ballots to it
+     */
+    public void updateAggregate(UUID electionId, byte[] aggregate, long addedBallots) {
+        jdbcTemplate.update("""
+                        UPDATE sealed_tallies
+                        SET aggregate = ?, ballot_count = ballot_count + ?, updated_at = CURRENT_TIMESTAMP
+                        WHERE election_id = ?
+                        """,
+                aggregate, addedBallots, electionId);
+    }
+
+    private Optional<SealedTally> query(String sql, UUID electionId) {
+        List<SealedTally> rows = jdbcTemplate.query(sql,
+                (rs, rowNum) -> new SealedTally(
+                        rs.getObject("election_id", UUID.class),
+                        rs.getBytes("public_key"),
+                        rs.getInt("slots"),
+                        rs.getBytes("aggregate"),
+                        rs.getLong("ballot_count")),
+                electionId);
+        return rows.stream().findFirst();
+    }
+}
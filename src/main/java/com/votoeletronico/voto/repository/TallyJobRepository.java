@@ -0,0 +1,189 @@
+package com.votoeletronico.voto.repository;
+
+import com.votoeletronico.voto.domain.results.TallyJob;
+import com.votoeletronico.voto.domain.results.TallyJobStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC access to tally_jobs.
+ * Every state change after creation is conditional on the status and, once claimed, on
+ * the owner, so a node that lost its lease cannot overwrite the checkpoint of the new one.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TallyJobRepository {
+
+    private static final RowMapper<TallyJob> ROW_MAPPER = TallyJobRepository::mapRow;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Create a queued job for an election result
+     */
+    public UUID create(UUID electionId, UUID electionResultId, UUID requestedBy, long totalBallots, int candidateCount) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("""
+                        INSERT INTO tally_jobs (id, election_id, election_result_id, status, requested_by, total_ballots, candidate_votes)
+                        VALUES (?, ?, ?, 'QUEUED', ?, ?, ?)
+                        """,
+                id, electionId, electionResultId, requestedBy, totalBallots, new long[candidateCount]);
+        return id;
+    }
+
+    public Optional<TallyJob> findById(UUID id) {
+        return jdbcTemplate.query("SELECT * FROM tally_jobs WHERE id = ?", ROW_MAPPER, id).stream().findFirst();
+    }
+
+    public Optional<TallyJob> findByElectionResultId(UUID electionResultId) {
+        return jdbcTemplate.query("SELECT * FROM tally_jobs WHERE election_result_id = ?", ROW_MAPPER, electionResultId)
+                .stream().findFirst();
+    }
+
+    /**
+     * Jobs no node is working on: queued, or running under an expired lease
+     */
+    public List<TallyJob> findClaimable(Instant now, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT *
+                        FROM tally_jobs
+                        WHERE status = 'QUEUED' OR (status = 'RUNNING' AND lease_expires_at < ?)
+                        ORDER BY created_at
+                        LIMIT ?
+                        """,
+                ROW_MAPPER, Timestamp.from(now), limit);
+    }
+
+    /**
+     * Take the lease of a claimable job and start a new run from its checkpoint
+     *
+     * @return the claimed job, or empty if another node holds it or it is no longer active
+     */
+    public Optional<TallyJob> claim(UUID id, String owner, Instant now, Instant leaseExpiresAt) {
+        return jdbcTemplate.query("""
+                        UPDATE tally_jobs
+                        SET status = 'RUNNING',
+                            owner = ?,
+                            lease_expires_at = ?,
+                            run_started_at = ?,
+                            run_start_ballots = valid_votes + abstentions + invalid_votes,
+                            attempts = attempts + 1
+                        WHERE id = ?
+                        AND (status = 'QUEUED' OR (status = 'RUNNING' AND lease_expires_at < ?))
+                        RETURNING *
+                        """,
+                ROW_MAPPER,
+                owner, Timestamp.from(leaseExpiresAt), Timestamp.from(now), id, Timestamp.from(now))
+                .stream().findFirst();
+    }
+
+    /**
+     * Save the counters up to lastSeq and extend the lease (same transaction as the chunk's ledger row)
+     *
+     * @return false if the caller no longer holds the job
+     */
+    public boolean checkpoint(UUID id, String owner, long lastSeq, long[] candidateVotes, long validVotes,
+                              long abstentions, long invalidVotes, Instant now, Instant leaseExpiresAt) {
+        return jdbcTemplate.update("""
+                        UPDATE tally_jobs
+                        SET last_seq = ?,
+                            candidate_votes = ?,
+                            valid_votes = ?,
+                            abstentions = ?,
+                            invalid_votes = ?,
+                            checkpointed_at = ?,
+                            lease_expires_at = ?
+                        WHERE id = ? AND owner = ? AND status = 'RUNNING'
+                        """,
+                lastSeq, candidateVotes, validVotes, abstentions, invalidVotes,
+                Timestamp.from(now), Timestamp.from(leaseExpiresAt), id, owner) == 1;
+    }
+
+    /**
+     * Mark a job completed (same transaction as the saved results)
+     *
+     * @return false if the caller no longer holds the job
+     */
+    public boolean complete(UUID id, String owner, Instant now) {
+        return jdbcTemplate.update("""
+                        UPDATE tally_jobs
+                        SET status = 'COMPLETED', completed_at = ?, lease_expires_at = NULL
+                        WHERE id = ? AND owner = ? AND status = 'RUNNING'
+                        """,
+                Timestamp.from(now), id, owner) == 1;
+    }
+
+    /**
+     * Mark a job failed, keeping its checkpoint
+     *
+     * @return false if the caller no longer holds the job
+     */
+    public boolean fail(UUID id, String owner, String error, Instant now) {
+        return jdbcTemplate.update("""
+                        UPDATE tally_jobs
+                        SET status = 'FAILED', error = ?, checkpointed_at = ?, lease_expires_at = NULL
+                        WHERE id = ? AND owner = ? AND status = 'RUNNING'
+                        """,
+                error, Timestamp.from(now), id, owner) == 1;
+    }
+
+    /**
+     * Queue a failed job again; it resumes from its checkpoint
+     */
+    public boolean requeue(UUID id, UUID requestedBy) {
+        return jdbcTemplate.update("""
+                        UPDATE tally_jobs
+                        SET status = 'QUEUED', requested_by = ?, error = NULL, owner = NULL
+                        WHERE id = ? AND status = 'FAILED'
+                        """,
+                requestedBy, id) == 1;
+    }
+
+    private static TallyJob mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new TallyJob(
+                rs.getObject("id", UUID.class),
+                rs.getObject("election_id", UUID.class),
+                rs.getObject("election_result_id", UUID.class),
+                TallyJobStatus.valueOf(rs.getString("status")),
+                rs.getObject("requested_by", UUID.class),
+                rs.getInt("attempts"),
+                rs.getString("error"),
+                rs.getLong("total_ballots"),
+                rs.getLong("last_seq"),
+                longs(rs.getArray("candidate_votes")),
+                rs.getLong("valid_votes"),
+                rs.getLong("abstentions"),
+                rs.getLong("invalid_votes"),
+                rs.getString("owner"),
+                instant(rs.getTimestamp("lease_expires_at")),
+                instant(rs.getTimestamp("run_started_at")),
+                rs.getLong("run_start_ballots"),
+                instant(rs.getTimestamp("created_at")),
+                instant(rs.getTimestamp("checkpointed_at")),
+                instant(rs.getTimestamp("completed_at")));
+    }
+
+    private static long[] longs(Array array) throws SQLException {
+        Long[] boxed = (Long[]) array.getArray();
+        long[] values = new long[boxed.length];
+        for (int i = 0; i < boxed.length; i++) {
+            values[i] = boxed[i];
+        }
+        return values;
+    }
+
+    private static Instant instant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
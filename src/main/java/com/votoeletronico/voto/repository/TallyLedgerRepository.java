@@ -0,0 +1,66 @@
+package com.votoeletronico.voto.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC access to tally_ledger.
+ * One row per committed tally chunk, covering a dense range of ballot sequence numbers.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TallyLedgerRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Record a counted range of ballots (caller's transaction, together with the chunk's progress)
+     */
+    public void record(UUID electionId, UUID electionResultId, long fromSeq, long toSeq) {
+        jdbcTemplate.update("""
+                        INSERT INTO tally_ledger (election_id, election_result_id, from_seq, to_seq)
+                        VALUES (?, ?, ?, ?)
+                        """,
+                electionId, electionResultId, fromSeq, toSeq);
+    }
+
+    /**
+     * Number of ballots of an election already counted
+     */
+    public long countTallied(UUID electionId) {
+        Long count = jdbcTemplate.queryForObject("""
+                        SELECT COALESCE(SUM(to_seq - from_seq + 1), 0)
+                        FROM tally_ledger
+                        WHERE election_id = ?
+                        """,
+                Long.class, electionId);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Check if the ballot with the given sequence number has been counted
+     */
+    public boolean isTallied(UUID electionId, long seq) {
+        List<Boolean> covered = jdbcTemplate.query("""
+                        SELECT to_seq >= ?
+                        FROM tally_ledger
+                        WHERE election_id = ? AND from_seq <= ?
+                        ORDER BY from_seq DESC
+                        LIMIT 1
+                        """,
+                (rs, rowNum) -> rs.getBoolean(1),
+                seq, electionId, seq);
+        return !covered.isEmpty() && covered.get(0);
+    }
+
+    /**
+     * Forget the counted ranges of an election (the tally that wrote them failed)
+     */
+    public int deleteByElectionId(UUID electionId) {
+        return jdbcTemplate.update("DELETE FROM tally_ledger WHERE election_id = ?", electionId);
+    }
+}
@@ -0,0 +1,195 @@
+package com.votoeletronico.voto.repository;
+
+import com.votoeletronico.voto.domain.results.TallyJobStatus;
+import com.votoeletronico.voto.domain.results.TallyPartition;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC access to tally_partitions, the work queue of partitioned tally jobs.
+ * Like tally_jobs, every change after claiming is conditional on the owner, so a node
+ * whose lease expired cannot complete a range another node has taken over.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TallyPartitionRepository {
+
+    private static final RowMapper<TallyPartition> ROW_MAPPER = TallyPartitionRepository::mapRow;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Create the queued partitions of a job (caller's transaction, together with the job)
+     *
+     * @param ranges inclusive [fromSeq, toSeq] ranges, numbered in order
+     */
+    public void createAll(UUID jobId, UUID electionId, List<long[]> ranges, int candidateCount) {
+        List<Object[]> rows = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            long[] range = ranges.get(i);
+            rows.add(new Object[]{jobId, i, electionId, range[0], range[1], new long[candidateCount]});
+        }
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO tally_partitions (job_id, partition_no, election_id, from_seq, to_seq, candidate_votes)
+                        VALUES (?, ?, ?, ?, ?, ?)
+                        """,
+                rows);
+    }
+
+    public boolean existsByJobId(UUID jobId) {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM tally_partitions WHERE job_id = ?)", Boolean.class, jobId);
+        return exists != null && exists;
+    }
+
+    /**
+     * Partitions of a job in sequence order
+     */
+    public List<TallyPartition> findByJobId(UUID jobId) {
+        return jdbcTemplate.query("SELECT * FROM tally_partitions WHERE job_id = ? ORDER BY partition_no",
+                ROW_MAPPER, jobId);
+    }
+
+    /**
+     * Partitions no node is working on: queued, or running under an expired lease
+     */
+    public List<TallyPartition> findClaimable(Instant now, int maxAttempts, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT *
+                        FROM tally_partitions
+                        WHERE (status = 'QUEUED' OR (status = 'RUNNING' AND lease_expires_at < ?))
+                        AND attempts < ?
+                        ORDER BY created_at, partition_no
+                        LIMIT ?
+                        """,
+                ROW_MAPPER, Timestamp.from(now), maxAttempts, limit);
+    }
+
+    /**
+     * Take the lease of a claimable partition
+     *
+     * @return the claimed partition, or empty if another node holds it or it is done
+     */
+    public Optional<TallyPartition> claim(UUID jobId, int partitionNo, String owner, int maxAttempts,
+                                          Instant now, Instant leaseExpiresAt) {
+        return jdbcTemplate.query("""
+                        UPDATE tally_partitions
+                        SET status = 'RUNNING',
+                            owner = ?,
+                            lease_expires_at = ?,
+                            attempts = attempts + 1
+                        WHERE job_id = ? AND partition_no = ?
+                        AND (status = 'QUEUED' OR (status = 'RUNNING' AND lease_expires_at < ?))
+                        AND attempts < ?
+                        RETURNING *
+                        """,
+                ROW_MAPPER,
+                owner, Timestamp.from(leaseExpiresAt), jobId, partitionNo, Timestamp.from(now), maxAttempts)
+                .stream().findFirst();
+    }
+
+    /**
+     * Extend the lease of a partition being counted
+     *
+     * @return false if the caller no longer holds the partition
+     */
+    public boolean renewLease(UUID jobId, int partitionNo, String owner, Instant leaseExpiresAt) {
+        return jdbcTemplate.update("""
+                        UPDATE tally_partitions
+                        SET lease_expires_at = ?
+                        WHERE job_id = ? AND partition_no = ? AND owner = ? AND status = 'RUNNING'
+                        """,
+                Timestamp.from(leaseExpiresAt), jobId, partitionNo, owner) == 1;
+    }
+
+    /**
+     * Save the counters of a fully counted partition (same transaction as its ledger row)
+     *
+     * @return false if the caller no longer holds the partition
+     */
+    public boolean complete(UUID jobId, int partitionNo, String owner, long[] candidateVotes, long validVotes,
+                            long abstentions, long invalidVotes, Instant now) {
+        return jdbcTemplate.update("""
+                        UPDATE tally_partitions
+                        SET status = 'COMPLETED',
+                            candidate_votes = ?,
+                            valid_votes = ?,
+                            abstentions = ?,
+                            invalid_votes = ?,
+                            completed_at = ?,
+                            error = NULL,
+                            lease_expires_at = NULL
+                        WHERE job_id = ? AND partition_no = ? AND owner = ? AND status = 'RUNNING'
+                        """,
+                candidateVotes, validVotes, abstentions, invalidVotes, Timestamp.from(now),
+                jobId, partitionNo, owner) == 1;
+    }
+
+    /**
+     * Give a partition back to the queue after an error; it is retried while it has attempts left
+     */
+    public boolean release(UUID jobId, int partitionNo, String owner, String error) {
+        return jdbcTemplate.update("""
+                        UPDATE tally_partitions
+                        SET status = 'QUEUED', owner = NULL, lease_expires_at = NULL, error = ?
+                        WHERE job_id = ? AND partition_no = ? AND owner = ? AND status = 'RUNNING'
+                        """,
+                error, jobId, partitionNo, owner) == 1;
+    }
+
+    /**
+     * Give the unfinished partitions of a re-queued job a fresh set of attempts
+     */
+    public int resetAttempts(UUID jobId) {
+        return jdbcTemplate.update("""
+                        UPDATE tally_partitions
+                        SET attempts = 0, error = NULL
+                        WHERE job_id = ? AND status <> 'COMPLETED'
+                        """,
+                jobId);
+    }
+
+    private static TallyPartition mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new TallyPartition(
+                rs.getObject("job_id", UUID.class),
+                rs.getInt("partition_no"),
+                rs.getObject("election_id", UUID.class),
+                rs.getLong("from_seq"),
+                rs.getLong("to_seq"),
+                TallyJobStatus.valueOf(rs.getString("status")),
+                rs.getInt("attempts"),
+                rs.getString("error"),
+                rs.getString("owner"),
+                instant(rs.getTimestamp("lease_expires_at")),
+                longs(rs.getArray("candidate_votes")),
+                rs.getLong("valid_votes"),
+                rs.getLong("abstentions"),
+                rs.getLong("invalid_votes"),
+                instant(rs.getTimestamp("completed_at")));
+    }
+
+    private static long[] longs(Array array) throws SQLException {
+        Long[] boxed = (Long[]) array.getArray();
+        long[] values = new long[boxed.length];
+        for (int i = 0; i < boxed.length; i++) {
+            values[i] = boxed[i];
+        }
+        return values;
+    }
+
+    private static Instant instant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
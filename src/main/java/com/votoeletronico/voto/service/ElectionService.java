@@ -1,6 +1,7 @@
 package com.votoeletronico.voto.service;
 
 import com.votoeletronico.voto.audit.AuditService;
+import com.votoeletronico.voto.config.CryptoProperties;
 import com.votoeletronico.voto.domain.audit.AuditEventType;
 import com.votoeletronico.voto.domain.election.Election;
 import com.votoeletronico.voto.domain.election.ElectionStatus;
@@ -11,6 +12,10 @@ import com.votoeletronico.voto.exception.BusinessException;
 import com.votoeletronico.voto.exception.ResourceNotFoundException;
 import com.votoeletronico.voto.repository.ElectionRepository;
 import com.votoeletronico.voto.service.mapper.ElectionMapper;
+import com.votoeletronico.voto.service.tally.SealedTallyService;
+import com.votoeletronico.voto.service.tally.TallyJobRunner;
+import com.votoeletronico.voto.service.voting.BallotSequencer;
+import com.votoeletronico.voto.service.voting.ElectionSnapshotCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -31,6 +36,11 @@ public class ElectionService {
     private final ElectionRepository electionRepository;
     private final ElectionMapper electionMapper;
     private final AuditService auditService;
+    private final ElectionSnapshotCache electionSnapshotCache;
+    private final BallotSequencer ballotSequencer;
+    private final CryptoProperties cryptoProperties;
+    private final SealedTallyService sealedTallyService;
+    private final TallyJobRunner tallyJobRunner;
 
     /**
      * Create a new election
@@ -46,6 +56,7 @@ public class ElectionService {
 
         Election election = electionMapper.toEntity(request);
         election.setCreatedBy(createdBy);
+        election.setSignatureAlgorithm(cryptoProperties.getSignatureAlgorithm());
 
         Election saved = electionRepository.save(election);
         log.info("Election created successfully with ID: {}", saved.getId());
@@ -167,6 +178,14 @@ public class ElectionService {
         election.setStatus(ElectionStatus.RUNNING);
         Election updated = electionRepository.save(election);
 
+        // Publish the tally key before the first ballot can be cast
+        if (updated.isSealedTally()) {
+            sealedTallyService.open(id, updated.getCandidatesInBallotOrder().size());
+        }
+
+        // Candidates are frozen from now on: validate votes from memory
+        electionSnapshotCache.publishAfterCommit(updated);
+
         log.info("Election started successfully: {}", id);
         return electionMapper.toResponse(updated);
     }
@@ -187,6 +206,15 @@ public class ElectionService {
         election.setStatus(ElectionStatus.CLOSED);
         Election updated = electionRepository.save(election);
 
+        // Stop appends on every node, then drop the cached snapshot
+        ballotSequencer.seal(id);
+        electionSnapshotCache.invalidateAfterCommit(id);
+
+        // The sealed aggregate is final now: decrypting it takes seconds, so do it right away
+        if (updated.isSealedTally()) {
+            tallyJobRunner.startTallyAfterCommit(id);
+        }
+
         log.info("Election closed successfully: {}", id);
         return electionMapper.toResponse(updated);
     }
@@ -207,6 +235,10 @@ public class ElectionService {
         election.setStatus(ElectionStatus.CANCELLED);
         Election updated = electionRepository.save(election);
 
+        // Stop appends on every node, then drop the cached snapshot
+        ballotSequencer.seal(id);
+        electionSnapshotCache.invalidateAfterCommit(id);
+
         log.info("Election cancelled successfully: {}", id);
         return electionMapper.toResponse(updated);
     }
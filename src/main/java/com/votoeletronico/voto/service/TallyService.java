@@ -1,30 +1,45 @@
 package com.votoeletronico.voto.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.votoeletronico.voto.config.TallyProperties;
 import com.votoeletronico.voto.domain.election.Candidate;
 import com.votoeletronico.voto.domain.election.Election;
 import com.votoeletronico.voto.domain.election.ElectionStatus;
 import com.votoeletronico.voto.domain.results.CandidateResult;
 import com.votoeletronico.voto.domain.results.ElectionResult;
+import com.votoeletronico.voto.domain.results.TallyJob;
+import com.votoeletronico.voto.domain.results.TallyJobStatus;
+import com.votoeletronico.voto.domain.results.TallyPartition;
 import com.votoeletronico.voto.domain.results.TallyStatus;
-import com.votoeletronico.voto.domain.voting.EncryptedBallot;
+import com.votoeletronico.voto.domain.voting.BallotChainHead;
 import com.votoeletronico.voto.exception.BusinessException;
 import com.votoeletronico.voto.exception.ResourceNotFoundException;
+import com.votoeletronico.voto.repository.BallotChainHeadRepository;
 import com.votoeletronico.voto.repository.CandidateResultRepository;
 import com.votoeletronico.voto.repository.ElectionRepository;
 import com.votoeletronico.voto.repository.ElectionResultRepository;
-import com.votoeletronico.voto.repository.EncryptedBallotRepository;
+import com.votoeletronico.voto.repository.EncryptedBallotJdbcRepository;
+import com.votoeletronico.voto.repository.EncryptedBallotJdbcRepository.BallotRow;
+import com.votoeletronico.voto.repository.TallyJobRepository;
+import com.votoeletronico.voto.repository.TallyLedgerRepository;
+import com.votoeletronico.voto.repository.TallyPartitionRepository;
+import com.votoeletronico.voto.service.crypto.BallotCodec;
 import com.votoeletronico.voto.service.crypto.CryptoService;
+import com.votoeletronico.voto.service.crypto.Hex;
+import com.votoeletronico.voto.service.merkle.BallotMerkleService;
+import com.votoeletronico.voto.service.tally.BallotTallier;
+import com.votoeletronico.voto.service.tally.SealedTallyService;
+import com.votoeletronico.voto.service.tally.TallyCounts;
+import com.votoeletronico.voto.service.tally.TallyPartitioner;
+import com.votoeletronico.voto.service.tally.TallyWorkers;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.crypto.SecretKey;
 import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -34,164 +49,489 @@ public class TallyService {
     private final ElectionRepository electionRepository;
     private final ElectionResultRepository electionResultRepository;
     private final CandidateResultRepository candidateResultRepository;
-    private final EncryptedBallotRepository ballotRepository;
+    private final EncryptedBallotJdbcRepository ballotJdbcRepository;
+    private final TallyLedgerRepository tallyLedgerRepository;
+    private final TallyJobRepository tallyJobRepository;
+    private final TallyPartitionRepository tallyPartitionRepository;
+    private final BallotChainHeadRepository chainHeadRepository;
     private final VotingService votingService;
     private final CryptoService cryptoService;
-    private final ObjectMapper objectMapper;
+    private final BallotCodec ballotCodec;
+    private final TransactionTemplate transactionTemplate;
+    private final TallyProperties tallyProperties;
+    private final TallyWorkers tallyWorkers;
+    private final BallotMerkleService ballotMerkleService;
+    private final SealedTallyService sealedTallyService;
 
     /**
-     * Perform the tally process for an election
+     * Start the tally of a closed election as a background job
+     *
+     * Idempotent: an active job is returned as is, and a failed one is queued again to
+     * resume from its last checkpoint. Only a completed tally is refused.
      */
     @Transactional
-    public ElectionResult performTally(UUID electionId, UUID userId) {
-        log.info("Starting tally for election {}", electionId);
-
-        Election election = electionRepository.findById(electionId)
+    public TallyJob startTally(UUID electionId, UUID userId) {
+        Election election = electionRepository.findByIdWithCandidates(electionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Election", "id", electionId));
 
         if (election.getStatus() != ElectionStatus.CLOSED) {
             throw new BusinessException("Election must be CLOSED to perform tally");
         }
 
-        if (electionResultRepository.existsByElectionId(electionId)) {
+        ElectionResult result = electionResultRepository.findByElectionId(electionId).orElse(null);
+        if (result == null) {
+            result = electionResultRepository.save(ElectionResult.builder()
+                    .election(election)
+                    .status(TallyStatus.IN_PROGRESS)
+                    .tallyStartedAt(Instant.now())
+                    .talliedBy(userId)
+                    .build());
+            return createJob(election, result, userId);
+        }
+
+        if (result.isFinal()) {
             throw new BusinessException("Tally already performed for this election");
         }
 
-        // Initialize result
-        ElectionResult result = ElectionResult.builder()
-                .election(election)
-                .status(TallyStatus.IN_PROGRESS)
-                .tallyStartedAt(Instant.now())
-                .talliedBy(userId)
-                .build();
+        UUID resultId = result.getId();
+        TallyJob job = tallyJobRepository.findByElectionResultId(resultId).orElse(null);
+        if (job == null) {
+            // Result left IN_PROGRESS by a synchronous tally that never finished
+            log.warn("Restarting unfinished tally of election {} as a background job", electionId);
+            tallyLedgerRepository.deleteByElectionId(electionId);
+            if (result.getStatus() == TallyStatus.FAILED) {
+                result.resumeTally();
+            }
+            return createJob(election, result, userId);
+        }
+
+        if (job.status() == TallyJobStatus.FAILED) {
+            log.info("Resuming failed tally of election {} from seq {}", electionId, job.lastSeq());
+            if (result.getStatus() == TallyStatus.FAILED) {
+                result.resumeTally();
+            }
+            // Counted partitions are kept; the others get their attempts back
+            tallyPartitionRepository.resetAttempts(job.id());
+            tallyJobRepository.requeue(job.id(), userId);
+            return tallyJobRepository.findById(job.id()).orElseThrow();
+        }
+        return job;
+    }
+
+    private TallyJob createJob(Election election, ElectionResult result, UUID userId) {
+        UUID electionId = election.getId();
+        // Sealed when the election closed, so the number of ballots is final
+        long totalBallots = chainHeadRepository.findById(electionId)
+                .map(BallotChainHead::getLastSeq)
+                .orElse(0L);
+        int candidateCount = election.getCandidatesInBallotOrder().size();
+        UUID jobId = tallyJobRepository.create(electionId, result.getId(), userId, totalBallots, candidateCount);
+
+        int partitionSize = tallyProperties.getPartitionSize();
+        if (!election.isSealedTally() && TallyPartitioner.shouldPartition(totalBallots, partitionSize)) {
+            List<long[]> ranges = TallyPartitioner.split(totalBallots, partitionSize);
+            tallyPartitionRepository.createAll(jobId, electionId, ranges, candidateCount);
+            log.info("Queued tally job {} for election {} ({} ballots in {} partitions)", jobId, electionId,
+                    totalBallots, ranges.size());
+        } else {
+            log.info("Queued tally job {} for election {} ({} ballots)", jobId, electionId, totalBallots);
+        }
+        return tallyJobRepository.findById(jobId).orElseThrow();
+    }
+
+    /**
+     * Run a claimed tally job from its checkpoint to the end
+     *
+     * Ballots are streamed in chain order, one chunk per transaction, so memory use and
+     * transaction length do not grow with the number of ballots. Within a chunk, ballots are
+     * decrypted and counted by the tally worker pool. Every chunk commits the job checkpoint
+     * (last seq and counters) together with its tally ledger row, so a job stopped at any
+     * point resumes after the last committed chunk without counting a ballot twice.
+     * Elections with a sealed tally skip the pass over the ballots and decrypt their
+     * running aggregate instead, unless this node lacks the sealed tally key. Partitioned jobs leave the counting to whichever nodes
+     * claim their partitions, and this node only merges the partial counters.
+     * The ballot Merkle tree is built at the end in one pass over the ballot hashes.
+     */
+    public void runJob(TallyJob job, String owner) {
+        UUID electionId = job.electionId();
+        log.info("Running tally job {} for election {} from seq {}", job.id(), electionId, job.lastSeq());
 
-        result = electionResultRepository.save(result);
+        Election election = transactionTemplate.execute(status -> electionRepository.findByIdWithCandidates(electionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Election", "id", electionId)));
 
         try {
-            // Get encryption key
-            SecretKey key = votingService.getElectionKeyForTally(electionId);
-
-            // Get all ballots
-            List<EncryptedBallot> ballots = ballotRepository.findByElectionId(electionId);
-
-            // Initialize counters
-            Map<UUID, Long> candidateVotes = new HashMap<>();
-            long validVotes = 0;
-            long abstentions = 0;
-            long invalidVotes = 0;
-            long totalBallots = ballots.size();
-
-            // Initialize candidate map for quick lookup
-            Map<UUID, Candidate> candidateMap = election.getCandidates().stream()
-                    .collect(Collectors.toMap(Candidate::getId, c -> c));
-
-            // Process each ballot
-            for (EncryptedBallot ballot : ballots) {
-                try {
-                    String decryptedJson = cryptoService.decryptAES(
-                            ballot.getEncryptedVote(),
-                            ballot.getNonce(),
-                            key);
-
-                    JsonNode node = objectMapper.readTree(decryptedJson);
-                    String type = node.get("type").asText();
-
-                    if ("VOTE".equals(type)) {
-                        String candidateIdStr = node.get("candidateId").asText();
-                        UUID candidateId = UUID.fromString(candidateIdStr);
-
-                        if (candidateMap.containsKey(candidateId)) {
-                            candidateVotes.merge(candidateId, 1L, Long::sum);
-                            validVotes++;
-                        } else {
-                            log.warn("Vote for unknown candidate: {}", candidateId);
-                            invalidVotes++;
-                        }
-                    } else if ("ABSTENTION".equals(type)) {
-                        abstentions++;
-                    } else {
-                        log.warn("Unknown vote type: {}", type);
-                        invalidVotes++;
-                    }
+            List<Candidate> candidates = election.getCandidatesInBallotOrder();
+            TallyCounts counts;
+            if (election.isSealedTally() && sealedTallyService.canDecrypt(electionId)) {
+                counts = countSealed(job, owner, candidates.size());
+            } else if (tallyPartitionRepository.existsByJobId(job.id())) {
+                counts = mergePartitions(job, owner, candidates.size());
+            } else {
+                if (election.isSealedTally()) {
+                    log.warn("Sealed tally key of election {} not held by this node; counting the ballots instead",
+                            electionId);
+                }
+                counts = countBallots(job, owner, candidates);
+            }
+            if (counts == null) {
+                log.info("Tally job {} interrupted; it will resume from its last checkpoint", job.id());
+                return;
+            }
 
-                    ballot.markAsTallied();
-                    ballotRepository.save(ballot);
+            String merkleRoot = Hex.encode(transactionTemplate.execute(status -> ballotMerkleService.buildTree(electionId)));
 
-                } catch (Exception e) {
-                    log.error("Failed to process ballot {}", ballot.getId(), e);
-                    invalidVotes++;
+            transactionTemplate.executeWithoutResult(status -> {
+                completeTally(job.electionResultId(), candidates, counts, merkleRoot);
+                if (!tallyJobRepository.complete(job.id(), owner, Instant.now())) {
+                    throw new TallyLeaseLostException(job.id());
                 }
+            });
+
+            log.info("Tally completed for election {}: {} ballots", electionId, counts.totalBallots());
+
+        } catch (TallyLeaseLostException e) {
+            log.warn("Tally job {} was taken over by another node; stopping here", job.id());
+        } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted()) {
+                log.info("Tally job {} interrupted; it will resume from its last checkpoint", job.id());
+                return;
             }
+            log.error("Tally failed for election {}", electionId, e);
+            transactionTemplate.executeWithoutResult(status -> {
+                // Checkpoint and ledger are kept: a retry resumes where this run stopped
+                if (tallyJobRepository.fail(job.id(), owner, e.getMessage(), Instant.now())) {
+                    ElectionResult result = electionResultRepository.findById(job.electionResultId()).orElseThrow();
+                    result.failTally(e.getMessage());
+                    electionResultRepository.save(result);
+                }
+            });
+        }
+    }
 
-            // Save candidate results
-            List<CandidateResult> candidateResults = new ArrayList<>();
-            for (Candidate candidate : election.getCandidates()) {
-                long votes = candidateVotes.getOrDefault(candidate.getId(), 0L);
+    /**
+     * Decrypt and count the ballots after the job's checkpoint, one chunk per transaction
+     *
+     * @return the final counts, or null when the thread was interrupted
+     */
+    private TallyCounts countBallots(TallyJob job, String owner, List<Candidate> candidates) {
+        UUID electionId = job.electionId();
 
-                CandidateResult candidateResult = CandidateResult.builder()
-                        .electionResult(result)
-                        .candidate(candidate)
-                        .voteCount(votes)
-                        .build();
+        BallotTallier tallier = newTallier(electionId, candidates);
+        TallyCounts counts = TallyCounts.restore(job.candidateVotes(), job.validVotes(), job.abstentions(),
+                job.invalidVotes());
 
-                candidateResult.calculatePercentage(validVotes);
-                candidateResults.add(candidateResult);
+        long afterSeq = job.lastSeq();
+        while (true) {
+            if (Thread.currentThread().isInterrupted()) {
+                return null;
+            }
+            long from = afterSeq;
+            Long lastSeq = transactionTemplate.execute(status -> {
+                List<BallotRow> chunk = ballotJdbcRepository.findChunk(electionId, from, tallyProperties.getChunkSize());
+                if (chunk.isEmpty()) {
+                    return null;
+                }
+                counts.add(tallyWorkers.count(tallier, chunk));
+                long chunkLastSeq = chunk.get(chunk.size() - 1).seq();
+
+                // One ledger row per chunk; ballots themselves are never updated
+                tallyLedgerRepository.record(electionId, job.electionResultId(), chunk.get(0).seq(), chunkLastSeq);
+                checkpoint(job, owner, chunkLastSeq, counts);
+                return chunkLastSeq;
+            });
+            if (lastSeq == null) {
+                return counts;
+            }
+            afterSeq = lastSeq;
+            log.debug("Tally of election {} reached seq {} ({} ballots)", electionId, afterSeq, counts.totalBallots());
+        }
+    }
+
+    private BallotTallier newTallier(UUID electionId, List<Candidate> candidates) {
+        // Get encryption key
+        SecretKey key = votingService.getElectionKeyForTally(electionId);
+
+        // Counters indexed by candidate ordinal (ballot number order)
+        Map<UUID, Integer> ordinalById = new HashMap<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            ordinalById.put(candidates.get(i).getId(), i);
+        }
+        return new BallotTallier(cryptoService, ballotCodec, key, ordinalById);
+    }
+
+    /**
+     * Wait for every partition of the job to be counted, checkpointing the merged counters
+     * of the completed ones as they come in
+     *
+     * @return the final counts, or null when the thread was interrupted
+     */
+    private TallyCounts mergePartitions(TallyJob job, String owner, int candidateCount) {
+        int maxAttempts = tallyProperties.getPartitionMaxAttempts();
+        while (true) {
+            List<TallyPartition> partitions = tallyPartitionRepository.findByJobId(job.id());
+            Instant now = Instant.now();
+
+            TallyCounts counts = new TallyCounts(candidateCount);
+            long countedPrefix = 0;
+            boolean complete = true;
+            for (TallyPartition partition : partitions) {
+                if (partition.status() == TallyJobStatus.COMPLETED) {
+                    counts.add(TallyCounts.restore(partition.candidateVotes(), partition.validVotes(),
+                            partition.abstentions(), partition.invalidVotes()));
+                    if (complete) {
+                        countedPrefix = partition.toSeq();
+                    }
+                    continue;
+                }
+                complete = false;
+                if (partition.isExhausted(now, maxAttempts)) {
+                    throw new BusinessException("Tally partition " + partition.partitionNo() + " (seq "
+                            + partition.fromSeq() + "-" + partition.toSeq() + ") failed after "
+                            + partition.attempts() + " attempts: " + partition.error());
+                }
             }
 
-            // Determine winner(s)
-            if (!candidateResults.isEmpty()) {
-                long maxVotes = candidateResults.stream()
-                        .mapToLong(CandidateResult::getVoteCount)
-                        .max()
-                        .orElse(0);
+            // Also renews this node's lease on the job while the partitions are counted
+            long lastSeq = countedPrefix;
+            transactionTemplate.executeWithoutResult(status -> checkpoint(job, owner, lastSeq, counts));
+            if (complete) {
+                log.info("Merged {} tally partitions of election {}", partitions.size(), job.electionId());
+                return counts;
+            }
+
+            try {
+                Thread.sleep(tallyProperties.getPartitionPollIntervalMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Decrypt and count one claimed partition, one chunk per read, and save its counters
+     * together with its ledger row once the whole range is counted
+     *
+     * A partition is retried as a whole, so nothing is written before it completes; if this
+     * node loses the lease meanwhile, the other node's counters are the ones kept.
+     */
+    public void runPartition(TallyPartition partition, String owner) {
+        UUID electionId = partition.electionId();
+        log.info("Counting tally partition {} of job {} (seq {}-{})", partition.partitionNo(), partition.jobId(),
+                partition.fromSeq(), partition.toSeq());
 
-                candidateResults.stream()
-                        .filter(cr -> cr.getVoteCount() == maxVotes && maxVotes > 0)
-                        .forEach(CandidateResult::markAsWinner);
+        try {
+            List<Candidate> candidates = transactionTemplate.execute(status -> electionRepository
+                    .findByIdWithCandidates(electionId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Election", "id", electionId))
+                    .getCandidatesInBallotOrder());
+            BallotTallier tallier = newTallier(electionId, candidates);
+            TallyCounts counts = tallier.newCounts();
+
+            long afterSeq = partition.fromSeq() - 1;
+            while (afterSeq < partition.toSeq()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    log.info("Tally partition {} of job {} interrupted; its lease will expire",
+                            partition.partitionNo(), partition.jobId());
+                    return;
+                }
+                List<BallotRow> chunk = ballotJdbcRepository.findChunk(electionId, afterSeq, partition.toSeq(),
+                        tallyProperties.getChunkSize());
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                counts.add(tallyWorkers.count(tallier, chunk));
+                afterSeq = chunk.get(chunk.size() - 1).seq();
 
-                // Sort by votes desc
-                candidateResults.sort(Comparator.comparingLong(CandidateResult::getVoteCount).reversed());
+                if (!tallyPartitionRepository.renewLease(partition.jobId(), partition.partitionNo(), owner,
+                        leaseExpiry(Instant.now()))) {
+                    throw new TallyLeaseLostException(partition.jobId());
+                }
+            }
 
-                // Assign rank
-                int rank = 1;
-                for (CandidateResult cr : candidateResults) {
-                    cr.setRankPosition(rank++);
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!tallyPartitionRepository.complete(partition.jobId(), partition.partitionNo(), owner,
+                        counts.candidateVotes(), counts.validVotes(), counts.abstentions(), counts.invalidVotes(),
+                        Instant.now())) {
+                    throw new TallyLeaseLostException(partition.jobId());
                 }
+                tallyLedgerRepository.record(electionId, resultIdOf(partition.jobId()), partition.fromSeq(),
+                        partition.toSeq());
+            });
+            log.info("Counted tally partition {} of job {}: {} ballots", partition.partitionNo(), partition.jobId(),
+                    counts.totalBallots());
+
+        } catch (TallyLeaseLostException e) {
+            log.warn("Tally partition {} of job {} was taken over by another node", partition.partitionNo(),
+                    partition.jobId());
+        } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
             }
+            log.error("Tally partition {} of job {} failed", partition.partitionNo(), partition.jobId(), e);
+            tallyPartitionRepository.release(partition.jobId(), partition.partitionNo(), owner, e.getMessage());
+        }
+    }
 
-            candidateResultRepository.saveAll(candidateResults);
+    /**
+     * Check if this node holds the key to count the ballots of an election
+     */
+    public boolean canCountBallots(UUID electionId) {
+        return votingService.hasElectionKeyForTally(electionId);
+    }
 
-            // Update result totals
-            result.setTotalBallots(totalBallots);
-            result.setValidVotes(validVotes);
-            result.setAbstentions(abstentions);
-            result.setInvalidVotes(invalidVotes);
-            // Assuming tokens issued logic is handled elsewhere or we can query
-            // TokenService
-            // For now leaving tokensIssued as 0 or we need to inject TokenRepository
+    /**
+     * Check if this node can run the tally job of an election: either decrypt its ballots,
+     * or decrypt its sealed running tally
+     */
+    public boolean canRunJob(UUID electionId) {
+        return canCountBallots(electionId) || sealedTallyService.canDecrypt(electionId);
+    }
 
-            // Calculate Merkle Root (simplified: hash of all ballot hashes sorted)
-            String merkleRoot = calculateMerkleRoot(ballots);
+    private UUID resultIdOf(UUID jobId) {
+        return tallyJobRepository.findById(jobId)
+                .map(TallyJob::electionResultId)
+                .orElseThrow(() -> new ResourceNotFoundException("TallyJob", "id", jobId));
+    }
 
-            // Calculate results hash (integrity of the result itself)
-            String resultsData = validVotes + ":" + abstentions + ":" + merkleRoot;
-            String resultsHash = cryptoService.hashSHA256(resultsData);
+    /**
+     * Decrypt the sealed running tally: one decryption per candidate (and abstention),
+     * whatever the number of ballots
+     */
+    private TallyCounts countSealed(TallyJob job, String owner, int candidateCount) {
+        UUID electionId = job.electionId();
+        TallyCounts counts = sealedTallyService.decrypt(electionId, candidateCount, job.totalBallots());
+
+        if (job.lastSeq() < job.totalBallots()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                // The aggregate covers the whole sealed chain, so one ledger row does too
+                tallyLedgerRepository.record(electionId, job.electionResultId(), job.lastSeq() + 1, job.totalBallots());
+                checkpoint(job, owner, job.totalBallots(), counts);
+            });
+        }
+        log.info("Decrypted sealed tally of election {} ({} ballots)", electionId, counts.totalBallots());
+        return counts;
+    }
 
-            // Sign results (simplified)
-            String signature = cryptoService.hashSHA256(resultsHash + electionId);
+    /**
+     * Commit the job's progress (caller's transaction); fails if another node took the job over
+     */
+    private void checkpoint(TallyJob job, String owner, long lastSeq, TallyCounts counts) {
+        Instant now = Instant.now();
+        if (!tallyJobRepository.checkpoint(job.id(), owner, lastSeq, counts.candidateVotes(),
+                counts.validVotes(), counts.abstentions(), counts.invalidVotes(), now, leaseExpiry(now))) {
+            throw new TallyLeaseLostException(job.id());
+        }
+    }
 
-            result.completeTally(merkleRoot, resultsHash, signature);
-            result.setCandidateResults(candidateResults); // for return
+    private Instant leaseExpiry(Instant now) {
+        return now.plusMillis(tallyProperties.getLeaseTimeoutMs());
+    }
 
-            return electionResultRepository.save(result);
+    /**
+     * Get a tally job of an election
+     */
+    public TallyJob getTallyJob(UUID electionId, UUID jobId) {
+        return tallyJobRepository.findById(jobId)
+                .filter(job -> job.electionId().equals(electionId))
+                .orElseThrow(() -> new ResourceNotFoundException("TallyJob", "id", jobId));
+    }
 
-        } catch (Exception e) {
-            log.error("Tally failed for election {}", electionId, e);
-            result.failTally(e.getMessage());
-            return electionResultRepository.save(result);
+    /**
+     * Get the tally job of an election
+     */
+    public TallyJob getLatestTallyJob(UUID electionId) {
+        ElectionResult result = electionResultRepository.findByElectionId(electionId)
+                .orElseThrow(() -> new ResourceNotFoundException("TallyJob", "electionId", electionId));
+        return tallyJobRepository.findByElectionResultId(result.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("TallyJob", "electionId", electionId));
+    }
+
+    /**
+     * The job was claimed by another node after this one's lease expired
+     */
+    private static final class TallyLeaseLostException extends RuntimeException {
+        TallyLeaseLostException(UUID jobId) {
+            super("Lease lost on tally job " + jobId);
         }
     }
 
+    /**
+     * Save candidate results and final totals
+     */
+    private ElectionResult completeTally(UUID resultId, List<Candidate> candidates, TallyCounts counts, String merkleRoot) {
+        ElectionResult result = electionResultRepository.findById(resultId)
+                .orElseThrow(() -> new ResourceNotFoundException("ElectionResult", "id", resultId));
+        long validVotes = counts.validVotes();
+        long abstentions = counts.abstentions();
+
+        // Save candidate results
+        List<CandidateResult> candidateResults = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            Candidate candidate = candidates.get(i);
+            long votes = counts.candidateVotes(i);
+
+            CandidateResult candidateResult = CandidateResult.builder()
+                    .electionResult(result)
+                    .candidate(candidate)
+                    .voteCount(votes)
+                    .build();
+
+            candidateResult.calculatePercentage(validVotes);
+            candidateResults.add(candidateResult);
+        }
+
+        // Determine winner(s)
+        if (!candidateResults.isEmpty()) {
+            long maxVotes = candidateResults.stream()
+                    .mapToLong(CandidateResult::getVoteCount)
+                    .max()
+                    .orElse(0);
+
+            candidateResults.stream()
+                    .filter(cr -> cr.getVoteCount() == maxVotes && maxVotes > 0)
+                    .forEach(CandidateResult::markAsWinner);
+
+            // Sort by votes desc
+            candidateResults.sort(Comparator.comparingLong(CandidateResult::getVoteCount).reversed());
+
+            // Assign rank
+            int rank = 1;
+            for (CandidateResult cr : candidateResults) {
+                cr.setRankPosition(rank++);
+            }
+        }
+
+        candidateResultRepository.saveAll(candidateResults);
+
+        // Update result totals
+        result.setTotalBallots(counts.totalBallots());
+        result.setValidVotes(validVotes);
+        result.setAbstentions(abstentions);
+        result.setInvalidVotes(counts.invalidVotes());
+        // Assuming tokens issued logic is handled elsewhere or we can query
+        // TokenService
+        // For now leaving tokensIssued as 0 or we need to inject TokenRepository
+
+        // Calculate results hash (integrity of the result itself)
+        String resultsHash = resultsHash(validVotes, abstentions, merkleRoot);
+
+        // Sign results (simplified)
+        String signature = cryptoService.hashSHA256(resultsHash + result.getElection().getId());
+
+        result.completeTally(merkleRoot, resultsHash, signature);
+        result.getCandidateResults().addAll(candidateResults); // for return
+
+        return electionResultRepository.save(result);
+    }
+
+    /**
+     * Hash committing to the totals and the ballot Merkle root of a result
+     */
+    public String resultsHash(long validVotes, long abstentions, String merkleRoot) {
+        return cryptoService.hashSHA256(validVotes + ":" + abstentions + ":" + merkleRoot);
+    }
+
     /**
      * Get results for an election
      */
@@ -209,21 +549,4 @@ public class TallyService {
         result.publish();
         return electionResultRepository.save(result);
     }
-
-    private String calculateMerkleRoot(List<EncryptedBallot> ballots) {
-        if (ballots.isEmpty())
-            return null;
-
-        List<String> hashes = ballots.stream()
-                .map(EncryptedBallot::getBallotHash)
-                .sorted()
-                .collect(Collectors.toList());
-
-        StringBuilder combined = new StringBuilder();
-        for (String hash : hashes) {
-            combined.append(hash);
-        }
-
-        return cryptoService.hashSHA256(combined.toString());
-    }
 }
@@ -2,25 +2,35 @@ package com.votoeletronico.voto.service;
 
 import com.votoeletronico.voto.audit.AuditService;
 import com.votoeletronico.voto.domain.audit.AuditEventType;
-import com.votoeletronico.voto.domain.election.Election;
+import com.votoeletronico.voto.domain.election.ElectionStatus;
 import com.votoeletronico.voto.domain.voter.Voter;
 import com.votoeletronico.voto.domain.voting.BlindToken;
 import com.votoeletronico.voto.domain.voting.TokenStatus;
 import com.votoeletronico.voto.exception.BusinessException;
 import com.votoeletronico.voto.exception.ResourceNotFoundException;
+import com.votoeletronico.voto.repository.BlindTokenJdbcRepository;
 import com.votoeletronico.voto.repository.BlindTokenRepository;
 import com.votoeletronico.voto.repository.ElectionRepository;
 import com.votoeletronico.voto.repository.VoterRepository;
 import com.votoeletronico.voto.service.crypto.CryptoService;
+import com.votoeletronico.voto.service.crypto.ElectionKeyRing;
+import com.votoeletronico.voto.service.crypto.SignatureScheme;
+import com.votoeletronico.voto.service.crypto.SignatureSchemes;
+import com.votoeletronico.voto.service.voting.ElectionSnapshot;
+import com.votoeletronico.voto.service.voting.ElectionSnapshotCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.security.KeyPair;
 import java.security.PrivateKey;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -34,14 +44,14 @@ import java.util.UUID;
 public class TokenService {
 
     private final BlindTokenRepository tokenRepository;
+    private final BlindTokenJdbcRepository tokenJdbcRepository;
     private final ElectionRepository electionRepository;
     private final VoterRepository voterRepository;
     private final CryptoService cryptoService;
     private final AuditService auditService;
-
-    // In a production system, keys would be stored in HSM or secure key management service
-    // For now, we'll generate keys per election and store them temporarily
-    private final Map<UUID, KeyPair> electionKeys = new java.util.concurrent.ConcurrentHashMap<>();
+    private final ElectionSnapshotCache electionSnapshotCache;
+    private final SignatureSchemes signatureSchemes;
+    private final ElectionKeyRing electionKeyRing;
 
     /**
      * Issue a blind token to an eligible voter
@@ -50,13 +60,18 @@ public class TokenService {
     public BlindToken issueToken(UUID electionId, String voterExternalId) {
         log.info("Issuing token for election {} to voter {}", electionId, voterExternalId);
 
-        // Find election
-        Election election = electionRepository.findById(electionId)
-                .orElseThrow(() -> new ResourceNotFoundException("Election", "id", electionId));
-
-        // Check election is in RUNNING status
+        // Check election is in RUNNING status (cached snapshot, no read)
+        ElectionSnapshot election = electionSnapshotCache.get(electionId);
         if (!election.isVotingOpen()) {
-            throw new BusinessException("Election is not open for voting. Current status: " + election.getStatus());
+            throw new BusinessException("Election is not open for voting. Current status: " + election.status());
+        }
+
+        // The snapshot may be stale if another node closed the election; issuing writes anyway, so re-read the status.
+        // A close committing concurrently can still let this token through, but the sealed chain rejects its vote.
+        ElectionStatus status = electionRepository.findStatusById(electionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Election", "id", electionId));
+        if (status != ElectionStatus.RUNNING) {
+            throw new BusinessException("Election is not open for voting. Current status: " + status);
         }
 
         // Find voter
@@ -76,26 +91,28 @@ public class TokenService {
 
         // Generate token
         String tokenValue = cryptoService.generateSecureToken();
-        String tokenHash = cryptoService.hashSHA256(tokenValue);
+        String tokenHash = hashToken(tokenValue);
 
         // Get or create election key pair
-        KeyPair keyPair = getOrCreateElectionKeys(electionId);
+        SignatureScheme scheme = signatureSchemes.get(election.signatureAlgorithm());
+        KeyPair keyPair = electionKeyRing.keyPair(electionId, scheme);
 
-        // Sign the token
-        String signature = cryptoService.signData(tokenHash, keyPair.getPrivate());
+        // Sign the token with the election's scheme
+        String signature = Base64.getEncoder().encodeToString(
+                scheme.sign(tokenHash.getBytes(StandardCharsets.UTF_8), keyPair.getPrivate()));
 
         // Generate nonce
         String nonce = cryptoService.generateNonceString();
 
         // Create token entity
         BlindToken token = BlindToken.builder()
-                .election(election)
+                .election(electionRepository.getReferenceById(electionId))
                 .voterIdHash(voterIdHash)
                 .tokenHash(tokenHash)
                 .signature(signature)
                 .status(TokenStatus.ISSUED)
                 .issuedAt(Instant.now())
-                .expiresAt(election.getEndTs())
+                .expiresAt(election.endTs())
                 .nonce(nonce)
                 .build();
 
@@ -120,61 +137,74 @@ public class TokenService {
      * Validate token without consuming it
      */
     public boolean validateToken(String tokenValue) {
-        String tokenHash = cryptoService.hashSHA256(tokenValue);
+        String tokenHash = hashToken(tokenValue);
         return tokenRepository.isTokenValid(tokenHash, Instant.now());
     }
 
     /**
      * Validate and consume token (marks as used)
+     * Returns the id of the consumed token
      */
     @Transactional
-    public BlindToken validateAndConsumeToken(UUID electionId, String tokenValue, UUID ballotId) {
+    public UUID validateAndConsumeToken(UUID electionId, String tokenValue, UUID ballotId) {
         log.info("Validating and consuming token for election {}", electionId);
 
-        String tokenHash = cryptoService.hashSHA256(tokenValue);
-
-        // Find token
-        BlindToken token = tokenRepository.findByTokenHash(tokenHash)
-                .orElseThrow(() -> new BusinessException("Invalid token"));
-
-        // Verify token belongs to election
-        if (!token.getElection().getId().equals(electionId)) {
-            throw new BusinessException("Token does not belong to this election");
-        }
-
-        // Verify signature
-        KeyPair keyPair = getOrCreateElectionKeys(electionId);
-        boolean signatureValid = cryptoService.verifySignature(
-                tokenHash,
-                token.getSignature(),
-                keyPair.getPublic()
-        );
+        String tokenHash = hashToken(tokenValue);
+        UUID tokenId = consumeToken(electionId, tokenHash, ballotId)
+                .orElseThrow(() -> rejection(electionId, tokenHash));
 
-        if (!signatureValid) {
-            log.warn("Invalid token signature detected");
-            throw new BusinessException("Invalid token signature");
-        }
-
-        // Check if token is valid
-        if (!token.isValid()) {
-            throw new BusinessException("Token is not valid. Status: " + token.getStatus());
-        }
-
-        // Consume token
-        token.consume(ballotId);
-        BlindToken consumed = tokenRepository.save(token);
-
-        log.info("Token consumed successfully: {}", consumed.getId());
+        log.info("Token consumed successfully: {}", tokenId);
 
         // Audit log
         auditService.logEvent(AuditEventType.VOTER_REGISTERED, Map.of(
                 "electionId", electionId.toString(),
-                "tokenId", consumed.getId().toString(),
+                "tokenId", tokenId.toString(),
                 "ballotId", ballotId.toString(),
                 "action", "Token Consumed"
         ));
 
-        return consumed;
+        return tokenId;
+    }
+
+    /**
+     * Hash of a token value, as stored in blind_tokens
+     */
+    public String hashToken(String tokenValue) {
+        return cryptoService.hashSHA256(tokenValue);
+    }
+
+    /**
+     * Consume a token of an election inside the caller's transaction
+     * A single conditional update: the token must exist for this election, still be ISSUED and unexpired.
+     * Returns the token id, or empty if the token cannot be used (including a concurrent request consuming it first).
+     *
+     * The signature is not re-verified here: blind_tokens rows are only written by {@link #issueToken},
+     * which signs the hash it stores, and matching the hash proves the voter holds that token value.
+     * Nor is the election's signing key needed, so any node can consume a token another node issued.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<UUID> consumeToken(UUID electionId, String tokenHash, UUID ballotId) {
+        return tokenJdbcRepository.consume(electionId, tokenHash, ballotId, Instant.now());
+    }
+
+    /**
+     * Explain why a token could not be consumed (slow path, only after a rejection)
+     */
+    public BusinessException rejection(UUID electionId, String tokenHash) {
+        return tokenRepository.findByTokenHash(tokenHash)
+                .map(token -> {
+                    if (!token.getElection().getId().equals(electionId)) {
+                        return new BusinessException("Token does not belong to this election");
+                    }
+                    if (token.getStatus() != TokenStatus.ISSUED) {
+                        return new BusinessException("Token is not valid. Status: " + token.getStatus());
+                    }
+                    if (token.isExpired()) {
+                        return new BusinessException("Token is not valid. It has expired");
+                    }
+                    return new BusinessException("Token is not valid. It may have already been used");
+                })
+                .orElseGet(() -> new BusinessException("Invalid token"));
     }
 
     /**
@@ -238,22 +268,19 @@ public class TokenService {
     }
 
     /**
-     * Get or create election key pair
-     * In production, this would use HSM or secure key storage
+     * Get election public key (for verification)
      */
-    private KeyPair getOrCreateElectionKeys(UUID electionId) {
-        return electionKeys.computeIfAbsent(electionId, id -> {
-            log.info("Generating new key pair for election: {}", id);
-            return cryptoService.generateRSAKeyPair();
-        });
+    public String getElectionPublicKey(UUID electionId) {
+        SignatureScheme scheme = signatureSchemes.get(getElectionSignatureAlgorithm(electionId));
+        KeyPair keyPair = electionKeyRing.keyPair(electionId, scheme);
+        return cryptoService.encodePublicKey(keyPair.getPublic());
     }
 
     /**
-     * Get election public key (for verification)
+     * Get the signature algorithm of an election's tokens
      */
-    public String getElectionPublicKey(UUID electionId) {
-        KeyPair keyPair = getOrCreateElectionKeys(electionId);
-        return cryptoService.encodePublicKey(keyPair.getPublic());
+    public String getElectionSignatureAlgorithm(UUID electionId) {
+        return electionSnapshotCache.get(electionId).signatureAlgorithm();
     }
 
     /**
@@ -1,25 +1,37 @@
 package com.votoeletronico.voto.service;
 
-import com.votoeletronico.voto.audit.AuditService;
-import com.votoeletronico.voto.domain.audit.AuditEventType;
-import com.votoeletronico.voto.domain.election.Candidate;
-import com.votoeletronico.voto.domain.election.Election;
-import com.votoeletronico.voto.domain.voting.BlindToken;
+import com.votoeletronico.voto.config.CryptoProperties;
+import com.votoeletronico.voto.domain.voting.BallotChainHead;
 import com.votoeletronico.voto.domain.voting.EncryptedBallot;
 import com.votoeletronico.voto.exception.BusinessException;
 import com.votoeletronico.voto.exception.ResourceNotFoundException;
+import com.votoeletronico.voto.repository.BallotChainHeadRepository;
 import com.votoeletronico.voto.repository.CandidateRepository;
-import com.votoeletronico.voto.repository.ElectionRepository;
 import com.votoeletronico.voto.repository.EncryptedBallotRepository;
+import com.votoeletronico.voto.repository.TallyLedgerRepository;
+import com.votoeletronico.voto.service.crypto.BallotCodec;
+import com.votoeletronico.voto.service.crypto.CryptoException;
 import com.votoeletronico.voto.service.crypto.CryptoService;
 import com.votoeletronico.voto.service.crypto.EncryptedData;
+import com.votoeletronico.voto.service.crypto.Hex;
+import com.votoeletronico.voto.service.tally.SealedTallyService;
+import com.votoeletronico.voto.service.voting.BallotAppendPipeline;
+import com.votoeletronico.voto.service.voting.BallotChainVerifier;
+import com.votoeletronico.voto.service.voting.ChainVerification;
+import com.votoeletronico.voto.service.voting.ElectionSnapshot;
+import com.votoeletronico.voto.service.voting.ElectionSnapshotCache;
+import com.votoeletronico.voto.service.voting.PendingBallot;
+import com.votoeletronico.voto.service.voting.SealedVote;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -34,190 +46,147 @@ import java.util.UUID;
 public class VotingService {
 
     private final EncryptedBallotRepository ballotRepository;
-    private final ElectionRepository electionRepository;
     private final CandidateRepository candidateRepository;
+    private final BallotChainHeadRepository chainHeadRepository;
+    private final TallyLedgerRepository tallyLedgerRepository;
     private final TokenService tokenService;
     private final CryptoService cryptoService;
-    private final AuditService auditService;
+    private final BallotCodec ballotCodec;
+    private final BallotAppendPipeline ballotAppendPipeline;
+    private final ElectionSnapshotCache electionSnapshotCache;
+    private final SealedTallyService sealedTallyService;
+    private final BallotChainVerifier ballotChainVerifier;
+    private final CryptoProperties cryptoProperties;
 
     // In production, election keys would be in HSM
     private final Map<UUID, SecretKey> electionEncryptionKeys = new java.util.concurrent.ConcurrentHashMap<>();
 
     /**
      * Cast a vote using a blind token
+     * Runs outside a transaction: the ballot is committed by the append pipeline
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public EncryptedBallot castVote(UUID electionId, String tokenValue, UUID candidateId, String ipAddress, String userAgent) {
         log.info("Casting vote for election {} with candidate {}", electionId, candidateId);
 
-        // Validate election exists and is open
-        Election election = electionRepository.findById(electionId)
-                .orElseThrow(() -> new ResourceNotFoundException("Election", "id", electionId));
+        // Validate election is open (cached snapshot, no read)
+        ElectionSnapshot election = electionSnapshotCache.get(electionId);
 
         if (!election.isVotingOpen()) {
-            throw new BusinessException("Voting is not open for this election. Status: " + election.getStatus());
+            throw new BusinessException("Voting is not open for this election. Status: " + election.status());
         }
 
         // Validate candidate belongs to election
-        Candidate candidate = candidateRepository.findById(candidateId)
-                .orElseThrow(() -> new ResourceNotFoundException("Candidate", "id", candidateId));
-
-        if (!candidate.getElection().getId().equals(electionId)) {
+        if (!election.hasCandidate(candidateId)) {
+            if (!candidateRepository.existsById(candidateId)) {
+                throw new ResourceNotFoundException("Candidate", "id", candidateId);
+            }
             throw new BusinessException("Candidate does not belong to this election");
         }
 
-        // Get previous ballot for hash chain
-        Optional<EncryptedBallot> previousBallot = ballotRepository.findLastBallot(electionId);
-        String prevBallotHash = previousBallot.map(EncryptedBallot::getBallotHash).orElse(null);
 
         // Encrypt vote
-        String voteData = createVoteData(candidateId);
-        SecretKey encryptionKey = getOrCreateElectionKey(electionId);
-        EncryptedData encrypted = cryptoService.encryptAES(voteData, encryptionKey);
+        int ordinal = election.ordinalOf(candidateId);
+        byte[] voteData = ballotCodec.encodeVote(ordinal, Instant.now());
+        SealedVote sealedVote = election.sealedTally()
+                ? sealedTallyService.encryptVote(electionId, ordinal, election.candidateOrdinals().size())
+                : null;
+        EncryptedBallot saved = appendBallot(electionId, tokenValue, voteData, sealedVote, ipAddress, userAgent, "Vote Cast");
 
-        // Create ballot hash (includes encrypted data + prev hash for chain)
-        String ballotContent = encrypted.ciphertext() + encrypted.nonce() + (prevBallotHash != null ? prevBallotHash : "");
-        String ballotHash = cryptoService.hashSHA256(ballotContent);
-
-        // Sign ballot for integrity
-        String keyId = "election-" + electionId;
-        String verificationData = ballotHash + electionId + encrypted.algorithm();
-        // In production, use proper signing key from HSM
-        String signature = cryptoService.hashSHA256(verificationData); // Simplified for now
-
-        // Create ballot
-        EncryptedBallot ballot = EncryptedBallot.builder()
-                .election(election)
-                .encryptedVote(encrypted.ciphertext())
-                .ballotHash(ballotHash)
-                .encryptionAlgorithm(encrypted.algorithm())
-                .keyId(keyId)
-                .nonce(encrypted.nonce())
-                .castAt(Instant.now())
-                .ipHash(ipAddress != null ? cryptoService.hashSHA256(ipAddress) : null)
-                .userAgentHash(userAgent != null ? cryptoService.hashSHA256(userAgent) : null)
-                .prevBallotHash(prevBallotHash)
-                .verificationSignature(signature)
-                .tallied(false)
-                .build();
-
-        // Save ballot
-        EncryptedBallot saved = ballotRepository.save(ballot);
-
-        // Consume token (marks as used)
-        BlindToken consumedToken = tokenService.validateAndConsumeToken(electionId, tokenValue, saved.getId());
-
-        log.info("Vote cast successfully. Ballot ID: {}, Hash: {}", saved.getId(), saved.getBallotHash());
-
-        // Audit log (without linking to voter identity)
-        auditService.logEvent(AuditEventType.VOTER_REGISTERED, Map.of(
-                "electionId", electionId.toString(),
-                "ballotId", saved.getId().toString(),
-                "ballotHash", ballotHash,
-                "action", "Vote Cast"
-        ));
+        log.info("Vote cast successfully. Ballot ID: {}, Seq: {}, Hash: {}",
+                saved.getId(), saved.getSequenceNumber(), Hex.encode(saved.getBallotHash()));
 
         return saved;
     }
 
     /**
      * Cast abstention vote
+     * Runs outside a transaction: the ballot is committed by the append pipeline
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public EncryptedBallot castAbstention(UUID electionId, String tokenValue, String justification, String ipAddress, String userAgent) {
         log.info("Casting abstention for election {}", electionId);
 
-        // Validate election exists and is open
-        Election election = electionRepository.findById(electionId)
-                .orElseThrow(() -> new ResourceNotFoundException("Election", "id", electionId));
+        // Validate election is open (cached snapshot, no read)
+        ElectionSnapshot election = electionSnapshotCache.get(electionId);
 
         if (!election.isVotingOpen()) {
             throw new BusinessException("Voting is not open for this election");
         }
 
-        if (!election.getAllowAbstention()) {
+        if (!election.allowAbstention()) {
             throw new BusinessException("Abstention is not allowed for this election");
         }
 
-        if (election.getRequireJustification() && (justification == null || justification.isBlank())) {
+        if (election.requireJustification() && (justification == null || justification.isBlank())) {
             throw new BusinessException("Justification is required for abstention");
         }
 
-        // Get previous ballot for hash chain
-        Optional<EncryptedBallot> previousBallot = ballotRepository.findLastBallot(electionId);
-        String prevBallotHash = previousBallot.map(EncryptedBallot::getBallotHash).orElse(null);
 
         // Encrypt abstention
-        String voteData = createAbstentionData(justification);
+        byte[] voteData = ballotCodec.encodeAbstention(justification, Instant.now());
+        SealedVote sealedVote = election.sealedTally()
+                ? sealedTallyService.encryptAbstention(electionId, election.candidateOrdinals().size())
+                : null;
+        EncryptedBallot saved = appendBallot(electionId, tokenValue, voteData, sealedVote, ipAddress, userAgent,
+                "Abstention Cast");
+
+        log.info("Abstention cast successfully. Ballot ID: {}, Seq: {}", saved.getId(), saved.getSequenceNumber());
+
+        return saved;
+    }
+
+    /**
+     * Encrypt ballot data and hand it to the append pipeline (chaining, token consumption, audit, commit)
+     */
+    private EncryptedBallot appendBallot(UUID electionId, String tokenValue, byte[] voteData, SealedVote sealedVote,
+                                         String ipAddress, String userAgent, String auditAction) {
         SecretKey encryptionKey = getOrCreateElectionKey(electionId);
         EncryptedData encrypted = cryptoService.encryptAES(voteData, encryptionKey);
 
-        // Create ballot hash
-        String ballotContent = encrypted.ciphertext() + encrypted.nonce() + (prevBallotHash != null ? prevBallotHash : "");
-        String ballotHash = cryptoService.hashSHA256(ballotContent);
-
-        // Sign ballot
-        String keyId = "election-" + electionId;
-        String verificationData = ballotHash + electionId + encrypted.algorithm();
-        String signature = cryptoService.hashSHA256(verificationData);
-
-        // Create ballot
-        EncryptedBallot ballot = EncryptedBallot.builder()
-                .election(election)
-                .encryptedVote(encrypted.ciphertext())
-                .ballotHash(ballotHash)
-                .encryptionAlgorithm(encrypted.algorithm())
-                .keyId(keyId)
-                .nonce(encrypted.nonce())
-                .castAt(Instant.now())
-                .ipHash(ipAddress != null ? cryptoService.hashSHA256(ipAddress) : null)
-                .userAgentHash(userAgent != null ? cryptoService.hashSHA256(userAgent) : null)
-                .prevBallotHash(prevBallotHash)
-                .verificationSignature(signature)
-                .tallied(false)
-                .build();
-
-        // Save ballot
-        EncryptedBallot saved = ballotRepository.save(ballot);
-
-        // Consume token
-        tokenService.validateAndConsumeToken(electionId, tokenValue, saved.getId());
-
-        log.info("Abstention cast successfully. Ballot ID: {}", saved.getId());
-
-        // Audit log
-        auditService.logEvent(AuditEventType.VOTER_REGISTERED, Map.of(
-                "electionId", electionId.toString(),
-                "ballotId", saved.getId().toString(),
-                "ballotHash", ballotHash,
-                "action", "Abstention Cast"
-        ));
+        PendingBallot pending = new PendingBallot(
+                electionId,
+                tokenService.hashToken(tokenValue),
+                encrypted,
+                sealedVote,
+                ipAddress != null ? cryptoService.sha256(ipAddress.getBytes(StandardCharsets.UTF_8)) : null,
+                userAgent != null ? cryptoService.sha256(userAgent.getBytes(StandardCharsets.UTF_8)) : null,
+                auditAction
+        );
 
-        return saved;
+        return ballotAppendPipeline.append(pending);
     }
 
     /**
      * Verify ballot exists (voter receipt verification)
      */
-    public boolean verifyBallotReceipt(String ballotHash) {
+    public boolean verifyBallotReceipt(byte[] ballotHash) {
         return ballotRepository.existsByBallotHash(ballotHash);
     }
 
     /**
      * Get ballot by hash (for verification)
      */
-    public Optional<EncryptedBallot> getBallotByHash(String ballotHash) {
+    public Optional<EncryptedBallot> getBallotByHash(byte[] ballotHash) {
         return ballotRepository.findByBallotHash(ballotHash);
     }
 
+    /**
+     * Check if a ballot has been counted by the tally
+     */
+    public boolean isTallied(EncryptedBallot ballot) {
+        return tallyLedgerRepository.isTallied(ballot.getElection().getId(), ballot.getSequenceNumber());
+    }
+
     /**
      * Get voting statistics
      */
     public Map<String, Long> getVotingStatistics(UUID electionId) {
-        long totalBallots = ballotRepository.countByElectionId(electionId);
-        long talliedBallots = ballotRepository.findByElectionId(electionId).stream()
-                .filter(EncryptedBallot::getTallied)
-                .count();
+        // Sequence numbers are dense, so the chain head's last seq is the ballot count
+        long totalBallots = chainHeadRepository.findById(electionId)
+                .map(BallotChainHead::getLastSeq)
+                .orElse(0L);
+        long talliedBallots = tallyLedgerRepository.countTallied(electionId);
         long pendingBallots = totalBallots - talliedBallots;
 
         return Map.of(
@@ -228,62 +197,13 @@ public class VotingService {
     }
 
     /**
-     * Verify ballot chain integrity
+     * Verify ballot chain integrity, recomputing every ballot hash after the last signed checkpoint
+     *
+     * @param full recheck from the first ballot
      */
-    public boolean verifyBallotChain(UUID electionId) {
-        log.info("Verifying ballot chain for election {}", electionId);
-
-        var ballots = ballotRepository.findBallotsForChainVerification(electionId);
-
-        if (ballots.isEmpty()) {
-            return true; // Empty chain is valid
-        }
-
-        String previousHash = null;
-        for (EncryptedBallot ballot : ballots) {
-            // First ballot should have null prev hash
-            if (previousHash == null && ballot.getPrevBallotHash() != null) {
-                log.warn("First ballot has non-null previous hash");
-                return false;
-            }
-
-            // Subsequent ballots should link to previous
-            if (previousHash != null && !previousHash.equals(ballot.getPrevBallotHash())) {
-                log.warn("Broken chain at ballot: {}", ballot.getId());
-                return false;
-            }
-
-            previousHash = ballot.getBallotHash();
-        }
-
-        log.info("Ballot chain verified successfully. {} ballots", ballots.size());
-        return true;
-    }
-
-    /**
-     * Create vote data JSON
-     */
-    private String createVoteData(UUID candidateId) {
-        return String.format("""
-                {
-                    "type": "VOTE",
-                    "candidateId": "%s",
-                    "timestamp": "%s"
-                }
-                """, candidateId, Instant.now());
-    }
-
-    /**
-     * Create abstention data JSON
-     */
-    private String createAbstentionData(String justification) {
-        return String.format("""
-                {
-                    "type": "ABSTENTION",
-                    "justification": "%s",
-                    "timestamp": "%s"
-                }
-                """, justification != null ? justification : "", Instant.now());
+    public ChainVerification verifyBallotChain(UUID electionId, boolean full) {
+        log.info("Verifying ballot chain for election {}{}", electionId, full ? " from the first ballot" : "");
+        return ballotChainVerifier.verify(electionId, full);
     }
 
     /**
@@ -292,6 +212,9 @@ public class VotingService {
      */
     private SecretKey getOrCreateElectionKey(UUID electionId) {
         return electionEncryptionKeys.computeIfAbsent(electionId, id -> {
+            if (hasBallotKeySecret()) {
+                return deriveElectionKey(id);
+            }
             log.info("Generating new encryption key for election: {}", id);
             return cryptoService.generateAESKey();
         });
@@ -302,10 +225,36 @@ public class VotingService {
      * This would be restricted to authorized tally operations only
      */
     public SecretKey getElectionKeyForTally(UUID electionId) {
-        SecretKey key = electionEncryptionKeys.get(electionId);
+        SecretKey key = hasBallotKeySecret()
+                ? electionEncryptionKeys.computeIfAbsent(electionId, this::deriveElectionKey)
+                : electionEncryptionKeys.get(electionId);
         if (key == null) {
             throw new BusinessException("Encryption key not found for election");
         }
         return key;
     }
+
+    /**
+     * Check if this node can decrypt the ballots of an election
+     */
+    public boolean hasElectionKeyForTally(UUID electionId) {
+        return hasBallotKeySecret() || electionEncryptionKeys.containsKey(electionId);
+    }
+
+    private boolean hasBallotKeySecret() {
+        String secret = cryptoProperties.getBallotKeySecret();
+        return secret != null && !secret.isBlank();
+    }
+
+    /**
+     * Same key on every node configured with the same ballot key secret
+     */
+    private SecretKey deriveElectionKey(UUID electionId) {
+        byte[] secret = Base64.getDecoder().decode(cryptoProperties.getBallotKeySecret());
+        if (secret.length < 32) {
+            throw new CryptoException("Ballot key secret must be at least 32 bytes");
+        }
+        log.info("Deriving encryption key for election: {}", electionId);
+        return cryptoService.deriveAESKey(secret, "voto-ballot-key:" + electionId);
+    }
 }
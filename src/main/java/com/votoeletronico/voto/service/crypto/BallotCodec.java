@@ -0,0 +1,127 @@
+package com.votoeletronico.voto.service.crypto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Binary encoding of ballot plaintext, encrypted with {@link CryptoService#encryptAES(byte[], javax.crypto.SecretKey)}.
+ *
+ * Layout (version 1, big endian):
+ * <pre>
+ *   version   u8   = 1
+ *   type      u8   1 = VOTE, 2 = ABSTENTION
+ *   castAt    i64  epoch milliseconds
+ *   VOTE:       ordinal u16   index of the candidate in ballot number order
+ *   ABSTENTION: length  u16   UTF-8 justification bytes (0 = none), then the bytes
+ * </pre>
+ * Legacy ballots are JSON text and always start with '{' or whitespace, never with a version byte.
+ */
+@Component
+@RequiredArgsConstructor
+public class BallotCodec {
+
+    public static final byte VERSION_1 = 1;
+
+    private static final byte TYPE_VOTE = 1;
+    private static final byte TYPE_ABSTENTION = 2;
+    private static final int HEADER_LENGTH = 1 + 1 + Long.BYTES;
+    private static final int MAX_U16 = 0xFFFF;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Encode a vote for the candidate at the given ordinal
+     */
+    public byte[] encodeVote(int candidateOrdinal, Instant castAt) {
+        if (candidateOrdinal < 0 || candidateOrdinal > MAX_U16) {
+            throw new IllegalArgumentException("Candidate ordinal out of range: " + candidateOrdinal);
+        }
+        return ByteBuffer.allocate(HEADER_LENGTH + Short.BYTES)
+                .put(VERSION_1)
+                .put(TYPE_VOTE)
+                .putLong(castAt.toEpochMilli())
+                .putShort((short) candidateOrdinal)
+                .array();
+    }
+
+    /**
+     * Encode an abstention with an optional justification
+     */
+    public byte[] encodeAbstention(String justification, Instant castAt) {
+        byte[] text = justification != null ? justification.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (text.length > MAX_U16) {
+            throw new IllegalArgumentException("Justification too long: " + text.length + " bytes");
+        }
+        return ByteBuffer.allocate(HEADER_LENGTH + Short.BYTES + text.length)
+                .put(VERSION_1)
+                .put(TYPE_ABSTENTION)
+                .putLong(castAt.toEpochMilli())
+                .putShort((short) text.length)
+                .put(text)
+                .array();
+    }
+
+    /**
+     * Decode a ballot plaintext, binary or legacy JSON
+     */
+    public BallotPayload decode(byte[] plaintext) {
+        if (plaintext.length == 0) {
+            throw new IllegalArgumentException("Empty ballot payload");
+        }
+        if (plaintext[0] != VERSION_1) {
+            return decodeLegacyJson(plaintext);
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(plaintext);
+            buffer.get(); // version
+            byte type = buffer.get();
+            Instant castAt = Instant.ofEpochMilli(buffer.getLong());
+            int value = Short.toUnsignedInt(buffer.getShort());
+
+            return switch (type) {
+                case TYPE_VOTE -> BallotPayload.vote(value, castAt);
+                case TYPE_ABSTENTION -> {
+                    byte[] text = new byte[value];
+                    buffer.get(text);
+                    yield BallotPayload.abstention(value > 0 ? new String(text, StandardCharsets.UTF_8) : null, castAt);
+                }
+                default -> throw new IllegalArgumentException("Unknown ballot type: " + type);
+            };
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated ballot payload", e);
+        }
+    }
+
+    /**
+     * Decode a ballot written before the binary format (JSON text)
+     */
+    private BallotPayload decodeLegacyJson(byte[] plaintext) {
+        try {
+            JsonNode node = objectMapper.readTree(plaintext);
+            String type = node.path("type").asText();
+            Instant castAt = node.hasNonNull("timestamp") ? Instant.parse(node.get("timestamp").asText()) : null;
+
+            return switch (type) {
+                case "VOTE" -> new BallotPayload(BallotPayload.Type.VOTE, BallotPayload.NO_ORDINAL,
+                        UUID.fromString(node.get("candidateId").asText()), castAt, null);
+                case "ABSTENTION" -> {
+                    String justification = node.path("justification").asText("");
+                    yield BallotPayload.abstention(justification.isEmpty() ? null : justification, castAt);
+                }
+                default -> throw new IllegalArgumentException("Unknown vote type: " + type);
+            };
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unreadable legacy ballot payload", e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.votoeletronico.voto.service.crypto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Decoded ballot plaintext.
+ * Binary ballots carry the candidate ordinal; legacy JSON ballots carry the candidate id.
+ */
+public record BallotPayload(
+        Type type,
+        int candidateOrdinal,
+        UUID candidateId,
+        Instant castAt,
+        String justification
+) {
+
+    public static final int NO_ORDINAL = -1;
+
+    public enum Type {
+        VOTE,
+        ABSTENTION
+    }
+
+    public static BallotPayload vote(int candidateOrdinal, Instant castAt) {
+        return new BallotPayload(Type.VOTE, candidateOrdinal, null, castAt, null);
+    }
+
+    public static BallotPayload abstention(String justification, Instant castAt) {
+        return new BallotPayload(Type.ABSTENTION, NO_ORDINAL, null, castAt, justification);
+    }
+
+    /**
+     * Check if the candidate is identified by ordinal (binary format)
+     */
+    public boolean hasOrdinal() {
+        return candidateOrdinal != NO_ORDINAL;
+    }
+}
@@ -0,0 +1,56 @@
+package com.votoeletronico.voto.service.crypto;
+
+import com.votoeletronico.voto.config.CryptoProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Signs and checks verification checkpoints with HMAC-SHA256.
+ *
+ * The key lives outside the database, so rows written there directly cannot pass as
+ * checkpoints. Nodes sharing the checkpoint secret trust each other's checkpoints.
+ */
+@Slf4j
+@Component
+public class CheckpointSigner {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    public CheckpointSigner(CryptoProperties cryptoProperties, CryptoService cryptoService) {
+        String secret = cryptoProperties.getCheckpointSecret();
+        byte[] keyBytes;
+        if (secret != null && !secret.isBlank()) {
+            byte[] decoded = Base64.getDecoder().decode(secret);
+            if (decoded.length < 32) {
+                throw new CryptoException("Checkpoint secret must be at least 32 bytes");
+            }
+            keyBytes = cryptoService.deriveAESKey(decoded, "voto-checkpoint-key").getEncoded();
+        } else {
+            keyBytes = cryptoService.generateNonce(32);
+            log.warn("No checkpoint secret configured: verification checkpoints are only trusted by this node until it restarts");
+        }
+        this.key = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+    }
+
+    public byte[] sign(byte[] message) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(message);
+        } catch (GeneralSecurityException e) {
+            throw new CryptoException("Failed to sign checkpoint", e);
+        }
+    }
+
+    public boolean verify(byte[] message, byte[] signature) {
+        return signature != null && MessageDigest.isEqual(sign(message), signature);
+    }
+}
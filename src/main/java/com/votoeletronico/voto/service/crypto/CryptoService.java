@@ -2,6 +2,9 @@ package com.votoeletronico.voto.service.crypto;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.generators.HKDFBytesGenerator;
+import org.bouncycastle.crypto.params.HKDFParameters;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.springframework.stereotype.Service;
 
@@ -10,16 +13,22 @@ import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.*;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.UUID;
 
 /**
  * Service for cryptographic operations
  * Handles encryption, decryption, signing, and hashing
+ *
+ * Cipher, Signature and MessageDigest instances are not thread-safe and costly to look
+ * up, so each thread keeps its own and re-initializes it per call. Randomness comes from
+ * one shared DRBG, which is thread-safe and never blocks once seeded.
  */
 @Slf4j
 @Service
@@ -40,13 +49,53 @@ public class CryptoService {
         Security.addProvider(new BouncyCastleProvider());
     }
 
+    private static final SecureRandom RANDOM = createDrbg();
+
+    private static final ThreadLocal<Cipher> AES_CIPHER = ThreadLocal.withInitial(() -> newCipher(AES_TRANSFORMATION));
+    private static final ThreadLocal<Cipher> RSA_CIPHER = ThreadLocal.withInitial(() -> newCipher(RSA_ALGORITHM));
+    private static final ThreadLocal<Signature> SIGNATURE = ThreadLocal.withInitial(() -> {
+        try {
+            return Signature.getInstance(SIGNATURE_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new CryptoException(SIGNATURE_ALGORITHM + " not available", e);
+        }
+    });
+
+    /**
+     * Shared DRBG (NIST SP 800-90A), seeded once from the platform entropy source
+     */
+    private static SecureRandom createDrbg() {
+        try {
+            return SecureRandom.getInstance("DRBG",
+                    DrbgParameters.instantiation(256, DrbgParameters.Capability.RESEED_ONLY, null));
+        } catch (NoSuchAlgorithmException e) {
+            log.warn("DRBG not available, falling back to default SecureRandom");
+            return new SecureRandom();
+        }
+    }
+
+    /**
+     * Shared DRBG, for the other crypto engines of this package
+     */
+    static SecureRandom secureRandom() {
+        return RANDOM;
+    }
+
+    private static Cipher newCipher(String transformation) {
+        try {
+            return Cipher.getInstance(transformation);
+        } catch (Exception e) {
+            throw new CryptoException(transformation + " not available", e);
+        }
+    }
+
     /**
      * Generate RSA key pair for election
      */
     public KeyPair generateRSAKeyPair() {
         try {
             KeyPairGenerator keyGen = KeyPairGenerator.getInstance(RSA_ALGORITHM);
-            keyGen.initialize(RSA_KEY_SIZE, new SecureRandom());
+            keyGen.initialize(RSA_KEY_SIZE, RANDOM);
             KeyPair keyPair = keyGen.generateKeyPair();
             log.info("Generated RSA key pair");
             return keyPair;
@@ -62,7 +111,7 @@ public class CryptoService {
     public SecretKey generateAESKey() {
         try {
             KeyGenerator keyGen = KeyGenerator.getInstance(AES_ALGORITHM);
-            keyGen.init(AES_KEY_SIZE, new SecureRandom());
+            keyGen.init(AES_KEY_SIZE, RANDOM);
             SecretKey key = keyGen.generateKey();
             log.debug("Generated AES key");
             return key;
@@ -72,24 +121,50 @@ public class CryptoService {
         }
     }
 
+    /**
+     * Derive an AES key from a shared secret with HKDF-SHA256, so every node holding the
+     * secret gets the same key for the same context
+     */
+    public SecretKey deriveAESKey(byte[] secret, String context) {
+        return new SecretKeySpec(deriveBytes(secret, context, AES_KEY_SIZE / 8), AES_ALGORITHM);
+    }
+
+    /**
+     * Derive key material of any length from a shared secret with HKDF-SHA256
+     */
+    public byte[] deriveBytes(byte[] secret, String context, int length) {
+        HKDFBytesGenerator hkdf = new HKDFBytesGenerator(new SHA256Digest());
+        hkdf.init(new HKDFParameters(secret, null, context.getBytes(StandardCharsets.UTF_8)));
+        byte[] bytes = new byte[length];
+        hkdf.generateBytes(bytes, 0, bytes.length);
+        return bytes;
+    }
+
     /**
      * Encrypt data with AES-GCM
      */
-    public EncryptedData encryptAES(String plaintext, SecretKey key) {
+    public EncryptedData encryptAES(byte[] plaintext, SecretKey key) {
+        return encryptAES(ByteBuffer.wrap(plaintext), key);
+    }
+
+    /**
+     * Encrypt the remaining bytes of a buffer with AES-GCM (consumes the buffer)
+     */
+    public EncryptedData encryptAES(ByteBuffer plaintext, SecretKey key) {
         try {
             byte[] nonce = generateNonce(GCM_NONCE_LENGTH);
 
-            Cipher cipher = Cipher.getInstance(AES_TRANSFORMATION);
-            GCMParameterSpec spec = new GCMParameterSpec(GCM_TAG_LENGTH, nonce);
-            cipher.init(Cipher.ENCRYPT_MODE, key, spec);
+            Cipher cipher = AES_CIPHER.get();
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_LENGTH, nonce));
 
-            byte[] ciphertext = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
-
-            String encryptedText = Base64.getEncoder().encodeToString(ciphertext);
-            String nonceBase64 = Base64.getEncoder().encodeToString(nonce);
+            byte[] ciphertext = new byte[cipher.getOutputSize(plaintext.remaining())];
+            int length = cipher.doFinal(plaintext, ByteBuffer.wrap(ciphertext));
+            if (length != ciphertext.length) {
+                ciphertext = Arrays.copyOf(ciphertext, length);
+            }
 
             log.debug("Encrypted data with AES-GCM");
-            return new EncryptedData(encryptedText, nonceBase64, AES_TRANSFORMATION);
+            return new EncryptedData(ciphertext, nonce, AES_TRANSFORMATION);
         } catch (Exception e) {
             log.error("Failed to encrypt data with AES", e);
             throw new CryptoException("Failed to encrypt data", e);
@@ -99,19 +174,15 @@ public class CryptoService {
     /**
      * Decrypt data with AES-GCM
      */
-    public String decryptAES(String ciphertext, String nonceBase64, SecretKey key) {
+    public byte[] decryptAES(byte[] ciphertext, byte[] nonce, SecretKey key) {
         try {
-            byte[] nonce = Base64.getDecoder().decode(nonceBase64);
-            byte[] encryptedBytes = Base64.getDecoder().decode(ciphertext);
-
-            Cipher cipher = Cipher.getInstance(AES_TRANSFORMATION);
-            GCMParameterSpec spec = new GCMParameterSpec(GCM_TAG_LENGTH, nonce);
-            cipher.init(Cipher.DECRYPT_MODE, key, spec);
+            Cipher cipher = AES_CIPHER.get();
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_LENGTH, nonce));
 
-            byte[] plaintext = cipher.doFinal(encryptedBytes);
+            byte[] plaintext = cipher.doFinal(ciphertext);
 
             log.debug("Decrypted data with AES-GCM");
-            return new String(plaintext, StandardCharsets.UTF_8);
+            return plaintext;
         } catch (Exception e) {
             log.error("Failed to decrypt data with AES", e);
             throw new CryptoException("Failed to decrypt data", e);
@@ -123,8 +194,8 @@ public class CryptoService {
      */
     public String encryptRSA(byte[] data, PublicKey publicKey) {
         try {
-            Cipher cipher = Cipher.getInstance(RSA_ALGORITHM);
-            cipher.init(Cipher.ENCRYPT_MODE, publicKey);
+            Cipher cipher = RSA_CIPHER.get();
+            cipher.init(Cipher.ENCRYPT_MODE, publicKey, RANDOM);
             byte[] encrypted = cipher.doFinal(data);
             log.debug("Encrypted data with RSA");
             return Base64.getEncoder().encodeToString(encrypted);
@@ -140,7 +211,7 @@ public class CryptoService {
     public byte[] decryptRSA(String encryptedData, PrivateKey privateKey) {
         try {
             byte[] encrypted = Base64.getDecoder().decode(encryptedData);
-            Cipher cipher = Cipher.getInstance(RSA_ALGORITHM);
+            Cipher cipher = RSA_CIPHER.get();
             cipher.init(Cipher.DECRYPT_MODE, privateKey);
             byte[] decrypted = cipher.doFinal(encrypted);
             log.debug("Decrypted data with RSA");
@@ -155,13 +226,20 @@ public class CryptoService {
      * Sign data with private key
      */
     public String signData(String data, PrivateKey privateKey) {
+        return Base64.getEncoder().encodeToString(signData(data.getBytes(StandardCharsets.UTF_8), privateKey));
+    }
+
+    /**
+     * Sign binary data with private key
+     */
+    public byte[] signData(byte[] data, PrivateKey privateKey) {
         try {
-            Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
-            signature.initSign(privateKey);
-            signature.update(data.getBytes(StandardCharsets.UTF_8));
+            Signature signature = SIGNATURE.get();
+            signature.initSign(privateKey, RANDOM);
+            signature.update(data);
             byte[] signatureBytes = signature.sign();
             log.debug("Signed data");
-            return Base64.getEncoder().encodeToString(signatureBytes);
+            return signatureBytes;
         } catch (Exception e) {
             log.error("Failed to sign data", e);
             throw new CryptoException("Failed to sign data", e);
@@ -172,11 +250,24 @@ public class CryptoService {
      * Verify signature with public key
      */
     public boolean verifySignature(String data, String signatureBase64, PublicKey publicKey) {
+        byte[] signatureBytes;
         try {
-            byte[] signatureBytes = Base64.getDecoder().decode(signatureBase64);
-            Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
+            signatureBytes = Base64.getDecoder().decode(signatureBase64);
+        } catch (IllegalArgumentException e) {
+            log.warn("Signature is not valid Base64");
+            return false;
+        }
+        return verifySignature(data.getBytes(StandardCharsets.UTF_8), signatureBytes, publicKey);
+    }
+
+    /**
+     * Verify signature over binary data with public key
+     */
+    public boolean verifySignature(byte[] data, byte[] signatureBytes, PublicKey publicKey) {
+        try {
+            Signature signature = SIGNATURE.get();
             signature.initVerify(publicKey);
-            signature.update(data.getBytes(StandardCharsets.UTF_8));
+            signature.update(data);
             boolean verified = signature.verify(signatureBytes);
             log.debug("Verified signature: {}", verified);
             return verified;
@@ -187,17 +278,31 @@ public class CryptoService {
     }
 
     /**
-     * Hash data with SHA-256
+     * Hash data with SHA-256 (hex)
      */
     public String hashSHA256(String data) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(data.getBytes(StandardCharsets.UTF_8));
-            return bytesToHex(hash);
-        } catch (NoSuchAlgorithmException e) {
-            log.error("Failed to hash data", e);
-            throw new CryptoException("Failed to hash data", e);
-        }
+        return hashSHA256(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Hash binary data with SHA-256 (hex)
+     */
+    public String hashSHA256(byte[] data) {
+        return Hex.encode(Digests.sha256(data));
+    }
+
+    /**
+     * Hash the concatenation of byte arrays with SHA-256 (raw 32 bytes)
+     */
+    public byte[] sha256(byte[]... parts) {
+        return Digests.sha256(parts);
+    }
+
+    /**
+     * Hash the remaining bytes of a buffer with SHA-256 (raw 32 bytes, consumes the buffer)
+     */
+    public byte[] sha256(ByteBuffer data) {
+        return Digests.sha256(data);
     }
 
     /**
@@ -205,7 +310,7 @@ public class CryptoService {
      */
     public byte[] generateNonce(int length) {
         byte[] nonce = new byte[length];
-        new SecureRandom().nextBytes(nonce);
+        RANDOM.nextBytes(nonce);
         return nonce;
     }
 
@@ -213,9 +318,7 @@ public class CryptoService {
      * Generate secure random token
      */
     public String generateSecureToken() {
-        byte[] token = new byte[32];
-        new SecureRandom().nextBytes(token);
-        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(generateNonce(32));
     }
 
     /**
@@ -284,17 +387,6 @@ public class CryptoService {
         return new SecretKeySpec(keyBytes, AES_ALGORITHM);
     }
 
-    /**
-     * Convert byte array to hex string
-     */
-    private String bytesToHex(byte[] bytes) {
-        StringBuilder result = new StringBuilder();
-        for (byte b : bytes) {
-            result.append(String.format("%02x", b));
-        }
-        return result.toString();
-    }
-
     /**
      * Create hash chain entry
      */
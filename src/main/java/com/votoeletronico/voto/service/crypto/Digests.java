@@ -0,0 +1,46 @@
+package com.votoeletronico.voto.service.crypto;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 with one cached {@link MessageDigest} per thread.
+ * Static so entities and other non-bean code can hash without creating a digest per call.
+ */
+public final class Digests {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new CryptoException("SHA-256 not available", e);
+        }
+    });
+
+    private Digests() {
+    }
+
+    /**
+     * SHA-256 of the concatenation of the given parts (null parts are skipped)
+     */
+    public static byte[] sha256(byte[]... parts) {
+        MessageDigest digest = SHA_256.get();
+        for (byte[] part : parts) {
+            if (part != null) {
+                digest.update(part);
+            }
+        }
+        // digest() also resets the instance for the next caller on this thread
+        return digest.digest();
+    }
+
+    /**
+     * SHA-256 of the remaining bytes of a buffer (consumes the buffer)
+     */
+    public static byte[] sha256(ByteBuffer data) {
+        MessageDigest digest = SHA_256.get();
+        digest.update(data);
+        return digest.digest();
+    }
+}
@@ -0,0 +1,114 @@
+package com.votoeletronico.voto.service.crypto;
+
+import com.votoeletronico.voto.config.CryptoProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.KeyPair;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keys of each election: signing keys for blind tokens and ballot signatures, and the
+ * exp-ElGamal key of elections with a sealed tally.
+ *
+ * In a production system keys would be stored in an HSM or secure key management service;
+ * for now they are generated on first use and kept in memory. Sealed tally keys are derived
+ * from the ballot key secret when one is configured, so every node sharing it can decrypt
+ * the aggregate, also after a restart.
+ */
+@Slf4j
+@Component
+public class ElectionKeyRing {
+
+    private final Map<UUID, KeyPair> keyPairs = new ConcurrentHashMap<>();
+    private final Map<UUID, ExpElGamal.KeyPair> tallyKeyPairs = new ConcurrentHashMap<>();
+
+    private final CryptoProperties cryptoProperties;
+    private final CryptoService cryptoService;
+
+    public ElectionKeyRing(CryptoProperties cryptoProperties, CryptoService cryptoService) {
+        this.cryptoProperties = cryptoProperties;
+        this.cryptoService = cryptoService;
+    }
+
+    /**
+     * Get the key pair of an election, generating it with the election's scheme on first use
+     */
+    public KeyPair keyPair(UUID electionId, SignatureScheme scheme) {
+        return keyPairs.computeIfAbsent(electionId, id -> {
+            log.info("Generating new {} key pair for election: {}", scheme.algorithm(), id);
+            return scheme.generateKeyPair();
+        });
+    }
+
+    /**
+     * Create the sealed tally key pair of an election (once, when voting opens).
+     * Must be called from the transaction that opens the sealed tally: a generated key is
+     * dropped again if that transaction rolls back, so the start can be retried.
+     */
+    public ExpElGamal.KeyPair newTallyKeyPair(UUID electionId) {
+        if (hasBallotKeySecret()) {
+            // Derived keys are the same on every attempt
+            return tallyKeyPairs.computeIfAbsent(electionId, this::deriveTallyKeyPair);
+        }
+        ExpElGamal.KeyPair keyPair = ExpElGamal.generateKeyPair();
+        if (tallyKeyPairs.putIfAbsent(electionId, keyPair) != null) {
+            throw new CryptoException("Sealed tally key already exists for election " + electionId);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        tallyKeyPairs.remove(electionId, keyPair);
+                    }
+                }
+            });
+        }
+        log.info("Generated sealed tally key pair for election: {}", electionId);
+        return keyPair;
+    }
+
+    /**
+     * Get the sealed tally key pair of an election
+     */
+    public ExpElGamal.KeyPair tallyKeyPair(UUID electionId) {
+        ExpElGamal.KeyPair keyPair = hasBallotKeySecret()
+                ? tallyKeyPairs.computeIfAbsent(electionId, this::deriveTallyKeyPair)
+                : tallyKeyPairs.get(electionId);
+        if (keyPair == null) {
+            throw new CryptoException("Sealed tally key not found for election " + electionId);
+        }
+        return keyPair;
+    }
+
+    /**
+     * Check if this node holds (or can derive) the sealed tally key of an election
+     */
+    public boolean hasTallyKeyPair(UUID electionId) {
+        return hasBallotKeySecret() || tallyKeyPairs.containsKey(electionId);
+    }
+
+    private boolean hasBallotKeySecret() {
+        String secret = cryptoProperties.getBallotKeySecret();
+        return secret != null && !secret.isBlank();
+    }
+
+    /**
+     * Same key pair on every node configured with the same ballot key secret
+     */
+    private ExpElGamal.KeyPair deriveTallyKeyPair(UUID electionId) {
+        byte[] secret = Base64.getDecoder().decode(cryptoProperties.getBallotKeySecret());
+        if (secret.length < 32) {
+            throw new CryptoException("Ballot key secret must be at least 32 bytes");
+        }
+        log.info("Deriving sealed tally key pair for election: {}", electionId);
+        // 16 bytes more than the group order, so the reduced scalar is close to uniform
+        return ExpElGamal.deriveKeyPair(cryptoService.deriveBytes(secret, "voto-sealed-tally-key:" + electionId, 48));
+    }
+}
@@ -4,8 +4,8 @@ package com.votoeletronico.voto.service.crypto;
  * Container for encrypted data with metadata
  */
 public record EncryptedData(
-        String ciphertext,
-        String nonce,
+        byte[] ciphertext,
+        byte[] nonce,
         String algorithm
 ) {
 }
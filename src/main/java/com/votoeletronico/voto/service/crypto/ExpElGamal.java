@@ -0,0 +1,228 @@
+package com.votoeletronico.voto.service.crypto;
+
+import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.crypto.ec.CustomNamedCurves;
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECMultiplier;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointCombMultiplier;
+import org.bouncycastle.util.BigIntegers;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exponential ElGamal over P-256.
+ *
+ * A message m is encrypted to public key H as (r·G, m·G + r·H). Adding two ciphertexts
+ * point by point gives an encryption of the sum, so ballots can be counted without
+ * decrypting them. Messages are small counts, recovered from m·G with a baby-step
+ * giant-step search bounded by the number of ballots.
+ *
+ * Points are encoded compressed in 33 bytes, the point at infinity as 33 zero bytes,
+ * so a vector of ciphertexts has a fixed length.
+ */
+public final class ExpElGamal {
+
+    public static final int POINT_LENGTH = 33;
+    public static final int CIPHERTEXT_LENGTH = 2 * POINT_LENGTH;
+
+    private static final X9ECParameters PARAMETERS = CustomNamedCurves.getByName("secp256r1");
+    private static final ECCurve CURVE = PARAMETERS.getCurve();
+    private static final ECPoint G = PARAMETERS.getG();
+    private static final BigInteger N = PARAMETERS.getN();
+    private static final ECMultiplier MULTIPLIER = new FixedPointCombMultiplier();
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private ExpElGamal() {
+    }
+
+    /**
+     * Secret scalar and public point of a tally key
+     */
+    public record KeyPair(BigInteger secret, ECPoint publicKey) {
+    }
+
+    /**
+     * Encryption of one count
+     */
+    public record Ciphertext(ECPoint c1, ECPoint c2) {
+
+        public static final Ciphertext ZERO = new Ciphertext(CURVE.getInfinity(), CURVE.getInfinity());
+
+        /**
+         * Encryption of the sum of both counts
+         */
+        public Ciphertext add(Ciphertext other) {
+            return new Ciphertext(c1.add(other.c1), c2.add(other.c2));
+        }
+    }
+
+    /**
+     * Generate a new key pair
+     */
+    public static KeyPair generateKeyPair() {
+        BigInteger secret = BigIntegers.createRandomInRange(BigInteger.ONE, N.subtract(BigInteger.ONE), RANDOM);
+        return new KeyPair(secret, MULTIPLIER.multiply(G, secret).normalize());
+    }
+
+    /**
+     * Derive a key pair from random seed bytes, reduced into the range of secret scalars
+     */
+    public static KeyPair deriveKeyPair(byte[] seed) {
+        BigInteger secret = new BigInteger(1, seed).mod(N.subtract(BigInteger.ONE)).add(BigInteger.ONE);
+        return new KeyPair(secret, MULTIPLIER.multiply(G, secret).normalize());
+    }
+
+    /**
+     * Encrypt a one-hot vector: 1 in the given slot, 0 in every other
+     */
+    public static Ciphertext[] encryptOneHot(ECPoint publicKey, int slot, int slots) {
+        if (slot < 0 || slot >= slots) {
+            throw new IllegalArgumentException("Slot " + slot + " out of range for " + slots + " slots");
+        }
+        Ciphertext[] vector = new Ciphertext[slots];
+        for (int i = 0; i < slots; i++) {
+            vector[i] = encrypt(publicKey, i == slot ? 1 : 0);
+        }
+        return vector;
+    }
+
+    /**
+     * Encrypt a count (the public key's comb table is cached on the point, so reuse the same instance)
+     */
+    public static Ciphertext encrypt(ECPoint publicKey, long m) {
+        BigInteger r = BigIntegers.createRandomInRange(BigInteger.ONE, N.subtract(BigInteger.ONE), RANDOM);
+        ECPoint shared = MULTIPLIER.multiply(publicKey, r);
+        ECPoint c2 = m == 0 ? shared : MULTIPLIER.multiply(G, BigInteger.valueOf(m)).add(shared);
+        return new Ciphertext(MULTIPLIER.multiply(G, r), c2);
+    }
+
+    /**
+     * Add a vector of ciphertexts into an accumulator, slot by slot
+     */
+    public static void addTo(Ciphertext[] accumulator, Ciphertext[] vector) {
+        if (accumulator.length != vector.length) {
+            throw new IllegalArgumentException("Vector has " + vector.length + " slots, expected " + accumulator.length);
+        }
+        for (int i = 0; i < accumulator.length; i++) {
+            accumulator[i] = accumulator[i].add(vector[i]);
+        }
+    }
+
+    /**
+     * Vector of encryptions of zero with no randomness (the empty sum)
+     */
+    public static Ciphertext[] zero(int slots) {
+        Ciphertext[] vector = new Ciphertext[slots];
+        Arrays.fill(vector, Ciphertext.ZERO);
+        return vector;
+    }
+
+    /**
+     * Decrypt a count known to be at most max
+     */
+    public static long decrypt(BigInteger secret, Ciphertext ciphertext, long max) {
+        ECPoint message = ciphertext.c2().subtract(ciphertext.c1().multiply(secret)).normalize();
+        return discreteLog(message, max);
+    }
+
+    /**
+     * Find m in [0, max] with m·G = target (baby-step giant-step, O(sqrt(max)) points)
+     */
+    static long discreteLog(ECPoint target, long max) {
+        if (target.isInfinity()) {
+            return 0;
+        }
+        int step = (int) Math.ceil(Math.sqrt(max + 1.0));
+        Map<ByteBuffer, Integer> babySteps = new HashMap<>(step * 2);
+        ECPoint point = G;
+        for (int j = 1; j < step; j++) {
+            babySteps.putIfAbsent(ByteBuffer.wrap(point.getEncoded(true)), j);
+            point = point.add(G).normalize();
+        }
+        // point = step·G
+        ECPoint giantStep = point.negate();
+
+        ECPoint gamma = target;
+        for (long i = 0; i * step <= max; i++) {
+            if (gamma.isInfinity()) {
+                return i * step;
+            }
+            Integer j = babySteps.get(ByteBuffer.wrap(gamma.getEncoded(true)));
+            if (j != null) {
+                return i * step + j;
+            }
+            gamma = gamma.add(giantStep).normalize();
+        }
+        throw new CryptoException("Decrypted count exceeds " + max);
+    }
+
+    /**
+     * Compressed encoding of a point
+     */
+    public static byte[] encodePoint(ECPoint point) {
+        return point.isInfinity() ? new byte[POINT_LENGTH] : point.getEncoded(true);
+    }
+
+    /**
+     * Decode and validate a compressed point
+     */
+    public static ECPoint decodePoint(byte[] encoded, int offset) {
+        boolean infinity = true;
+        for (int i = 0; i < POINT_LENGTH; i++) {
+            if (encoded[offset + i] != 0) {
+                infinity = false;
+                break;
+            }
+        }
+        if (infinity) {
+            return CURVE.getInfinity();
+        }
+        try {
+            byte[] point = new byte[POINT_LENGTH];
+            System.arraycopy(encoded, offset, point, 0, POINT_LENGTH);
+            return CURVE.decodePoint(point);
+        } catch (IllegalArgumentException e) {
+            throw new CryptoException("Invalid curve point", e);
+        }
+    }
+
+    /**
+     * Fixed-length encoding of a vector of ciphertexts
+     */
+    public static byte[] encode(Ciphertext[] vector) {
+        ECPoint[] points = new ECPoint[vector.length * 2];
+        for (int i = 0; i < vector.length; i++) {
+            points[2 * i] = vector[i].c1();
+            points[2 * i + 1] = vector[i].c2();
+        }
+        // One field inversion for the whole vector instead of one per point
+        CURVE.normalizeAll(points);
+
+        byte[] encoded = new byte[vector.length * CIPHERTEXT_LENGTH];
+        for (int i = 0; i < points.length; i++) {
+            System.arraycopy(encodePoint(points[i]), 0, encoded, i * POINT_LENGTH, POINT_LENGTH);
+        }
+        return encoded;
+    }
+
+    /**
+     * Decode a vector of ciphertexts
+     */
+    public static Ciphertext[] decode(byte[] encoded) {
+        if (encoded.length % CIPHERTEXT_LENGTH != 0) {
+            throw new CryptoException("Invalid ciphertext vector length: " + encoded.length);
+        }
+        Ciphertext[] vector = new Ciphertext[encoded.length / CIPHERTEXT_LENGTH];
+        for (int i = 0; i < vector.length; i++) {
+            int offset = i * CIPHERTEXT_LENGTH;
+            vector[i] = new Ciphertext(decodePoint(encoded, offset), decodePoint(encoded, offset + POINT_LENGTH));
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,95 @@
+package com.votoeletronico.voto.service.crypto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Lowercase hex codec backed by lookup tables.
+ * Encoding writes Latin-1 bytes straight into the String, with no per-byte formatting.
+ */
+public final class Hex {
+
+    private static final byte[] DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Two ASCII digits per byte value
+     */
+    private static final byte[] ENCODE_TABLE = new byte[512];
+
+    /**
+     * Nibble value per ASCII character, -1 when not a hex digit
+     */
+    private static final byte[] DECODE_TABLE = new byte[128];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            ENCODE_TABLE[i << 1] = DIGITS[i >>> 4];
+            ENCODE_TABLE[(i << 1) + 1] = DIGITS[i & 0x0F];
+        }
+        Arrays.fill(DECODE_TABLE, (byte) -1);
+        for (int i = 0; i < 10; i++) {
+            DECODE_TABLE['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            DECODE_TABLE['a' + i] = (byte) (10 + i);
+            DECODE_TABLE['A' + i] = (byte) (10 + i);
+        }
+    }
+
+    private Hex() {
+    }
+
+    /**
+     * Encode bytes as lowercase hex (null stays null)
+     */
+    public static String encode(byte[] bytes) {
+        return bytes != null ? new String(encodeToBytes(bytes), StandardCharsets.ISO_8859_1) : null;
+    }
+
+    /**
+     * Encode bytes as lowercase ASCII hex digits
+     */
+    public static byte[] encodeToBytes(byte[] bytes) {
+        byte[] out = new byte[bytes.length << 1];
+        encodeToBytes(bytes, out);
+        return out;
+    }
+
+    /**
+     * Encode bytes as lowercase ASCII hex digits into the start of out, which must hold
+     * twice as many bytes
+     */
+    public static void encodeToBytes(byte[] bytes, byte[] out) {
+        for (int i = 0, j = 0; i < bytes.length; i++, j += 2) {
+            int v = (bytes[i] & 0xFF) << 1;
+            out[j] = ENCODE_TABLE[v];
+            out[j + 1] = ENCODE_TABLE[v + 1];
+        }
+    }
+
+    /**
+     * Decode hex, upper or lower case
+     *
+     * @throws IllegalArgumentException if the input is not valid hex
+     */
+    public static byte[] decode(String hex) {
+        int length = hex.length();
+        if ((length & 1) != 0) {
+            throw new IllegalArgumentException("Hex string has odd length: " + length);
+        }
+        byte[] out = new byte[length >> 1];
+        for (int i = 0, j = 0; j < out.length; i += 2, j++) {
+            out[j] = (byte) ((nibble(hex, i) << 4) | nibble(hex, i + 1));
+        }
+        return out;
+    }
+
+    private static int nibble(String hex, int index) {
+        char c = hex.charAt(index);
+        int value = c < 128 ? DECODE_TABLE[c] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException("Invalid hex character at index " + index);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,169 @@
+package com.votoeletronico.voto.service.crypto;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.security.*;
+import java.security.spec.AlgorithmParameterSpec;
+import java.security.spec.ECGenParameterSpec;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * {@link SignatureScheme} backed by a JCA signature algorithm.
+ *
+ * Like the engines in {@link CryptoService}, each thread keeps its own Signature instance.
+ * Batches are verified with one initVerify per thread and chunk, which saves decoding the
+ * public key for every signature; large batches are split across the common pool.
+ */
+@Slf4j
+public final class JcaSignatureScheme implements SignatureScheme {
+
+    static final String ED25519 = "Ed25519";
+    static final String ECDSA_P256 = "SHA256withECDSA";
+    static final String RSA_2048 = "SHA256withRSA";
+
+    private static final int PARALLEL_CHUNK_SIZE = 256;
+
+    private final String algorithm;
+    private final String keyAlgorithm;
+    private final AlgorithmParameterSpec keySpec;
+    private final int keySize;
+    private final ThreadLocal<Signature> signatures;
+
+    private JcaSignatureScheme(String algorithm, String keyAlgorithm, AlgorithmParameterSpec keySpec, int keySize) {
+        this.algorithm = algorithm;
+        this.keyAlgorithm = keyAlgorithm;
+        this.keySpec = keySpec;
+        this.keySize = keySize;
+        this.signatures = ThreadLocal.withInitial(() -> {
+            try {
+                return Signature.getInstance(algorithm);
+            } catch (NoSuchAlgorithmException e) {
+                throw new CryptoException(algorithm + " not available", e);
+            }
+        });
+    }
+
+    /**
+     * EdDSA over Curve25519 (JDK provider); deterministic, fastest to sign
+     */
+    public static JcaSignatureScheme ed25519() {
+        return new JcaSignatureScheme(ED25519, ED25519, null, 0);
+    }
+
+    /**
+     * ECDSA over NIST P-256
+     */
+    public static JcaSignatureScheme ecdsaP256() {
+        return new JcaSignatureScheme(ECDSA_P256, "EC", new ECGenParameterSpec("secp256r1"), 0);
+    }
+
+    /**
+     * RSA PKCS#1 v1.5 with 2048-bit keys (scheme of elections created before Ed25519)
+     */
+    public static JcaSignatureScheme rsa2048() {
+        return new JcaSignatureScheme(RSA_2048, "RSA", null, 2048);
+    }
+
+    @Override
+    public String algorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator keyGen = KeyPairGenerator.getInstance(keyAlgorithm);
+            if (keySpec != null) {
+                keyGen.initialize(keySpec, CryptoService.secureRandom());
+            } else if (keySize > 0) {
+                keyGen.initialize(keySize, CryptoService.secureRandom());
+            }
+            KeyPair keyPair = keyGen.generateKeyPair();
+            log.info("Generated {} key pair", algorithm);
+            return keyPair;
+        } catch (GeneralSecurityException e) {
+            log.error("Failed to generate {} key pair", algorithm, e);
+            throw new CryptoException("Failed to generate " + algorithm + " key pair", e);
+        }
+    }
+
+    @Override
+    public byte[] sign(byte[] message, PrivateKey privateKey) {
+        try {
+            Signature signature = signatures.get();
+            signature.initSign(privateKey, CryptoService.secureRandom());
+            signature.update(message);
+            return signature.sign();
+        } catch (GeneralSecurityException e) {
+            log.error("Failed to sign data with {}", algorithm, e);
+            throw new CryptoException("Failed to sign data with " + algorithm, e);
+        }
+    }
+
+    @Override
+    public boolean verify(byte[] message, byte[] signature, PublicKey publicKey) {
+        try {
+            Signature verifier = signatures.get();
+            verifier.initVerify(publicKey);
+            return verify(verifier, message, signature);
+        } catch (InvalidKeyException e) {
+            log.error("Invalid {} public key", algorithm, e);
+            return false;
+        }
+    }
+
+    @Override
+    public BitSet verifyBatch(List<byte[]> messages, List<byte[]> signatures, PublicKey publicKey) {
+        if (messages.size() != signatures.size()) {
+            throw new IllegalArgumentException("Got " + messages.size() + " messages but " + signatures.size() + " signatures");
+        }
+        int size = messages.size();
+        int chunks = (size + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+
+        IntStream range = IntStream.range(0, chunks);
+        if (chunks > 1) {
+            range = range.parallel();
+        }
+        // Mutable reduction: each thread ORs into its own BitSet, merged pairwise at the end
+        return range.collect(
+                () -> new BitSet(size),
+                (invalid, chunk) -> {
+                    int from = chunk * PARALLEL_CHUNK_SIZE;
+                    int to = Math.min(size, from + PARALLEL_CHUNK_SIZE);
+                    invalid.or(verifyChunk(messages, signatures, publicKey, from, to));
+                },
+                BitSet::or);
+    }
+
+    private BitSet verifyChunk(List<byte[]> messages, List<byte[]> signatures, PublicKey publicKey, int from, int to) {
+        BitSet invalid = new BitSet();
+        Signature verifier = this.signatures.get();
+        try {
+            // verify() resets the engine to its initVerify state, so one init covers the whole chunk
+            verifier.initVerify(publicKey);
+            for (int i = from; i < to; i++) {
+                if (!verify(verifier, messages.get(i), signatures.get(i))) {
+                    invalid.set(i);
+                    // A malformed signature may leave the engine mid-update
+                    verifier.initVerify(publicKey);
+                }
+            }
+        } catch (InvalidKeyException e) {
+            log.error("Invalid {} public key", algorithm, e);
+            invalid.set(from, to);
+        }
+        return invalid;
+    }
+
+    private boolean verify(Signature verifier, byte[] message, byte[] signature) {
+        try {
+            verifier.update(message);
+            return verifier.verify(signature);
+        } catch (SignatureException e) {
+            log.debug("Malformed {} signature", algorithm);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.votoeletronico.voto.service.crypto;
+
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A digital signature algorithm used to sign blind tokens and ballots.
+ * The algorithm is recorded per election, so elections keep the scheme they were created with.
+ */
+public interface SignatureScheme {
+
+    /**
+     * Algorithm name as recorded on the election (e.g. "Ed25519")
+     */
+    String algorithm();
+
+    /**
+     * Generate a new signing key pair
+     */
+    KeyPair generateKeyPair();
+
+    /**
+     * Sign a message
+     */
+    byte[] sign(byte[] message, PrivateKey privateKey);
+
+    /**
+     * Verify a signature; malformed signatures are reported as invalid
+     */
+    boolean verify(byte[] message, byte[] signature, PublicKey publicKey);
+
+    /**
+     * Verify many signatures made with the same key
+     *
+     * @return indexes of the invalid signatures (empty when all are valid)
+     */
+    BitSet verifyBatch(List<byte[]> messages, List<byte[]> signatures, PublicKey publicKey);
+}
@@ -0,0 +1,46 @@
+package com.votoeletronico.voto.service.crypto;
+
+import com.votoeletronico.voto.config.CryptoProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Registry of the supported signature schemes, by algorithm name
+ */
+@Component
+public class SignatureSchemes {
+
+    private final Map<String, SignatureScheme> schemes = Stream.of(
+                    JcaSignatureScheme.ed25519(),
+                    JcaSignatureScheme.ecdsaP256(),
+                    JcaSignatureScheme.rsa2048())
+            .collect(Collectors.toUnmodifiableMap(SignatureScheme::algorithm, Function.identity()));
+
+    private final SignatureScheme defaultScheme;
+
+    public SignatureSchemes(CryptoProperties cryptoProperties) {
+        this.defaultScheme = get(cryptoProperties.getSignatureAlgorithm());
+    }
+
+    /**
+     * Get a scheme by algorithm name
+     */
+    public SignatureScheme get(String algorithm) {
+        SignatureScheme scheme = schemes.get(algorithm);
+        if (scheme == null) {
+            throw new CryptoException("Unsupported signature algorithm: " + algorithm);
+        }
+        return scheme;
+    }
+
+    /**
+     * Scheme used for new elections
+     */
+    public SignatureScheme getDefault() {
+        return defaultScheme;
+    }
+}
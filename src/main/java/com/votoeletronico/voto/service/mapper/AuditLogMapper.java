@@ -2,6 +2,7 @@ package com.votoeletronico.voto.service.mapper;
 
 import com.votoeletronico.voto.domain.audit.AuditLog;
 import com.votoeletronico.voto.dto.response.AuditLogResponse;
+import com.votoeletronico.voto.service.crypto.Hex;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
@@ -20,12 +21,6 @@ public interface AuditLogMapper {
 
     @Named("bytesToHex")
     default String bytesToHex(byte[] bytes) {
-        if (bytes == null)
-            return null;
-        StringBuilder sb = new StringBuilder();
-        for (byte b : bytes) {
-            sb.append(String.format("%02x", b));
-        }
-        return sb.toString();
+        return Hex.encode(bytes);
     }
 }
@@ -50,5 +50,7 @@ public interface ElectionMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "candidates", ignore = true)
+    @Mapping(target = "signatureAlgorithm", ignore = true)
+    @Mapping(target = "sealedTally", ignore = true)
     void updateEntityFromRequest(UpdateElectionRequest request, @MappingTarget Election election);
 }
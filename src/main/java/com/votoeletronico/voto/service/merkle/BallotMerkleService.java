@@ -0,0 +1,184 @@
+package com.votoeletronico.voto.service.merkle;
+
+import com.votoeletronico.voto.domain.voting.EncryptedBallot;
+import com.votoeletronico.voto.exception.ResourceNotFoundException;
+import com.votoeletronico.voto.repository.BallotMerkleRepository;
+import com.votoeletronico.voto.repository.BallotMerkleRepository.NodeRef;
+import com.votoeletronico.voto.repository.BallotMerkleRepository.TreeInfo;
+import com.votoeletronico.voto.repository.EncryptedBallotJdbcRepository;
+import com.votoeletronico.voto.repository.EncryptedBallotRepository;
+import com.votoeletronico.voto.service.crypto.Hex;
+import com.votoeletronico.voto.service.tally.TallyWorkers;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Builds and serves the Merkle tree over an election's ballots.
+ *
+ * The tree is built once, at the end of the tally, from the ballot hashes streamed in seq
+ * order and hashed on the tally worker pool. Levels from {@link #STORED_FROM_LEVEL} up are persisted in pages; the bottom levels,
+ * which hold 15/16 of the nodes, are rebuilt from the 16 ballots around the leaf whenever a
+ * proof needs them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BallotMerkleService {
+
+    /**
+     * Lowest persisted level; a proof rebuilds the levels below from 2^4 ballots
+     */
+    static final int STORED_FROM_LEVEL = 4;
+
+    /**
+     * Nodes per stored page (32 KB)
+     */
+    static final int PAGE_NODES = 1024;
+
+    private final BallotMerkleRepository merkleRepository;
+    private final EncryptedBallotJdbcRepository ballotJdbcRepository;
+    private final EncryptedBallotRepository ballotRepository;
+    private final TallyWorkers tallyWorkers;
+
+    /**
+     * Build and store the ballot tree of an election, replacing any previous one
+     * Must run in a transaction: ballot hashes are read through a cursor.
+     *
+     * @return the Merkle root, or null when the election has no ballots
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public byte[] buildTree(UUID electionId) {
+        merkleRepository.deleteTree(electionId);
+
+        PageWriter pageWriter = new PageWriter(electionId);
+        ParallelMerkleBuilder builder = new ParallelMerkleBuilder(tallyWorkers.pool(), STORED_FROM_LEVEL, pageWriter);
+        ballotJdbcRepository.forEachBallotHash(electionId, builder::add);
+
+        byte[] root = builder.finish();
+        if (root == null) {
+            return null;
+        }
+        pageWriter.flush();
+        merkleRepository.insertTree(electionId, builder.leafCount(), root, STORED_FROM_LEVEL, PAGE_NODES);
+
+        log.info("Built Merkle tree for election {}: {} leaves, root {}", electionId, builder.leafCount(), Hex.encode(root));
+        return root;
+    }
+
+    /**
+     * Inclusion proof of a ballot against the stored root of its election
+     */
+    @Transactional(readOnly = true)
+    public MerkleProof getProof(UUID electionId, byte[] ballotHash) {
+        EncryptedBallot ballot = ballotRepository.findByBallotHash(ballotHash)
+                .filter(found -> found.getElection().getId().equals(electionId))
+                .orElseThrow(() -> new ResourceNotFoundException("Ballot", "hash", Hex.encode(ballotHash)));
+        TreeInfo tree = merkleRepository.findTree(electionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Merkle tree", "electionId", electionId));
+
+        long leafCount = tree.leafCount();
+        long index = ballot.getSequenceNumber() - 1;
+        if (index >= leafCount) {
+            throw new ResourceNotFoundException("Ballot", "hash", Hex.encode(ballotHash));
+        }
+
+        List<MerkleProof.Step> path = new ArrayList<>();
+
+        // Bottom levels: rebuild the subtree of the aligned group of ballots holding the leaf
+        int bottom = tree.storedFromLevel();
+        long groupStart = (index >> bottom) << bottom;
+        long groupEnd = Math.min(leafCount, groupStart + (1L << bottom));
+        List<byte[]> leaves = ballotJdbcRepository.findHashes(electionId, groupStart + 1, groupEnd).stream()
+                .map(MerkleTree::leafHash)
+                .toList();
+        List<List<byte[]>> groupLevels = MerkleTree.levels(leaves);
+        int local = (int) (index - groupStart);
+        for (int level = 0; level < groupLevels.size() - 1; level++, local >>= 1) {
+            List<byte[]> nodes = groupLevels.get(level);
+            int sibling = local ^ 1;
+            if (sibling < nodes.size()) {
+                path.add(new MerkleProof.Step(nodes.get(sibling), sibling < local));
+            }
+        }
+
+        // Stored levels: one sibling per level, where the node has one
+        int height = MerkleTree.height(leafCount);
+        List<NodeRef> refs = new ArrayList<>();
+        Map<Integer, Boolean> leftByLevel = new HashMap<>();
+        for (int level = bottom; level < height; level++) {
+            long node = index >> level;
+            long sibling = node ^ 1;
+            if (sibling < MerkleTree.levelSize(leafCount, level)) {
+                refs.add(new NodeRef(level, sibling));
+                leftByLevel.put(level, sibling < node);
+            }
+        }
+        Map<Integer, byte[]> siblings = merkleRepository.findNodes(electionId, tree.pageSize(), refs);
+        for (NodeRef ref : refs) {
+            byte[] sibling = siblings.get(ref.level());
+            if (sibling == null) {
+                throw new IllegalStateException("Merkle tree of election " + electionId + " is missing node "
+                        + ref.index() + " at level " + ref.level());
+            }
+            path.add(new MerkleProof.Step(sibling, leftByLevel.get(ref.level())));
+        }
+
+        MerkleProof proof = new MerkleProof(index, leafCount, tree.root(), path);
+        if (!proof.verify(ballotHash)) {
+            throw new IllegalStateException("Merkle proof of ballot " + Hex.encode(ballotHash)
+                    + " does not match the stored root of election " + electionId);
+        }
+        return proof;
+    }
+
+    /**
+     * Buffers the nodes of each stored level into fixed-size pages
+     */
+    private final class PageWriter implements StreamingMerkleBuilder.NodeSink {
+
+        private final UUID electionId;
+        private final Map<Integer, ByteBuffer> buffers = new HashMap<>();
+        private final Map<Integer, Integer> pages = new HashMap<>();
+
+        PageWriter(UUID electionId) {
+            this.electionId = electionId;
+        }
+
+        @Override
+        public void accept(int level, long index, byte[] nodes, int offset) {
+            ByteBuffer buffer = buffers.computeIfAbsent(level,
+                    ignored -> ByteBuffer.allocate(PAGE_NODES * MerkleTree.HASH_LENGTH));
+            buffer.put(nodes, offset, MerkleTree.HASH_LENGTH);
+            if (!buffer.hasRemaining()) {
+                write(level, buffer);
+            }
+        }
+
+        void flush() {
+            buffers.forEach((level, buffer) -> {
+                if (buffer.position() > 0) {
+                    write(level, buffer);
+                }
+            });
+        }
+
+        private void write(int level, ByteBuffer buffer) {
+            byte[] nodes = new byte[buffer.position()];
+            buffer.flip();
+            buffer.get(nodes);
+            buffer.clear();
+            int page = pages.merge(level, 1, Integer::sum) - 1;
+            merkleRepository.insertPage(electionId, level, page, nodes);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.votoeletronico.voto.service.merkle;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Proofs over an append-only Merkle log, as defined by RFC 6962 (section 2.1).
+ *
+ * Hashing follows {@link MerkleTree}. The log is stored as its perfect subtrees: node
+ * (level, index) covers leaves [index * 2^level, (index + 1) * 2^level) and never changes
+ * once complete, so the root of any earlier size and every proof hash can be rebuilt from
+ * complete nodes alone. Audit paths list hashes from the leaf up; the side of each one
+ * follows from the leaf index and tree size, as in the RFC.
+ */
+public final class MerkleLog {
+
+    /**
+     * Complete nodes of the log
+     */
+    @FunctionalInterface
+    public interface NodeSource {
+        byte[] node(int level, long index);
+    }
+
+    private MerkleLog() {
+    }
+
+    /**
+     * Root of the first size leaves
+     */
+    public static byte[] root(long size, NodeSource nodes) {
+        requirePositive(size);
+        return subtreeHash(0, size, nodes);
+    }
+
+    /**
+     * Audit path of leaf index in the tree of the first size leaves
+     */
+    public static List<byte[]> inclusionPath(long index, long size, NodeSource nodes) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Leaf " + index + " is not in a tree of size " + size);
+        }
+        List<byte[]> path = new ArrayList<>();
+        path(index, 0, size, nodes, path);
+        return path;
+    }
+
+    /**
+     * Proof that the tree of the first m leaves is a prefix of the tree of the first n
+     */
+    public static List<byte[]> consistencyProof(long m, long n, NodeSource nodes) {
+        requirePositive(m);
+        if (m > n) {
+            throw new IllegalArgumentException("Tree size " + m + " is larger than " + n);
+        }
+        List<byte[]> proof = new ArrayList<>();
+        if (m < n) {
+            subproof(m, 0, n, true, nodes, proof);
+        }
+        return proof;
+    }
+
+    /**
+     * Check an audit path (RFC 9162, section 2.1.3.2)
+     */
+    public static boolean verifyInclusion(long index, long size, byte[] leafHash, List<byte[]> path, byte[] root) {
+        if (index < 0 || index >= size) {
+            return false;
+        }
+        long fn = index;
+        long sn = size - 1;
+        byte[] r = leafHash;
+        for (byte[] p : path) {
+            if (sn == 0) {
+                return false;
+            }
+            if ((fn & 1) == 1 || fn == sn) {
+                r = MerkleTree.nodeHash(p, r);
+                while ((fn & 1) == 0 && fn != 0) {
+                    fn >>= 1;
+                    sn >>= 1;
+                }
+            } else {
+                r = MerkleTree.nodeHash(r, p);
+            }
+            fn >>= 1;
+            sn >>= 1;
+        }
+        return sn == 0 && MessageDigest.isEqual(r, root);
+    }
+
+    /**
+     * Check a consistency proof between two roots (RFC 9162, section 2.1.4.2)
+     */
+    public static boolean verifyConsistency(long m, long n, byte[] firstRoot, byte[] secondRoot, List<byte[]> proof) {
+        if (m <= 0 || m > n) {
+            return false;
+        }
+        if (m == n) {
+            return proof.isEmpty() && MessageDigest.isEqual(firstRoot, secondRoot);
+        }
+        List<byte[]> hashes = proof;
+        if (Long.bitCount(m) == 1) {
+            hashes = new ArrayList<>(proof.size() + 1);
+            hashes.add(firstRoot);
+            hashes.addAll(proof);
+        }
+        if (hashes.isEmpty()) {
+            return false;
+        }
+        long fn = m - 1;
+        long sn = n - 1;
+        while ((fn & 1) == 1) {
+            fn >>= 1;
+            sn >>= 1;
+        }
+        byte[] fr = hashes.get(0);
+        byte[] sr = hashes.get(0);
+        for (byte[] c : hashes.subList(1, hashes.size())) {
+            if (sn == 0) {
+                return false;
+            }
+            if ((fn & 1) == 1 || fn == sn) {
+                fr = MerkleTree.nodeHash(c, fr);
+                sr = MerkleTree.nodeHash(c, sr);
+                while ((fn & 1) == 0 && fn != 0) {
+                    fn >>= 1;
+                    sn >>= 1;
+                }
+            } else {
+                sr = MerkleTree.nodeHash(sr, c);
+            }
+            fn >>= 1;
+            sn >>= 1;
+        }
+        return sn == 0 && MessageDigest.isEqual(fr, firstRoot) && MessageDigest.isEqual(sr, secondRoot);
+    }
+
+    /**
+     * MTH of the n leaves from start; start is always aligned to the subtree sizes met
+     */
+    private static byte[] subtreeHash(long start, long n, NodeSource nodes) {
+        if (Long.bitCount(n) == 1) {
+            int level = Long.numberOfTrailingZeros(n);
+            return nodes.node(level, start >> level);
+        }
+        long k = split(n);
+        return MerkleTree.nodeHash(subtreeHash(start, k, nodes), subtreeHash(start + k, n - k, nodes));
+    }
+
+    private static void path(long m, long start, long n, NodeSource nodes, List<byte[]> out) {
+        if (n == 1) {
+            return;
+        }
+        long k = split(n);
+        if (m < k) {
+            path(m, start, k, nodes, out);
+            out.add(subtreeHash(start + k, n - k, nodes));
+        } else {
+            path(m - k, start + k, n - k, nodes, out);
+            out.add(subtreeHash(start, k, nodes));
+        }
+    }
+
+    private static void subproof(long m, long start, long n, boolean complete, NodeSource nodes, List<byte[]> out) {
+        if (m == n) {
+            if (!complete) {
+                out.add(subtreeHash(start, n, nodes));
+            }
+            return;
+        }
+        long k = split(n);
+        if (m <= k) {
+            subproof(m, start, k, complete, nodes, out);
+            out.add(subtreeHash(start + k, n - k, nodes));
+        } else {
+            subproof(m - k, start + k, n - k, false, nodes, out);
+            out.add(subtreeHash(start, k, nodes));
+        }
+    }
+
+    /**
+     * Largest power of two smaller than n (n >= 2)
+     */
+    private static long split(long n) {
+        return Long.highestOneBit(n - 1);
+    }
+
+    private static void requirePositive(long size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Tree size must be positive: " + size);
+        }
+    }
+}
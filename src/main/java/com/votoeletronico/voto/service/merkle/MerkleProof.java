@@ -0,0 +1,34 @@
+package com.votoeletronico.voto.service.merkle;
+
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Inclusion proof of one ballot: the sibling of each node on the path from its leaf to the root
+ */
+public record MerkleProof(long leafIndex, long leafCount, byte[] root, List<Step> path) {
+
+    /**
+     * A sibling hash and whether it is the left operand when hashing with the running node
+     */
+    public record Step(byte[] sibling, boolean left) {
+    }
+
+    /**
+     * Root obtained by walking the path up from a ballot hash
+     */
+    public byte[] rootFor(byte[] ballotHash) {
+        byte[] node = MerkleTree.leafHash(ballotHash);
+        for (Step step : path) {
+            node = step.left() ? MerkleTree.nodeHash(step.sibling(), node) : MerkleTree.nodeHash(node, step.sibling());
+        }
+        return node;
+    }
+
+    /**
+     * Check the proof against its root
+     */
+    public boolean verify(byte[] ballotHash) {
+        return MessageDigest.isEqual(rootFor(ballotHash), root);
+    }
+}
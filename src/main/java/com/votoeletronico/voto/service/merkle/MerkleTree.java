@@ -0,0 +1,107 @@
+package com.votoeletronico.voto.service.merkle;
+
+import com.votoeletronico.voto.service.crypto.CryptoException;
+import com.votoeletronico.voto.service.crypto.Digests;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashing rules and shape of the ballot Merkle tree.
+ *
+ * Leaves are SHA-256(0x00 || ballotHash) and interior nodes SHA-256(0x01 || left || right),
+ * so a leaf can never be passed off as a node. Each level pairs nodes left to right and
+ * a lone last node is promoted to the next level unchanged, which gives the same tree as
+ * RFC 6962 (left subtree = largest power of two below n).
+ */
+public final class MerkleTree {
+
+    public static final int HASH_LENGTH = 32;
+
+    private static final byte[] LEAF_PREFIX = {0x00};
+    private static final byte[] NODE_PREFIX = {0x01};
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new CryptoException("SHA-256 not available", e);
+        }
+    });
+
+    private MerkleTree() {
+    }
+
+    public static byte[] leafHash(byte[] ballotHash) {
+        return Digests.sha256(LEAF_PREFIX, ballotHash);
+    }
+
+    public static byte[] nodeHash(byte[] left, byte[] right) {
+        return Digests.sha256(NODE_PREFIX, left, right);
+    }
+
+    /**
+     * Leaf hash of the 32 bytes at src[srcOffset], written to dst[dstOffset] without allocating
+     * The ranges may overlap: the input is consumed before the output is written.
+     */
+    public static void leafHash(byte[] src, int srcOffset, byte[] dst, int dstOffset) {
+        MessageDigest digest = SHA_256.get();
+        digest.update(LEAF_PREFIX[0]);
+        digest.update(src, srcOffset, HASH_LENGTH);
+        finish(digest, dst, dstOffset);
+    }
+
+    /**
+     * Node hash of the two adjacent 32-byte children at src[leftOffset], written to dst[dstOffset]
+     * without allocating. The ranges may overlap.
+     */
+    public static void nodeHash(byte[] src, int leftOffset, byte[] dst, int dstOffset) {
+        MessageDigest digest = SHA_256.get();
+        digest.update(NODE_PREFIX[0]);
+        digest.update(src, leftOffset, 2 * HASH_LENGTH);
+        finish(digest, dst, dstOffset);
+    }
+
+    private static void finish(MessageDigest digest, byte[] dst, int dstOffset) {
+        try {
+            digest.digest(dst, dstOffset, HASH_LENGTH);
+        } catch (DigestException e) {
+            throw new CryptoException("SHA-256 digest failed", e);
+        }
+    }
+
+    /**
+     * Number of nodes at a level of a tree with the given number of leaves
+     */
+    public static long levelSize(long leafCount, int level) {
+        return leafCount == 0 ? 0 : ((leafCount - 1) >> level) + 1;
+    }
+
+    /**
+     * Level of the root (0 for a single leaf)
+     */
+    public static int height(long leafCount) {
+        return leafCount <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(leafCount - 1);
+    }
+
+    /**
+     * All levels of a small tree, leaves first and root last
+     */
+    public static List<List<byte[]>> levels(List<byte[]> leafHashes) {
+        List<List<byte[]>> levels = new ArrayList<>();
+        List<byte[]> level = leafHashes;
+        levels.add(level);
+        while (level.size() > 1) {
+            List<byte[]> parent = new ArrayList<>((level.size() + 1) / 2);
+            for (int i = 0; i < level.size(); i += 2) {
+                parent.add(i + 1 < level.size() ? nodeHash(level.get(i), level.get(i + 1)) : level.get(i));
+            }
+            levels.add(parent);
+            level = parent;
+        }
+        return levels;
+    }
+}
@@ -0,0 +1,174 @@
+package com.votoeletronico.voto.service.merkle;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Builds the same tree as {@link StreamingMerkleBuilder}, hashing on a fork-join pool.
+ *
+ * Ballot hashes are buffered into aligned blocks of 2^blockLevel leaves. Each full block
+ * is a complete subtree, so blocks are hashed independently on the pool while the caller
+ * keeps reading ballots; their roots are then fed, in order, to a streaming builder that
+ * combines them. Blocks are hashed in place in one flat buffer of 32-byte nodes, with
+ * no allocation per node. The root and the stored nodes are exactly those of the
+ * sequential build.
+ */
+public final class ParallelMerkleBuilder {
+
+    /**
+     * 16384 leaves (512 KB) per block
+     */
+    static final int DEFAULT_BLOCK_LEVEL = 14;
+
+    private static final int HASH = MerkleTree.HASH_LENGTH;
+
+    private final ForkJoinPool pool;
+    private final int maxInFlight;
+    private final int blockLevel;
+    private final int blockLeaves;
+    private final int storedFromLevel;
+    private final StreamingMerkleBuilder.NodeSink sink;
+    private final StreamingMerkleBuilder upper;
+
+    private final Deque<ForkJoinTask<Block>> inFlight = new ArrayDeque<>();
+    private final Deque<byte[]> freeBuffers = new ArrayDeque<>();
+    private byte[] buffer;
+    private int buffered;
+    private long blocks;
+    private long leafCount;
+
+    /**
+     * @param pool pool to hash blocks on, or null to hash them on the caller's thread
+     */
+    public ParallelMerkleBuilder(ForkJoinPool pool, int storedFromLevel, StreamingMerkleBuilder.NodeSink sink) {
+        this(pool, storedFromLevel, sink, DEFAULT_BLOCK_LEVEL);
+    }
+
+    ParallelMerkleBuilder(ForkJoinPool pool, int storedFromLevel, StreamingMerkleBuilder.NodeSink sink, int blockLevel) {
+        this.pool = pool;
+        this.maxInFlight = pool != null ? 2 * pool.getParallelism() : 0;
+        this.blockLevel = blockLevel;
+        this.blockLeaves = 1 << blockLevel;
+        this.storedFromLevel = storedFromLevel;
+        this.sink = sink;
+        this.upper = new StreamingMerkleBuilder(Math.max(storedFromLevel, blockLevel), sink);
+        this.buffer = new byte[blockLeaves * HASH];
+    }
+
+    /**
+     * Append the next ballot hash as a leaf
+     */
+    public void add(byte[] ballotHash) {
+        System.arraycopy(ballotHash, 0, buffer, buffered * HASH, HASH);
+        leafCount++;
+        if (++buffered == blockLeaves) {
+            submitBlock();
+        }
+    }
+
+    public long leafCount() {
+        return leafCount;
+    }
+
+    /**
+     * Hash the remaining blocks and return the root
+     *
+     * @return the root, or null when no leaves were added
+     */
+    public byte[] finish() {
+        if (blocks == 0) {
+            return buffered > 0 ? finishSingleBlock() : null;
+        }
+        if (buffered > 0) {
+            submitBlock();
+        }
+        while (!inFlight.isEmpty()) {
+            combine(inFlight.removeFirst().join());
+        }
+        return upper.finish();
+    }
+
+    private void submitBlock() {
+        byte[] leaves = buffer;
+        int count = buffered;
+        long index = blocks++;
+
+        if (pool == null) {
+            combine(hashBlock(index, leaves, count, blockLevel));
+        } else {
+            if (inFlight.size() >= maxInFlight) {
+                combine(inFlight.removeFirst().join());
+            }
+            inFlight.addLast(pool.submit(() -> hashBlock(index, leaves, count, blockLevel)));
+        }
+
+        byte[] free = freeBuffers.pollFirst();
+        buffer = free != null ? free : new byte[blockLeaves * HASH];
+        buffered = 0;
+    }
+
+    /**
+     * The whole tree fits in one partial block: its root is the tree root, at the tree's own height
+     */
+    private byte[] finishSingleBlock() {
+        int height = MerkleTree.height(buffered);
+        Block block = hashBlock(0, buffer, buffered, height);
+        emitStored(block, height);
+        if (height >= storedFromLevel) {
+            sink.accept(height, 0, block.root(), 0);
+        }
+        return block.root();
+    }
+
+    /**
+     * Hash one block level by level in place up to {@code levels}, keeping copies of the levels
+     * to be stored. A lone last node is promoted, so a partial block still ends with one node.
+     */
+    private Block hashBlock(long index, byte[] nodes, int count, int levels) {
+        for (int i = 0; i < count; i++) {
+            MerkleTree.leafHash(nodes, i * HASH, nodes, i * HASH);
+        }
+
+        byte[][] stored = new byte[levels][];
+        int size = count;
+        for (int level = 0; level < levels; level++) {
+            if (level >= storedFromLevel) {
+                stored[level] = Arrays.copyOf(nodes, size * HASH);
+            }
+            int pairs = size >> 1;
+            for (int i = 0; i < pairs; i++) {
+                MerkleTree.nodeHash(nodes, 2 * i * HASH, nodes, i * HASH);
+            }
+            if ((size & 1) != 0) {
+                System.arraycopy(nodes, (size - 1) * HASH, nodes, pairs * HASH, HASH);
+            }
+            size = pairs + (size & 1);
+        }
+        return new Block(index, count, Arrays.copyOf(nodes, HASH), stored, nodes);
+    }
+
+    /**
+     * Emit a hashed block's stored nodes and feed its root to the upper levels (caller's thread, block order)
+     */
+    private void combine(Block block) {
+        emitStored(block, blockLevel);
+        upper.addSubtree(blockLevel, block.root(), block.leaves());
+        freeBuffers.addLast(block.buffer());
+    }
+
+    private void emitStored(Block block, int levels) {
+        for (int level = storedFromLevel; level < levels; level++) {
+            byte[] nodes = block.stored()[level];
+            long first = block.index() << (blockLevel - level);
+            for (int i = 0, n = nodes.length / HASH; i < n; i++) {
+                sink.accept(level, first + i, nodes, i * HASH);
+            }
+        }
+    }
+
+    private record Block(long index, int leaves, byte[] root, byte[][] stored, byte[] buffer) {
+    }
+}
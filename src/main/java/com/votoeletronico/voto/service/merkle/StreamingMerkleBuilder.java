@@ -0,0 +1,101 @@
+package com.votoeletronico.voto.service.merkle;
+
+/**
+ * Builds the ballot Merkle tree from ballot hashes fed in seq order, holding at most one
+ * pending node per level. Nodes of the levels to be stored are handed to a sink as soon
+ * as they are final, in index order within each level.
+ *
+ * Whole subtrees computed elsewhere can be fed in place of their leaves, which is how
+ * {@link ParallelMerkleBuilder} combines its blocks.
+ */
+public final class StreamingMerkleBuilder {
+
+    /**
+     * Receives the finished nodes of the stored levels
+     */
+    @FunctionalInterface
+    public interface NodeSink {
+        /**
+         * @param nodes  buffer holding the node; only valid during the call
+         * @param offset offset of the node's 32 bytes in the buffer
+         */
+        void accept(int level, long index, byte[] nodes, int offset);
+    }
+
+    private static final int MAX_LEVELS = 64;
+
+    private final int storedFromLevel;
+    private final NodeSink sink;
+
+    private final byte[][] pending = new byte[MAX_LEVELS][];
+    private final long[] counts = new long[MAX_LEVELS];
+    private long leafCount;
+    private int top;
+
+    public StreamingMerkleBuilder(int storedFromLevel, NodeSink sink) {
+        this.storedFromLevel = storedFromLevel;
+        this.sink = sink;
+    }
+
+    /**
+     * Append the next ballot hash as a leaf
+     */
+    public void add(byte[] ballotHash) {
+        push(0, MerkleTree.leafHash(ballotHash));
+        leafCount++;
+    }
+
+    /**
+     * Append the root of a subtree computed elsewhere, in place of its leaves.
+     * Every earlier input must cover a multiple of 2^level leaves; only the last subtree
+     * may be partial, with its lone nodes already promoted up to {@code level}.
+     */
+    public void addSubtree(int level, byte[] root, long leaves) {
+        push(level, root);
+        leafCount += leaves;
+    }
+
+    public long leafCount() {
+        return leafCount;
+    }
+
+    /**
+     * Promote the lone nodes left at the end of each level and return the root
+     *
+     * @return the root, or null when no leaves were added
+     */
+    public byte[] finish() {
+        if (leafCount == 0) {
+            return null;
+        }
+        for (int level = 0; ; level++) {
+            if (level == top && counts[level] == 1) {
+                return pending[level];
+            }
+            if (pending[level] != null) {
+                byte[] lone = pending[level];
+                pending[level] = null;
+                push(level + 1, lone);
+            }
+        }
+    }
+
+    private void push(int level, byte[] node) {
+        while (true) {
+            long index = counts[level]++;
+            if (level >= storedFromLevel) {
+                sink.accept(level, index, node, 0);
+            }
+            top = Math.max(top, level);
+
+            byte[] left = pending[level];
+            if (left == null) {
+                pending[level] = node;
+                return;
+            }
+            pending[level] = null;
+            node = MerkleTree.nodeHash(left, node);
+            level++;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.votoeletronico.voto.service.results;
+
+import com.votoeletronico.voto.service.crypto.Digests;
+import com.votoeletronico.voto.service.crypto.Hex;
+
+import java.util.UUID;
+
+/**
+ * Published result of an election rendered once to its JSON response body
+ *
+ * @param etag strong entity tag (quoted SHA-256 of the body)
+ */
+public record PublishedResult(UUID electionId, byte[] body, String etag) {
+
+    public static PublishedResult of(UUID electionId, byte[] body) {
+        return new PublishedResult(electionId, body, "\"" + Hex.encode(Digests.sha256(body)) + "\"");
+    }
+}
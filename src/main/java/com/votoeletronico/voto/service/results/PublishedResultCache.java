@@ -0,0 +1,143 @@
+package com.votoeletronico.voto.service.results;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.votoeletronico.voto.config.ResultsProperties;
+import com.votoeletronico.voto.domain.results.ElectionResult;
+import com.votoeletronico.voto.repository.ElectionResultRepository;
+import com.votoeletronico.voto.service.mapper.ElectionResultMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rendered response bodies of published election results.
+ *
+ * A published result never changes, so it is mapped and serialized once, on the first
+ * request after publication, and every later request is served from memory without
+ * touching the database. With a cache directory configured the bytes are also written to
+ * disk and read back by nodes that have not rendered them yet. Unpublished results are
+ * never cached.
+ */
+@Slf4j
+@Component
+public class PublishedResultCache {
+
+    private final ElectionResultRepository electionResultRepository;
+    private final ElectionResultMapper electionResultMapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Path cacheDir;
+
+    private final Map<UUID, PublishedResult> documents = new ConcurrentHashMap<>();
+
+    public PublishedResultCache(ElectionResultRepository electionResultRepository,
+                                ElectionResultMapper electionResultMapper,
+                                ObjectMapper objectMapper,
+                                TransactionTemplate transactionTemplate,
+                                ResultsProperties resultsProperties) {
+        this.electionResultRepository = electionResultRepository;
+        this.electionResultMapper = electionResultMapper;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(Objects.requireNonNull(transactionTemplate.getTransactionManager()));
+        this.readOnlyTransaction.setReadOnly(true);
+        String dir = resultsProperties.getCacheDir();
+        this.cacheDir = dir != null && !dir.isBlank() ? Path.of(dir) : null;
+    }
+
+    /**
+     * Get the rendered result of an election
+     *
+     * @return the document, or empty when the election has no published result
+     */
+    public Optional<PublishedResult> find(UUID electionId) {
+        PublishedResult cached = documents.get(electionId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        // Rendered outside the map: the render reads the disk and the database, which must not
+        // happen under a map lock. Concurrent first requests may each render the same bytes;
+        // the first one stored wins.
+        PublishedResult loaded = load(electionId);
+        if (loaded == null) {
+            return Optional.empty();
+        }
+        PublishedResult previous = documents.putIfAbsent(electionId, loaded);
+        return Optional.of(previous != null ? previous : loaded);
+    }
+
+    /**
+     * @return the document, or null (not cached) when the result is not published
+     */
+    private PublishedResult load(UUID electionId) {
+        PublishedResult stored = readFromDisk(electionId);
+        if (stored != null) {
+            return stored;
+        }
+
+        byte[] body = readOnlyTransaction.execute(status -> electionResultRepository.findByElectionId(electionId)
+                .filter(ElectionResult::getPublished)
+                .map(result -> render(electionResultMapper.toResponse(result)))
+                .orElse(null));
+        if (body == null) {
+            return null;
+        }
+
+        PublishedResult document = PublishedResult.of(electionId, body);
+        writeToDisk(document);
+        log.info("Rendered published result of election {} ({} bytes, ETag {})", electionId, body.length,
+                document.etag());
+        return document;
+    }
+
+    private byte[] render(Object response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not render election result", e);
+        }
+    }
+
+    private PublishedResult readFromDisk(UUID electionId) {
+        if (cacheDir == null) {
+            return null;
+        }
+        Path file = file(electionId);
+        try {
+            return Files.exists(file) ? PublishedResult.of(electionId, Files.readAllBytes(file)) : null;
+        } catch (IOException e) {
+            log.warn("Could not read cached result {}; rendering it again", file, e);
+            return null;
+        }
+    }
+
+    private void writeToDisk(PublishedResult document) {
+        if (cacheDir == null) {
+            return;
+        }
+        Path file = file(document.electionId());
+        try {
+            Files.createDirectories(cacheDir);
+            // Write then rename, so another node never reads a partial file
+            Path temp = Files.createTempFile(cacheDir, document.electionId().toString(), ".tmp");
+            Files.write(temp, document.body());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write cached result {}", file, e);
+        }
+    }
+
+    private Path file(UUID electionId) {
+        return cacheDir.resolve(electionId + ".json");
+    }
+}
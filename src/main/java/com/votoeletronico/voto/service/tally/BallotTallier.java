@@ -0,0 +1,72 @@
+package com.votoeletronico.voto.service.tally;
+
+import com.votoeletronico.voto.repository.EncryptedBallotJdbcRepository.BallotRow;
+import com.votoeletronico.voto.service.crypto.BallotCodec;
+import com.votoeletronico.voto.service.crypto.BallotPayload;
+import com.votoeletronico.voto.service.crypto.CryptoService;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.SecretKey;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Decrypts and counts the ballots of one election.
+ * Holds no per-ballot state, so one instance can be shared by all tally workers.
+ */
+@Slf4j
+public class BallotTallier {
+
+    private final CryptoService cryptoService;
+    private final BallotCodec ballotCodec;
+    private final SecretKey key;
+    private final int candidateCount;
+    private final Map<UUID, Integer> ordinalById;
+
+    /**
+     * @param ordinalById candidate ordinals (ballot number order), for legacy JSON ballots that reference candidates by id
+     */
+    public BallotTallier(CryptoService cryptoService, BallotCodec ballotCodec, SecretKey key,
+                         Map<UUID, Integer> ordinalById) {
+        this.cryptoService = cryptoService;
+        this.ballotCodec = ballotCodec;
+        this.key = key;
+        this.candidateCount = ordinalById.size();
+        this.ordinalById = Map.copyOf(ordinalById);
+    }
+
+    /**
+     * Fresh counters for this election
+     */
+    public TallyCounts newCounts() {
+        return new TallyCounts(candidateCount);
+    }
+
+    /**
+     * Decrypt one ballot and count it
+     */
+    public void count(BallotRow ballot, TallyCounts counts) {
+        try {
+            byte[] plaintext = cryptoService.decryptAES(ballot.encryptedVote(), ballot.nonce(), key);
+            BallotPayload payload = ballotCodec.decode(plaintext);
+
+            if (payload.type() == BallotPayload.Type.VOTE) {
+                int ordinal = payload.hasOrdinal()
+                        ? payload.candidateOrdinal()
+                        : ordinalById.getOrDefault(payload.candidateId(), BallotPayload.NO_ORDINAL);
+
+                if (ordinal >= 0 && ordinal < candidateCount) {
+                    counts.vote(ordinal);
+                } else {
+                    log.warn("Vote for unknown candidate in ballot {}", ballot.id());
+                    counts.invalid();
+                }
+            } else {
+                counts.abstention();
+            }
+        } catch (Exception e) {
+            log.error("Failed to process ballot {}", ballot.id(), e);
+            counts.invalid();
+        }
+    }
+}
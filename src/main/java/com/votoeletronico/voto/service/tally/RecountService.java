@@ -0,0 +1,329 @@
+package com.votoeletronico.voto.service.tally;
+
+import com.votoeletronico.voto.config.TallyProperties;
+import com.votoeletronico.voto.domain.election.Candidate;
+import com.votoeletronico.voto.domain.election.Election;
+import com.votoeletronico.voto.domain.results.CandidateResult;
+import com.votoeletronico.voto.domain.results.ElectionResult;
+import com.votoeletronico.voto.domain.results.RecountJob;
+import com.votoeletronico.voto.domain.results.RecountReport;
+import com.votoeletronico.voto.domain.results.TallyJobStatus;
+import com.votoeletronico.voto.exception.BusinessException;
+import com.votoeletronico.voto.exception.ResourceNotFoundException;
+import com.votoeletronico.voto.repository.ElectionResultRepository;
+import com.votoeletronico.voto.repository.EncryptedBallotJdbcRepository;
+import com.votoeletronico.voto.repository.EncryptedBallotJdbcRepository.BallotRow;
+import com.votoeletronico.voto.repository.RecountJobRepository;
+import com.votoeletronico.voto.service.TallyService;
+import com.votoeletronico.voto.service.VotingService;
+import com.votoeletronico.voto.service.crypto.BallotCodec;
+import com.votoeletronico.voto.service.crypto.CryptoService;
+import com.votoeletronico.voto.service.crypto.Hex;
+import com.votoeletronico.voto.service.merkle.ParallelMerkleBuilder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongPredicate;
+
+/**
+ * Read-only recount of a tallied election, for auditors.
+ *
+ * Streams every ballot again in chain order, decrypts and counts it on a worker pool of its
+ * own, rebuilds the Merkle root from the same rows and derives the results hash, then
+ * compares everything with the stored result. Nothing but the job's own row is written.
+ * Throughput is capped so a recount can run while the system is serving voters.
+ *
+ * A recount runs in the background on the node that accepted it, reporting its progress
+ * and finally its report through recount_jobs. It is not resumed elsewhere: a recount
+ * whose node stops reporting progress is failed and can simply be started again.
+ */
+@Slf4j
+@Service
+public class RecountService {
+
+    private final ElectionResultRepository electionResultRepository;
+    private final RecountJobRepository recountJobRepository;
+    private final EncryptedBallotJdbcRepository ballotJdbcRepository;
+    private final VotingService votingService;
+    private final TallyService tallyService;
+    private final CryptoService cryptoService;
+    private final BallotCodec ballotCodec;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TallyProperties tallyProperties;
+    private final TallyWorkers workers;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    public RecountService(ElectionResultRepository electionResultRepository,
+                          RecountJobRepository recountJobRepository,
+                          EncryptedBallotJdbcRepository ballotJdbcRepository,
+                          VotingService votingService,
+                          TallyService tallyService,
+                          CryptoService cryptoService,
+                          BallotCodec ballotCodec,
+                          TransactionTemplate transactionTemplate,
+                          TallyProperties tallyProperties) {
+        this.electionResultRepository = electionResultRepository;
+        this.recountJobRepository = recountJobRepository;
+        this.ballotJdbcRepository = ballotJdbcRepository;
+        this.votingService = votingService;
+        this.tallyService = tallyService;
+        this.cryptoService = cryptoService;
+        this.ballotCodec = ballotCodec;
+        this.readOnlyTransaction = new TransactionTemplate(Objects.requireNonNull(transactionTemplate.getTransactionManager()));
+        this.readOnlyTransaction.setReadOnly(true);
+        this.tallyProperties = tallyProperties;
+        this.workers = new TallyWorkers(tallyProperties.getRecountParallelism(), "recount-worker-");
+        int maxConcurrent = Math.max(1, tallyProperties.getMaxConcurrentRecounts());
+        this.permits = new Semaphore(maxConcurrent);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxConcurrent, runnable -> {
+            Thread thread = new Thread(runnable, "recount-job-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start recounting a tallied election in the background
+     *
+     * @return the job, as created before it was handed to a worker
+     */
+    public RecountJob startRecount(UUID electionId, UUID requestedBy) {
+        if (!permits.tryAcquire()) {
+            throw new BusinessException("Too many recounts in progress; try again later");
+        }
+        StoredResult stored;
+        RecountJob job;
+        try {
+            stored = readOnlyTransaction.execute(status -> loadStoredResult(electionId));
+            UUID jobId = recountJobRepository.create(electionId, requestedBy, stored.totalBallots());
+            job = recountJobRepository.findById(jobId).orElseThrow();
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    run(job.id(), electionId, stored);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            recountJobRepository.fail(job.id(), "Node shutting down", Instant.now());
+            throw new BusinessException("Recount could not be started; try again later");
+        }
+        return job;
+    }
+
+    /**
+     * Get a recount of an election
+     */
+    public RecountJob getRecountJob(UUID electionId, UUID jobId) {
+        return recountJobRepository.findById(jobId)
+                .filter(job -> job.electionId().equals(electionId))
+                .map(this::failIfAbandoned)
+                .orElseThrow(() -> new ResourceNotFoundException("RecountJob", "id", jobId));
+    }
+
+    /**
+     * Get the most recent recount of an election
+     */
+    public RecountJob getLatestRecountJob(UUID electionId) {
+        return recountJobRepository.findLatestByElectionId(electionId)
+                .map(this::failIfAbandoned)
+                .orElseThrow(() -> new ResourceNotFoundException("RecountJob", "electionId", electionId));
+    }
+
+    /**
+     * A running recount that has not reported progress for a lease timeout lost its node
+     */
+    private RecountJob failIfAbandoned(RecountJob job) {
+        if (job.status() != TallyJobStatus.RUNNING) {
+            return job;
+        }
+        Instant now = Instant.now();
+        if (recountJobRepository.failAbandoned(job.id(), now.minusMillis(tallyProperties.getLeaseTimeoutMs()), now)) {
+            log.warn("Recount job {} of election {} was abandoned", job.id(), job.electionId());
+            return recountJobRepository.findById(job.id()).orElseThrow();
+        }
+        return job;
+    }
+
+    private void run(UUID jobId, UUID electionId, StoredResult stored) {
+        try {
+            RecountReport report = recount(electionId, stored,
+                    processed -> recountJobRepository.progress(jobId, processed, Instant.now()));
+            if (!recountJobRepository.complete(jobId, report, Instant.now())) {
+                log.warn("Recount job {} was no longer running when it finished", jobId);
+            }
+        } catch (RuntimeException e) {
+            log.error("Recount job {} of election {} failed", jobId, electionId, e);
+            try {
+                recountJobRepository.fail(jobId, e.getMessage(), Instant.now());
+            } catch (RuntimeException failure) {
+                log.warn("Could not mark recount job {} failed", jobId, failure);
+            }
+        }
+    }
+
+    /**
+     * Recount the ballots and compare the outcome with the stored result
+     *
+     * @param progress told the ballots recounted after every chunk; returning false stops the recount
+     */
+    private RecountReport recount(UUID electionId, StoredResult stored, LongPredicate progress) {
+        List<Candidate> candidates = stored.candidates();
+        log.info("Recounting election {}", electionId);
+        long started = System.nanoTime();
+
+        Map<UUID, Integer> ordinalById = new HashMap<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            ordinalById.put(candidates.get(i).getId(), i);
+        }
+        BallotTallier tallier = new BallotTallier(cryptoService, ballotCodec,
+                votingService.getElectionKeyForTally(electionId), ordinalById);
+        TallyCounts counts = tallier.newCounts();
+        // Root only: no sink level is ever reached
+        ParallelMerkleBuilder merkle = new ParallelMerkleBuilder(workers.pool(), Integer.MAX_VALUE,
+                (level, index, nodes, offset) -> {
+                });
+
+        long afterSeq = 0;
+        while (true) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new BusinessException("Recount of election " + electionId + " interrupted");
+            }
+            // One short query per chunk: no transaction or cursor held open for the whole recount
+            List<BallotRow> chunk = ballotJdbcRepository.findChunk(electionId, afterSeq, tallyProperties.getChunkSize());
+            if (chunk.isEmpty()) {
+                break;
+            }
+            for (BallotRow ballot : chunk) {
+                merkle.add(ballot.ballotHash());
+            }
+            counts.add(workers.count(tallier, chunk));
+            afterSeq = chunk.get(chunk.size() - 1).seq();
+            if (!progress.test(counts.totalBallots())) {
+                throw new BusinessException("Recount of election " + electionId + " is no longer running");
+            }
+            throttle(started, counts.totalBallots());
+        }
+
+        String merkleRoot = Hex.encode(merkle.finish());
+        String resultsHash = tallyService.resultsHash(counts.validVotes(), counts.abstentions(), merkleRoot);
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        List<RecountReport.Difference> differences = new ArrayList<>();
+        compare(differences, "totalBallots", stored.totalBallots(), counts.totalBallots());
+        compare(differences, "validVotes", stored.validVotes(), counts.validVotes());
+        compare(differences, "abstentions", stored.abstentions(), counts.abstentions());
+        compare(differences, "invalidVotes", stored.invalidVotes(), counts.invalidVotes());
+        compare(differences, "merkleRoot", stored.merkleRoot(), merkleRoot);
+        compare(differences, "resultsHash", stored.resultsHash(), resultsHash);
+
+        List<RecountReport.CandidateCount> candidateCounts = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            Candidate candidate = candidates.get(i);
+            long storedVotes = stored.votesByCandidate().getOrDefault(candidate.getId(), 0L);
+            candidateCounts.add(new RecountReport.CandidateCount(candidate.getId(), candidate.getName(),
+                    candidate.getBallotNumber(), storedVotes, counts.candidateVotes(i)));
+            compare(differences, "candidate[" + candidate.getBallotNumber() + "].voteCount", storedVotes,
+                    counts.candidateVotes(i));
+        }
+
+        if (differences.isEmpty()) {
+            log.info("Recount of election {} matches the stored result ({} ballots in {} ms)",
+                    electionId, counts.totalBallots(), durationMillis);
+        } else {
+            log.warn("Recount of election {} differs from the stored result: {}", electionId, differences);
+        }
+        return new RecountReport(electionId, counts.totalBallots(), durationMillis, counts.validVotes(),
+                counts.abstentions(), counts.invalidVotes(), merkleRoot, resultsHash, candidateCounts,
+                List.copyOf(differences));
+    }
+
+    private StoredResult loadStoredResult(UUID electionId) {
+        ElectionResult result = electionResultRepository.findByElectionId(electionId)
+                .orElseThrow(() -> new ResourceNotFoundException("ElectionResult", "electionId", electionId));
+        if (!result.isFinal()) {
+            throw new BusinessException("Election has no completed tally to recount");
+        }
+        Election election = result.getElection();
+        Map<UUID, Long> votesByCandidate = new HashMap<>();
+        for (CandidateResult candidateResult : result.getCandidateResults()) {
+            votesByCandidate.put(candidateResult.getCandidate().getId(), candidateResult.getVoteCount());
+        }
+        return new StoredResult(election.getCandidatesInBallotOrder(), result.getTotalBallots(),
+                result.getValidVotes(), result.getAbstentions(), result.getInvalidVotes(), result.getMerkleRoot(),
+                result.getResultsHash(), votesByCandidate);
+    }
+
+    /**
+     * Sleep as needed to keep the average rate under the configured ceiling
+     */
+    private void throttle(long startedNanos, long processed) {
+        long maxPerSecond = tallyProperties.getRecountMaxBallotsPerSecond();
+        if (maxPerSecond <= 0) {
+            return;
+        }
+        long dueMillis = processed * 1000 / maxPerSecond;
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+        if (dueMillis > elapsedMillis) {
+            try {
+                Thread.sleep(dueMillis - elapsedMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void compare(List<RecountReport.Difference> differences, String field, Object stored,
+                                Object recounted) {
+        String storedValue = stored != null ? stored.toString() : null;
+        String recountedValue = recounted != null ? recounted.toString() : null;
+        if (!Objects.equals(storedValue, recountedValue)) {
+            differences.add(new RecountReport.Difference(field, storedValue, recountedValue));
+        }
+    }
+
+    /**
+     * Interrupt running recounts; they are marked failed and can be started again
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdown();
+    }
+
+    /**
+     * Stored values, copied out of the persistence context before the recount starts
+     */
+    private record StoredResult(List<Candidate> candidates, Long totalBallots, Long validVotes, Long abstentions,
+                                Long invalidVotes, String merkleRoot, String resultsHash,
+                                Map<UUID, Long> votesByCandidate) {
+    }
+}
@@ -0,0 +1,150 @@
+package com.votoeletronico.voto.service.tally;
+
+import com.votoeletronico.voto.exception.BusinessException;
+import com.votoeletronico.voto.repository.SealedTallyRepository;
+import com.votoeletronico.voto.repository.SealedTallyRepository.SealedTally;
+import com.votoeletronico.voto.service.crypto.CryptoException;
+import com.votoeletronico.voto.service.crypto.ElectionKeyRing;
+import com.votoeletronico.voto.service.crypto.ExpElGamal;
+import com.votoeletronico.voto.service.voting.SealedVote;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.math.ec.ECPoint;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sealed running tally of elections that enable it.
+ *
+ * Every ballot carries an exp-ElGamal encryption of its one-hot choice vector (one slot per
+ * candidate in ballot order, then abstention). Each append batch adds its vectors to the
+ * election's encrypted aggregate in the same transaction, under the chain head lock, so the
+ * aggregate always covers exactly the committed ballots. Closing the election then needs one
+ * decryption per slot instead of a pass over every ballot.
+ *
+ * Encryption only needs the public key, which every node reads from the database; the
+ * secret key is held by the key ring like the other election keys. A node without it
+ * counts the ballots one by one instead.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SealedTallyService {
+
+    private final SealedTallyRepository sealedTallyRepository;
+    private final ElectionKeyRing electionKeyRing;
+
+    private final Map<UUID, ECPoint> publicKeys = new ConcurrentHashMap<>();
+
+    /**
+     * Create the key pair and the empty aggregate of an election that is starting
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void open(UUID electionId, int candidateCount) {
+        ExpElGamal.KeyPair keyPair = electionKeyRing.newTallyKeyPair(electionId);
+        int slots = candidateCount + 1;
+        sealedTallyRepository.create(electionId, ExpElGamal.encodePoint(keyPair.publicKey()), slots,
+                ExpElGamal.encode(ExpElGamal.zero(slots)));
+        log.info("Opened sealed tally for election {} ({} slots)", electionId, slots);
+    }
+
+    /**
+     * Encrypt a vote for the candidate with the given ordinal
+     */
+    public SealedVote encryptVote(UUID electionId, int ordinal, int candidateCount) {
+        return SealedVote.of(ExpElGamal.encryptOneHot(publicKey(electionId), ordinal, candidateCount + 1));
+    }
+
+    /**
+     * Encrypt an abstention (last slot)
+     */
+    public SealedVote encryptAbstention(UUID electionId, int candidateCount) {
+        return SealedVote.of(ExpElGamal.encryptOneHot(publicKey(electionId), candidateCount, candidateCount + 1));
+    }
+
+    /**
+     * Add a committed batch of sealed votes to the election's aggregate.
+     * Must be called from the transaction that inserts the ballots.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void accumulate(UUID electionId, List<SealedVote> votes) {
+        SealedTally tally = sealedTallyRepository.findForUpdate(electionId)
+                .orElseThrow(() -> new BusinessException("Sealed tally not found for election " + electionId));
+
+        ExpElGamal.Ciphertext[] aggregate = ExpElGamal.decode(tally.aggregate());
+        for (SealedVote vote : votes) {
+            ExpElGamal.addTo(aggregate, vote.ciphertexts());
+        }
+        sealedTallyRepository.updateAggregate(electionId, ExpElGamal.encode(aggregate), votes.size());
+    }
+
+    /**
+     * Check if this node holds the secret key matching the election's published public key
+     */
+    public boolean canDecrypt(UUID electionId) {
+        if (!electionKeyRing.hasTallyKeyPair(electionId)) {
+            return false;
+        }
+        return sealedTallyRepository.find(electionId)
+                .map(tally -> matches(electionKeyRing.tallyKeyPair(electionId), tally))
+                .orElse(false);
+    }
+
+    /**
+     * Decrypt the aggregate of a closed election into final counts
+     *
+     * @param totalBallots number of ballots in the sealed chain, which the aggregate must cover
+     */
+    public TallyCounts decrypt(UUID electionId, int candidateCount, long totalBallots) {
+        SealedTally tally = sealedTallyRepository.find(electionId)
+                .orElseThrow(() -> new BusinessException("Sealed tally not found for election " + electionId));
+        if (tally.slots() != candidateCount + 1) {
+            throw new CryptoException("Sealed tally has " + tally.slots() + " slots, expected " + (candidateCount + 1));
+        }
+        if (tally.ballotCount() != totalBallots) {
+            throw new CryptoException("Sealed tally covers " + tally.ballotCount() + " ballots but the chain has "
+                    + totalBallots);
+        }
+
+        ExpElGamal.KeyPair keyPair = electionKeyRing.tallyKeyPair(electionId);
+        if (!matches(keyPair, tally)) {
+            throw new CryptoException("Sealed tally key of this node does not match election " + electionId);
+        }
+        ExpElGamal.Ciphertext[] aggregate = ExpElGamal.decode(tally.aggregate());
+        long[] slotCounts = new long[aggregate.length];
+        long sum = 0;
+        for (int i = 0; i < aggregate.length; i++) {
+            slotCounts[i] = ExpElGamal.decrypt(keyPair.secret(), aggregate[i], totalBallots);
+            sum += slotCounts[i];
+        }
+        // Every ballot is a one-hot vector, so the slots add up to the number of ballots
+        if (sum != totalBallots) {
+            throw new CryptoException("Sealed tally decrypts to " + sum + " votes for " + totalBallots + " ballots");
+        }
+
+        long[] candidateVotes = new long[candidateCount];
+        System.arraycopy(slotCounts, 0, candidateVotes, 0, candidateCount);
+        long abstentions = slotCounts[candidateCount];
+        return TallyCounts.restore(candidateVotes, totalBallots - abstentions, abstentions, 0);
+    }
+
+    private static boolean matches(ExpElGamal.KeyPair keyPair, SealedTally tally) {
+        return Arrays.equals(ExpElGamal.encodePoint(keyPair.publicKey()), tally.publicKey());
+    }
+
+    /**
+     * Public key of an election, read once per node (the same point instance keeps its comb table)
+     */
+    private ECPoint publicKey(UUID electionId) {
+        return publicKeys.computeIfAbsent(electionId, id -> sealedTallyRepository.find(id)
+                .map(tally -> ExpElGamal.decodePoint(tally.publicKey(), 0))
+                .orElseThrow(() -> new BusinessException("Sealed tally not found for election " + id)));
+    }
+}
@@ -0,0 +1,97 @@
+package com.votoeletronico.voto.service.tally;
+
+import java.util.Arrays;
+
+/**
+ * Running counters of a tally, with candidate votes indexed by candidate ordinal.
+ * Not thread-safe: each worker counts into its own instance and instances are merged.
+ */
+public final class TallyCounts {
+
+    private final long[] candidateVotes;
+    private long validVotes;
+    private long abstentions;
+    private long invalidVotes;
+
+    public TallyCounts(int candidateCount) {
+        this.candidateVotes = new long[candidateCount];
+    }
+
+    /**
+     * Rebuild counters from a checkpoint
+     */
+    public static TallyCounts restore(long[] candidateVotes, long validVotes, long abstentions, long invalidVotes) {
+        TallyCounts counts = new TallyCounts(candidateVotes.length);
+        System.arraycopy(candidateVotes, 0, counts.candidateVotes, 0, candidateVotes.length);
+        counts.validVotes = validVotes;
+        counts.abstentions = abstentions;
+        counts.invalidVotes = invalidVotes;
+        return counts;
+    }
+
+    /**
+     * Count a vote for the candidate with the given ordinal
+     */
+    public void vote(int ordinal) {
+        candidateVotes[ordinal]++;
+        validVotes++;
+    }
+
+    /**
+     * Count an abstention
+     */
+    public void abstention() {
+        abstentions++;
+    }
+
+    /**
+     * Count a ballot that could not be decrypted, parsed or matched to a candidate
+     */
+    public void invalid() {
+        invalidVotes++;
+    }
+
+    /**
+     * Add the counters of another instance to this one
+     */
+    public void add(TallyCounts other) {
+        if (other.candidateVotes.length != candidateVotes.length) {
+            throw new IllegalArgumentException("Cannot merge counts of " + other.candidateVotes.length
+                    + " candidates into counts of " + candidateVotes.length);
+        }
+        for (int i = 0; i < candidateVotes.length; i++) {
+            candidateVotes[i] += other.candidateVotes[i];
+        }
+        validVotes += other.validVotes;
+        abstentions += other.abstentions;
+        invalidVotes += other.invalidVotes;
+    }
+
+    public int candidateCount() {
+        return candidateVotes.length;
+    }
+
+    public long candidateVotes(int ordinal) {
+        return candidateVotes[ordinal];
+    }
+
+    public long[] candidateVotes() {
+        return Arrays.copyOf(candidateVotes, candidateVotes.length);
+    }
+
+    public long validVotes() {
+        return validVotes;
+    }
+
+    public long abstentions() {
+        return abstentions;
+    }
+
+    public long invalidVotes() {
+        return invalidVotes;
+    }
+
+    public long totalBallots() {
+        return validVotes + abstentions + invalidVotes;
+    }
+}
@@ -0,0 +1,240 @@
+package com.votoeletronico.voto.service.tally;
+
+import com.votoeletronico.voto.config.TallyProperties;
+import com.votoeletronico.voto.domain.results.TallyJob;
+import com.votoeletronico.voto.domain.results.TallyPartition;
+import com.votoeletronico.voto.repository.TallyJobRepository;
+import com.votoeletronico.voto.repository.TallyPartitionRepository;
+import com.votoeletronico.voto.service.TallyService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs tally jobs in the background.
+ *
+ * A job is started on the node that receives the request. Every node also polls for
+ * queued jobs and for running jobs whose lease expired (their node died or was stopped
+ * mid-chunk) and resumes them from the last checkpoint. The lease is taken and renewed
+ * through conditional updates on tally_jobs, so only one node counts a job at a time.
+ *
+ * Partitions of partitioned jobs are leased the same way through tally_partitions, on a
+ * separate pool so they keep being counted while this node's job threads wait to merge
+ * them. A node only claims partitions of elections whose ballot key it holds, and only
+ * claims jobs it can run: with the ballot key, or with the key of the sealed tally.
+ */
+@Slf4j
+@Component
+public class TallyJobRunner {
+
+    private static final int CLAIM_BATCH = 10;
+
+    private final TallyService tallyService;
+    private final TallyJobRepository tallyJobRepository;
+    private final TallyPartitionRepository tallyPartitionRepository;
+    private final TallyProperties tallyProperties;
+
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+    private final Set<UUID> scheduled = ConcurrentHashMap.newKeySet();
+    private final Set<String> scheduledPartitions = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor;
+    private final ExecutorService partitionExecutor;
+    private ScheduledExecutorService poller;
+
+    public TallyJobRunner(TallyService tallyService,
+                          TallyJobRepository tallyJobRepository,
+                          TallyPartitionRepository tallyPartitionRepository,
+                          TallyProperties tallyProperties) {
+        this.tallyService = tallyService;
+        this.tallyJobRepository = tallyJobRepository;
+        this.tallyPartitionRepository = tallyPartitionRepository;
+        this.tallyProperties = tallyProperties;
+        this.executor = newPool(tallyProperties.getMaxConcurrentJobs(), "tally-job-");
+        this.partitionExecutor = newPool(tallyProperties.getMaxConcurrentPartitions(), "tally-partition-");
+    }
+
+    private static ExecutorService newPool(int threads, String namePrefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tally-job-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::pollClaimable, 0, tallyProperties.getJobPollIntervalMs(), TimeUnit.MILLISECONDS);
+        poller.scheduleWithFixedDelay(this::pollPartitions, 0, tallyProperties.getPartitionPollIntervalMs(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Start (or resume) the tally of an election and run it on this node
+     *
+     * @return the job, as committed before it was handed to a worker
+     */
+    public TallyJob startTally(UUID electionId, UUID userId) {
+        TallyJob job = tallyService.startTally(electionId, userId);
+        if (job.status().isActive()) {
+            schedule(job.id());
+        }
+        return job;
+    }
+
+    /**
+     * Start the tally of an election on this node once the current transaction commits
+     * (used when closing an election with a sealed tally)
+     */
+    public void startTallyAfterCommit(UUID electionId) {
+        Runnable start = () -> executor.execute(() -> {
+            try {
+                startTally(electionId, null);
+            } catch (RuntimeException e) {
+                log.error("Could not start the tally of election {}", electionId, e);
+            }
+        });
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            start.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                start.run();
+            }
+        });
+    }
+
+    private void pollClaimable() {
+        try {
+            Map<UUID, Boolean> canRun = new HashMap<>();
+            for (TallyJob job : tallyJobRepository.findClaimable(Instant.now(), CLAIM_BATCH)) {
+                if (canRun.computeIfAbsent(job.electionId(), tallyService::canRunJob)) {
+                    schedule(job.id());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Polling for tally jobs failed", e);
+        }
+    }
+
+    private void pollPartitions() {
+        try {
+            int free = Math.max(1, tallyProperties.getMaxConcurrentPartitions()) - scheduledPartitions.size();
+            if (free <= 0) {
+                return;
+            }
+            List<TallyPartition> claimable = tallyPartitionRepository.findClaimable(Instant.now(),
+                    tallyProperties.getPartitionMaxAttempts(), CLAIM_BATCH);
+            Map<UUID, Boolean> canCount = new HashMap<>();
+            for (TallyPartition partition : claimable) {
+                if (free > 0 && canCount.computeIfAbsent(partition.electionId(), tallyService::canCountBallots)
+                        && schedulePartition(partition)) {
+                    free--;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Polling for tally partitions failed", e);
+        }
+    }
+
+    private boolean schedulePartition(TallyPartition partition) {
+        String key = partition.jobId() + "/" + partition.partitionNo();
+        if (!scheduledPartitions.add(key)) {
+            return false;
+        }
+        partitionExecutor.execute(() -> {
+            try {
+                runPartition(partition);
+            } catch (RuntimeException e) {
+                log.error("Tally partition {} stopped unexpectedly", key, e);
+            } finally {
+                scheduledPartitions.remove(key);
+            }
+        });
+        return true;
+    }
+
+    private void runPartition(TallyPartition partition) {
+        Instant now = Instant.now();
+        Optional<TallyPartition> claimed = tallyPartitionRepository.claim(partition.jobId(), partition.partitionNo(),
+                owner, tallyProperties.getPartitionMaxAttempts(), now,
+                now.plusMillis(tallyProperties.getLeaseTimeoutMs()));
+        // Empty when another node was faster
+        claimed.ifPresent(p -> tallyService.runPartition(p, owner));
+    }
+
+    private void schedule(UUID jobId) {
+        if (!scheduled.add(jobId)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                run(jobId);
+            } catch (RuntimeException e) {
+                log.error("Tally job {} stopped unexpectedly", jobId, e);
+            } finally {
+                scheduled.remove(jobId);
+            }
+        });
+    }
+
+    private void run(UUID jobId) {
+        Instant now = Instant.now();
+        Optional<TallyJob> claimed = tallyJobRepository.claim(jobId, owner, now,
+                now.plusMillis(tallyProperties.getLeaseTimeoutMs()));
+        if (claimed.isEmpty()) {
+            // Finished, or another node holds the lease
+            return;
+        }
+        TallyJob job = claimed.get();
+        if (job.attempts() > 1) {
+            log.info("Resuming tally job {} (attempt {}) at seq {}", jobId, job.attempts(), job.lastSeq());
+        }
+        tallyService.runJob(job, owner);
+    }
+
+    /**
+     * Stop polling and interrupt running jobs; they keep their last checkpoint and are
+     * resumed by whichever node claims them once the lease expires
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+        executor.shutdownNow();
+        partitionExecutor.shutdownNow();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+            partitionExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.votoeletronico.voto.service.tally;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits the sealed ballot chain of an election into the sequence ranges of a partitioned tally.
+ * Sequence numbers are dense from 1, so equal-sized ranges hold equal numbers of ballots.
+ */
+public final class TallyPartitioner {
+
+    private TallyPartitioner() {
+    }
+
+    /**
+     * Check if a job of this size is worth partitioning
+     */
+    public static boolean shouldPartition(long totalBallots, int partitionSize) {
+        return partitionSize > 0 && totalBallots > partitionSize;
+    }
+
+    /**
+     * Inclusive [fromSeq, toSeq] ranges covering seq 1 to totalBallots, in order
+     */
+    public static List<long[]> split(long totalBallots, int partitionSize) {
+        if (partitionSize <= 0) {
+            throw new IllegalArgumentException("Partition size must be positive: " + partitionSize);
+        }
+        List<long[]> ranges = new ArrayList<>((int) ((totalBallots + partitionSize - 1) / partitionSize));
+        for (long from = 1; from <= totalBallots; from += partitionSize) {
+            ranges.add(new long[]{from, Math.min(totalBallots, from + partitionSize - 1)});
+        }
+        return ranges;
+    }
+}
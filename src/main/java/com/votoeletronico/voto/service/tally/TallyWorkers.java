@@ -0,0 +1,120 @@
+package com.votoeletronico.voto.service.tally;
+
+import com.votoeletronico.voto.config.TallyProperties;
+import com.votoeletronico.voto.repository.EncryptedBallotJdbcRepository.BallotRow;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Worker pool that decrypts and counts ballots in parallel.
+ *
+ * A chunk of ballots is split fork-join style; each leaf counts its range into its own
+ * {@link TallyCounts} and the counters are merged on the way back up. Counting is
+ * commutative, so the totals are exactly those of the sequential path. With a
+ * parallelism of 1 everything runs on the caller's thread.
+ */
+@Slf4j
+@Component
+public class TallyWorkers {
+
+    /**
+     * Ballots counted by one leaf task; large enough to amortize forking and merging
+     */
+    static final int LEAF_SIZE = 256;
+
+    private final int parallelism;
+    private final ForkJoinPool pool;
+
+    @Autowired
+    public TallyWorkers(TallyProperties tallyProperties) {
+        this(tallyProperties.getParallelism(), "tally-worker-");
+    }
+
+    /**
+     * A separate pool, e.g. for recounts that must not take the tally's threads
+     */
+    public TallyWorkers(int parallelism, String threadNamePrefix) {
+        this.parallelism = Math.max(1, parallelism);
+        this.pool = this.parallelism > 1
+                ? new ForkJoinPool(this.parallelism, pool -> newWorker(pool, threadNamePrefix), null, false)
+                : null;
+        log.info("Tally workers ({}): parallelism={}", threadNamePrefix, this.parallelism);
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool, String threadNamePrefix) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName(threadNamePrefix + thread.getPoolIndex());
+        return thread;
+    }
+
+    public int parallelism() {
+        return parallelism;
+    }
+
+    /**
+     * The worker pool, shared with the tally's Merkle tree build (null when parallelism is 1)
+     */
+    public ForkJoinPool pool() {
+        return pool;
+    }
+
+    /**
+     * Count a list of ballots, in parallel when the pool allows it
+     */
+    public TallyCounts count(BallotTallier tallier, List<BallotRow> ballots) {
+        if (pool == null || ballots.size() <= LEAF_SIZE) {
+            return countRange(tallier, ballots, 0, ballots.size());
+        }
+        return pool.invoke(new CountTask(tallier, ballots, 0, ballots.size()));
+    }
+
+    private static TallyCounts countRange(BallotTallier tallier, List<BallotRow> ballots, int from, int to) {
+        TallyCounts counts = tallier.newCounts();
+        for (int i = from; i < to; i++) {
+            tallier.count(ballots.get(i), counts);
+        }
+        return counts;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    private static final class CountTask extends RecursiveTask<TallyCounts> {
+
+        private final BallotTallier tallier;
+        private final List<BallotRow> ballots;
+        private final int from;
+        private final int to;
+
+        private CountTask(BallotTallier tallier, List<BallotRow> ballots, int from, int to) {
+            this.tallier = tallier;
+            this.ballots = ballots;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TallyCounts compute() {
+            if (to - from <= LEAF_SIZE) {
+                return countRange(tallier, ballots, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            CountTask left = new CountTask(tallier, ballots, from, mid);
+            left.fork();
+            TallyCounts counts = new CountTask(tallier, ballots, mid, to).compute();
+            counts.add(left.join());
+            return counts;
+        }
+    }
+}
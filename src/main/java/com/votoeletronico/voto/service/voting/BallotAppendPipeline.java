@@ -0,0 +1,360 @@
+package com.votoeletronico.voto.service.voting;
+
+import com.votoeletronico.voto.audit.AuditEvent;
+import com.votoeletronico.voto.audit.AuditService;
+import com.votoeletronico.voto.config.VoteProperties;
+import com.votoeletronico.voto.domain.audit.AuditEventType;
+import com.votoeletronico.voto.domain.voting.BallotChainHead;
+import com.votoeletronico.voto.domain.voting.EncryptedBallot;
+import com.votoeletronico.voto.exception.BusinessException;
+import com.votoeletronico.voto.repository.EncryptedBallotJdbcRepository;
+import com.votoeletronico.voto.service.TokenService;
+import com.votoeletronico.voto.service.crypto.ElectionKeyRing;
+import com.votoeletronico.voto.service.crypto.EncryptedData;
+import com.votoeletronico.voto.service.crypto.Hex;
+import com.votoeletronico.voto.service.crypto.SignatureScheme;
+import com.votoeletronico.voto.service.crypto.SignatureSchemes;
+import com.votoeletronico.voto.service.tally.SealedTallyService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.PrivateKey;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Append path for encrypted ballots.
+ *
+ * Every ballot goes through {@link #append}: tokens are consumed, the batch is linked
+ * to the election chain, inserted with one JDBC batch and committed in one transaction
+ * together with their audit events.
+ * With group commit disabled the batch is just the caller's ballot, committed on the
+ * caller's thread. With group commit enabled, concurrent ballots of the same election
+ * are queued per election and a drainer commits them together (up to max-batch-size,
+ * waiting at most max-linger-ms for the batch to fill). Callers only return once their
+ * batch is durable.
+ */
+@Slf4j
+@Component
+public class BallotAppendPipeline {
+
+    private final TokenService tokenService;
+    private final BallotSequencer ballotSequencer;
+    private final EncryptedBallotJdbcRepository ballotJdbcRepository;
+    private final SignatureSchemes signatureSchemes;
+    private final ElectionKeyRing electionKeyRing;
+    private final ElectionSnapshotCache electionSnapshotCache;
+    private final SealedTallyService sealedTallyService;
+    private final BallotHasher ballotHasher;
+    private final AuditService auditService;
+    private final TransactionTemplate transactionTemplate;
+    private final VoteProperties.GroupCommit groupCommit;
+
+    private final DistributionSummary batchSizeSummary;
+    private final Timer commitTimer;
+
+    private final Map<UUID, Lane> lanes = new ConcurrentHashMap<>();
+    private final ExecutorService drainers;
+
+    public BallotAppendPipeline(TokenService tokenService,
+                                BallotSequencer ballotSequencer,
+                                EncryptedBallotJdbcRepository ballotJdbcRepository,
+                                SignatureSchemes signatureSchemes,
+                                ElectionKeyRing electionKeyRing,
+                                ElectionSnapshotCache electionSnapshotCache,
+                                SealedTallyService sealedTallyService,
+                                BallotHasher ballotHasher,
+                                AuditService auditService,
+                                TransactionTemplate transactionTemplate,
+                                VoteProperties voteProperties,
+                                MeterRegistry meterRegistry) {
+        this.tokenService = tokenService;
+        this.ballotSequencer = ballotSequencer;
+        this.ballotJdbcRepository = ballotJdbcRepository;
+        this.signatureSchemes = signatureSchemes;
+        this.electionKeyRing = electionKeyRing;
+        this.electionSnapshotCache = electionSnapshotCache;
+        this.sealedTallyService = sealedTallyService;
+        this.ballotHasher = ballotHasher;
+        this.auditService = auditService;
+        this.transactionTemplate = transactionTemplate;
+        this.groupCommit = voteProperties.getGroupCommit();
+
+        this.batchSizeSummary = DistributionSummary.builder("voto.ballots.commit.batch.size")
+                .description("Ballots committed per transaction")
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("voto.ballots.commit.latency")
+                .description("Time to chain, insert and commit a ballot batch")
+                .register(meterRegistry);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.drainers = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "ballot-group-commit-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (groupCommit.isEnabled()) {
+            log.info("Ballot group commit enabled (maxBatchSize={}, maxLingerMs={})",
+                    groupCommit.getMaxBatchSize(), groupCommit.getMaxLingerMs());
+        }
+    }
+
+    /**
+     * Append a ballot and wait until it is committed.
+     * Must not be called inside a transaction: the commit happens on its own.
+     */
+    public EncryptedBallot append(PendingBallot pending) {
+        if (groupCommit.isEnabled()) {
+            Lane lane = lanes.computeIfAbsent(pending.electionId(), Lane::new);
+            lane.queue.add(pending);
+            lane.schedule();
+        } else {
+            flush(pending.electionId(), List.of(pending));
+        }
+        return await(pending);
+    }
+
+    /**
+     * Chain, insert and commit one batch, then release the waiting callers
+     */
+    private void flush(UUID electionId, List<PendingBallot> batch) {
+        List<PendingBallot> accepted = new ArrayList<>(batch.size());
+        List<UUID> tokenIds = new ArrayList<>(batch.size());
+        List<EncryptedBallot> ballots = new ArrayList<>(batch.size());
+        long start = System.nanoTime();
+
+        try {
+            ElectionSnapshot snapshot = electionSnapshotCache.get(electionId);
+            SignatureScheme scheme = signatureSchemes.get(snapshot.signatureAlgorithm());
+            PrivateKey signingKey = electionKeyRing.keyPair(electionId, scheme).getPrivate();
+
+            transactionTemplate.executeWithoutResult(status -> {
+                accepted.clear();
+                tokenIds.clear();
+                ballots.clear();
+
+                // Consume tokens first; a token that cannot be used rejects only its own ballot
+                List<UUID> ballotIds = new ArrayList<>(batch.size());
+                for (PendingBallot pending : batch) {
+                    UUID ballotId = UUID.randomUUID();
+                    tokenService.consumeToken(electionId, pending.tokenHash(), ballotId).ifPresent(tokenId -> {
+                        accepted.add(pending);
+                        tokenIds.add(tokenId);
+                        ballotIds.add(ballotId);
+                    });
+                }
+                if (accepted.isEmpty()) {
+                    return;
+                }
+
+                BallotChainHead chainHead = ballotSequencer.lockHead(electionId);
+                if (chainHead.isSealed()) {
+                    // Closed on another node while our election snapshot was still RUNNING
+                    throw new BusinessException("Voting is not open for this election");
+                }
+                for (int i = 0; i < accepted.size(); i++) {
+                    EncryptedBallot ballot = link(chainHead, ballotIds.get(i), accepted.get(i), scheme, signingKey);
+                    ballots.add(ballot);
+                }
+
+                ballotJdbcRepository.batchInsert(electionId, ballots);
+                if (snapshot.sealedTally()) {
+                    // Same transaction and chain head lock: the aggregate covers exactly the committed ballots
+                    sealedTallyService.accumulate(electionId, accepted.stream().map(PendingBallot::sealedVote).toList());
+                }
+                auditService.logEvents(auditEvents(electionId, accepted, tokenIds, ballots));
+            });
+        } catch (BusinessException e) {
+            log.warn("Ballot batch rejected for election {} ({} ballots): {}", electionId, batch.size(), e.getMessage());
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+            return;
+        } catch (RuntimeException e) {
+            log.error("Ballot batch commit failed for election {} ({} ballots)", electionId, batch.size(), e);
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+            return;
+        }
+
+        commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSizeSummary.record(ballots.size());
+
+        for (int i = 0; i < ballots.size(); i++) {
+            accepted.get(i).result().complete(ballots.get(i));
+        }
+        // Whatever is still pending had a token that could not be consumed
+        for (PendingBallot pending : batch) {
+            if (!pending.result().isDone()) {
+                pending.result().completeExceptionally(tokenService.rejection(electionId, pending.tokenHash()));
+            }
+        }
+    }
+
+    /**
+     * Audit events of a committed batch: the consumed token and the cast ballot (without linking to voter identity)
+     */
+    private List<AuditEvent> auditEvents(UUID electionId, List<PendingBallot> accepted, List<UUID> tokenIds,
+                                         List<EncryptedBallot> ballots) {
+        List<AuditEvent> events = new ArrayList<>(ballots.size() * 2);
+        for (int i = 0; i < ballots.size(); i++) {
+            PendingBallot pending = accepted.get(i);
+            EncryptedBallot ballot = ballots.get(i);
+            events.add(auditService.event(AuditEventType.VOTER_REGISTERED, Map.of(
+                    "electionId", electionId.toString(),
+                    "tokenId", tokenIds.get(i).toString(),
+                    "ballotId", ballot.getId().toString(),
+                    "action", "Token Consumed"
+            )));
+            events.add(auditService.event(AuditEventType.VOTER_REGISTERED, Map.of(
+                    "electionId", electionId.toString(),
+                    "ballotId", ballot.getId().toString(),
+                    "ballotHash", Hex.encode(ballot.getBallotHash()),
+                    "action", pending.auditAction()
+            )));
+        }
+        return events;
+    }
+
+    /**
+     * Link a ballot to the current chain tail and advance the tail
+     */
+    private EncryptedBallot link(BallotChainHead chainHead, UUID ballotId, PendingBallot pending,
+                                 SignatureScheme scheme, PrivateKey signingKey) {
+        UUID electionId = pending.electionId();
+        EncryptedData encrypted = pending.encrypted();
+        long seq = chainHead.nextSeq();
+        byte[] prevBallotHash = chainHead.getLastBallotHash();
+
+        // Ballot hash includes encrypted data + prev hash for chain
+        byte[] ballotHash = ballotHasher.hash(encrypted.ciphertext(), encrypted.nonce(), prevBallotHash);
+
+        // Server attestation of the ballot, with the election's signature scheme
+        String signature = Base64.getEncoder().encodeToString(
+                scheme.sign(ballotHasher.signedMessage(ballotHash, electionId), signingKey));
+
+        chainHead.advance(seq, ballotHash);
+
+        return EncryptedBallot.builder()
+                .id(ballotId)
+                .sequenceNumber(seq)
+                .encryptedVote(encrypted.ciphertext())
+                .ballotHash(ballotHash)
+                .hashVersion(EncryptedBallot.HASH_VERSION_BINARY)
+                .encryptionAlgorithm(encrypted.algorithm())
+                .keyId("election-" + electionId)
+                .nonce(encrypted.nonce())
+                .castAt(Instant.now())
+                .ipHash(pending.ipHash())
+                .userAgentHash(pending.userAgentHash())
+                .prevBallotHash(prevBallotHash)
+                .verificationSignature(signature)
+                .homomorphicVote(pending.sealedVote() != null ? pending.sealedVote().encoded() : null)
+                .build();
+    }
+
+    private EncryptedBallot await(PendingBallot pending) {
+        try {
+            return pending.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        drainers.shutdown();
+        try {
+            if (!drainers.awaitTermination(10, TimeUnit.SECONDS)) {
+                drainers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            drainers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        lanes.values().forEach(lane -> {
+            PendingBallot pending;
+            while ((pending = lane.queue.poll()) != null) {
+                pending.result().completeExceptionally(new BusinessException("Voting service is shutting down"));
+            }
+        });
+    }
+
+    /**
+     * Per-election queue; at most one drainer runs per lane so batches stay in chain order
+     */
+    private final class Lane {
+
+        private final UUID electionId;
+        private final BlockingQueue<PendingBallot> queue = new LinkedBlockingQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Lane(UUID electionId) {
+            this.electionId = electionId;
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    drainers.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                    throw new BusinessException("Voting service is shutting down");
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                PendingBallot first;
+                while ((first = queue.poll()) != null) {
+                    List<PendingBallot> batch = new ArrayList<>(groupCommit.getMaxBatchSize());
+                    batch.add(first);
+                    fill(batch);
+                    flush(electionId, batch);
+                }
+            } finally {
+                draining.set(false);
+                // A ballot may have been queued after the last poll but before the flag was cleared
+                if (!queue.isEmpty() && !drainers.isShutdown()) {
+                    schedule();
+                }
+            }
+        }
+
+        /**
+         * Wait up to the linger time for more ballots to join the batch
+         */
+        private void fill(List<PendingBallot> batch) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(groupCommit.getMaxLingerMs());
+            while (batch.size() < groupCommit.getMaxBatchSize()) {
+                long remaining = deadline - System.nanoTime();
+                PendingBallot next;
+                try {
+                    next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                } catch (InterruptedException e) {
+                    // Commit what was collected; the caller threads are still waiting for it
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (next == null) {
+                    return;
+                }
+                batch.add(next);
+            }
+        }
+    }
+}
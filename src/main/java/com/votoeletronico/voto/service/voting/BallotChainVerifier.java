@@ -0,0 +1,282 @@
+package com.votoeletronico.voto.service.voting;
+
+import com.votoeletronico.voto.config.VerificationProperties;
+import com.votoeletronico.voto.domain.voting.BallotChainHead;
+import com.votoeletronico.voto.repository.BallotChainCheckpointRepository;
+import com.votoeletronico.voto.repository.BallotChainCheckpointRepository.Checkpoint;
+import com.votoeletronico.voto.repository.BallotChainHeadRepository;
+import com.votoeletronico.voto.repository.EncryptedBallotJdbcRepository;
+import com.votoeletronico.voto.repository.EncryptedBallotJdbcRepository.ChainRow;
+import com.votoeletronico.voto.service.crypto.CheckpointSigner;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verifies an election's ballot chain by recomputing every ballot hash.
+ *
+ * The chain up to the head's last seq is split into segments verified in parallel. Each
+ * segment streams its ballots through a cursor, seeded with the stored hash of the ballot
+ * just before it; that hash is itself recomputed by the previous segment, so together the
+ * segments check every link and every hash of the chain. For each ballot the sequence must
+ * be dense, prevBallotHash must equal the previous ballotHash, and ballotHash must equal
+ * the hash recomputed from ciphertext, nonce and prevBallotHash. The last hash must match
+ * the chain head. The first broken seq over all segments is reported; segments past a
+ * known break stop early.
+ *
+ * A valid run leaves a signed checkpoint at its last seq. Unless a full run is asked for,
+ * verification starts after the newest checkpoint whose signature holds, once the stored
+ * hash of its ballot is found unchanged; that hash commits to the whole prefix before it.
+ */
+@Slf4j
+@Component
+public class BallotChainVerifier {
+
+    private static final int CHECKPOINT_CANDIDATES = 5;
+
+    private final EncryptedBallotJdbcRepository ballotJdbcRepository;
+    private final BallotChainHeadRepository chainHeadRepository;
+    private final BallotHasher ballotHasher;
+    private final BallotChainCheckpointRepository checkpointRepository;
+    private final CheckpointSigner checkpointSigner;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int segmentSize;
+    private final ExecutorService executor;
+
+    public BallotChainVerifier(EncryptedBallotJdbcRepository ballotJdbcRepository,
+                               BallotChainHeadRepository chainHeadRepository,
+                               BallotHasher ballotHasher,
+                               BallotChainCheckpointRepository checkpointRepository,
+                               CheckpointSigner checkpointSigner,
+                               TransactionTemplate transactionTemplate,
+                               VerificationProperties verificationProperties) {
+        this.ballotJdbcRepository = ballotJdbcRepository;
+        this.chainHeadRepository = chainHeadRepository;
+        this.ballotHasher = ballotHasher;
+        this.checkpointRepository = checkpointRepository;
+        this.checkpointSigner = checkpointSigner;
+        this.readOnlyTransaction = new TransactionTemplate(Objects.requireNonNull(transactionTemplate.getTransactionManager()));
+        this.readOnlyTransaction.setReadOnly(true);
+        this.segmentSize = Math.max(1, verificationProperties.getSegmentSize());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, verificationProperties.getParallelism()), runnable -> {
+            Thread thread = new Thread(runnable, "chain-verifier-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Verify the chain of an election as of now
+     *
+     * @param full recheck from the first ballot, ignoring checkpoints
+     */
+    public ChainVerification verify(UUID electionId, boolean full) {
+        long started = System.nanoTime();
+        BallotChainHead head = chainHeadRepository.findById(electionId).orElse(null);
+        long lastSeq = head != null ? head.getLastSeq() : 0;
+        byte[] headHash = head != null ? head.getLastBallotHash() : null;
+
+        Checkpoint checkpoint = full ? null : findTrustedCheckpoint(electionId, lastSeq);
+        long fromSeq = checkpoint != null ? checkpoint.seq() + 1 : 1;
+        byte[] seedHash = checkpoint != null ? checkpoint.ballotHash() : null;
+        if (checkpoint != null && !Arrays.equals(seedHash, ballotJdbcRepository.findHash(electionId, checkpoint.seq()))) {
+            return result(electionId, fromSeq, 0, lastSeq, checkpoint.seq(),
+                    "Ballot hash differs from the signed checkpoint", started);
+        }
+
+        AtomicLong firstBroken = new AtomicLong(Long.MAX_VALUE);
+        List<Future<Segment>> futures = new ArrayList<>();
+        for (long from = fromSeq; from <= lastSeq; from += segmentSize) {
+            long to = Math.min(lastSeq, from + segmentSize - 1);
+            Segment segment = new Segment(electionId, from, to, from == fromSeq ? seedHash : null, firstBroken);
+            futures.add(executor.submit(() -> verifySegment(segment)));
+        }
+
+        long verified = 0;
+        Segment broken = null;
+        byte[] lastHash = seedHash;
+        for (Future<Segment> future : futures) {
+            Segment segment = await(future);
+            verified += segment.verified;
+            if (segment.brokenSeq != null && (broken == null || segment.brokenSeq < broken.brokenSeq)) {
+                broken = segment;
+            }
+            lastHash = segment.prevHash;
+        }
+
+        Long brokenSeq = broken != null ? broken.brokenSeq : null;
+        String reason = broken != null ? broken.reason : null;
+        if (broken == null && headHash != null && !Arrays.equals(headHash, lastHash)) {
+            brokenSeq = lastSeq;
+            reason = "Last ballot hash does not match the chain head";
+        }
+
+        if (brokenSeq == null && lastSeq >= fromSeq) {
+            saveCheckpoint(electionId, lastSeq, lastHash);
+        }
+        return result(electionId, fromSeq, verified, lastSeq, brokenSeq, reason, started);
+    }
+
+    /**
+     * Newest checkpoint at or below lastSeq whose signature holds
+     */
+    private Checkpoint findTrustedCheckpoint(UUID electionId, long lastSeq) {
+        for (Checkpoint checkpoint : checkpointRepository.findLatest(electionId, lastSeq, CHECKPOINT_CANDIDATES)) {
+            if (checkpointSigner.verify(checkpoint.signedMessage(), checkpoint.signature())) {
+                return checkpoint;
+            }
+            log.warn("Ignoring ballot chain checkpoint of election {} at seq {}: bad signature",
+                    electionId, checkpoint.seq());
+        }
+        return null;
+    }
+
+    private void saveCheckpoint(UUID electionId, long seq, byte[] ballotHash) {
+        // Microsecond precision: the timestamp is signed and must survive the round trip
+        Instant createdAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        byte[] signature = checkpointSigner.sign(Checkpoint.signedMessage(electionId, seq, ballotHash, createdAt));
+        checkpointRepository.insert(new Checkpoint(electionId, seq, ballotHash, createdAt, signature));
+    }
+
+    private static ChainVerification result(UUID electionId, long fromSeq, long verified, long lastSeq,
+                                            Long brokenSeq, String reason, long started) {
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        if (brokenSeq == null) {
+            log.info("Ballot chain of election {} verified: {} ballots from seq {} in {} ms",
+                    electionId, verified, fromSeq, durationMillis);
+        } else {
+            log.warn("Ballot chain of election {} broken at seq {}: {}", electionId, brokenSeq, reason);
+        }
+        return new ChainVerification(electionId, brokenSeq == null, fromSeq, verified, lastSeq, brokenSeq, reason,
+                durationMillis);
+    }
+
+    private Segment verifySegment(Segment segment) {
+        if (segment.fromSeq > 1 && segment.prevHash == null) {
+            segment.prevHash = ballotJdbcRepository.findHash(segment.electionId, segment.fromSeq - 1);
+            if (segment.prevHash == null) {
+                segment.fail(segment.fromSeq - 1, "Ballot is missing");
+                return segment;
+            }
+        }
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> ballotJdbcRepository.forEachChainRow(
+                    segment.electionId, segment.fromSeq, segment.toSeq, segment::check));
+        } catch (StopSegment e) {
+            return segment;
+        }
+        if (segment.brokenSeq == null && segment.expectedSeq <= segment.toSeq) {
+            segment.fail(segment.expectedSeq, "Ballot is missing");
+        }
+        return segment;
+    }
+
+    private static Segment await(Future<Segment> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ballot chain verification interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ballot chain verification failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Progress of one segment; only touched by the thread verifying it
+     */
+    private final class Segment {
+
+        private final UUID electionId;
+        private final long fromSeq;
+        private final long toSeq;
+        private final AtomicLong firstBroken;
+
+        private long expectedSeq;
+        private byte[] prevHash;
+        private long verified;
+        private Long brokenSeq;
+        private String reason;
+
+        Segment(UUID electionId, long fromSeq, long toSeq, byte[] seedHash, AtomicLong firstBroken) {
+            this.electionId = electionId;
+            this.fromSeq = fromSeq;
+            this.toSeq = toSeq;
+            this.prevHash = seedHash;
+            this.firstBroken = firstBroken;
+            this.expectedSeq = fromSeq;
+        }
+
+        void check(ChainRow row) {
+            if (row.seq() > firstBroken.get()) {
+                // An earlier segment already failed; nothing here can change the answer
+                throw StopSegment.INSTANCE;
+            }
+            if (row.seq() != expectedSeq) {
+                fail(expectedSeq, "Ballot is missing");
+                throw StopSegment.INSTANCE;
+            }
+            if (!Arrays.equals(prevHash, row.prevBallotHash())) {
+                fail(row.seq(), expectedSeq == 1
+                        ? "First ballot has a previous hash"
+                        : "Previous hash does not match the hash of ballot " + (expectedSeq - 1));
+                throw StopSegment.INSTANCE;
+            }
+            byte[] recomputed;
+            try {
+                recomputed = ballotHasher.hash(row.hashVersion(), row.encryptedVote(), row.nonce(), row.prevBallotHash());
+            } catch (IllegalArgumentException e) {
+                fail(row.seq(), e.getMessage());
+                throw StopSegment.INSTANCE;
+            }
+            if (!Arrays.equals(recomputed, row.ballotHash())) {
+                fail(row.seq(), "Ballot hash does not match its contents");
+                throw StopSegment.INSTANCE;
+            }
+            prevHash = row.ballotHash();
+            expectedSeq++;
+            verified++;
+        }
+
+        void fail(long seq, String why) {
+            brokenSeq = seq;
+            reason = why;
+            firstBroken.accumulateAndGet(seq, Math::min);
+        }
+    }
+
+    /**
+     * Ends a segment's cursor early
+     */
+    private static final class StopSegment extends RuntimeException {
+
+        static final StopSegment INSTANCE = new StopSegment();
+
+        private StopSegment() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.votoeletronico.voto.service.voting;
+
+import com.votoeletronico.voto.domain.voting.EncryptedBallot;
+import com.votoeletronico.voto.service.crypto.CryptoService;
+import com.votoeletronico.voto.service.crypto.Hex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Ballot hash formulas, by {@link EncryptedBallot#getHashVersion() hash version}.
+ * New ballots are hashed over raw bytes; ballots written as text keep their original formula,
+ * recomputed from the ASCII Base64/hex forms without building intermediate Strings.
+ */
+@Component
+@RequiredArgsConstructor
+public class BallotHasher {
+
+    private final CryptoService cryptoService;
+
+    /**
+     * Hash a new ballot (current version)
+     */
+    public byte[] hash(byte[] ciphertext, byte[] nonce, byte[] prevBallotHash) {
+        return hash(EncryptedBallot.HASH_VERSION_BINARY, ciphertext, nonce, prevBallotHash);
+    }
+
+    /**
+     * Recompute the hash of a stored ballot
+     */
+    public byte[] hash(EncryptedBallot ballot) {
+        return hash(ballot.getHashVersion(), ballot.getEncryptedVote(), ballot.getNonce(), ballot.getPrevBallotHash());
+    }
+
+    /**
+     * Message covered by a ballot's verification signature: ballot hash followed by the election id
+     */
+    public byte[] signedMessage(byte[] ballotHash, UUID electionId) {
+        return ByteBuffer.allocate(ballotHash.length + 16)
+                .put(ballotHash)
+                .putLong(electionId.getMostSignificantBits())
+                .putLong(electionId.getLeastSignificantBits())
+                .array();
+    }
+
+    /**
+     * Hash ballot contents with the given formula version
+     */
+    public byte[] hash(short version, byte[] ciphertext, byte[] nonce, byte[] prevBallotHash) {
+        return switch (version) {
+            case EncryptedBallot.HASH_VERSION_BINARY -> cryptoService.sha256(ciphertext, nonce, prevBallotHash);
+            case EncryptedBallot.HASH_VERSION_TEXT -> cryptoService.sha256(
+                    Base64.getEncoder().encode(ciphertext),
+                    Base64.getEncoder().encode(nonce),
+                    prevBallotHash != null ? Hex.encodeToBytes(prevBallotHash) : null);
+            default -> throw new IllegalArgumentException("Unknown ballot hash version: " + version);
+        };
+    }
+}
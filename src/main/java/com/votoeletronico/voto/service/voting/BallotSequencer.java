@@ -0,0 +1,53 @@
+package com.votoeletronico.voto.service.voting;
+
+import com.votoeletronico.voto.domain.voting.BallotChainHead;
+import com.votoeletronico.voto.repository.BallotChainHeadRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Per-election ballot sequencer.
+ *
+ * Hands out dense sequence numbers and the predecessor hash from the election's
+ * chain head row. The row stays locked until the appending transaction commits,
+ * so appenders on every node queue behind it and a rollback gives the slot back
+ * without leaving a gap.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BallotSequencer {
+
+    private final BallotChainHeadRepository chainHeadRepository;
+
+    /**
+     * Lock the chain head of an election, creating it on first use.
+     * Must be called from the transaction that inserts the ballot(s).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BallotChainHead lockHead(UUID electionId) {
+        return chainHeadRepository.findForUpdate(electionId)
+                .orElseGet(() -> {
+                    log.info("Creating ballot chain head for election {}", electionId);
+                    chainHeadRepository.insertIfAbsent(electionId);
+                    return chainHeadRepository.findForUpdate(electionId)
+                            .orElseThrow(() -> new IllegalStateException("Ballot chain head missing for election " + electionId));
+                });
+    }
+
+    /**
+     * Seal the chain of an election so no node can append to it anymore.
+     * Waits for in-flight appends of the election to commit first.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void seal(UUID electionId) {
+        BallotChainHead head = lockHead(electionId);
+        head.seal();
+        log.info("Ballot chain sealed for election {} at seq {}", electionId, head.getLastSeq());
+    }
+}
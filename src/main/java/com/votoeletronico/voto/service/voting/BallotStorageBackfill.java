@@ -0,0 +1,95 @@
+package com.votoeletronico.voto.service.voting;
+
+import com.votoeletronico.voto.config.VoteProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Online backfill of the binary ballot columns added in V7.
+ *
+ * Converts legacy Base64/hex ballots in small batches, each in its own short
+ * transaction (see backfill_ballot_binary_columns), so voting and verification keep
+ * running meanwhile. Until a row is converted, reads fall back to its legacy columns.
+ * Safe to run on several nodes at once: batches skip rows locked by another node.
+ *
+ * Only databases holding ballots cast before V7 need it, once: it is off by default
+ * (app.vote.backfill.enabled), and startup warns while unconverted rows remain.
+ *
+ * Dropping the legacy columns is a separate, manual step, because it must wait
+ * until every deployment has finished the backfill. In one release:
+ * - a migration dropping encrypted_vote_b64, nonce_b64, ballot_hash_hex,
+ *   prev_ballot_hash_hex, ip_hash_hex and user_agent_hash_hex (with the old unique
+ *   constraint encrypted_ballots_ballot_hash_key, chk_encrypted_ballots_hash_present,
+ *   idx_encrypted_ballots_unconverted and backfill_ballot_binary_columns), making
+ *   encrypted_vote, nonce and ballot_hash NOT NULL, and removing the backfill branch
+ *   of prevent_ballot_modification()
+ * - removal of the coalesce(...) fallbacks in EncryptedBallot and
+ *   EncryptedBallotJdbcRepository, the legacy probe in EncryptedBallotRepository,
+ *   and this class
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BallotStorageBackfill {
+
+    private static final String BACKFILL_SQL = "SELECT backfill_ballot_binary_columns(?)";
+    private static final String PENDING_SQL = "SELECT EXISTS (SELECT 1 FROM encrypted_ballots WHERE ballot_hash IS NULL)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final VoteProperties voteProperties;
+
+    private volatile boolean stopped;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!voteProperties.getBackfill().isEnabled()) {
+            // Served by the partial index on unconverted rows
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(PENDING_SQL, Boolean.class))) {
+                log.warn("Ballots cast before V7 are still stored as text; enable app.vote.backfill.enabled to convert them");
+            }
+            return;
+        }
+        Thread thread = new Thread(this::run, "ballot-storage-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Convert batches until no legacy row is left
+     */
+    void run() {
+        VoteProperties.Backfill backfill = voteProperties.getBackfill();
+        long total = 0;
+
+        try {
+            while (!stopped) {
+                Integer converted = jdbcTemplate.queryForObject(BACKFILL_SQL, Integer.class, backfill.getBatchSize());
+                if (converted == null || converted == 0) {
+                    break;
+                }
+                total += converted;
+                log.debug("Converted {} ballots to binary storage ({} so far)", converted, total);
+                Thread.sleep(backfill.getPauseMs());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Ballot storage backfill stopped after {} ballots; it resumes on next startup", total, e);
+            return;
+        }
+
+        if (total > 0) {
+            log.info("Ballot storage backfill finished: {} ballots converted; it can be disabled again", total);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        stopped = true;
+    }
+}
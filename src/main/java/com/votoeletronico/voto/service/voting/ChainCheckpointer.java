@@ -0,0 +1,113 @@
+package com.votoeletronico.voto.service.voting;
+
+import com.votoeletronico.voto.audit.AuditChainVerification;
+import com.votoeletronico.voto.audit.AuditRootPublisher;
+import com.votoeletronico.voto.audit.AuditService;
+import com.votoeletronico.voto.config.VerificationProperties;
+import com.votoeletronico.voto.repository.BallotChainCheckpointRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies chains in the background so on-demand verification has little left to do.
+ *
+ * Every checkpoint-interval-ms it verifies the audit streams and the ballot chains that grew
+ * by checkpoint-min-ballots since their last checkpoint, each from its own last checkpoint;
+ * every valid run leaves a new signed checkpoint. It then publishes a signed cross-stream
+ * root over the audit stream heads, if they moved. Nodes may run this at the same time: the
+ * work is repeated, but checkpoints stay consistent.
+ */
+@Slf4j
+@Component
+public class ChainCheckpointer {
+
+    private static final int ELECTIONS_PER_RUN = 20;
+
+    private final BallotChainVerifier ballotChainVerifier;
+    private final BallotChainCheckpointRepository checkpointRepository;
+    private final AuditService auditService;
+    private final AuditRootPublisher auditRootPublisher;
+    private final VerificationProperties verificationProperties;
+
+    private ScheduledExecutorService scheduler;
+
+    public ChainCheckpointer(BallotChainVerifier ballotChainVerifier,
+                             BallotChainCheckpointRepository checkpointRepository,
+                             AuditService auditService,
+                             AuditRootPublisher auditRootPublisher,
+                             VerificationProperties verificationProperties) {
+        this.ballotChainVerifier = ballotChainVerifier;
+        this.checkpointRepository = checkpointRepository;
+        this.auditService = auditService;
+        this.auditRootPublisher = auditRootPublisher;
+        this.verificationProperties = verificationProperties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long intervalMs = verificationProperties.getCheckpointIntervalMs();
+        if (intervalMs <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chain-checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkpoint, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void checkpoint() {
+        try {
+            for (AuditChainVerification verification : auditService.verifyChainIntegrity(false)) {
+                if (!verification.valid()) {
+                    log.error("Background verification found audit stream {} broken at entry {}",
+                            verification.streamKey(), verification.firstBrokenId());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Background audit chain verification failed", e);
+        }
+        try {
+            auditRootPublisher.publish();
+        } catch (RuntimeException e) {
+            log.error("Failed to publish the cross-stream audit root", e);
+        }
+
+        List<UUID> electionIds;
+        try {
+            electionIds = checkpointRepository.findElectionsBehind(
+                    verificationProperties.getCheckpointMinBallots(), ELECTIONS_PER_RUN);
+        } catch (RuntimeException e) {
+            log.error("Failed to find ballot chains to checkpoint", e);
+            return;
+        }
+        for (UUID electionId : electionIds) {
+            try {
+                ChainVerification verification = ballotChainVerifier.verify(electionId, false);
+                if (!verification.valid()) {
+                    log.error("Background verification found the ballot chain of election {} broken at seq {}",
+                            electionId, verification.firstBrokenSeq());
+                }
+            } catch (RuntimeException e) {
+                log.error("Background ballot chain verification of election {} failed", electionId, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
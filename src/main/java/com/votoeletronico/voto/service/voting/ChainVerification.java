@@ -0,0 +1,23 @@
+package com.votoeletronico.voto.service.voting;
+
+import java.util.UUID;
+
+/**
+ * Outcome of a ballot chain verification
+ *
+ * @param fromSeq        first ballot rechecked; earlier ones are covered by a signed checkpoint
+ * @param lastSeq        last sequence number of the chain when the verification started
+ * @param firstBrokenSeq first ballot that failed a check, or null when the chain is valid
+ * @param reason         what failed at firstBrokenSeq
+ */
+public record ChainVerification(
+        UUID electionId,
+        boolean valid,
+        long fromSeq,
+        long ballotsVerified,
+        long lastSeq,
+        Long firstBrokenSeq,
+        String reason,
+        long durationMillis
+) {
+}
@@ -0,0 +1,83 @@
+package com.votoeletronico.voto.service.voting;
+
+import com.votoeletronico.voto.domain.election.Candidate;
+import com.votoeletronico.voto.domain.election.Election;
+import com.votoeletronico.voto.domain.election.ElectionStatus;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable view of the election data needed to validate tokens and votes.
+ * Safe to cache once the election is RUNNING: candidates and settings can only
+ * change while the election is still DRAFT.
+ */
+public record ElectionSnapshot(
+        UUID electionId,
+        ElectionStatus status,
+        Instant startTs,
+        Instant endTs,
+        boolean allowAbstention,
+        boolean requireJustification,
+        String signatureAlgorithm,
+        boolean sealedTally,
+        Map<UUID, Integer> candidateOrdinals
+) {
+
+    /**
+     * Build a snapshot from an election with its candidates loaded
+     */
+    public static ElectionSnapshot of(Election election) {
+        return new ElectionSnapshot(
+                election.getId(),
+                election.getStatus(),
+                election.getStartTs(),
+                election.getEndTs(),
+                Boolean.TRUE.equals(election.getAllowAbstention()),
+                Boolean.TRUE.equals(election.getRequireJustification()),
+                election.getSignatureAlgorithm(),
+                election.isSealedTally(),
+                ordinals(election.getCandidatesInBallotOrder())
+        );
+    }
+
+    private static Map<UUID, Integer> ordinals(List<Candidate> candidatesInBallotOrder) {
+        Map<UUID, Integer> ordinals = new HashMap<>();
+        for (int i = 0; i < candidatesInBallotOrder.size(); i++) {
+            ordinals.put(candidatesInBallotOrder.get(i).getId(), i);
+        }
+        return Map.copyOf(ordinals);
+    }
+
+    /**
+     * Same rule as {@link Election#isVotingOpen()}
+     */
+    public boolean isVotingOpen() {
+        if (status != ElectionStatus.RUNNING) {
+            return false;
+        }
+        Instant now = Instant.now();
+        return !now.isBefore(startTs) && now.isBefore(endTs);
+    }
+
+    /**
+     * Check if a candidate is an option of this election
+     */
+    public boolean hasCandidate(UUID candidateId) {
+        return candidateOrdinals.containsKey(candidateId);
+    }
+
+    /**
+     * Get the ordinal of a candidate (position in ballot number order)
+     */
+    public int ordinalOf(UUID candidateId) {
+        Integer ordinal = candidateOrdinals.get(candidateId);
+        if (ordinal == null) {
+            throw new IllegalArgumentException("Candidate " + candidateId + " is not an option of election " + electionId);
+        }
+        return ordinal;
+    }
+}
@@ -0,0 +1,112 @@
+package com.votoeletronico.voto.service.voting;
+
+import com.votoeletronico.voto.config.VoteProperties;
+import com.votoeletronico.voto.domain.election.Election;
+import com.votoeletronico.voto.exception.ResourceNotFoundException;
+import com.votoeletronico.voto.repository.ElectionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory snapshots of RUNNING elections, so the token and vote paths validate
+ * without touching the database.
+ *
+ * Snapshots are published when an election starts and dropped when it is closed or
+ * cancelled, both after the status change commits. A node that never saw the start
+ * (restart, other node) loads the snapshot once on first use.
+ *
+ * Only the node that closed an election drops its snapshot; every other node keeps
+ * serving it until it expires (app.vote.snapshot-ttl-ms) and is reloaded. Within that
+ * window:
+ * - votes are still rejected, by the sealed ballot chain head every append locks
+ * - tokens are still refused, since {@link com.votoeletronico.voto.service.TokenService#issueToken}
+ *   reads the election status from the database
+ * - read-only checks (e.g. token validation, ballot options) may still see RUNNING
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ElectionSnapshotCache {
+
+    private final ElectionRepository electionRepository;
+    private final VoteProperties voteProperties;
+
+    private final Map<UUID, Cached> snapshots = new ConcurrentHashMap<>();
+
+    private record Cached(ElectionSnapshot snapshot, long expiresAtNanos) {
+
+        boolean isExpired(long nowNanos) {
+            return nowNanos - expiresAtNanos >= 0;
+        }
+    }
+
+    /**
+     * Get the snapshot of an election
+     * Only RUNNING elections are cached, until the TTL expires; any other status is read through
+     */
+    public ElectionSnapshot get(UUID electionId) {
+        Cached cached = snapshots.get(electionId);
+        if (cached != null) {
+            if (!cached.isExpired(System.nanoTime())) {
+                return cached.snapshot();
+            }
+            snapshots.remove(electionId, cached);
+        }
+
+        Election election = electionRepository.findByIdWithCandidates(electionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Election", "id", electionId));
+        ElectionSnapshot snapshot = ElectionSnapshot.of(election);
+
+        if (election.isRunning()) {
+            snapshots.putIfAbsent(electionId, cache(snapshot));
+            log.debug("Cached snapshot for election {} ({} candidates)", electionId, snapshot.candidateOrdinals().size());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Publish the snapshot of a started election once the current transaction commits
+     */
+    public void publishAfterCommit(Election election) {
+        ElectionSnapshot snapshot = ElectionSnapshot.of(election);
+        afterCommit(() -> {
+            snapshots.put(snapshot.electionId(), cache(snapshot));
+            log.info("Published snapshot for election {}", snapshot.electionId());
+        });
+    }
+
+    /**
+     * Drop the snapshot of a closed or cancelled election once the current transaction commits
+     */
+    public void invalidateAfterCommit(UUID electionId) {
+        afterCommit(() -> {
+            if (snapshots.remove(electionId) != null) {
+                log.info("Invalidated snapshot for election {}", electionId);
+            }
+        });
+    }
+
+    private Cached cache(ElectionSnapshot snapshot) {
+        return new Cached(snapshot, System.nanoTime() + voteProperties.getSnapshotTtlMs() * 1_000_000L);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,29 @@
+package com.votoeletronico.voto.service.voting;
+
+import com.votoeletronico.voto.domain.voting.EncryptedBallot;
+import com.votoeletronico.voto.service.crypto.EncryptedData;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A validated, encrypted ballot waiting to be chained and committed.
+ * The result completes once the ballot is durable (or was rejected).
+ * The audit action ("Vote Cast", "Abstention Cast") is recorded in the same transaction.
+ * The sealed vote is only present for elections with a sealed running tally.
+ */
+public record PendingBallot(
+        UUID electionId,
+        String tokenHash,
+        EncryptedData encrypted,
+        SealedVote sealedVote,
+        byte[] ipHash,
+        byte[] userAgentHash,
+        String auditAction,
+        CompletableFuture<EncryptedBallot> result
+) {
+    public PendingBallot(UUID electionId, String tokenHash, EncryptedData encrypted, SealedVote sealedVote,
+                         byte[] ipHash, byte[] userAgentHash, String auditAction) {
+        this(electionId, tokenHash, encrypted, sealedVote, ipHash, userAgentHash, auditAction, new CompletableFuture<>());
+    }
+}
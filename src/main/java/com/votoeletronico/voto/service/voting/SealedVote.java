@@ -0,0 +1,14 @@
+package com.votoeletronico.voto.service.voting;
+
+import com.votoeletronico.voto.service.crypto.ExpElGamal;
+
+/**
+ * Homomorphic encryption of a ballot's choice for a sealed tally election:
+ * the ciphertexts are added to the running aggregate, the encoding is stored with the ballot.
+ */
+public record SealedVote(ExpElGamal.Ciphertext[] ciphertexts, byte[] encoded) {
+
+    public static SealedVote of(ExpElGamal.Ciphertext[] ciphertexts) {
+        return new SealedVote(ciphertexts, ExpElGamal.encode(ciphertexts));
+    }
+}
@@ -0,0 +1,37 @@
+-- V10__tally_ledger.sql
+-- Tally bookkeeping by ballot sequence range instead of per-ballot updates
+
+-- ============================================================================
+-- TALLY LEDGER (one row per committed tally chunk)
+-- ============================================================================
+CREATE TABLE tally_ledger (
+    election_id UUID NOT NULL REFERENCES elections(id) ON DELETE CASCADE,
+    election_result_id UUID NOT NULL REFERENCES election_results(id) ON DELETE CASCADE,
+
+    -- Inclusive range of ballot sequence numbers counted by the chunk
+    from_seq BIGINT NOT NULL,
+    to_seq BIGINT NOT NULL,
+
+    -- Metadata
+    tallied_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+
+    PRIMARY KEY (election_id, from_seq),
+
+    -- Constraints
+    CONSTRAINT chk_tally_ledger_range CHECK (from_seq >= 1 AND to_seq >= from_seq)
+);
+
+COMMENT ON TABLE tally_ledger IS 'Ballot sequence ranges already counted by the tally; ballots themselves stay append-only';
+COMMENT ON COLUMN encrypted_ballots.tallied IS 'Unused: tally progress is kept in tally_ledger';
+
+-- ============================================================================
+-- GRANTS
+-- ============================================================================
+DO $$
+BEGIN
+    IF EXISTS (SELECT FROM pg_roles WHERE rolname = 'voto_user') THEN
+        GRANT ALL PRIVILEGES ON tally_ledger TO voto_user;
+    END IF;
+END $$;
+
+-- End of migration
@@ -0,0 +1,61 @@
+-- V11__tally_jobs.sql
+-- Background tally jobs with checkpoints, so a tally survives request timeouts and node restarts
+
+-- ============================================================================
+-- TALLY JOBS (one per election result; a failed job is re-queued, not replaced)
+-- ============================================================================
+CREATE TABLE tally_jobs (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    election_id UUID NOT NULL REFERENCES elections(id) ON DELETE CASCADE,
+    election_result_id UUID NOT NULL REFERENCES election_results(id) ON DELETE CASCADE,
+
+    -- Status
+    status VARCHAR(20) NOT NULL DEFAULT 'QUEUED',
+    requested_by UUID,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    error TEXT,
+
+    -- Ballots to count (the chain is sealed when the election closes)
+    total_ballots BIGINT NOT NULL,
+
+    -- Checkpoint: everything up to last_seq is counted in these counters and in tally_ledger
+    last_seq BIGINT NOT NULL DEFAULT 0,
+    candidate_votes BIGINT[] NOT NULL,
+    valid_votes BIGINT NOT NULL DEFAULT 0,
+    abstentions BIGINT NOT NULL DEFAULT 0,
+    invalid_votes BIGINT NOT NULL DEFAULT 0,
+
+    -- Lease of the node running the job
+    owner VARCHAR(255),
+    lease_expires_at TIMESTAMPTZ,
+
+    -- Current run, for throughput and ETA
+    run_started_at TIMESTAMPTZ,
+    run_start_ballots BIGINT NOT NULL DEFAULT 0,
+
+    -- Timestamps
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    checkpointed_at TIMESTAMPTZ,
+    completed_at TIMESTAMPTZ,
+
+    -- Constraints
+    CONSTRAINT uk_tally_jobs_election_result UNIQUE (election_result_id),
+    CONSTRAINT chk_tally_jobs_status CHECK (status IN ('QUEUED', 'RUNNING', 'COMPLETED', 'FAILED'))
+);
+
+-- Jobs waiting for a node: queued, or running under an expired lease
+CREATE INDEX idx_tally_jobs_claimable ON tally_jobs(created_at) WHERE status IN ('QUEUED', 'RUNNING');
+
+COMMENT ON TABLE tally_jobs IS 'Background tally jobs; checkpointed after every chunk and resumed by any node once the lease expires';
+
+-- ============================================================================
+-- GRANTS
+-- ============================================================================
+DO $$
+BEGIN
+    IF EXISTS (SELECT FROM pg_roles WHERE rolname = 'voto_user') THEN
+        GRANT ALL PRIVILEGES ON tally_jobs TO voto_user;
+    END IF;
+END $$;
+
+-- End of migration
@@ -0,0 +1,55 @@
+-- V12__ballot_merkle_tree.sql
+-- Binary Merkle tree over each election's ballots, for O(log n) inclusion proofs
+
+-- ============================================================================
+-- BALLOT_MERKLE_TREES (one per tallied election)
+-- ============================================================================
+CREATE TABLE ballot_merkle_trees (
+    election_id UUID PRIMARY KEY REFERENCES elections(id) ON DELETE CASCADE,
+
+    -- Leaves are the ballot hashes in seq order
+    leaf_count BIGINT NOT NULL,
+    root BYTEA NOT NULL,
+
+    -- Levels below stored_from_level are rebuilt from the ballots when a proof needs them
+    stored_from_level SMALLINT NOT NULL,
+    page_size INTEGER NOT NULL,
+
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+
+    -- Constraints
+    CONSTRAINT chk_ballot_merkle_trees_root_length CHECK (LENGTH(root) = 32),
+    CONSTRAINT chk_ballot_merkle_trees_leaf_count CHECK (leaf_count > 0)
+);
+
+COMMENT ON TABLE ballot_merkle_trees IS 'Merkle root and layout of the ballot tree of a tallied election';
+
+-- ============================================================================
+-- BALLOT_MERKLE_NODES (interior levels, page_size 32-byte nodes per row)
+-- ============================================================================
+CREATE TABLE ballot_merkle_nodes (
+    election_id UUID NOT NULL REFERENCES ballot_merkle_trees(election_id) ON DELETE CASCADE DEFERRABLE INITIALLY DEFERRED,
+    level SMALLINT NOT NULL,
+    page INTEGER NOT NULL,
+    nodes BYTEA NOT NULL,
+
+    PRIMARY KEY (election_id, level, page)
+);
+
+-- Hashes do not compress; uncompressed out-of-line storage lets substring() read a single node
+ALTER TABLE ballot_merkle_nodes ALTER COLUMN nodes SET STORAGE EXTERNAL;
+
+COMMENT ON TABLE ballot_merkle_nodes IS 'Interior Merkle tree levels, concatenated 32-byte nodes in index order';
+
+-- ============================================================================
+-- GRANTS
+-- ============================================================================
+DO $$
+BEGIN
+    IF EXISTS (SELECT FROM pg_roles WHERE rolname = 'voto_user') THEN
+        GRANT ALL PRIVILEGES ON ballot_merkle_trees TO voto_user;
+        GRANT ALL PRIVILEGES ON ballot_merkle_nodes TO voto_user;
+    END IF;
+END $$;
+
+-- End of migration
@@ -0,0 +1,84 @@
+-- V13__sealed_tally.sql
+-- Optional sealed running tally: each ballot also carries an exponential ElGamal encryption
+-- of its one-hot choice vector, and the server keeps the homomorphic sum per election
+
+-- ============================================================================
+-- ELECTIONS - sealed tally mode
+-- ============================================================================
+ALTER TABLE elections ADD COLUMN sealed_tally BOOLEAN NOT NULL DEFAULT false;
+
+COMMENT ON COLUMN elections.sealed_tally IS 'Keep an encrypted running tally while voting, so closing needs one decryption per option';
+
+-- ============================================================================
+-- ENCRYPTED_BALLOTS - homomorphic choice vector
+-- ============================================================================
+-- Nullable column without default: metadata-only change, no table rewrite
+ALTER TABLE encrypted_ballots ADD COLUMN homomorphic_vote BYTEA;
+
+COMMENT ON COLUMN encrypted_ballots.homomorphic_vote IS 'Exp-ElGamal (P-256) ciphertexts of the one-hot choice vector, candidates in ballot order then abstention; sealed tally elections only';
+
+-- The backfill must not be able to touch the new column either
+CREATE OR REPLACE FUNCTION prevent_ballot_modification()
+RETURNS TRIGGER AS $$
+BEGIN
+    -- The backfill may only fill the binary columns with the decoded legacy values of the same row
+    IF TG_OP = 'UPDATE'
+       AND current_setting('voto.ballot_backfill', true) = 'on'
+       AND OLD.ballot_hash IS NULL
+       AND NEW.ballot_hash = decode(OLD.ballot_hash_hex, 'hex')
+       AND NEW.encrypted_vote = decode(OLD.encrypted_vote_b64, 'base64')
+       AND NEW.nonce = decode(OLD.nonce_b64, 'base64')
+       AND NEW.prev_ballot_hash IS NOT DISTINCT FROM decode(OLD.prev_ballot_hash_hex, 'hex')
+       AND NEW.ip_hash IS NOT DISTINCT FROM decode(OLD.ip_hash_hex, 'hex')
+       AND NEW.user_agent_hash IS NOT DISTINCT FROM decode(OLD.user_agent_hash_hex, 'hex')
+       AND (NEW.id, NEW.election_id, NEW.seq, NEW.hash_version, NEW.encrypted_vote_b64, NEW.nonce_b64,
+            NEW.ballot_hash_hex, NEW.prev_ballot_hash_hex, NEW.ip_hash_hex, NEW.user_agent_hash_hex,
+            NEW.encryption_algorithm, NEW.key_id, NEW.cast_at, NEW.verification_signature,
+            NEW.tallied, NEW.tallied_at, NEW.homomorphic_vote)
+           IS NOT DISTINCT FROM
+           (OLD.id, OLD.election_id, OLD.seq, OLD.hash_version, OLD.encrypted_vote_b64, OLD.nonce_b64,
+            OLD.ballot_hash_hex, OLD.prev_ballot_hash_hex, OLD.ip_hash_hex, OLD.user_agent_hash_hex,
+            OLD.encryption_algorithm, OLD.key_id, OLD.cast_at, OLD.verification_signature,
+            OLD.tallied, OLD.tallied_at, OLD.homomorphic_vote)
+    THEN
+        RETURN NEW;
+    END IF;
+
+    RAISE EXCEPTION 'Modification of encrypted_ballots is not allowed. Table is append-only.';
+END;
+$$ LANGUAGE plpgsql;
+
+-- ============================================================================
+-- SEALED_TALLIES - encrypted running aggregate (one row per sealed tally election)
+-- ============================================================================
+CREATE TABLE sealed_tallies (
+    election_id UUID PRIMARY KEY REFERENCES elections(id) ON DELETE CASCADE,
+    public_key BYTEA NOT NULL,
+    slots SMALLINT NOT NULL,
+    aggregate BYTEA NOT NULL,
+    ballot_count BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT chk_sealed_tallies_public_key_length CHECK (LENGTH(public_key) = 33),
+    CONSTRAINT chk_sealed_tallies_slots CHECK (slots >= 2),
+    CONSTRAINT chk_sealed_tallies_aggregate_length CHECK (LENGTH(aggregate) = slots * 66),
+    CONSTRAINT chk_sealed_tallies_ballot_count CHECK (ballot_count >= 0)
+);
+
+COMMENT ON TABLE sealed_tallies IS 'Homomorphic sum of the ballots of a sealed tally election, updated by every ballot batch under the chain head lock';
+COMMENT ON COLUMN sealed_tallies.public_key IS 'Compressed P-256 public key the choice vectors are encrypted to';
+COMMENT ON COLUMN sealed_tallies.aggregate IS 'One exp-ElGamal ciphertext (two compressed points) per option';
+COMMENT ON COLUMN sealed_tallies.ballot_count IS 'Number of ballots summed into the aggregate';
+
+-- ============================================================================
+-- GRANTS
+-- ============================================================================
+DO $$
+BEGIN
+    IF EXISTS (SELECT FROM pg_roles WHERE rolname = 'voto_user') THEN
+        GRANT ALL PRIVILEGES ON sealed_tallies TO voto_user;
+    END IF;
+END $$;
+
+-- End of migration
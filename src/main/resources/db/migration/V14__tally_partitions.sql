@@ -0,0 +1,58 @@
+-- V14__tally_partitions.sql
+-- Partitioned tally: a job's ballots are split into sequence ranges that any node may count
+
+-- ============================================================================
+-- TALLY PARTITIONS (work queue of a partitioned tally job)
+-- ============================================================================
+CREATE TABLE tally_partitions (
+    job_id UUID NOT NULL REFERENCES tally_jobs(id) ON DELETE CASCADE,
+    partition_no INTEGER NOT NULL,
+    election_id UUID NOT NULL REFERENCES elections(id) ON DELETE CASCADE,
+
+    -- Inclusive range of ballot sequence numbers to count
+    from_seq BIGINT NOT NULL,
+    to_seq BIGINT NOT NULL,
+
+    -- Status
+    status VARCHAR(20) NOT NULL DEFAULT 'QUEUED',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    error TEXT,
+
+    -- Lease of the node counting the range
+    owner VARCHAR(255),
+    lease_expires_at TIMESTAMPTZ,
+
+    -- Partial counters, written once when the whole range is counted
+    candidate_votes BIGINT[] NOT NULL,
+    valid_votes BIGINT NOT NULL DEFAULT 0,
+    abstentions BIGINT NOT NULL DEFAULT 0,
+    invalid_votes BIGINT NOT NULL DEFAULT 0,
+
+    -- Timestamps
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    completed_at TIMESTAMPTZ,
+
+    PRIMARY KEY (job_id, partition_no),
+
+    -- Constraints
+    CONSTRAINT chk_tally_partitions_range CHECK (from_seq >= 1 AND to_seq >= from_seq),
+    CONSTRAINT chk_tally_partitions_status CHECK (status IN ('QUEUED', 'RUNNING', 'COMPLETED'))
+);
+
+-- Ranges waiting for a node: queued, or running under an expired lease
+CREATE INDEX idx_tally_partitions_claimable ON tally_partitions(created_at) WHERE status IN ('QUEUED', 'RUNNING');
+
+COMMENT ON TABLE tally_partitions IS 'Ballot ranges of a partitioned tally job, leased to any node and merged by the node running the job';
+COMMENT ON COLUMN tally_partitions.candidate_votes IS 'Votes per candidate in ballot order, for this range only';
+
+-- ============================================================================
+-- GRANTS
+-- ============================================================================
+DO $$
+BEGIN
+    IF EXISTS (SELECT FROM pg_roles WHERE rolname = 'voto_user') THEN
+        GRANT ALL PRIVILEGES ON tally_partitions TO voto_user;
+    END IF;
+END $$;
+
+-- End of migration
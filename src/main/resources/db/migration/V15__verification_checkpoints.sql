@@ -0,0 +1,46 @@
+-- V15__verification_checkpoints.sql
+-- Signed checkpoints of verified chain prefixes, so verification resumes from the last one
+
+-- ============================================================================
+-- BALLOT CHAIN CHECKPOINTS (one row per verified prefix of an election chain)
+-- ============================================================================
+CREATE TABLE ballot_chain_checkpoints (
+    election_id UUID NOT NULL REFERENCES elections(id) ON DELETE CASCADE,
+
+    -- Last verified ballot and its hash, which commits to the whole prefix
+    seq BIGINT NOT NULL,
+    ballot_hash BYTEA NOT NULL,
+
+    -- Metadata
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    signature BYTEA NOT NULL,
+
+    PRIMARY KEY (election_id, seq),
+
+    -- Constraints
+    CONSTRAINT chk_ballot_chain_checkpoints_seq CHECK (seq >= 1),
+    CONSTRAINT chk_ballot_chain_checkpoints_hash_length CHECK (LENGTH(ballot_hash) = 32)
+);
+
+COMMENT ON TABLE ballot_chain_checkpoints IS 'Signed checkpoints of verified ballot chain prefixes; verification continues from the newest valid one';
+COMMENT ON COLUMN ballot_chain_checkpoints.signature IS 'HMAC-SHA256 over election, seq, hash and time with the checkpoint key';
+
+-- ============================================================================
+-- AUDIT COMMITMENTS - now written as signed checkpoints of the verified audit chain
+-- ============================================================================
+ALTER TABLE audit.commitments ADD COLUMN signature BYTEA;
+
+COMMENT ON COLUMN audit.commitments.root_hash IS 'Entry hash of last_entry_id, which commits to the whole chain up to it';
+COMMENT ON COLUMN audit.commitments.signature IS 'HMAC-SHA256 over last entry, count, hash and time with the checkpoint key; unsigned rows are not trusted';
+
+-- ============================================================================
+-- GRANTS
+-- ============================================================================
+DO $$
+BEGIN
+    IF EXISTS (SELECT FROM pg_roles WHERE rolname = 'voto_user') THEN
+        GRANT ALL PRIVILEGES ON ballot_chain_checkpoints TO voto_user;
+    END IF;
+END $$;
+
+-- End of migration
@@ -0,0 +1,50 @@
+-- V16__audit_merkle_log.sql
+-- RFC 6962 Merkle tree over the audit chain, for inclusion and consistency proofs
+
+-- ============================================================================
+-- AUDIT MERKLE NODES (complete subtrees of the append-only tree)
+-- ============================================================================
+CREATE TABLE audit.merkle_nodes (
+    -- Node (level, idx) covers leaves [idx * 2^level, (idx + 1) * 2^level)
+    level SMALLINT NOT NULL,
+    idx BIGINT NOT NULL,
+    hash BYTEA NOT NULL,
+
+    -- Audit entry of a leaf (level 0); leaf idx is the entry's position in the chain
+    entry_id BIGINT REFERENCES audit.audit_log(id),
+
+    PRIMARY KEY (level, idx),
+
+    -- Constraints
+    CONSTRAINT chk_merkle_nodes_hash_length CHECK (LENGTH(hash) = 32),
+    CONSTRAINT chk_merkle_nodes_leaf_entry CHECK ((level = 0) = (entry_id IS NOT NULL))
+);
+
+CREATE UNIQUE INDEX idx_merkle_nodes_entry ON audit.merkle_nodes(entry_id) WHERE entry_id IS NOT NULL;
+
+COMMENT ON TABLE audit.merkle_nodes IS 'Complete nodes of the audit Merkle tree; leaves are SHA-256(0x00 || entry_hash), appended with the chain';
+
+-- Election trails are looked up by the election an entry refers to
+CREATE INDEX idx_audit_log_election ON audit.audit_log ((event_data->>'electionId'));
+
+-- ============================================================================
+-- AUDIT COMMITMENTS - also publish the Merkle root at entry_count leaves
+-- ============================================================================
+ALTER TABLE audit.commitments ADD COLUMN merkle_root BYTEA;
+ALTER TABLE audit.commitments ALTER COLUMN entry_count TYPE BIGINT;
+ALTER TABLE audit.commitments
+    ADD CONSTRAINT chk_commitments_merkle_root_length CHECK (merkle_root IS NULL OR LENGTH(merkle_root) = 32);
+
+COMMENT ON COLUMN audit.commitments.merkle_root IS 'Merkle tree root over the first entry_count entries';
+
+-- ============================================================================
+-- GRANTS
+-- ============================================================================
+DO $$
+BEGIN
+    IF EXISTS (SELECT FROM pg_roles WHERE rolname = 'voto_user') THEN
+        GRANT ALL PRIVILEGES ON audit.merkle_nodes TO voto_user;
+    END IF;
+END $$;
+
+-- End of migration
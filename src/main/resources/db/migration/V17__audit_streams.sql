@@ -0,0 +1,105 @@
+-- V17__audit_streams.sql
+-- Partition the audit chain into streams (one per election plus a system stream), each
+-- with its own head, hash chain and Merkle tree, bound together by periodic cross-stream roots
+
+-- ============================================================================
+-- STREAM KEYS ('system' or 'election:<uuid>'); existing entries form the system stream
+-- ============================================================================
+ALTER TABLE audit.audit_outbox ADD COLUMN stream_key VARCHAR(100) NOT NULL DEFAULT 'system';
+ALTER TABLE audit.audit_log ADD COLUMN stream_key VARCHAR(100) NOT NULL DEFAULT 'system';
+
+CREATE INDEX idx_audit_log_stream ON audit.audit_log(stream_key, id);
+DROP INDEX IF EXISTS audit.idx_audit_log_election;
+
+COMMENT ON COLUMN audit.audit_log.stream_key IS 'Stream the entry is chained in; prev_hash links to the previous entry of the same stream';
+
+-- ============================================================================
+-- STREAM HEADS (tail of each stream; the row lock serializes appends to that stream only)
+-- ============================================================================
+CREATE TABLE audit.stream_heads (
+    stream_key VARCHAR(100) PRIMARY KEY,
+
+    -- Tail of the chain
+    last_entry_id BIGINT NOT NULL DEFAULT 0,
+    last_entry_hash BYTEA,
+    entry_count BIGINT NOT NULL DEFAULT 0,
+
+    -- Merkle root of the stream at entry_count leaves
+    merkle_root BYTEA,
+
+    -- Metadata
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+
+    -- Constraints
+    CONSTRAINT chk_stream_heads_count CHECK (entry_count >= 0)
+);
+
+COMMENT ON TABLE audit.stream_heads IS 'Current tail of each audit stream; row lock serializes appends to one stream';
+
+INSERT INTO audit.stream_heads (stream_key, last_entry_id, last_entry_hash, entry_count)
+SELECT 'system', l.id, l.entry_hash, c.n
+FROM (SELECT id, entry_hash FROM audit.audit_log ORDER BY id DESC LIMIT 1) l,
+     (SELECT COUNT(*) AS n FROM audit.audit_log) c;
+
+-- ============================================================================
+-- MERKLE NODES - one tree per stream
+-- ============================================================================
+ALTER TABLE audit.merkle_nodes ADD COLUMN stream_key VARCHAR(100) NOT NULL DEFAULT 'system';
+ALTER TABLE audit.merkle_nodes DROP CONSTRAINT merkle_nodes_pkey;
+ALTER TABLE audit.merkle_nodes ADD PRIMARY KEY (stream_key, level, idx);
+
+-- ============================================================================
+-- COMMITMENTS - per stream; the signed message now covers the stream key, so
+-- signatures made before streams existed no longer verify and are cleared
+-- ============================================================================
+ALTER TABLE audit.commitments ADD COLUMN stream_key VARCHAR(100) NOT NULL DEFAULT 'system';
+UPDATE audit.commitments SET signature = NULL;
+
+CREATE INDEX idx_commitments_stream ON audit.commitments(stream_key, last_entry_id);
+
+-- ============================================================================
+-- CROSS-STREAM ROOTS (Merkle root over all stream heads at one time)
+-- ============================================================================
+CREATE TABLE audit.stream_roots (
+    id BIGSERIAL PRIMARY KEY,
+    root BYTEA NOT NULL,
+    stream_count INTEGER NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    signature BYTEA NOT NULL,
+
+    -- Constraints
+    CONSTRAINT chk_stream_roots_root_length CHECK (LENGTH(root) = 32),
+    CONSTRAINT chk_stream_roots_count CHECK (stream_count > 0)
+);
+
+CREATE TABLE audit.stream_root_leaves (
+    root_id BIGINT NOT NULL REFERENCES audit.stream_roots(id) ON DELETE CASCADE,
+    leaf_index INTEGER NOT NULL,
+
+    -- Stream head the leaf commits to
+    stream_key VARCHAR(100) NOT NULL,
+    last_entry_id BIGINT NOT NULL,
+    last_entry_hash BYTEA NOT NULL,
+    entry_count BIGINT NOT NULL,
+    merkle_root BYTEA NOT NULL,
+
+    PRIMARY KEY (root_id, leaf_index)
+);
+
+COMMENT ON TABLE audit.stream_roots IS 'Signed periodic roots binding the heads of all audit streams';
+COMMENT ON TABLE audit.stream_root_leaves IS 'Stream heads under a cross-stream root, in stream key order';
+
+-- ============================================================================
+-- GRANTS
+-- ============================================================================
+DO $$
+BEGIN
+    IF EXISTS (SELECT FROM pg_roles WHERE rolname = 'voto_user') THEN
+        GRANT ALL PRIVILEGES ON audit.stream_heads TO voto_user;
+        GRANT ALL PRIVILEGES ON audit.stream_roots TO voto_user;
+        GRANT ALL PRIVILEGES ON SEQUENCE audit.stream_roots_id_seq TO voto_user;
+        GRANT ALL PRIVILEGES ON audit.stream_root_leaves TO voto_user;
+    END IF;
+END $$;
+
+-- End of migration
@@ -0,0 +1,42 @@
+-- V18__drop_ballot_tallied_columns.sql
+-- Tally progress lives in tally_ledger since V10; the per-ballot flags are never written
+
+-- ============================================================================
+-- ENCRYPTED_BALLOTS - append-only guard without the tally flags
+-- ============================================================================
+-- Redefined first: the V13 body still names the columns dropped below
+CREATE OR REPLACE FUNCTION prevent_ballot_modification()
+RETURNS TRIGGER AS $$
+BEGIN
+    -- The backfill may only fill the binary columns with the decoded legacy values of the same row
+    IF TG_OP = 'UPDATE'
+       AND current_setting('voto.ballot_backfill', true) = 'on'
+       AND OLD.ballot_hash IS NULL
+       AND NEW.ballot_hash = decode(OLD.ballot_hash_hex, 'hex')
+       AND NEW.encrypted_vote = decode(OLD.encrypted_vote_b64, 'base64')
+       AND NEW.nonce = decode(OLD.nonce_b64, 'base64')
+       AND NEW.prev_ballot_hash IS NOT DISTINCT FROM decode(OLD.prev_ballot_hash_hex, 'hex')
+       AND NEW.ip_hash IS NOT DISTINCT FROM decode(OLD.ip_hash_hex, 'hex')
+       AND NEW.user_agent_hash IS NOT DISTINCT FROM decode(OLD.user_agent_hash_hex, 'hex')
+       AND (NEW.id, NEW.election_id, NEW.seq, NEW.hash_version, NEW.encrypted_vote_b64, NEW.nonce_b64,
+            NEW.ballot_hash_hex, NEW.prev_ballot_hash_hex, NEW.ip_hash_hex, NEW.user_agent_hash_hex,
+            NEW.encryption_algorithm, NEW.key_id, NEW.cast_at, NEW.verification_signature,
+            NEW.homomorphic_vote)
+           IS NOT DISTINCT FROM
+           (OLD.id, OLD.election_id, OLD.seq, OLD.hash_version, OLD.encrypted_vote_b64, OLD.nonce_b64,
+            OLD.ballot_hash_hex, OLD.prev_ballot_hash_hex, OLD.ip_hash_hex, OLD.user_agent_hash_hex,
+            OLD.encryption_algorithm, OLD.key_id, OLD.cast_at, OLD.verification_signature,
+            OLD.homomorphic_vote)
+    THEN
+        RETURN NEW;
+    END IF;
+
+    RAISE EXCEPTION 'Modification of encrypted_ballots is not allowed. Table is append-only.';
+END;
+$$ LANGUAGE plpgsql;
+
+-- Dropping columns only marks them dead in the catalog, no table rewrite
+ALTER TABLE encrypted_ballots DROP COLUMN tallied;
+ALTER TABLE encrypted_ballots DROP COLUMN tallied_at;
+
+-- End of migration
@@ -0,0 +1,48 @@
+-- V19__recount_jobs.sql
+-- Recounts run in the background; their progress and report are kept so any node can serve them
+
+-- ============================================================================
+-- RECOUNT JOBS (one per recount request; read-only, never resumed)
+-- ============================================================================
+CREATE TABLE recount_jobs (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    election_id UUID NOT NULL REFERENCES elections(id) ON DELETE CASCADE,
+
+    -- Status
+    status VARCHAR(20) NOT NULL DEFAULT 'RUNNING',
+    requested_by UUID,
+    error TEXT,
+
+    -- Progress
+    total_ballots BIGINT NOT NULL,
+    processed_ballots BIGINT NOT NULL DEFAULT 0,
+
+    -- Outcome, once completed
+    report JSONB,
+
+    -- Timestamps (updated_at is renewed after every chunk, so an abandoned recount can be told apart)
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    completed_at TIMESTAMPTZ,
+
+    -- Constraints
+    CONSTRAINT chk_recount_jobs_status CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED')),
+    CONSTRAINT chk_recount_jobs_report CHECK (status <> 'COMPLETED' OR report IS NOT NULL)
+);
+
+CREATE INDEX idx_recount_jobs_election ON recount_jobs(election_id, created_at DESC);
+
+COMMENT ON TABLE recount_jobs IS 'Background recounts of tallied elections and their comparison with the stored result';
+COMMENT ON COLUMN recount_jobs.report IS 'Recounted values and their differences with the stored result';
+
+-- ============================================================================
+-- GRANTS
+-- ============================================================================
+DO $$
+BEGIN
+    IF EXISTS (SELECT FROM pg_roles WHERE rolname = 'voto_user') THEN
+        GRANT ALL PRIVILEGES ON recount_jobs TO voto_user;
+    END IF;
+END $$;
+
+-- End of migration
@@ -0,0 +1,4 @@
+-- V20__audit_outbox_stream_index.sql
+-- Chainers claim the outbox one stream at a time, oldest events first
+
+CREATE INDEX idx_audit_outbox_stream ON audit.audit_outbox(stream_key, id);
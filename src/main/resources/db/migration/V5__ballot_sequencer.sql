@@ -0,0 +1,67 @@
+-- V5__ballot_sequencer.sql
+-- Per-election ballot sequence numbers and chain heads
+
+-- ============================================================================
+-- BALLOT CHAIN HEADS (one row per election, locked while appending)
+-- ============================================================================
+CREATE TABLE ballot_chain_heads (
+    election_id UUID PRIMARY KEY REFERENCES elections(id) ON DELETE CASCADE,
+
+    -- Tail of the chain
+    last_seq BIGINT NOT NULL DEFAULT 0,
+    last_ballot_hash VARCHAR(64),
+
+    -- Metadata
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+
+    -- Constraints
+    CONSTRAINT chk_chain_head_seq CHECK (last_seq >= 0)
+);
+
+COMMENT ON TABLE ballot_chain_heads IS 'Current tail of each election ballot chain; row lock serializes appends across nodes';
+COMMENT ON COLUMN ballot_chain_heads.last_seq IS 'Sequence number of the last ballot appended (0 = empty chain)';
+
+-- ============================================================================
+-- ENCRYPTED_BALLOTS - dense per-election sequence
+-- ============================================================================
+ALTER TABLE encrypted_ballots ADD COLUMN seq BIGINT;
+
+-- Backfill existing ballots in cast order (append-only trigger suspended for the backfill only)
+ALTER TABLE encrypted_ballots DISABLE TRIGGER trg_prevent_ballot_update;
+
+UPDATE encrypted_ballots b
+SET seq = ordered.rn
+FROM (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY election_id ORDER BY cast_at, id) AS rn
+    FROM encrypted_ballots
+) ordered
+WHERE b.id = ordered.id;
+
+ALTER TABLE encrypted_ballots ENABLE TRIGGER trg_prevent_ballot_update;
+
+ALTER TABLE encrypted_ballots ALTER COLUMN seq SET NOT NULL;
+ALTER TABLE encrypted_ballots
+    ADD CONSTRAINT uk_encrypted_ballots_election_seq UNIQUE (election_id, seq);
+
+-- The (election_id, seq) key covers every election_id lookup
+DROP INDEX IF EXISTS idx_encrypted_ballots_election;
+
+COMMENT ON COLUMN encrypted_ballots.seq IS 'Dense 1-based position of the ballot in its election chain';
+
+-- Seed chain heads from existing ballots
+INSERT INTO ballot_chain_heads (election_id, last_seq, last_ballot_hash)
+SELECT DISTINCT ON (election_id) election_id, seq, ballot_hash
+FROM encrypted_ballots
+ORDER BY election_id, seq DESC;
+
+-- ============================================================================
+-- GRANTS
+-- ============================================================================
+DO $$
+BEGIN
+    IF EXISTS (SELECT FROM pg_roles WHERE rolname = 'voto_user') THEN
+        GRANT ALL PRIVILEGES ON ballot_chain_heads TO voto_user;
+    END IF;
+END $$;
+
+-- End of migration
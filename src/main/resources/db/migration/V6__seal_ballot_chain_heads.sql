@@ -0,0 +1,14 @@
+-- V6__seal_ballot_chain_heads.sql
+-- Seal ballot chains when an election stops accepting votes
+
+ALTER TABLE ballot_chain_heads ADD COLUMN sealed BOOLEAN NOT NULL DEFAULT false;
+
+UPDATE ballot_chain_heads h
+SET sealed = true
+FROM elections e
+WHERE e.id = h.election_id
+AND e.status IN ('CLOSED', 'CANCELLED');
+
+COMMENT ON COLUMN ballot_chain_heads.sealed IS 'Set when the election is closed or cancelled; appenders reject sealed chains';
+
+-- End of migration
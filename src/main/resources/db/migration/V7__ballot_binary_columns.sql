@@ -0,0 +1,121 @@
+-- V7__ballot_binary_columns.sql
+-- Store ballot ciphertext, nonces and hashes as raw bytea instead of Base64/hex text
+
+-- ============================================================================
+-- ENCRYPTED_BALLOTS - binary columns
+-- ============================================================================
+
+-- Text columns keep their data under legacy names until the online backfill
+-- has converted every row; a later migration drops them.
+ALTER TABLE encrypted_ballots RENAME COLUMN encrypted_vote TO encrypted_vote_b64;
+ALTER TABLE encrypted_ballots RENAME COLUMN nonce TO nonce_b64;
+ALTER TABLE encrypted_ballots RENAME COLUMN ballot_hash TO ballot_hash_hex;
+ALTER TABLE encrypted_ballots RENAME COLUMN prev_ballot_hash TO prev_ballot_hash_hex;
+ALTER TABLE encrypted_ballots RENAME COLUMN ip_hash TO ip_hash_hex;
+ALTER TABLE encrypted_ballots RENAME COLUMN user_agent_hash TO user_agent_hash_hex;
+
+ALTER TABLE encrypted_ballots
+    ALTER COLUMN encrypted_vote_b64 DROP NOT NULL,
+    ALTER COLUMN nonce_b64 DROP NOT NULL,
+    ALTER COLUMN ballot_hash_hex DROP NOT NULL;
+
+-- Nullable columns without defaults: metadata-only change, no table rewrite
+ALTER TABLE encrypted_ballots
+    ADD COLUMN encrypted_vote BYTEA,
+    ADD COLUMN nonce BYTEA,
+    ADD COLUMN ballot_hash BYTEA,
+    ADD COLUMN prev_ballot_hash BYTEA,
+    ADD COLUMN ip_hash BYTEA,
+    ADD COLUMN user_agent_hash BYTEA,
+    ADD COLUMN hash_version SMALLINT NOT NULL DEFAULT 1;
+
+ALTER TABLE encrypted_ballots
+    ADD CONSTRAINT chk_encrypted_ballots_hash_length CHECK (ballot_hash IS NULL OR LENGTH(ballot_hash) = 32),
+    ADD CONSTRAINT chk_encrypted_ballots_prev_hash_length CHECK (prev_ballot_hash IS NULL OR LENGTH(prev_ballot_hash) = 32),
+    ADD CONSTRAINT chk_encrypted_ballots_hash_present CHECK (ballot_hash IS NOT NULL OR ballot_hash_hex IS NOT NULL),
+    ADD CONSTRAINT chk_encrypted_ballots_hash_version CHECK (hash_version IN (1, 2));
+
+-- The unique constraint still covers legacy lookups; the plain index on the hex column is redundant
+DROP INDEX IF EXISTS idx_encrypted_ballots_ballot_hash;
+CREATE UNIQUE INDEX idx_encrypted_ballots_ballot_hash ON encrypted_ballots(ballot_hash);
+
+-- Rows still waiting for the backfill
+CREATE INDEX idx_encrypted_ballots_unconverted ON encrypted_ballots(id) WHERE ballot_hash IS NULL;
+
+COMMENT ON COLUMN encrypted_ballots.encrypted_vote IS 'AES-GCM ciphertext of the ballot payload';
+COMMENT ON COLUMN encrypted_ballots.ballot_hash IS 'SHA-256 ballot hash (32 bytes); hex only at the REST boundary';
+COMMENT ON COLUMN encrypted_ballots.hash_version IS '1 = SHA-256 over Base64/hex text (legacy), 2 = SHA-256 over raw bytes';
+
+-- ============================================================================
+-- BALLOT_CHAIN_HEADS - binary tail hash (one row per election)
+-- ============================================================================
+ALTER TABLE ballot_chain_heads
+    ALTER COLUMN last_ballot_hash TYPE BYTEA USING decode(last_ballot_hash, 'hex');
+
+-- ============================================================================
+-- APPEND-ONLY TRIGGER - allow the backfill, nothing else
+-- ============================================================================
+CREATE OR REPLACE FUNCTION prevent_ballot_modification()
+RETURNS TRIGGER AS $$
+BEGIN
+    -- The backfill may only fill the binary columns with the decoded legacy values of the same row
+    IF TG_OP = 'UPDATE'
+       AND current_setting('voto.ballot_backfill', true) = 'on'
+       AND OLD.ballot_hash IS NULL
+       AND NEW.ballot_hash = decode(OLD.ballot_hash_hex, 'hex')
+       AND NEW.encrypted_vote = decode(OLD.encrypted_vote_b64, 'base64')
+       AND NEW.nonce = decode(OLD.nonce_b64, 'base64')
+       AND NEW.prev_ballot_hash IS NOT DISTINCT FROM decode(OLD.prev_ballot_hash_hex, 'hex')
+       AND NEW.ip_hash IS NOT DISTINCT FROM decode(OLD.ip_hash_hex, 'hex')
+       AND NEW.user_agent_hash IS NOT DISTINCT FROM decode(OLD.user_agent_hash_hex, 'hex')
+       AND (NEW.id, NEW.election_id, NEW.seq, NEW.hash_version, NEW.encrypted_vote_b64, NEW.nonce_b64,
+            NEW.ballot_hash_hex, NEW.prev_ballot_hash_hex, NEW.ip_hash_hex, NEW.user_agent_hash_hex,
+            NEW.encryption_algorithm, NEW.key_id, NEW.cast_at, NEW.verification_signature,
+            NEW.tallied, NEW.tallied_at)
+           IS NOT DISTINCT FROM
+           (OLD.id, OLD.election_id, OLD.seq, OLD.hash_version, OLD.encrypted_vote_b64, OLD.nonce_b64,
+            OLD.ballot_hash_hex, OLD.prev_ballot_hash_hex, OLD.ip_hash_hex, OLD.user_agent_hash_hex,
+            OLD.encryption_algorithm, OLD.key_id, OLD.cast_at, OLD.verification_signature,
+            OLD.tallied, OLD.tallied_at)
+    THEN
+        RETURN NEW;
+    END IF;
+
+    RAISE EXCEPTION 'Modification of encrypted_ballots is not allowed. Table is append-only.';
+END;
+$$ LANGUAGE plpgsql;
+
+-- ============================================================================
+-- ONLINE BACKFILL - converts one batch per call, in its own short transaction
+-- ============================================================================
+CREATE OR REPLACE FUNCTION backfill_ballot_binary_columns(batch_size INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    converted INTEGER;
+BEGIN
+    PERFORM set_config('voto.ballot_backfill', 'on', true);
+
+    UPDATE encrypted_ballots b
+    SET encrypted_vote = decode(b.encrypted_vote_b64, 'base64'),
+        nonce = decode(b.nonce_b64, 'base64'),
+        ballot_hash = decode(b.ballot_hash_hex, 'hex'),
+        prev_ballot_hash = decode(b.prev_ballot_hash_hex, 'hex'),
+        ip_hash = decode(b.ip_hash_hex, 'hex'),
+        user_agent_hash = decode(b.user_agent_hash_hex, 'hex')
+    WHERE b.id IN (
+        SELECT id
+        FROM encrypted_ballots
+        WHERE ballot_hash IS NULL
+        LIMIT batch_size
+        FOR UPDATE SKIP LOCKED
+    );
+    GET DIAGNOSTICS converted = ROW_COUNT;
+
+    PERFORM set_config('voto.ballot_backfill', 'off', true);
+    RETURN converted;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON FUNCTION backfill_ballot_binary_columns(INTEGER) IS 'Converts up to batch_size legacy text ballots to bytea; returns the number converted';
+
+-- End of migration
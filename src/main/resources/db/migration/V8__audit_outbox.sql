@@ -0,0 +1,31 @@
+-- V8__audit_outbox.sql
+-- Transactional outbox for audit events, chained into audit.audit_log in the background
+
+-- ============================================================================
+-- AUDIT OUTBOX (unchained events, written in the business transaction)
+-- ============================================================================
+CREATE TABLE audit.audit_outbox (
+    id BIGSERIAL PRIMARY KEY,
+
+    -- Event data
+    event_type VARCHAR(100) NOT NULL,
+    event_data JSONB NOT NULL,
+
+    -- Metadata
+    ts TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+COMMENT ON TABLE audit.audit_outbox IS 'Audit events committed with their business change, waiting to be chained into audit_log';
+
+-- ============================================================================
+-- GRANTS
+-- ============================================================================
+DO $$
+BEGIN
+    IF EXISTS (SELECT FROM pg_roles WHERE rolname = 'voto_user') THEN
+        GRANT ALL PRIVILEGES ON audit.audit_outbox TO voto_user;
+        GRANT ALL PRIVILEGES ON SEQUENCE audit.audit_outbox_id_seq TO voto_user;
+    END IF;
+END $$;
+
+-- End of migration
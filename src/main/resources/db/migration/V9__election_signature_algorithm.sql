@@ -0,0 +1,14 @@
+-- V9__election_signature_algorithm.sql
+-- Record the signature scheme of each election's tokens and ballots
+
+-- Existing elections were signed with RSA and keep it; new elections default to Ed25519
+ALTER TABLE elections ADD COLUMN signature_algorithm VARCHAR(30) NOT NULL DEFAULT 'SHA256withRSA';
+ALTER TABLE elections ALTER COLUMN signature_algorithm SET DEFAULT 'Ed25519';
+
+ALTER TABLE elections
+    ADD CONSTRAINT chk_elections_signature_algorithm
+        CHECK (signature_algorithm IN ('Ed25519', 'SHA256withECDSA', 'SHA256withRSA'));
+
+COMMENT ON COLUMN elections.signature_algorithm IS 'Signature scheme of blind tokens and ballot verification signatures';
+
+-- End of migration
@@ -0,0 +1,34 @@
+package com.votoeletronico.voto;
+
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Base class for integration tests whose fixtures must be committed.
+ * Same setup as {@link BaseIntegrationTest}, but without the test transaction:
+ * ballots are appended by the ballot pipeline in its own transaction (on a drainer
+ * thread with group commit), which cannot see uncommitted fixtures.
+ * Every election, and everything that references one, is removed after each test.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import({TestcontainersConfiguration.class})
+@WithMockUser(roles = {"ADMIN", "OPERATOR", "AUDITOR"})
+public abstract class BaseCommittedIntegrationTest {
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void removeCommittedData() {
+        // TRUNCATE skips the row triggers that keep encrypted_ballots append-only
+        jdbcTemplate.execute("TRUNCATE TABLE elections CASCADE");
+    }
+}
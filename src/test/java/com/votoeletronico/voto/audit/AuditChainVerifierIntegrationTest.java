@@ -0,0 +1,144 @@
+package com.votoeletronico.voto.audit;
+
+import com.votoeletronico.voto.BaseCommittedIntegrationTest;
+import com.votoeletronico.voto.domain.audit.AuditEventType;
+import com.votoeletronico.voto.repository.AuditCommitmentRepository;
+import com.votoeletronico.voto.repository.AuditCommitmentRepository.Commitment;
+import com.votoeletronico.voto.repository.AuditLogJdbcRepository;
+import com.votoeletronico.voto.repository.AuditStreamRepository;
+import com.votoeletronico.voto.service.crypto.CheckpointSigner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Checks which rows of audit.commitments a verifier resumes from. Each verifier built here
+ * stands for a node that never verified the stream, so it has no watermark to fall back on.
+ */
+@DisplayName("AuditChainVerifier Integration Tests")
+class AuditChainVerifierIntegrationTest extends BaseCommittedIntegrationTest {
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AuditChainWriter auditChainWriter;
+
+    @Autowired
+    private AuditLogJdbcRepository auditLogJdbcRepository;
+
+    @Autowired
+    private AuditCommitmentRepository auditCommitmentRepository;
+
+    @Autowired
+    private AuditEntryHasher auditEntryHasher;
+
+    @Autowired
+    private CheckpointSigner checkpointSigner;
+
+    @Autowired
+    private AuditMerkleLog auditMerkleLog;
+
+    @Autowired
+    private AuditStreamRepository auditStreamRepository;
+
+    private final String streamKey = AuditStreams.election(UUID.randomUUID());
+
+    @Test
+    @DisplayName("Should ignore unsigned and forged commitments and resume after the newest genuine one")
+    void shouldIgnoreUnsignedAndForgedCommitments() {
+        chain(3);
+        assertThat(newVerifier().verifyStream(streamKey, false).entriesVerified()).isEqualTo(3);
+        long committed = lastEntryId();
+        chain(3);
+
+        // Two rows claiming the whole stream was verified, written straight to the table
+        long last = lastEntryId();
+        byte[] lastHash = auditLogJdbcRepository.findEntryHash(last);
+        jdbcTemplate.update("""
+                INSERT INTO audit.commitments (stream_key, root_hash, last_entry_id, entry_count, created_at)
+                VALUES (?, ?, ?, 6, now())
+                """, streamKey, lastHash, last);
+        auditCommitmentRepository.insert(new Commitment(streamKey, last, 6, lastHash, null,
+                Instant.now().truncatedTo(ChronoUnit.MICROS), new byte[32]));
+
+        AuditChainVerification result = newVerifier().verifyStream(streamKey, false);
+
+        assertThat(result.valid()).isTrue();
+        assertThat(result.afterId()).isEqualTo(committed);
+        assertThat(result.entriesVerified()).isEqualTo(3);
+        assertThat(result.lastVerifiedId()).isEqualTo(last);
+    }
+
+    @Test
+    @DisplayName("A commitment whose entry changed should force a recheck from the first entry")
+    void shouldRecheckEverythingWhenCommittedEntryChanged() {
+        AuditChainVerifier verifier = newVerifier();
+        chain(3);
+        assertThat(verifier.verifyStream(streamKey, false).valid()).isTrue();
+        chain(3);
+        assertThat(verifier.verifyStream(streamKey, false).entriesVerified()).isEqualTo(3);
+        assertThat(auditCommitmentRepository.findLatest(streamKey, 10)).hasSize(2);
+
+        long last = lastEntryId();
+        byte[] lastHash = auditLogJdbcRepository.findEntryHash(last);
+        byte[] alteredHash = lastHash.clone();
+        alteredHash[0] ^= 1;
+        rewriteEntryHash(last, alteredHash);
+        try {
+            // The older commitment still holds, but is not trusted either once a newer one is broken
+            AuditChainVerification result = newVerifier().verifyStream(streamKey, false);
+
+            assertThat(result.valid()).isFalse();
+            assertThat(result.afterId()).isZero();
+            assertThat(result.entriesVerified()).isEqualTo(5);
+            assertThat(result.firstBrokenId()).isEqualTo(last);
+            assertThat(result.reason()).isEqualTo("Entry hash does not match its contents");
+        } finally {
+            rewriteEntryHash(last, lastHash);
+        }
+
+        assertThat(newVerifier().verifyStream(streamKey, false).afterId()).isEqualTo(last);
+    }
+
+    private AuditChainVerifier newVerifier() {
+        return new AuditChainVerifier(auditLogJdbcRepository, auditCommitmentRepository, auditEntryHasher,
+                checkpointSigner, auditMerkleLog, auditStreamRepository, transactionTemplate,
+                new SimpleMeterRegistry());
+    }
+
+    private void chain(int count) {
+        List<AuditEvent> events = new ArrayList<>(count);
+        for (int n = 0; n < count; n++) {
+            events.add(new AuditEvent(streamKey, AuditEventType.AUTHENTICATION_SUCCEEDED,
+                    "{\"n\": " + n + "}", Instant.now().truncatedTo(ChronoUnit.MICROS)));
+        }
+        // Stored as written: microsecond timestamps and jsonb's own spacing
+        transactionTemplate.executeWithoutResult(status -> auditChainWriter.append(streamKey, events));
+    }
+
+    /**
+     * Change a stored entry behind the append-only triggers, as someone with database access could
+     */
+    private void rewriteEntryHash(long entryId, byte[] entryHash) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("SET LOCAL session_replication_role = replica");
+            jdbcTemplate.update("UPDATE audit.audit_log SET entry_hash = ? WHERE id = ?", entryHash, entryId);
+        });
+    }
+
+    private long lastEntryId() {
+        return jdbcTemplate.queryForObject("SELECT max(id) FROM audit.audit_log WHERE stream_key = ?", Long.class,
+                streamKey);
+    }
+}
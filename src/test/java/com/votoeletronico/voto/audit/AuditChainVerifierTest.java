@@ -0,0 +1,256 @@
+package com.votoeletronico.voto.audit;
+
+import com.votoeletronico.voto.config.CryptoProperties;
+import com.votoeletronico.voto.domain.audit.AuditEventType;
+import com.votoeletronico.voto.domain.audit.AuditLog;
+import com.votoeletronico.voto.repository.AuditCommitmentRepository;
+import com.votoeletronico.voto.repository.AuditCommitmentRepository.Commitment;
+import com.votoeletronico.voto.repository.AuditLogJdbcRepository;
+import com.votoeletronico.voto.repository.AuditLogJdbcRepository.ChainEntry;
+import com.votoeletronico.voto.repository.AuditStreamRepository;
+import com.votoeletronico.voto.service.crypto.CheckpointSigner;
+import com.votoeletronico.voto.service.crypto.CryptoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifies an audit stream held in memory, whose entry ids interleave with other streams'
+ */
+@DisplayName("AuditChainVerifier Tests")
+class AuditChainVerifierTest {
+
+    private static final int ENTRIES = 10;
+    private static final long ID_STEP = 3;
+
+    private final String streamKey = AuditStreams.election(UUID.randomUUID());
+
+    private final CryptoService cryptoService = new CryptoService();
+    private final AuditEntryHasher auditEntryHasher = new AuditEntryHasher();
+    private final CheckpointSigner checkpointSigner = new CheckpointSigner(new CryptoProperties(), cryptoService);
+
+    private final AuditLogJdbcRepository auditLogJdbcRepository = mock(AuditLogJdbcRepository.class);
+    private final AuditCommitmentRepository auditCommitmentRepository = mock(AuditCommitmentRepository.class);
+
+    // The stream's audit_log rows and its commitments, shared by every node
+    private final ConcurrentSkipListMap<Long, ChainEntry> entries = new ConcurrentSkipListMap<>();
+    private final List<Commitment> commitments = new CopyOnWriteArrayList<>();
+
+    private AuditChainVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        append(ENTRIES);
+
+        when(auditLogJdbcRepository.findEntryHash(anyLong())).thenAnswer(invocation -> {
+            ChainEntry entry = entries.get(invocation.<Long>getArgument(0));
+            return entry != null ? entry.entryHash() : null;
+        });
+        doAnswer(invocation -> {
+            long afterId = invocation.getArgument(1);
+            Consumer<ChainEntry> consumer = invocation.getArgument(2);
+            entries.values().stream().filter(entry -> entry.id() > afterId).forEach(consumer);
+            return null;
+        }).when(auditLogJdbcRepository).forEachChainEntry(eq(streamKey), anyLong(), any());
+        when(auditCommitmentRepository.findLatest(eq(streamKey), anyInt())).thenAnswer(invocation -> {
+            int limit = invocation.getArgument(1);
+            return commitments.stream()
+                    .sorted(Comparator.comparingLong(Commitment::lastEntryId).reversed())
+                    .limit(limit)
+                    .toList();
+        });
+        doAnswer(invocation -> commitments.add(invocation.getArgument(0)))
+                .when(auditCommitmentRepository).insert(any());
+
+        verifier = newVerifier();
+    }
+
+    @Test
+    @DisplayName("Should verify a clean stream and commit to its end")
+    void shouldVerifyCleanStream() {
+        AuditChainVerification result = verifier.verifyStream(streamKey, false);
+
+        assertThat(result.valid()).isTrue();
+        assertThat(result.afterId()).isZero();
+        assertThat(result.entriesVerified()).isEqualTo(ENTRIES);
+        assertThat(result.lastVerifiedId()).isEqualTo(lastId());
+        assertThat(result.firstBrokenId()).isNull();
+
+        assertThat(commitments).singleElement().satisfies(commitment -> {
+            assertThat(commitment.lastEntryId()).isEqualTo(lastId());
+            assertThat(commitment.entryCount()).isEqualTo(ENTRIES);
+            assertThat(commitment.rootHash()).isEqualTo(entries.get(lastId()).entryHash());
+            assertThat(checkpointSigner.verify(commitment.signedMessage(), commitment.signature())).isTrue();
+        });
+    }
+
+    @Test
+    @DisplayName("Should resume after this node's watermark and only verify the entries chained since")
+    void shouldResumeFromWatermark() {
+        assertThat(verifier.verifyStream(streamKey, false).valid()).isTrue();
+        long watermark = lastId();
+        // Without any commitment left, only the watermark can tell where to resume
+        commitments.clear();
+        append(4);
+        clearInvocations(auditLogJdbcRepository);
+
+        AuditChainVerification result = verifier.verifyStream(streamKey, false);
+
+        assertThat(result.valid()).isTrue();
+        assertThat(result.afterId()).isEqualTo(watermark);
+        assertThat(result.entriesVerified()).isEqualTo(4);
+        assertThat(result.lastVerifiedId()).isEqualTo(lastId());
+        verify(auditLogJdbcRepository).forEachChainEntry(eq(streamKey), eq(watermark), any());
+        assertThat(commitments).singleElement().satisfies(commitment -> {
+            assertThat(commitment.lastEntryId()).isEqualTo(lastId());
+            assertThat(commitment.entryCount()).isEqualTo(ENTRIES + 4);
+        });
+    }
+
+    @Test
+    @DisplayName("Another node should resume after the newest trusted commitment")
+    void shouldResumeFromTrustedCommitment() {
+        assertThat(verifier.verifyStream(streamKey, false).valid()).isTrue();
+        long committed = lastId();
+        append(4);
+
+        // A node that never verified the stream, or this one after a restart
+        AuditChainVerifier other = newVerifier();
+        AuditChainVerification result = other.verifyStream(streamKey, false);
+
+        assertThat(result.valid()).isTrue();
+        assertThat(result.afterId()).isEqualTo(committed);
+        assertThat(result.entriesVerified()).isEqualTo(4);
+        assertThat(commitments).extracting(Commitment::lastEntryId, Commitment::entryCount)
+                .containsExactly(tuple(committed, (long) ENTRIES), tuple(lastId(), (long) ENTRIES + 4));
+    }
+
+    @Test
+    @DisplayName("Should report an entry whose stored hash changed after it was verified")
+    void shouldReportEntryChangedAfterVerification() {
+        assertThat(verifier.verifyStream(streamKey, false).valid()).isTrue();
+        long watermark = lastId();
+        ChainEntry last = entries.get(watermark);
+        entries.put(watermark, new ChainEntry(watermark, last.eventType(), last.eventData(), last.ts(),
+                last.prevHash(), cryptoService.sha256(new byte[]{1})));
+
+        AuditChainVerification result = verifier.verifyStream(streamKey, false);
+
+        assertThat(result.valid()).isFalse();
+        assertThat(result.firstBrokenId()).isEqualTo(watermark);
+        assertThat(result.reason()).isEqualTo("Entry changed after it was verified");
+        assertThat(result.entriesVerified()).isZero();
+        assertThat(commitments).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should report a previous hash that does not link to the entry before")
+    void shouldReportTamperedPrevHash() {
+        // The fifth entry is rehashed over a forged previous hash, so only its link is wrong
+        long fourth = idOf(4);
+        long fifth = idOf(5);
+        ChainEntry entry = entries.get(fifth);
+        byte[] forgedPrev = cryptoService.sha256(new byte[]{5});
+        entries.put(fifth, new ChainEntry(fifth, entry.eventType(), entry.eventData(), entry.ts(), forgedPrev,
+                hash(entry.eventData(), entry.ts(), forgedPrev)));
+
+        AuditChainVerification result = verifier.verifyStream(streamKey, false);
+
+        assertThat(result.valid()).isFalse();
+        assertThat(result.firstBrokenId()).isEqualTo(fifth);
+        assertThat(result.reason()).isEqualTo("Previous hash does not match the hash of entry " + fourth);
+        assertThat(result.entriesVerified()).isEqualTo(4);
+        assertThat(result.lastVerifiedId()).isEqualTo(fourth);
+        assertThat(commitments).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A full run should recheck entries under the watermark and commitments")
+    void shouldRecheckEverythingOnFullRun() {
+        assertThat(verifier.verifyStream(streamKey, false).valid()).isTrue();
+
+        // An entry under the watermark is rewritten, its stored hash left alone
+        long third = idOf(3);
+        ChainEntry entry = entries.get(third);
+        entries.put(third, new ChainEntry(third, entry.eventType(), "{\"rewritten\": true}", entry.ts(),
+                entry.prevHash(), entry.entryHash()));
+
+        AuditChainVerification incremental = verifier.verifyStream(streamKey, false);
+        assertThat(incremental.valid()).isTrue();
+        assertThat(incremental.afterId()).isEqualTo(lastId());
+        assertThat(incremental.entriesVerified()).isZero();
+
+        AuditChainVerification full = verifier.verifyStream(streamKey, true);
+        assertThat(full.valid()).isFalse();
+        assertThat(full.afterId()).isZero();
+        assertThat(full.firstBrokenId()).isEqualTo(third);
+        assertThat(full.reason()).isEqualTo("Entry hash does not match its contents");
+
+        entries.put(third, entry);
+        AuditChainVerification clean = verifier.verifyStream(streamKey, true);
+        assertThat(clean.valid()).isTrue();
+        assertThat(clean.afterId()).isZero();
+        assertThat(clean.entriesVerified()).isEqualTo(ENTRIES);
+    }
+
+    private AuditChainVerifier newVerifier() {
+        return new AuditChainVerifier(auditLogJdbcRepository, auditCommitmentRepository, auditEntryHasher,
+                checkpointSigner, mock(AuditMerkleLog.class), mock(AuditStreamRepository.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new SimpleMeterRegistry());
+    }
+
+    /**
+     * Chain entries to the stream, leaving id gaps for the other streams' entries
+     */
+    private void append(int count) {
+        long id = entries.isEmpty() ? 0 : lastId();
+        byte[] prevHash = entries.isEmpty() ? null : entries.get(id).entryHash();
+        for (int i = 0; i < count; i++) {
+            id += ID_STEP;
+            String eventData = "{\"n\": " + id + "}";
+            Instant ts = Instant.parse("2026-03-01T12:00:00Z").plusMillis(id);
+            byte[] entryHash = hash(eventData, ts, prevHash);
+            entries.put(id, new ChainEntry(id, AuditEventType.ELECTION_CREATED.name(), eventData, ts, prevHash,
+                    entryHash));
+            prevHash = entryHash;
+        }
+    }
+
+    private byte[] hash(String eventData, Instant ts, byte[] prevHash) {
+        return auditEntryHasher.entryHash(AuditLog.builder()
+                .eventType(AuditEventType.ELECTION_CREATED)
+                .eventData(eventData)
+                .ts(ts)
+                .prevHash(prevHash)
+                .build());
+    }
+
+    private long lastId() {
+        return entries.lastKey();
+    }
+
+    /**
+     * Id of the n-th entry of the stream, from 1
+     */
+    private static long idOf(int n) {
+        return n * ID_STEP;
+    }
+}
@@ -0,0 +1,56 @@
+package com.votoeletronico.voto.audit;
+
+import com.votoeletronico.voto.audit.AuditEntryHasher.EntryDigest;
+import com.votoeletronico.voto.domain.audit.AuditEventType;
+import com.votoeletronico.voto.domain.audit.AuditLog;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("AuditEntryHasher Tests")
+class AuditEntryHasherTest {
+
+    private final AuditEntryHasher hasher = new AuditEntryHasher();
+
+    private static AuditLog entry(String data, byte[] prevHash) {
+        return AuditLog.builder()
+                .eventType(AuditEventType.ELECTION_CREATED)
+                .eventData(data)
+                .ts(Instant.parse("2026-03-01T12:00:00.123456Z"))
+                .prevHash(prevHash)
+                .build();
+    }
+
+    private static byte[] streamed(EntryDigest digest, AuditLog entry) {
+        return digest.hash(entry.getEventType().name(), entry.getEventData(), entry.getTs(), entry.getPrevHash()).clone();
+    }
+
+    @Test
+    @DisplayName("Streaming digest should match the entry hash formula")
+    void streamingDigestShouldMatchEntryHash() {
+        EntryDigest digest = hasher.newEntryDigest();
+        byte[] prev = hasher.entryHash(entry("{\"a\": 1}", null));
+
+        AuditLog[] entries = {
+                entry("{\"a\": 1}", null),
+                entry("{\"name\": \"Eleição Municipal – São Paulo 🗳\"}", prev),
+                entry("{\"blob\": \"" + "x".repeat(20000) + "é\"}", prev),
+                entry("{}", prev)
+        };
+        // One digest for every entry, as the verifier uses it
+        for (AuditLog entry : entries) {
+            assertThat(streamed(digest, entry)).isEqualTo(hasher.entryHash(entry));
+        }
+    }
+
+    @Test
+    @DisplayName("Streaming digest should hash malformed text like String.getBytes")
+    void streamingDigestShouldReplaceMalformedText() {
+        AuditLog entry = entry("{\"bad\": \"\uD800\"}", null);
+
+        assertThat(streamed(hasher.newEntryDigest(), entry)).isEqualTo(hasher.entryHash(entry));
+    }
+}
@@ -0,0 +1,153 @@
+package com.votoeletronico.voto.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.votoeletronico.voto.BaseCommittedIntegrationTest;
+import com.votoeletronico.voto.domain.audit.AuditEventType;
+import com.votoeletronico.voto.repository.AuditOutboxRepository;
+import com.votoeletronico.voto.service.crypto.Hex;
+import com.votoeletronico.voto.service.merkle.MerkleLog;
+import com.votoeletronico.voto.service.merkle.MerkleTree;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Chains an election's audit stream in two rounds through the outbox, then checks the
+ * proofs served over HTTP against the stream's Merkle roots
+ */
+@DisplayName("AuditMerkleLog Integration Tests")
+class AuditMerkleLogIntegrationTest extends BaseCommittedIntegrationTest {
+
+    private static final int FIRST_SIZE = 5;
+    private static final int SECOND_SIZE = 11;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AuditOutboxRepository auditOutboxRepository;
+
+    @Autowired
+    private AuditOutboxChainer auditOutboxChainer;
+
+    @Autowired
+    private AuditMerkleLog auditMerkleLog;
+
+    private final UUID electionId = UUID.randomUUID();
+    private final String streamKey = AuditStreams.election(electionId);
+
+    @Test
+    @DisplayName("Inclusion and consistency proofs served over HTTP should check out against the stream's roots")
+    void shouldServeProofsMatchingStreamRoots() throws Exception {
+        chain(FIRST_SIZE);
+        byte[] firstRoot = auditMerkleLog.root(streamKey, FIRST_SIZE);
+        chain(SECOND_SIZE - FIRST_SIZE);
+        byte[] secondRoot = auditMerkleLog.root(streamKey, SECOND_SIZE);
+
+        // Later appends leave the older root as it was
+        assertThat(auditMerkleLog.currentSize(streamKey)).isEqualTo(SECOND_SIZE);
+        assertThat(auditMerkleLog.root(streamKey, FIRST_SIZE)).isEqualTo(firstRoot);
+        assertThat(secondRoot).isNotEqualTo(firstRoot);
+
+        List<Map<String, Object>> chain = jdbcTemplate.queryForList(
+                "SELECT id, entry_hash FROM audit.audit_log WHERE stream_key = ? ORDER BY id", streamKey);
+        assertThat(chain).hasSize(SECOND_SIZE);
+
+        for (int i = 0; i < SECOND_SIZE; i++) {
+            long entryId = ((Number) chain.get(i).get("id")).longValue();
+            byte[] leafHash = MerkleTree.leafHash((byte[]) chain.get(i).get("entry_hash"));
+
+            // Against the current tree, and against the older tree for the entries it holds
+            JsonNode current = getJson(get("/api/audit/entries/{entryId}/proof", entryId));
+            assertInclusion(current, entryId, i, SECOND_SIZE, leafHash, secondRoot);
+            if (i < FIRST_SIZE) {
+                JsonNode older = getJson(get("/api/audit/entries/{entryId}/proof", entryId)
+                        .param("treeSize", String.valueOf(FIRST_SIZE)));
+                assertInclusion(older, entryId, i, FIRST_SIZE, leafHash, firstRoot);
+            }
+        }
+
+        JsonNode consistency = getJson(get("/api/audit/consistency")
+                .param("electionId", electionId.toString())
+                .param("firstSize", String.valueOf(FIRST_SIZE))
+                .param("secondSize", String.valueOf(SECOND_SIZE)));
+        assertThat(consistency.get("streamKey").asText()).isEqualTo(streamKey);
+        assertThat(Hex.decode(consistency.get("firstRoot").asText())).isEqualTo(firstRoot);
+        assertThat(Hex.decode(consistency.get("secondRoot").asText())).isEqualTo(secondRoot);
+        assertThat(MerkleLog.verifyConsistency(FIRST_SIZE, SECOND_SIZE, firstRoot, secondRoot,
+                hashes(consistency.get("proof")))).isTrue();
+
+        // The stream's published commitment reports the same root
+        JsonNode commitment = getJson(get("/api/audit/commitment").param("electionId", electionId.toString()));
+        assertThat(commitment.get("treeSize").asLong()).isEqualTo(SECOND_SIZE);
+        assertThat(Hex.decode(commitment.get("merkleRoot").asText())).isEqualTo(secondRoot);
+    }
+
+    /**
+     * Queue events of the stream in the outbox and chain them
+     */
+    private void chain(int count) {
+        String marker = UUID.randomUUID().toString();
+        List<AuditEvent> events = new ArrayList<>(count);
+        for (int n = 0; n < count; n++) {
+            events.add(new AuditEvent(streamKey, AuditEventType.AUTHENTICATION_SUCCEEDED,
+                    "{\"marker\": \"" + marker + "\", \"n\": " + n + "}", Instant.now()));
+        }
+        transactionTemplate.executeWithoutResult(status -> auditOutboxRepository.insert(events));
+
+        // The node's own chainer may take some of them first
+        while (countInOutbox(marker) > 0) {
+            auditOutboxChainer.chainBatch();
+        }
+    }
+
+    private void assertInclusion(JsonNode proof, long entryId, long leafIndex, long treeSize, byte[] leafHash,
+                                 byte[] root) {
+        assertThat(proof.get("streamKey").asText()).isEqualTo(streamKey);
+        assertThat(proof.get("entryId").asLong()).isEqualTo(entryId);
+        assertThat(proof.get("leafIndex").asLong()).isEqualTo(leafIndex);
+        assertThat(proof.get("treeSize").asLong()).isEqualTo(treeSize);
+        assertThat(Hex.decode(proof.get("merkleRoot").asText())).isEqualTo(root);
+        assertThat(MerkleLog.verifyInclusion(leafIndex, treeSize, leafHash, hashes(proof.get("path")), root))
+                .as("inclusion of entry %d in the tree of size %d", entryId, treeSize)
+                .isTrue();
+    }
+
+    private JsonNode getJson(MockHttpServletRequestBuilder request) throws Exception {
+        String response = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private static List<byte[]> hashes(JsonNode array) {
+        List<byte[]> hashes = new ArrayList<>(array.size());
+        array.forEach(hash -> hashes.add(Hex.decode(hash.asText())));
+        return hashes;
+    }
+
+    private Integer countInOutbox(String marker) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM audit.audit_outbox WHERE event_data->>'marker' = ?", Integer.class, marker);
+    }
+}
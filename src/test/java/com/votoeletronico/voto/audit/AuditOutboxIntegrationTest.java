@@ -0,0 +1,141 @@
+package com.votoeletronico.voto.audit;
+
+import com.votoeletronico.voto.BaseCommittedIntegrationTest;
+import com.votoeletronico.voto.domain.audit.AuditEventType;
+import com.votoeletronico.voto.repository.AuditOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * The test profile runs the audit log in SYNC durability mode
+ */
+@DisplayName("Audit Outbox Integration Tests")
+class AuditOutboxIntegrationTest extends BaseCommittedIntegrationTest {
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AuditOutboxChainer auditOutboxChainer;
+
+    @Autowired
+    private AuditOutboxRepository auditOutboxRepository;
+
+    @Test
+    @DisplayName("SYNC callers should return only once their event is chained")
+    void shouldChainBeforeReturningInSyncMode() {
+        String marker = UUID.randomUUID().toString();
+
+        transactionTemplate.executeWithoutResult(status ->
+                auditService.logEvent(AuditEventType.AUTHENTICATION_SUCCEEDED, Map.of("marker", marker)));
+
+        assertThat(countInLog(marker)).isEqualTo(1);
+        assertThat(countInOutbox(marker)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should never chain the event of a rolled back transaction, nor wait for it")
+    void shouldDropEventOfRolledBackTransaction() {
+        String marker = UUID.randomUUID().toString();
+
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            auditService.logEvent(AuditEventType.AUTHENTICATION_SUCCEEDED, Map.of("marker", marker));
+            status.setRollbackOnly();
+        });
+
+        assertThat(System.nanoTime() - start).isLessThan(1_000_000_000L);
+        assertThat(countInLog(marker)).isZero();
+        assertThat(countInOutbox(marker)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should report unchained outbox events on a gauge")
+    void shouldGaugeUnchainedEvents() {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Same connection as the gauge query: the uncommitted row is visible to it, never to a chainer
+            auditService.logEvent(AuditEventType.AUTHENTICATION_SUCCEEDED, Map.of("marker", UUID.randomUUID().toString()));
+            assertThat(meterRegistry.get("voto.audit.outbox.unchained").gauge().value()).isGreaterThanOrEqualTo(1.0);
+            status.setRollbackOnly();
+        });
+    }
+
+    @Test
+    @DisplayName("Concurrent chainers should chain each stream in outbox id order")
+    void shouldChainEachStreamInOutboxOrder() throws Exception {
+        String marker = UUID.randomUUID().toString();
+        List<String> streams = List.of(AuditStreams.election(UUID.randomUUID()),
+                AuditStreams.election(UUID.randomUUID()));
+        List<AuditEvent> events = new ArrayList<>();
+        for (int n = 0; n < 200; n++) {
+            events.add(new AuditEvent(streams.get(n % 2), AuditEventType.AUTHENTICATION_SUCCEEDED,
+                    "{\"marker\": \"" + marker + "\", \"n\": " + n + "}", Instant.now()));
+        }
+        transactionTemplate.executeWithoutResult(status -> auditOutboxRepository.insert(events));
+
+        // Four more chainers race the node's own for the same outbox rows
+        ExecutorService chainers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                running.add(chainers.submit(() -> {
+                    while (countInOutbox(marker) > 0) {
+                        auditOutboxChainer.chainBatch();
+                    }
+                }));
+            }
+            for (Future<?> chainer : running) {
+                chainer.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            chainers.shutdownNow();
+        }
+
+        for (String stream : streams) {
+            List<Map<String, Object>> chain = jdbcTemplate.queryForList("""
+                    SELECT (event_data->>'n')::int AS n, prev_hash, entry_hash
+                    FROM audit.audit_log
+                    WHERE stream_key = ?
+                    ORDER BY id
+                    """, stream);
+            assertThat(chain).hasSize(100);
+            int first = streams.indexOf(stream);
+            for (int i = 0; i < chain.size(); i++) {
+                assertThat(chain.get(i).get("n")).as("%s entry %d", stream, i).isEqualTo(first + 2 * i);
+                assertThat((byte[]) chain.get(i).get("prev_hash"))
+                        .isEqualTo(i == 0 ? null : chain.get(i - 1).get("entry_hash"));
+            }
+        }
+    }
+
+    private Integer countInLog(String marker) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM audit.audit_log WHERE event_data->>'marker' = ?", Integer.class, marker);
+    }
+
+    private Integer countInOutbox(String marker) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM audit.audit_outbox WHERE event_data->>'marker' = ?", Integer.class, marker);
+    }
+}
@@ -0,0 +1,142 @@
+package com.votoeletronico.voto.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.votoeletronico.voto.config.AuditProperties;
+import com.votoeletronico.voto.domain.audit.AuditEventType;
+import com.votoeletronico.voto.repository.AuditCommitmentRepository;
+import com.votoeletronico.voto.repository.AuditOutboxRepository;
+import com.votoeletronico.voto.service.crypto.CheckpointSigner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * The durability contract of audit logging: events go to the outbox in the caller's
+ * transaction, and only once it commits does a SYNC caller wait for them to be chained
+ */
+@DisplayName("AuditService Tests")
+class AuditServiceTest {
+
+    private static final long SYNC_TIMEOUT_MS = 1234;
+
+    private final AuditOutboxRepository auditOutboxRepository = mock(AuditOutboxRepository.class);
+    private final AuditOutboxChainer auditOutboxChainer = mock(AuditOutboxChainer.class);
+    private final AuditProperties auditProperties = new AuditProperties();
+
+    private AuditService auditService;
+
+    @BeforeEach
+    void setUp() {
+        auditProperties.setSyncTimeoutMs(SYNC_TIMEOUT_MS);
+        when(auditOutboxRepository.insert(anyList())).thenReturn(List.of(41L, 42L));
+        when(auditOutboxChainer.awaitChained(anyList(), anyLong())).thenReturn(true);
+
+        auditService = new AuditService(new ObjectMapper(), auditOutboxRepository, auditOutboxChainer, auditProperties,
+                mock(AuditChainVerifier.class), mock(AuditMerkleLog.class), mock(AuditCommitmentRepository.class),
+                mock(CheckpointSigner.class), mock(AuditRootPublisher.class));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("SYNC callers should wait for their events to be chained only once their transaction commits")
+    void shouldWaitAfterCommitInSyncMode() {
+        auditProperties.setDurability(AuditProperties.Durability.SYNC);
+
+        auditService.logEvents(List.of(event(), event()));
+
+        // One outbox insert in the caller's transaction, and no wait while it is still open
+        verify(auditOutboxRepository).insert(argThat(events -> events.size() == 2));
+        verifyNoInteractions(auditOutboxChainer);
+
+        commit();
+        verify(auditOutboxChainer).awaitChained(List.of(41L, 42L), SYNC_TIMEOUT_MS);
+    }
+
+    @Test
+    @DisplayName("A SYNC wait that times out should not fail the caller's committed work")
+    void shouldNotFailCallerOnSyncTimeout() {
+        auditProperties.setDurability(AuditProperties.Durability.SYNC);
+        when(auditOutboxChainer.awaitChained(anyList(), anyLong())).thenReturn(false);
+
+        auditService.logEvent(AuditEventType.ELECTION_CREATED, Map.of("electionId", UUID.randomUUID().toString()));
+
+        assertThatCode(this::commit).doesNotThrowAnyException();
+        verify(auditOutboxChainer).awaitChained(eq(List.of(41L, 42L)), anyLong());
+    }
+
+    @Test
+    @DisplayName("ASYNC callers should only wake the chainer once their transaction commits")
+    void shouldWakeChainerAfterCommitInAsyncMode() {
+        auditProperties.setDurability(AuditProperties.Durability.ASYNC);
+
+        auditService.logEvents(List.of(event()));
+        verifyNoInteractions(auditOutboxChainer);
+
+        commit();
+        verify(auditOutboxChainer).wakeUp();
+        verify(auditOutboxChainer, never()).awaitChained(anyList(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Nothing should wait on the events of a rolled back transaction")
+    void shouldNotWaitOnRollback() {
+        auditProperties.setDurability(AuditProperties.Durability.SYNC);
+
+        auditService.logEvents(List.of(event()));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verifyNoInteractions(auditOutboxChainer);
+    }
+
+    @Test
+    @DisplayName("Without a transaction, a SYNC caller should wait right away")
+    void shouldWaitImmediatelyWithoutTransaction() {
+        TransactionSynchronizationManager.clearSynchronization();
+        auditProperties.setDurability(AuditProperties.Durability.SYNC);
+
+        auditService.logEvents(List.of(event()));
+
+        verify(auditOutboxChainer).awaitChained(List.of(41L, 42L), SYNC_TIMEOUT_MS);
+    }
+
+    @Test
+    @DisplayName("Should record nothing when audit logging is disabled")
+    void shouldSkipWhenDisabled() {
+        auditProperties.setEnabled(false);
+
+        auditService.logEvent(AuditEventType.ELECTION_CREATED, Map.of("action", "created"));
+        auditService.logEvents(List.of(event()));
+
+        verifyNoInteractions(auditOutboxRepository, auditOutboxChainer);
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+    }
+
+    private AuditEvent event() {
+        return auditService.event(AuditEventType.ELECTION_CREATED, Map.of("action", "created"));
+    }
+
+    private void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+}
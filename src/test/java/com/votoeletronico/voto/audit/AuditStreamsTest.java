@@ -0,0 +1,59 @@
+package com.votoeletronico.voto.audit;
+
+import com.votoeletronico.voto.repository.AuditStreamRepository.StreamHead;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("AuditStreams Tests")
+class AuditStreamsTest {
+
+    private static final UUID ELECTION_ID = UUID.fromString("7f1c2a4e-1b7d-4c39-9a55-3f0e8d2b6c11");
+
+    @Test
+    @DisplayName("Should route events naming an election to its stream")
+    void shouldRouteElectionEvents() {
+        assertThat(AuditStreams.of(Map.of("electionId", ELECTION_ID.toString(), "action", "OPEN")))
+                .isEqualTo("election:" + ELECTION_ID);
+        assertThat(AuditStreams.of(Map.of("entityType", "Election", "entityId", ELECTION_ID.toString())))
+                .isEqualTo(AuditStreams.election(ELECTION_ID));
+    }
+
+    @Test
+    @DisplayName("Should route everything else to the system stream")
+    void shouldRouteOtherEventsToSystem() {
+        assertThat(AuditStreams.of(Map.of("entityType", "Voter", "entityId", ELECTION_ID.toString())))
+                .isEqualTo(AuditStreams.SYSTEM);
+        assertThat(AuditStreams.of(Map.of("electionId", "not-a-uuid"))).isEqualTo(AuditStreams.SYSTEM);
+        assertThat(AuditStreams.of(Map.of())).isEqualTo(AuditStreams.SYSTEM);
+    }
+
+    @Test
+    @DisplayName("Cross-stream root should change with any stream head")
+    void crossStreamRootShouldBindEveryHead() {
+        StreamHead system = head(AuditStreams.SYSTEM, 10, 1);
+        StreamHead election = head(AuditStreams.election(ELECTION_ID), 11, 2);
+
+        byte[] root = AuditRootPublisher.root(List.of(election, system));
+
+        assertThat(root).hasSize(32);
+        assertThat(AuditRootPublisher.root(List.of(election, system))).isEqualTo(root);
+        assertThat(AuditRootPublisher.root(List.of(election, head(AuditStreams.SYSTEM, 12, 1)))).isNotEqualTo(root);
+        assertThat(AuditRootPublisher.root(List.of(election, head(AuditStreams.SYSTEM, 10, 3)))).isNotEqualTo(root);
+        assertThat(AuditRootPublisher.root(List.of(system, election))).isNotEqualTo(root);
+        assertThat(AuditRootPublisher.root(List.of())).isNull();
+    }
+
+    private static StreamHead head(String streamKey, long lastEntryId, int seed) {
+        byte[] hash = new byte[32];
+        byte[] merkleRoot = new byte[32];
+        hash[0] = (byte) seed;
+        merkleRoot[31] = (byte) seed;
+        return new StreamHead(streamKey, lastEntryId, hash, seed, merkleRoot);
+    }
+}
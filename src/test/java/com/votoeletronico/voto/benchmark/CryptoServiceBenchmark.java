@@ -0,0 +1,137 @@
+package com.votoeletronico.voto.benchmark;
+
+import com.votoeletronico.voto.service.crypto.CryptoService;
+import com.votoeletronico.voto.service.crypto.Hex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-vote crypto work: pooled CryptoService engine vs. the previous per-call lookups.
+ *
+ * The "legacy" benchmarks reproduce the old implementation (getInstance and new SecureRandom
+ * on every call, String.format hex). Run with:
+ * <pre>
+ *   mvn test-compile exec:java -Dexec.mainClass=com.votoeletronico.voto.benchmark.CryptoServiceBenchmark -Dexec.classpathScope=test
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class CryptoServiceBenchmark {
+
+    private final CryptoService cryptoService = new CryptoService();
+
+    private SecretKey aesKey;
+    private KeyPair rsaKeyPair;
+    private byte[] ballot;
+    private byte[] hash;
+    private byte[] tokenSignature;
+    private byte[] tokenHash;
+
+    @Setup
+    public void setUp() {
+        aesKey = cryptoService.generateAESKey();
+        rsaKeyPair = cryptoService.generateRSAKeyPair();
+        ballot = new byte[12];
+        hash = cryptoService.sha256(ballot);
+        tokenHash = cryptoService.hashSHA256("token").getBytes(StandardCharsets.UTF_8);
+        tokenSignature = cryptoService.signData(tokenHash, rsaKeyPair.getPrivate());
+    }
+
+    // SHA-256
+
+    @Benchmark
+    public byte[] sha256Legacy() throws Exception {
+        return MessageDigest.getInstance("SHA-256").digest(ballot);
+    }
+
+    @Benchmark
+    public byte[] sha256Pooled() {
+        return cryptoService.sha256(ballot);
+    }
+
+    // Hex
+
+    @Benchmark
+    public String hexLegacy() {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : hash) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public String hexTable() {
+        return Hex.encode(hash);
+    }
+
+    // AES-GCM
+
+    @Benchmark
+    public byte[] aesGcmLegacy() throws Exception {
+        byte[] nonce = new byte[12];
+        new SecureRandom().nextBytes(nonce);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, aesKey, new GCMParameterSpec(128, nonce));
+        return cipher.doFinal(ballot);
+    }
+
+    @Benchmark
+    public byte[] aesGcmPooled() {
+        return cryptoService.encryptAES(ballot, aesKey).ciphertext();
+    }
+
+    // Randomness
+
+    @Benchmark
+    public byte[] nonceLegacy() {
+        byte[] nonce = new byte[12];
+        new SecureRandom().nextBytes(nonce);
+        return nonce;
+    }
+
+    @Benchmark
+    public byte[] nonceDrbg() {
+        return cryptoService.generateNonce(12);
+    }
+
+    // RSA token signature verification
+
+    @Benchmark
+    public boolean rsaVerifyLegacy() throws Exception {
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initVerify(rsaKeyPair.getPublic());
+        signature.update(tokenHash);
+        return signature.verify(tokenSignature);
+    }
+
+    @Benchmark
+    public boolean rsaVerifyPooled() {
+        return cryptoService.verifySignature(tokenHash, tokenSignature, rsaKeyPair.getPublic());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CryptoServiceBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,107 @@
+package com.votoeletronico.voto.benchmark;
+
+import com.votoeletronico.voto.service.merkle.MerkleTree;
+import com.votoeletronico.voto.service.merkle.ParallelMerkleBuilder;
+import com.votoeletronico.voto.service.merkle.StreamingMerkleBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ballot Merkle root throughput in leaves/sec, for the sequential streaming builder and the
+ * block-parallel builder on 1 to 8 workers.
+ *
+ * Leaves cycle over a pool of distinct random hashes so 50M leaves do not need 1.6 GB of
+ * heap; the hashing work per leaf is the same. The sink discards the stored levels, so this
+ * measures hashing only. Read the "leaves" secondary result (ops/s). Run with:
+ * <pre>
+ *   mvn test-compile exec:java -Dexec.mainClass=com.votoeletronico.voto.benchmark.MerkleBenchmark -Dexec.classpathScope=test
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+@State(Scope.Benchmark)
+public class MerkleBenchmark {
+
+    private static final int DISTINCT_LEAVES = 1 << 16;
+    private static final int STORED_FROM_LEVEL = 4;
+
+    private static final StreamingMerkleBuilder.NodeSink DISCARD = (level, index, nodes, offset) -> {
+    };
+
+    @Param({"1000000", "10000000", "50000000"})
+    private int leaves;
+
+    /**
+     * 0 = sequential streaming builder
+     */
+    @Param({"0", "1", "2", "4", "8"})
+    private int parallelism;
+
+    private ForkJoinPool pool;
+    private byte[][] hashes;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class LeafCounter {
+        public long leaves;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            leaves = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        Random random = new Random(13);
+        hashes = new byte[DISTINCT_LEAVES][MerkleTree.HASH_LENGTH];
+        for (byte[] hash : hashes) {
+            random.nextBytes(hash);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public byte[] merkleRoot(LeafCounter counter) {
+        byte[] root;
+        if (parallelism == 0) {
+            StreamingMerkleBuilder builder = new StreamingMerkleBuilder(STORED_FROM_LEVEL, DISCARD);
+            for (int i = 0; i < leaves; i++) {
+                builder.add(hashes[i & (DISTINCT_LEAVES - 1)]);
+            }
+            root = builder.finish();
+        } else {
+            ParallelMerkleBuilder builder = new ParallelMerkleBuilder(pool, STORED_FROM_LEVEL, DISCARD);
+            for (int i = 0; i < leaves; i++) {
+                builder.add(hashes[i & (DISTINCT_LEAVES - 1)]);
+            }
+            root = builder.finish();
+        }
+        counter.leaves += leaves;
+        return root;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MerkleBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,95 @@
+package com.votoeletronico.voto.benchmark;
+
+import com.votoeletronico.voto.config.CryptoProperties;
+import com.votoeletronico.voto.service.crypto.CryptoService;
+import com.votoeletronico.voto.service.crypto.SignatureScheme;
+import com.votoeletronico.voto.service.crypto.SignatureSchemes;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuance and verification throughput per signature scheme.
+ *
+ * issueToken reproduces the crypto work of TokenService.issueToken (token value, hash,
+ * signature, Base64). verifyBatch checks 1024 token signatures with one call. Run with:
+ * <pre>
+ *   mvn test-compile exec:java -Dexec.mainClass=com.votoeletronico.voto.benchmark.SignatureSchemeBenchmark -Dexec.classpathScope=test
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class SignatureSchemeBenchmark {
+
+    private static final int BATCH_SIZE = 1024;
+
+    @Param({"Ed25519", "SHA256withECDSA", "SHA256withRSA"})
+    private String algorithm;
+
+    private final CryptoService cryptoService = new CryptoService();
+
+    private SignatureScheme scheme;
+    private KeyPair keyPair;
+    private byte[] tokenHash;
+    private byte[] tokenSignature;
+    private List<byte[]> batchHashes;
+    private List<byte[]> batchSignatures;
+
+    @Setup
+    public void setUp() {
+        scheme = new SignatureSchemes(new CryptoProperties()).get(algorithm);
+        keyPair = scheme.generateKeyPair();
+        tokenHash = cryptoService.hashSHA256("token").getBytes(StandardCharsets.UTF_8);
+        tokenSignature = scheme.sign(tokenHash, keyPair.getPrivate());
+
+        batchHashes = new ArrayList<>(BATCH_SIZE);
+        batchSignatures = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            byte[] hash = cryptoService.hashSHA256("token-" + i).getBytes(StandardCharsets.UTF_8);
+            batchHashes.add(hash);
+            batchSignatures.add(scheme.sign(hash, keyPair.getPrivate()));
+        }
+    }
+
+    @Benchmark
+    public String issueToken() {
+        String tokenValue = cryptoService.generateSecureToken();
+        String hash = cryptoService.hashSHA256(tokenValue);
+        return Base64.getEncoder().encodeToString(
+                scheme.sign(hash.getBytes(StandardCharsets.UTF_8), keyPair.getPrivate()));
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return scheme.verify(tokenHash, tokenSignature, keyPair.getPublic());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    @Threads(1)
+    public BitSet verifyBatch() {
+        return scheme.verifyBatch(batchHashes, batchSignatures, keyPair.getPublic());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SignatureSchemeBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,108 @@
+package com.votoeletronico.voto.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.votoeletronico.voto.config.TallyProperties;
+import com.votoeletronico.voto.repository.EncryptedBallotJdbcRepository.BallotRow;
+import com.votoeletronico.voto.service.crypto.BallotCodec;
+import com.votoeletronico.voto.service.crypto.CryptoService;
+import com.votoeletronico.voto.service.crypto.EncryptedData;
+import com.votoeletronico.voto.service.tally.BallotTallier;
+import com.votoeletronico.voto.service.tally.TallyCounts;
+import com.votoeletronico.voto.service.tally.TallyWorkers;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.SecretKey;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-election tally time, sequential vs. the fork-join worker pool.
+ *
+ * A synthetic election of {@code ballots} encrypted ballots is counted chunk by chunk, as
+ * TallyService does, without the database. To keep the heap small, the chunks cycle over
+ * a pool of distinct pre-encrypted chunks; the decrypt and decode work per ballot is the
+ * same. Run with:
+ * <pre>
+ *   mvn test-compile exec:java -Dexec.mainClass=com.votoeletronico.voto.benchmark.TallyBenchmark -Dexec.classpathScope=test
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class TallyBenchmark {
+
+    private static final int CANDIDATES = 12;
+    private static final int CHUNK_SIZE = 5000;
+    private static final int DISTINCT_CHUNKS = 40;
+
+    @Param({"1000000", "5000000"})
+    private int ballots;
+
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    private TallyWorkers workers;
+    private BallotTallier tallier;
+    private List<List<BallotRow>> chunks;
+
+    @Setup
+    public void setUp() {
+        CryptoService cryptoService = new CryptoService();
+        BallotCodec ballotCodec = new BallotCodec(new ObjectMapper());
+        SecretKey key = cryptoService.generateAESKey();
+
+        Map<UUID, Integer> ordinals = new HashMap<>();
+        for (int i = 0; i < CANDIDATES; i++) {
+            ordinals.put(UUID.randomUUID(), i);
+        }
+        tallier = new BallotTallier(cryptoService, ballotCodec, key, ordinals);
+
+        TallyProperties properties = new TallyProperties();
+        properties.setParallelism(parallelism);
+        workers = new TallyWorkers(properties);
+
+        Random random = new Random(7);
+        chunks = new ArrayList<>(DISTINCT_CHUNKS);
+        long seq = 0;
+        for (int c = 0; c < DISTINCT_CHUNKS; c++) {
+            List<BallotRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                byte[] plaintext = random.nextInt(50) == 0
+                        ? ballotCodec.encodeAbstention(null, Instant.now())
+                        : ballotCodec.encodeVote(random.nextInt(CANDIDATES), Instant.now());
+                EncryptedData encrypted = cryptoService.encryptAES(plaintext, key);
+                chunk.add(new BallotRow(++seq, UUID.randomUUID(), encrypted.ciphertext(), encrypted.nonce(), new byte[32]));
+            }
+            chunks.add(chunk);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        workers.shutdown();
+    }
+
+    @Benchmark
+    public TallyCounts tallyElection() {
+        TallyCounts total = tallier.newCounts();
+        for (int done = 0, c = 0; done < ballots; done += CHUNK_SIZE, c++) {
+            total.add(workers.count(tallier, chunks.get(c % DISTINCT_CHUNKS)));
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TallyBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -49,6 +49,7 @@ class ElectionControllerIntegrationTest extends BaseIntegrationTest {
                 now.plus(2, ChronoUnit.DAYS),
                 1,
                 true,
+                false,
                 false
         );
 
@@ -135,6 +136,7 @@ class ElectionControllerIntegrationTest extends BaseIntegrationTest {
                 null, // Null end
                 1,
                 true,
+                false,
                 false
         );
 
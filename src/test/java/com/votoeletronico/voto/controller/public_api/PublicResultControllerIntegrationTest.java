@@ -0,0 +1,120 @@
+package com.votoeletronico.voto.controller.public_api;
+
+import com.votoeletronico.voto.BaseIntegrationTest;
+import com.votoeletronico.voto.domain.election.Election;
+import com.votoeletronico.voto.domain.election.ElectionStatus;
+import com.votoeletronico.voto.domain.results.ElectionResult;
+import com.votoeletronico.voto.domain.results.TallyStatus;
+import com.votoeletronico.voto.repository.ElectionRepository;
+import com.votoeletronico.voto.repository.ElectionResultRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@DisplayName("PublicResultController Integration Tests")
+class PublicResultControllerIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ElectionRepository electionRepository;
+
+    @Autowired
+    private ElectionResultRepository electionResultRepository;
+
+    private Election election;
+    private ElectionResult result;
+
+    @BeforeEach
+    void createTalliedElection() {
+        Instant now = Instant.now();
+        election = electionRepository.saveAndFlush(Election.builder()
+                .name("Published Election")
+                .startTs(now.minus(2, ChronoUnit.HOURS))
+                .endTs(now.minus(1, ChronoUnit.HOURS))
+                .status(ElectionStatus.CLOSED)
+                .build());
+        result = electionResultRepository.saveAndFlush(ElectionResult.builder()
+                .election(election)
+                .status(TallyStatus.COMPLETED)
+                .totalBallots(12L)
+                .validVotes(10L)
+                .abstentions(2L)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should serve a published result with a strong ETag and answer 304 to a matching If-None-Match")
+    void shouldServePublishedResultWithETag() throws Exception {
+        publish();
+
+        String etag = mockMvc.perform(get("/api/public/elections/{id}/results", election.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+                .andExpect(jsonPath("$.electionId").value(election.getId().toString()))
+                .andExpect(jsonPath("$.validVotes").value(10))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(etag).startsWith("\"").endsWith("\"").doesNotStartWith("W/");
+
+        mockMvc.perform(get("/api/public/elections/{id}/results", election.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+
+        mockMvc.perform(get("/api/public/elections/{id}/results", election.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    @DisplayName("Should render a published result once and serve the same bytes afterwards")
+    void shouldServeRenderedResultFromCache() throws Exception {
+        publish();
+
+        String etag = mockMvc.perform(get("/api/public/elections/{id}/results", election.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Published results never change; a change behind the cache's back is not picked up
+        result.setValidVotes(11L);
+        electionResultRepository.saveAndFlush(result);
+
+        mockMvc.perform(get("/api/public/elections/{id}/results", election.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(jsonPath("$.validVotes").value(10));
+    }
+
+    @Test
+    @DisplayName("Should never cache an unpublished result")
+    void shouldNotCacheUnpublishedResult() throws Exception {
+        mockMvc.perform(get("/api/public/elections/{id}/results", election.getId()))
+                .andExpect(status().isNotFound());
+
+        publish();
+
+        mockMvc.perform(get("/api/public/elections/{id}/results", election.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.published").value(true));
+    }
+
+    private void publish() {
+        result.publish();
+        electionResultRepository.saveAndFlush(result);
+    }
+}
@@ -1,17 +1,21 @@
 package com.votoeletronico.voto.controller.voting;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.votoeletronico.voto.BaseIntegrationTest;
+import com.votoeletronico.voto.BaseCommittedIntegrationTest;
 import com.votoeletronico.voto.domain.election.Candidate;
 import com.votoeletronico.voto.domain.election.Election;
 import com.votoeletronico.voto.domain.election.ElectionStatus;
+import com.votoeletronico.voto.domain.results.ElectionResult;
+import com.votoeletronico.voto.domain.results.TallyStatus;
 import com.votoeletronico.voto.domain.voter.Voter;
 import com.votoeletronico.voto.dto.request.CastAbstentionRequest;
 import com.votoeletronico.voto.dto.request.CastVoteRequest;
 import com.votoeletronico.voto.dto.request.TokenRequest;
 import com.votoeletronico.voto.repository.CandidateRepository;
 import com.votoeletronico.voto.repository.ElectionRepository;
+import com.votoeletronico.voto.repository.ElectionResultRepository;
 import com.votoeletronico.voto.repository.EncryptedBallotRepository;
+import com.votoeletronico.voto.repository.TallyLedgerRepository;
 import com.votoeletronico.voto.repository.VoterRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -28,7 +32,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @DisplayName("VotingController Integration Tests")
-class VotingControllerIntegrationTest extends BaseIntegrationTest {
+class VotingControllerIntegrationTest extends BaseCommittedIntegrationTest {
 
         @Autowired
         private MockMvc mockMvc;
@@ -48,18 +52,19 @@ class VotingControllerIntegrationTest extends BaseIntegrationTest {
         @Autowired
         private EncryptedBallotRepository ballotRepository;
 
+        @Autowired
+        private ElectionResultRepository electionResultRepository;
+
+        @Autowired
+        private TallyLedgerRepository tallyLedgerRepository;
+
         private Election testElection;
         private Candidate testCandidate;
         private Voter testVoter;
 
         @BeforeEach
         void setUp() {
-                ballotRepository.deleteAll();
-                voterRepository.deleteAll();
-                candidateRepository.deleteAll();
-                electionRepository.deleteAll();
-
-                // Create running election
+                // Create running election (committed: the ballot pipeline appends on its own transaction)
                 Instant now = Instant.now();
                 testElection = Election.builder()
                                 .name("Test Election for Voting")
@@ -265,6 +270,49 @@ class VotingControllerIntegrationTest extends BaseIntegrationTest {
                                 .andExpect(jsonPath("$.castAt").exists());
         }
 
+        @Test
+        @DisplayName("Should report a ballot as tallied once the ledger covers it")
+        void shouldReportTalliedFromLedger() throws Exception {
+                // Given - two ballots cast
+                String firstHash = castVote("12345678900");
+
+                Voter secondVoter = new Voter();
+                secondVoter.setElection(testElection);
+                secondVoter.setExternalId("12345678901");
+                secondVoter.setEligible(true);
+                voterRepository.save(secondVoter);
+                String secondHash = castVote("12345678901");
+
+                mockMvc.perform(get("/api/voting/elections/{electionId}/verify/{ballotHash}",
+                                testElection.getId(), firstHash))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.tallied").value(false));
+
+                // When - the tally commits a chunk covering the first ballot only
+                ElectionResult result = electionResultRepository.save(ElectionResult.builder()
+                                .election(testElection)
+                                .status(TallyStatus.IN_PROGRESS)
+                                .build());
+                tallyLedgerRepository.record(testElection.getId(), result.getId(), 1, 1);
+
+                // Then
+                mockMvc.perform(get("/api/voting/elections/{electionId}/verify/{ballotHash}",
+                                testElection.getId(), firstHash))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.exists").value(true))
+                                .andExpect(jsonPath("$.tallied").value(true));
+                mockMvc.perform(get("/api/voting/elections/{electionId}/verify/{ballotHash}",
+                                testElection.getId(), secondHash))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.tallied").value(false));
+
+                mockMvc.perform(get("/api/voting/elections/{electionId}/stats", testElection.getId()))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.totalBallots").value(2))
+                                .andExpect(jsonPath("$.ballotsTallied").value(1))
+                                .andExpect(jsonPath("$.ballotsPending").value(1));
+        }
+
         @Test
         @DisplayName("Should return not found for invalid ballot hash")
         void shouldReturnNotFoundForInvalidBallotHash() throws Exception {
@@ -303,6 +351,8 @@ class VotingControllerIntegrationTest extends BaseIntegrationTest {
                                 .andExpect(jsonPath("$.tokensIssued").value(1))
                                 .andExpect(jsonPath("$.tokensConsumed").value(1))
                                 .andExpect(jsonPath("$.totalBallots").value(1))
+                                .andExpect(jsonPath("$.ballotsTallied").value(0))
+                                .andExpect(jsonPath("$.ballotsPending").value(1))
                                 .andExpect(jsonPath("$.turnoutPercentage").value(100.0));
         }
 
@@ -348,4 +398,25 @@ class VotingControllerIntegrationTest extends BaseIntegrationTest {
                                 .andExpect(status().isOk())
                                 .andExpect(jsonPath("$.chainValid").value(true));
         }
+
+        private String castVote(String externalId) throws Exception {
+                String tokenResponse = mockMvc
+                                .perform(post("/api/voting/elections/{electionId}/token", testElection.getId())
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .content(objectMapper.writeValueAsString(new TokenRequest(externalId))))
+                                .andExpect(status().isCreated())
+                                .andReturn().getResponse().getContentAsString();
+
+                String tokenValue = objectMapper.readTree(tokenResponse).get("tokenValue").asText();
+
+                String voteResponse = mockMvc
+                                .perform(post("/api/voting/elections/{electionId}/vote", testElection.getId())
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .content(objectMapper.writeValueAsString(
+                                                                new CastVoteRequest(tokenValue, testCandidate.getId()))))
+                                .andExpect(status().isCreated())
+                                .andReturn().getResponse().getContentAsString();
+
+                return objectMapper.readTree(voteResponse).get("ballotHash").asText();
+        }
 }
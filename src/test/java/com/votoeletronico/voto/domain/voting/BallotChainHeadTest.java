@@ -0,0 +1,55 @@
+package com.votoeletronico.voto.domain.voting;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("BallotChainHead Tests")
+class BallotChainHeadTest {
+
+    private final BallotChainHead head = BallotChainHead.builder().electionId(UUID.randomUUID()).build();
+
+    @Test
+    @DisplayName("Should advance one seq at a time")
+    void shouldAdvanceDensely() {
+        byte[] first = {1};
+        byte[] second = {2};
+
+        head.advance(head.nextSeq(), first);
+        head.advance(head.nextSeq(), second);
+
+        assertThat(head.getLastSeq()).isEqualTo(2L);
+        assertThat(head.getLastBallotHash()).isEqualTo(second);
+        assertThat(head.nextSeq()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Should reject a stale or skipped seq without moving")
+    void shouldRejectOutOfOrderSeq() {
+        head.advance(1, new byte[]{1});
+
+        assertThatThrownBy(() -> head.advance(1, new byte[]{2}))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("expected seq 2");
+        assertThatThrownBy(() -> head.advance(3, new byte[]{3}))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(head.getLastSeq()).isEqualTo(1L);
+        assertThat(head.getLastBallotHash()).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Should reject appends to a sealed chain")
+    void shouldRejectSealedChain() {
+        head.advance(1, new byte[]{1});
+        head.seal();
+
+        assertThat(head.isSealed()).isTrue();
+        assertThatThrownBy(() -> head.advance(2, new byte[]{2}))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("sealed");
+        assertThat(head.getLastSeq()).isEqualTo(1L);
+    }
+}
@@ -0,0 +1,109 @@
+package com.votoeletronico.voto.repository;
+
+import com.votoeletronico.voto.BaseIntegrationTest;
+import com.votoeletronico.voto.domain.election.Election;
+import com.votoeletronico.voto.domain.election.ElectionStatus;
+import com.votoeletronico.voto.domain.results.ElectionResult;
+import com.votoeletronico.voto.domain.results.TallyJob;
+import com.votoeletronico.voto.domain.results.TallyJobStatus;
+import com.votoeletronico.voto.domain.results.TallyStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("TallyJobRepository Integration Tests")
+class TallyJobRepositoryIntegrationTest extends BaseIntegrationTest {
+
+    private static final long LEASE_MS = 60_000;
+
+    @Autowired
+    private TallyJobRepository tallyJobRepository;
+
+    @Autowired
+    private ElectionRepository electionRepository;
+
+    @Autowired
+    private ElectionResultRepository electionResultRepository;
+
+    private UUID jobId;
+    private Instant now;
+
+    @BeforeEach
+    void createJob() {
+        now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Election election = electionRepository.saveAndFlush(Election.builder()
+                .name("Lease Election")
+                .startTs(now.minus(2, ChronoUnit.HOURS))
+                .endTs(now.minus(1, ChronoUnit.HOURS))
+                .status(ElectionStatus.CLOSED)
+                .build());
+        ElectionResult result = electionResultRepository.saveAndFlush(ElectionResult.builder()
+                .election(election)
+                .status(TallyStatus.IN_PROGRESS)
+                .build());
+        jobId = tallyJobRepository.create(election.getId(), result.getId(), null, 100, 2);
+    }
+
+    @Test
+    @DisplayName("Should let only one node hold the lease while it is valid")
+    void shouldGrantLeaseToOneNode() {
+        assertThat(tallyJobRepository.claim(jobId, "node-a", now, now.plusMillis(LEASE_MS))).isPresent();
+
+        assertThat(tallyJobRepository.claim(jobId, "node-b", now.plusSeconds(1), now.plusMillis(LEASE_MS))).isEmpty();
+        assertThat(tallyJobRepository.findClaimable(now.plusSeconds(1), 10)).extracting(TallyJob::id)
+                .doesNotContain(jobId);
+    }
+
+    @Test
+    @DisplayName("Should hand an expired lease over with its checkpoint, and fence out the old owner")
+    void shouldTakeOverExpiredLease() {
+        tallyJobRepository.claim(jobId, "node-a", now, now.plusMillis(LEASE_MS));
+        assertThat(tallyJobRepository.checkpoint(jobId, "node-a", 40, new long[]{25, 10}, 35, 4, 1,
+                now.plusSeconds(1), now.plusMillis(LEASE_MS))).isTrue();
+
+        // node-a stops renewing; after its lease expires the job is claimable again
+        Instant later = now.plusMillis(2 * LEASE_MS);
+        assertThat(tallyJobRepository.findClaimable(later, 10)).extracting(TallyJob::id).contains(jobId);
+
+        TallyJob taken = tallyJobRepository.claim(jobId, "node-b", later, later.plusMillis(LEASE_MS)).orElseThrow();
+        assertThat(taken.owner()).isEqualTo("node-b");
+        assertThat(taken.status()).isEqualTo(TallyJobStatus.RUNNING);
+        assertThat(taken.attempts()).isEqualTo(2);
+        assertThat(taken.lastSeq()).isEqualTo(40);
+        assertThat(taken.candidateVotes()).containsExactly(25, 10);
+        assertThat(taken.runStartBallots()).isEqualTo(40);
+
+        // The old owner can no longer write
+        assertThat(tallyJobRepository.checkpoint(jobId, "node-a", 60, new long[]{35, 20}, 55, 4, 1,
+                later, later.plusMillis(LEASE_MS))).isFalse();
+        assertThat(tallyJobRepository.complete(jobId, "node-a", later)).isFalse();
+        assertThat(tallyJobRepository.fail(jobId, "node-a", "late", later)).isFalse();
+        assertThat(tallyJobRepository.findById(jobId).orElseThrow().lastSeq()).isEqualTo(40);
+
+        assertThat(tallyJobRepository.complete(jobId, "node-b", later)).isTrue();
+        assertThat(tallyJobRepository.findById(jobId).orElseThrow().status()).isEqualTo(TallyJobStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("Should queue a failed job again with its checkpoint")
+    void shouldRequeueFailedJob() {
+        tallyJobRepository.claim(jobId, "node-a", now, now.plusMillis(LEASE_MS));
+        tallyJobRepository.checkpoint(jobId, "node-a", 20, new long[]{12, 6}, 18, 2, 0, now, now.plusMillis(LEASE_MS));
+        assertThat(tallyJobRepository.fail(jobId, "node-a", "key unavailable", now)).isTrue();
+
+        assertThat(tallyJobRepository.requeue(jobId, null)).isTrue();
+
+        TallyJob queued = tallyJobRepository.findById(jobId).orElseThrow();
+        assertThat(queued.status()).isEqualTo(TallyJobStatus.QUEUED);
+        assertThat(queued.owner()).isNull();
+        assertThat(queued.lastSeq()).isEqualTo(20);
+        assertThat(tallyJobRepository.claim(jobId, "node-b", now, now.plusMillis(LEASE_MS))).isPresent();
+    }
+}
@@ -0,0 +1,103 @@
+package com.votoeletronico.voto.repository;
+
+import com.votoeletronico.voto.BaseIntegrationTest;
+import com.votoeletronico.voto.domain.election.Election;
+import com.votoeletronico.voto.domain.election.ElectionStatus;
+import com.votoeletronico.voto.domain.results.ElectionResult;
+import com.votoeletronico.voto.domain.results.TallyStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("TallyLedgerRepository Integration Tests")
+class TallyLedgerRepositoryIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private TallyLedgerRepository tallyLedgerRepository;
+
+    @Autowired
+    private ElectionRepository electionRepository;
+
+    @Autowired
+    private ElectionResultRepository electionResultRepository;
+
+    private UUID electionId;
+    private UUID resultId;
+
+    @BeforeEach
+    void createElection() {
+        Instant now = Instant.now();
+        Election election = electionRepository.saveAndFlush(Election.builder()
+                .name("Ledger Election")
+                .startTs(now.minus(2, ChronoUnit.HOURS))
+                .endTs(now.minus(1, ChronoUnit.HOURS))
+                .status(ElectionStatus.CLOSED)
+                .build());
+        ElectionResult result = electionResultRepository.saveAndFlush(ElectionResult.builder()
+                .election(election)
+                .status(TallyStatus.IN_PROGRESS)
+                .build());
+        electionId = election.getId();
+        resultId = result.getId();
+    }
+
+    @Test
+    @DisplayName("Should count the ballots of every recorded range")
+    void shouldCountRecordedRanges() {
+        assertThat(tallyLedgerRepository.countTallied(electionId)).isZero();
+
+        tallyLedgerRepository.record(electionId, resultId, 1, 2);
+        tallyLedgerRepository.record(electionId, resultId, 3, 3);
+        tallyLedgerRepository.record(electionId, resultId, 4, 10);
+
+        assertThat(tallyLedgerRepository.countTallied(electionId)).isEqualTo(10);
+        assertThat(tallyLedgerRepository.countTallied(UUID.randomUUID())).isZero();
+    }
+
+    @Test
+    @DisplayName("Should report a sequence number as tallied only inside a recorded range")
+    void shouldFindSequenceInsideRange() {
+        tallyLedgerRepository.record(electionId, resultId, 1, 4);
+        tallyLedgerRepository.record(electionId, resultId, 8, 9);
+
+        assertThat(tallyLedgerRepository.isTallied(electionId, 1)).isTrue();
+        assertThat(tallyLedgerRepository.isTallied(electionId, 4)).isTrue();
+        assertThat(tallyLedgerRepository.isTallied(electionId, 8)).isTrue();
+        assertThat(tallyLedgerRepository.isTallied(electionId, 9)).isTrue();
+
+        // Between two ranges, and past the last one
+        assertThat(tallyLedgerRepository.isTallied(electionId, 5)).isFalse();
+        assertThat(tallyLedgerRepository.isTallied(electionId, 7)).isFalse();
+        assertThat(tallyLedgerRepository.isTallied(electionId, 10)).isFalse();
+        assertThat(tallyLedgerRepository.isTallied(UUID.randomUUID(), 1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject a range recorded twice")
+    void shouldRejectDuplicateRange() {
+        tallyLedgerRepository.record(electionId, resultId, 1, 5);
+
+        assertThatThrownBy(() -> tallyLedgerRepository.record(electionId, resultId, 1, 5))
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    @DisplayName("Should forget every range of an election")
+    void shouldDeleteByElection() {
+        tallyLedgerRepository.record(electionId, resultId, 1, 3);
+        tallyLedgerRepository.record(electionId, resultId, 4, 6);
+
+        assertThat(tallyLedgerRepository.deleteByElectionId(electionId)).isEqualTo(2);
+
+        assertThat(tallyLedgerRepository.countTallied(electionId)).isZero();
+        assertThat(tallyLedgerRepository.isTallied(electionId, 2)).isFalse();
+    }
+}
@@ -1,6 +1,7 @@
 package com.votoeletronico.voto.service;
 
 import com.votoeletronico.voto.audit.AuditService;
+import com.votoeletronico.voto.config.CryptoProperties;
 import com.votoeletronico.voto.domain.election.Election;
 import com.votoeletronico.voto.domain.election.ElectionStatus;
 import com.votoeletronico.voto.dto.request.CreateElectionRequest;
@@ -9,12 +10,15 @@ import com.votoeletronico.voto.exception.BusinessException;
 import com.votoeletronico.voto.exception.ResourceNotFoundException;
 import com.votoeletronico.voto.repository.ElectionRepository;
 import com.votoeletronico.voto.service.mapper.ElectionMapper;
+import com.votoeletronico.voto.service.voting.BallotSequencer;
+import com.votoeletronico.voto.service.voting.ElectionSnapshotCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Instant;
@@ -39,6 +43,15 @@ class ElectionServiceTest {
     @Mock
     private AuditService auditService;
 
+    @Mock
+    private ElectionSnapshotCache electionSnapshotCache;
+
+    @Mock
+    private BallotSequencer ballotSequencer;
+
+    @Spy
+    private CryptoProperties cryptoProperties = new CryptoProperties();
+
     @InjectMocks
     private ElectionService electionService;
 
@@ -62,6 +75,7 @@ class ElectionServiceTest {
                 endTs,
                 1,
                 true,
+                false,
                 false
         );
 
@@ -88,6 +102,7 @@ class ElectionServiceTest {
                 validElection.getMaxVotesPerVoter(),
                 validElection.getAllowAbstention(),
                 validElection.getRequireJustification(),
+                validElection.getSealedTally(),
                 validElection.getCreatedBy(),
                 Instant.now(),
                 Instant.now(),
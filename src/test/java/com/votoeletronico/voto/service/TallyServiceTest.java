@@ -0,0 +1,309 @@
+package com.votoeletronico.voto.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.votoeletronico.voto.config.TallyProperties;
+import com.votoeletronico.voto.domain.election.Candidate;
+import com.votoeletronico.voto.domain.election.Election;
+import com.votoeletronico.voto.domain.election.ElectionStatus;
+import com.votoeletronico.voto.domain.results.CandidateResult;
+import com.votoeletronico.voto.domain.results.ElectionResult;
+import com.votoeletronico.voto.domain.results.TallyJob;
+import com.votoeletronico.voto.domain.results.TallyJobStatus;
+import com.votoeletronico.voto.domain.results.TallyStatus;
+import com.votoeletronico.voto.repository.BallotChainHeadRepository;
+import com.votoeletronico.voto.repository.CandidateResultRepository;
+import com.votoeletronico.voto.repository.ElectionRepository;
+import com.votoeletronico.voto.repository.ElectionResultRepository;
+import com.votoeletronico.voto.repository.EncryptedBallotJdbcRepository;
+import com.votoeletronico.voto.repository.EncryptedBallotJdbcRepository.BallotRow;
+import com.votoeletronico.voto.repository.TallyJobRepository;
+import com.votoeletronico.voto.repository.TallyLedgerRepository;
+import com.votoeletronico.voto.repository.TallyPartitionRepository;
+import com.votoeletronico.voto.service.crypto.BallotCodec;
+import com.votoeletronico.voto.service.crypto.CryptoService;
+import com.votoeletronico.voto.service.crypto.EncryptedData;
+import com.votoeletronico.voto.service.merkle.BallotMerkleService;
+import com.votoeletronico.voto.service.tally.SealedTallyService;
+import com.votoeletronico.voto.service.tally.TallyCounts;
+import com.votoeletronico.voto.service.tally.TallyWorkers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.SecretKey;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs tally jobs against an in-memory model of the tally_jobs row and the tally ledger,
+ * where a chunk's ledger row only survives if its checkpoint commits
+ */
+@DisplayName("TallyService Tests")
+class TallyServiceTest {
+
+    private static final int BALLOTS = 45;
+    private static final int CHUNK_SIZE = 10;
+    private static final int CANDIDATES = 3;
+
+    private final UUID electionId = UUID.randomUUID();
+    private final UUID resultId = UUID.randomUUID();
+    private final UUID jobId = UUID.randomUUID();
+
+    private final CryptoService cryptoService = new CryptoService();
+    private final BallotCodec ballotCodec = new BallotCodec(new ObjectMapper());
+    private final SecretKey key = cryptoService.generateAESKey();
+    private final TallyWorkers tallyWorkers = new TallyWorkers(2, "test-tally-");
+
+    private final ElectionRepository electionRepository = mock(ElectionRepository.class);
+    private final ElectionResultRepository electionResultRepository = mock(ElectionResultRepository.class);
+    private final CandidateResultRepository candidateResultRepository = mock(CandidateResultRepository.class);
+    private final EncryptedBallotJdbcRepository ballotJdbcRepository = mock(EncryptedBallotJdbcRepository.class);
+    private final TallyLedgerRepository tallyLedgerRepository = mock(TallyLedgerRepository.class);
+    private final TallyJobRepository tallyJobRepository = mock(TallyJobRepository.class);
+    private final VotingService votingService = mock(VotingService.class);
+    private final BallotMerkleService ballotMerkleService = mock(BallotMerkleService.class);
+    private final SealedTallyService sealedTallyService = mock(SealedTallyService.class);
+
+    private Election election;
+    private final List<BallotRow> ballots = new ArrayList<>();
+    private final long[] expectedVotes = new long[CANDIDATES];
+    private long expectedAbstentions;
+
+    // The tally_jobs row and the committed ledger ranges
+    private String owner;
+    private long lastSeq;
+    private long[] candidateVotes = new long[CANDIDATES];
+    private long validVotes;
+    private long abstentions;
+    private long invalidVotes;
+    private boolean completed;
+    private final List<long[]> ledger = new ArrayList<>();
+    private final List<long[]> pendingLedger = new ArrayList<>();
+
+    // Hook run when a chunk records its ledger row, before its checkpoint
+    private Runnable onRecord = () -> { };
+    private int recorded;
+
+    private ElectionResult result;
+    private TallyService tallyService;
+
+    @BeforeEach
+    void setUp() {
+        election = Election.builder()
+                .name("Tally Election")
+                .startTs(Instant.now().minusSeconds(7200))
+                .endTs(Instant.now().minusSeconds(3600))
+                .status(ElectionStatus.CLOSED)
+                .build();
+        election.setId(electionId);
+        for (int i = 0; i < CANDIDATES; i++) {
+            Candidate candidate = Candidate.builder().name("Candidate " + i).ballotNumber(10 + i).build();
+            candidate.setId(UUID.randomUUID());
+            election.addCandidate(candidate);
+        }
+        result = ElectionResult.builder().election(election).status(TallyStatus.IN_PROGRESS).build();
+        result.setId(resultId);
+
+        for (int seq = 1; seq <= BALLOTS; seq++) {
+            byte[] plaintext;
+            if (seq % 7 == 0) {
+                plaintext = ballotCodec.encodeAbstention(null, Instant.now());
+                expectedAbstentions++;
+            } else {
+                int ordinal = seq % CANDIDATES;
+                plaintext = ballotCodec.encodeVote(ordinal, Instant.now());
+                expectedVotes[ordinal]++;
+            }
+            EncryptedData encrypted = cryptoService.encryptAES(plaintext, key);
+            ballots.add(new BallotRow(seq, UUID.randomUUID(), encrypted.ciphertext(), encrypted.nonce(), new byte[32]));
+        }
+
+        when(electionRepository.findByIdWithCandidates(electionId)).thenReturn(Optional.of(election));
+        when(electionResultRepository.findById(resultId)).thenReturn(Optional.of(result));
+        when(electionResultRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(votingService.getElectionKeyForTally(electionId)).thenReturn(key);
+        when(ballotMerkleService.buildTree(electionId)).thenReturn(new byte[32]);
+        when(ballotJdbcRepository.findChunk(eq(electionId), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long afterSeq = invocation.getArgument(1);
+            int limit = invocation.getArgument(2);
+            return ballots.stream().filter(ballot -> ballot.seq() > afterSeq).limit(limit).toList();
+        });
+
+        doAnswer(invocation -> {
+            recorded++;
+            onRecord.run();
+            pendingLedger.add(new long[]{invocation.getArgument(2), invocation.getArgument(3)});
+            return null;
+        }).when(tallyLedgerRepository).record(eq(electionId), eq(resultId), anyLong(), anyLong());
+        when(tallyJobRepository.checkpoint(eq(jobId), anyString(), anyLong(), any(long[].class), anyLong(), anyLong(),
+                anyLong(), any(), any())).thenAnswer(invocation -> {
+            if (!invocation.getArgument(1).equals(owner)) {
+                // Lease lost: the chunk's transaction rolls back
+                pendingLedger.clear();
+                return false;
+            }
+            lastSeq = invocation.getArgument(2);
+            candidateVotes = ((long[]) invocation.getArgument(3)).clone();
+            validVotes = invocation.getArgument(4);
+            abstentions = invocation.getArgument(5);
+            invalidVotes = invocation.getArgument(6);
+            ledger.addAll(pendingLedger);
+            pendingLedger.clear();
+            return true;
+        });
+        when(tallyJobRepository.complete(eq(jobId), anyString(), any())).thenAnswer(invocation -> {
+            completed = invocation.getArgument(1).equals(owner);
+            return completed;
+        });
+
+        TallyProperties tallyProperties = new TallyProperties();
+        tallyProperties.setChunkSize(CHUNK_SIZE);
+        tallyService = new TallyService(electionRepository, electionResultRepository, candidateResultRepository,
+                ballotJdbcRepository, tallyLedgerRepository, tallyJobRepository, mock(TallyPartitionRepository.class),
+                mock(BallotChainHeadRepository.class), votingService, cryptoService, ballotCodec,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), tallyProperties, tallyWorkers,
+                ballotMerkleService, sealedTallyService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tallyWorkers.shutdown();
+    }
+
+    @Test
+    @DisplayName("A job killed mid-chunk should resume from lastSeq without counting a ballot twice")
+    void shouldResumeKilledJobFromCheckpoint() {
+        // The node dies while the third chunk is in flight, before its checkpoint commits
+        onRecord = () -> {
+            if (recorded == 3) {
+                throw new NodeKilled();
+            }
+        };
+        assertThatThrownBy(() -> tallyService.runJob(claim("node-a"), "node-a")).isInstanceOf(NodeKilled.class);
+
+        assertThat(lastSeq).isEqualTo(2L * CHUNK_SIZE);
+        assertThat(validVotes + abstentions + invalidVotes).isEqualTo(2L * CHUNK_SIZE);
+        assertThat(completed).isFalse();
+
+        // Its lease expires and another node claims the job
+        onRecord = () -> { };
+        clearInvocations(ballotJdbcRepository);
+        tallyService.runJob(claim("node-b"), "node-b");
+
+        verify(ballotJdbcRepository).findChunk(electionId, 2L * CHUNK_SIZE, CHUNK_SIZE);
+        verify(ballotJdbcRepository, never()).findChunk(electionId, 0L, CHUNK_SIZE);
+        verify(ballotJdbcRepository, never()).findChunk(electionId, (long) CHUNK_SIZE, CHUNK_SIZE);
+        assertThat(completed).isTrue();
+        assertLedgerCoversEveryBallotOnce();
+        assertFinalCounts();
+    }
+
+    @Test
+    @DisplayName("A node whose lease expired should stop at its next checkpoint and leave the job to the new owner")
+    void shouldHandOverJobAfterLeaseExpiry() {
+        // While node A counts its second chunk, its lease expires and node B claims the job
+        onRecord = () -> {
+            if (recorded == 2) {
+                owner = "node-b";
+            }
+        };
+        tallyService.runJob(claim("node-a"), "node-a");
+
+        assertThat(completed).isFalse();
+        assertThat(lastSeq).isEqualTo(CHUNK_SIZE);
+        verify(tallyJobRepository, never()).fail(any(), anyString(), any(), any());
+        verify(candidateResultRepository, never()).saveAll(any());
+
+        onRecord = () -> { };
+        tallyService.runJob(claim("node-b"), "node-b");
+
+        assertThat(completed).isTrue();
+        assertLedgerCoversEveryBallotOnce();
+        assertFinalCounts();
+        verify(candidateResultRepository, times(1)).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("A sealed election should be counted by decrypting its aggregate, without reading the ballots")
+    void shouldDecryptSealedTally() {
+        election.setSealedTally(true);
+        when(sealedTallyService.canDecrypt(electionId)).thenReturn(true);
+        when(sealedTallyService.decrypt(electionId, CANDIDATES, BALLOTS)).thenReturn(TallyCounts.restore(
+                expectedVotes.clone(), BALLOTS - expectedAbstentions, expectedAbstentions, 0));
+
+        tallyService.runJob(claim("node-a"), "node-a");
+
+        verify(ballotJdbcRepository, never()).findChunk(any(), anyLong(), anyInt());
+        assertThat(ledger).singleElement().satisfies(range -> assertThat(range).containsExactly(1, BALLOTS));
+        assertThat(completed).isTrue();
+        assertFinalCounts();
+    }
+
+    @Test
+    @DisplayName("A node without the sealed tally key should fall back to decrypting and counting the ballots")
+    void shouldCountBallotsWithoutSealedTallyKey() {
+        election.setSealedTally(true);
+        when(sealedTallyService.canDecrypt(electionId)).thenReturn(false);
+
+        tallyService.runJob(claim("node-a"), "node-a");
+
+        verify(sealedTallyService, never()).decrypt(any(), anyInt(), anyLong());
+        assertThat(completed).isTrue();
+        assertLedgerCoversEveryBallotOnce();
+        assertFinalCounts();
+    }
+
+    /**
+     * What TallyJobRepository.claim returns: the job as of its last checkpoint, under a new owner
+     */
+    private TallyJob claim(String newOwner) {
+        owner = newOwner;
+        return new TallyJob(jobId, electionId, resultId, TallyJobStatus.RUNNING, null, 1, null, BALLOTS, lastSeq,
+                candidateVotes.clone(), validVotes, abstentions, invalidVotes, newOwner, Instant.now().plusSeconds(60),
+                Instant.now(), validVotes + abstentions + invalidVotes, Instant.now(), null, null);
+    }
+
+    private void assertLedgerCoversEveryBallotOnce() {
+        List<long[]> ranges = ledger.stream().sorted(Comparator.comparingLong(range -> range[0])).toList();
+        long next = 1;
+        for (long[] range : ranges) {
+            assertThat(range[0]).isEqualTo(next);
+            next = range[1] + 1;
+        }
+        assertThat(next).isEqualTo(BALLOTS + 1L);
+    }
+
+    private void assertFinalCounts() {
+        assertThat(candidateVotes).containsExactly(expectedVotes);
+        assertThat(abstentions).isEqualTo(expectedAbstentions);
+        assertThat(invalidVotes).isZero();
+
+        assertThat(result.getStatus()).isEqualTo(TallyStatus.COMPLETED);
+        assertThat(result.getTotalBallots()).isEqualTo(BALLOTS);
+        assertThat(result.getAbstentions()).isEqualTo(expectedAbstentions);
+        assertThat(result.getCandidateResults())
+                .extracting(CandidateResult::getVoteCount)
+                .containsExactlyInAnyOrder(expectedVotes[0], expectedVotes[1], expectedVotes[2]);
+    }
+
+    /**
+     * The process dying: not an Exception, so nothing on the way out handles it
+     */
+    private static final class NodeKilled extends Error {
+    }
+}
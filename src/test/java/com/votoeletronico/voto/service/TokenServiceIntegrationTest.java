@@ -0,0 +1,124 @@
+package com.votoeletronico.voto.service;
+
+import com.votoeletronico.voto.BaseCommittedIntegrationTest;
+import com.votoeletronico.voto.domain.election.Election;
+import com.votoeletronico.voto.domain.election.ElectionStatus;
+import com.votoeletronico.voto.domain.voter.Voter;
+import com.votoeletronico.voto.domain.voting.BlindToken;
+import com.votoeletronico.voto.domain.voting.TokenStatus;
+import com.votoeletronico.voto.repository.BlindTokenRepository;
+import com.votoeletronico.voto.repository.ElectionRepository;
+import com.votoeletronico.voto.repository.VoterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("TokenService Integration Tests")
+class TokenServiceIntegrationTest extends BaseCommittedIntegrationTest {
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ElectionRepository electionRepository;
+
+    @Autowired
+    private VoterRepository voterRepository;
+
+    @Autowired
+    private BlindTokenRepository tokenRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UUID electionId;
+    private BlindToken token;
+
+    @BeforeEach
+    void setUp() {
+        Instant now = Instant.now();
+        Election election = electionRepository.save(Election.builder()
+                .name("Token Election")
+                .startTs(now.minus(1, ChronoUnit.HOURS))
+                .endTs(now.plus(1, ChronoUnit.HOURS))
+                .status(ElectionStatus.RUNNING)
+                .build());
+        electionId = election.getId();
+
+        Voter voter = new Voter();
+        voter.setElection(election);
+        voter.setExternalId("55566677788");
+        voter.setEligible(true);
+        voterRepository.save(voter);
+
+        token = tokenService.issueToken(electionId, "55566677788");
+    }
+
+    @Test
+    @DisplayName("Two concurrent consumes of one token should give exactly one success")
+    void shouldConsumeTokenOnceUnderConcurrency() throws Exception {
+        String tokenHash = tokenService.hashToken(token.getTokenValue());
+        ExecutorService voters = Executors.newFixedThreadPool(2);
+        CountDownLatch go = new CountDownLatch(1);
+        try {
+            List<Future<Optional<UUID>>> results = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                results.add(voters.submit(() -> {
+                    go.await();
+                    return transactionTemplate.execute(status ->
+                            tokenService.consumeToken(electionId, tokenHash, UUID.randomUUID()));
+                }));
+            }
+            go.countDown();
+
+            List<Optional<UUID>> consumed = new ArrayList<>();
+            for (Future<Optional<UUID>> result : results) {
+                consumed.add(result.get(30, TimeUnit.SECONDS));
+            }
+
+            assertThat(consumed).filteredOn(Optional::isPresent).hasSize(1);
+            assertThat(consumed).filteredOn(Optional::isEmpty).hasSize(1);
+            assertThat(tokenRepository.findByTokenHash(tokenHash).orElseThrow().getStatus())
+                    .isEqualTo(TokenStatus.CONSUMED);
+        } finally {
+            voters.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should consume a token signed under a key this node does not hold")
+    void shouldConsumeTokenIssuedByAnotherNode() {
+        // Issued by a node whose election key differs from this node's
+        String tokenHash = tokenService.hashToken(token.getTokenValue());
+        jdbcTemplate.update("UPDATE blind_tokens SET signature = ? WHERE token_hash = ?",
+                Base64.getEncoder().encodeToString(new byte[64]), tokenHash);
+
+        Optional<UUID> consumed = transactionTemplate.execute(status ->
+                tokenService.consumeToken(electionId, tokenHash, UUID.randomUUID()));
+
+        assertThat(consumed).isPresent();
+        assertThat(tokenRepository.findByTokenHash(tokenHash).orElseThrow().getStatus())
+                .isEqualTo(TokenStatus.CONSUMED);
+
+        // Consumed once, by the conditional update; a replay gets nothing
+        assertThat(transactionTemplate.execute(status ->
+                tokenService.consumeToken(electionId, tokenHash, UUID.randomUUID()))).isEmpty();
+    }
+}
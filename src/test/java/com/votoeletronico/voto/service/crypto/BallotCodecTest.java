@@ -0,0 +1,75 @@
+package com.votoeletronico.voto.service.crypto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("BallotCodec Tests")
+class BallotCodecTest {
+
+    private final BallotCodec ballotCodec = new BallotCodec(new ObjectMapper());
+
+    @Test
+    @DisplayName("Should round-trip a vote")
+    void shouldRoundTripVote() {
+        Instant castAt = Instant.ofEpochMilli(1_700_000_000_123L);
+
+        byte[] encoded = ballotCodec.encodeVote(3, castAt);
+        BallotPayload payload = ballotCodec.decode(encoded);
+
+        assertThat(encoded).hasSize(12);
+        assertThat(payload.type()).isEqualTo(BallotPayload.Type.VOTE);
+        assertThat(payload.candidateOrdinal()).isEqualTo(3);
+        assertThat(payload.castAt()).isEqualTo(castAt);
+    }
+
+    @Test
+    @DisplayName("Should round-trip an abstention with and without justification")
+    void shouldRoundTripAbstention() {
+        Instant castAt = Instant.ofEpochMilli(1_700_000_000_123L);
+
+        BallotPayload withText = ballotCodec.decode(ballotCodec.encodeAbstention("Não conheço os candidatos", castAt));
+        BallotPayload withoutText = ballotCodec.decode(ballotCodec.encodeAbstention(null, castAt));
+
+        assertThat(withText.type()).isEqualTo(BallotPayload.Type.ABSTENTION);
+        assertThat(withText.justification()).isEqualTo("Não conheço os candidatos");
+        assertThat(withoutText.justification()).isNull();
+        assertThat(withoutText.hasOrdinal()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should decode legacy JSON ballots")
+    void shouldDecodeLegacyJson() {
+        UUID candidateId = UUID.randomUUID();
+        String json = String.format("""
+                {
+                    "type": "VOTE",
+                    "candidateId": "%s",
+                    "timestamp": "2024-01-01T10:00:00Z"
+                }
+                """, candidateId);
+
+        BallotPayload payload = ballotCodec.decode(json.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(payload.type()).isEqualTo(BallotPayload.Type.VOTE);
+        assertThat(payload.hasOrdinal()).isFalse();
+        assertThat(payload.candidateId()).isEqualTo(candidateId);
+    }
+
+    @Test
+    @DisplayName("Should reject truncated payloads")
+    void shouldRejectTruncatedPayload() {
+        byte[] encoded = ballotCodec.encodeVote(1, Instant.now());
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 1);
+
+        assertThatThrownBy(() -> ballotCodec.decode(truncated))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,56 @@
+package com.votoeletronico.voto.service.crypto;
+
+import com.votoeletronico.voto.config.CryptoProperties;
+import com.votoeletronico.voto.repository.BallotChainCheckpointRepository.Checkpoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("CheckpointSigner Tests")
+class CheckpointSignerTest {
+
+    private final CryptoService cryptoService = new CryptoService();
+
+    private CheckpointSigner signer(String secret) {
+        CryptoProperties properties = new CryptoProperties();
+        properties.setCheckpointSecret(secret);
+        return new CheckpointSigner(properties, cryptoService);
+    }
+
+    @Test
+    @DisplayName("Nodes sharing the secret should accept each other's checkpoints")
+    void shouldVerifyAcrossNodesWithSharedSecret() {
+        String secret = Base64.getEncoder().encodeToString(cryptoService.generateNonce(32));
+        byte[] message = Checkpoint.signedMessage(UUID.randomUUID(), 42, new byte[32], Instant.parse("2026-01-01T00:00:00Z"));
+
+        byte[] signature = signer(secret).sign(message);
+
+        assertThat(signer(secret).verify(message, signature)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject altered checkpoints, missing signatures and other keys")
+    void shouldRejectTamperedCheckpoints() {
+        CheckpointSigner signer = signer(null);
+        UUID electionId = UUID.randomUUID();
+        Instant createdAt = Instant.parse("2026-01-01T00:00:00Z");
+        byte[] signature = signer.sign(Checkpoint.signedMessage(electionId, 42, new byte[32], createdAt));
+
+        assertThat(signer.verify(Checkpoint.signedMessage(electionId, 43, new byte[32], createdAt), signature)).isFalse();
+        assertThat(signer.verify(Checkpoint.signedMessage(electionId, 42, new byte[32], createdAt), null)).isFalse();
+        assertThat(signer(null).verify(Checkpoint.signedMessage(electionId, 42, new byte[32], createdAt), signature)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should refuse a short secret")
+    void shouldRejectShortSecret() {
+        String secret = Base64.getEncoder().encodeToString(new byte[16]);
+
+        assertThatThrownBy(() -> signer(secret)).isInstanceOf(CryptoException.class);
+    }
+}
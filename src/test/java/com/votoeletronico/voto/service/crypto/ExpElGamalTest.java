@@ -0,0 +1,71 @@
+package com.votoeletronico.voto.service.crypto;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ExpElGamal Tests")
+class ExpElGamalTest {
+
+    @Test
+    @DisplayName("Should decrypt the sum of one-hot vectors to the count of each slot")
+    void shouldAddOneHotVectors() {
+        ExpElGamal.KeyPair keyPair = ExpElGamal.generateKeyPair();
+        int slots = 4;
+        long[] expected = new long[slots];
+        ExpElGamal.Ciphertext[] aggregate = ExpElGamal.zero(slots);
+
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            int slot = random.nextInt(slots);
+            expected[slot]++;
+            ExpElGamal.addTo(aggregate, ExpElGamal.encryptOneHot(keyPair.publicKey(), slot, slots));
+        }
+
+        for (int i = 0; i < slots; i++) {
+            assertThat(ExpElGamal.decrypt(keyPair.secret(), aggregate[i], 200)).as("slot %d", i).isEqualTo(expected[i]);
+        }
+    }
+
+    @Test
+    @DisplayName("Should round-trip vectors through the fixed-length encoding, including the empty sum")
+    void shouldEncodeAndDecode() {
+        ExpElGamal.KeyPair keyPair = ExpElGamal.generateKeyPair();
+        ExpElGamal.Ciphertext[] vector = ExpElGamal.encryptOneHot(keyPair.publicKey(), 1, 3);
+
+        byte[] encoded = ExpElGamal.encode(vector);
+        assertThat(encoded).hasSize(3 * ExpElGamal.CIPHERTEXT_LENGTH);
+        assertThat(ExpElGamal.decrypt(keyPair.secret(), ExpElGamal.decode(encoded)[1], 1)).isEqualTo(1);
+        assertThat(ExpElGamal.decrypt(keyPair.secret(), ExpElGamal.decode(encoded)[0], 1)).isZero();
+
+        byte[] empty = ExpElGamal.encode(ExpElGamal.zero(2));
+        assertThat(empty).containsOnly(0);
+        assertThat(ExpElGamal.decode(empty)[0].c1().isInfinity()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should recover large counts and refuse counts above the bound")
+    void shouldBoundDiscreteLog() {
+        ExpElGamal.KeyPair keyPair = ExpElGamal.generateKeyPair();
+        ECPoint publicKey = keyPair.publicKey();
+
+        assertThat(ExpElGamal.decrypt(keyPair.secret(), ExpElGamal.encrypt(publicKey, 1_234_567), 2_000_000))
+                .isEqualTo(1_234_567);
+        assertThatThrownBy(() -> ExpElGamal.decrypt(keyPair.secret(), ExpElGamal.encrypt(publicKey, 5_000), 100))
+                .isInstanceOf(CryptoException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject encodings that are not curve points")
+    void shouldRejectInvalidPoints() {
+        byte[] encoded = new byte[ExpElGamal.CIPHERTEXT_LENGTH];
+        encoded[0] = 0x05;
+
+        assertThatThrownBy(() -> ExpElGamal.decode(encoded)).isInstanceOf(CryptoException.class);
+        assertThatThrownBy(() -> ExpElGamal.decode(new byte[10])).isInstanceOf(CryptoException.class);
+    }
+}
@@ -0,0 +1,44 @@
+package com.votoeletronico.voto.service.crypto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Hex Tests")
+class HexTest {
+
+    @Test
+    @DisplayName("Should encode every byte value like HexFormat")
+    void shouldEncodeAllByteValues() {
+        byte[] bytes = new byte[256];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+
+        assertThat(Hex.encode(bytes)).isEqualTo(HexFormat.of().formatHex(bytes));
+        assertThat(Hex.decode(Hex.encode(bytes))).isEqualTo(bytes);
+    }
+
+    @Test
+    @DisplayName("Should decode upper case hex")
+    void shouldDecodeUpperCase() {
+        assertThat(Hex.decode("00FFa0")).containsExactly(0x00, 0xFF, 0xA0);
+    }
+
+    @Test
+    @DisplayName("Should reject odd length and non-hex characters")
+    void shouldRejectInvalidHex() {
+        assertThatThrownBy(() -> Hex.decode("abc")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Hex.decode("zz")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Hex.decode("é0")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should keep null as null")
+    void shouldEncodeNull() {
+        assertThat(Hex.encode(null)).isNull();
+    }
+}
@@ -0,0 +1,96 @@
+package com.votoeletronico.voto.service.crypto;
+
+import com.votoeletronico.voto.config.CryptoProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("SignatureSchemes Tests")
+class SignatureSchemesTest {
+
+    private final SignatureSchemes signatureSchemes = new SignatureSchemes(new CryptoProperties());
+
+    @Test
+    @DisplayName("Should default to Ed25519 and reject unknown algorithms")
+    void shouldResolveSchemes() {
+        assertThat(signatureSchemes.getDefault().algorithm()).isEqualTo("Ed25519");
+        assertThatThrownBy(() -> signatureSchemes.get("MD5withRSA")).isInstanceOf(CryptoException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Ed25519", "SHA256withECDSA", "SHA256withRSA"})
+    @DisplayName("Should verify own signatures and reject tampered ones")
+    void shouldSignAndVerify(String algorithm) {
+        SignatureScheme scheme = signatureSchemes.get(algorithm);
+        KeyPair keyPair = scheme.generateKeyPair();
+        byte[] message = "token-hash".getBytes(StandardCharsets.UTF_8);
+
+        byte[] signature = scheme.sign(message, keyPair.getPrivate());
+
+        assertThat(scheme.verify(message, signature, keyPair.getPublic())).isTrue();
+        assertThat(scheme.verify("other".getBytes(StandardCharsets.UTF_8), signature, keyPair.getPublic())).isFalse();
+        assertThat(scheme.verify(message, new byte[]{1, 2, 3}, keyPair.getPublic())).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Ed25519", "SHA256withECDSA", "SHA256withRSA"})
+    @DisplayName("Should report exactly the invalid signatures of a batch")
+    void shouldVerifyBatch(String algorithm) {
+        SignatureScheme scheme = signatureSchemes.get(algorithm);
+        KeyPair keyPair = scheme.generateKeyPair();
+
+        List<byte[]> messages = new ArrayList<>();
+        List<byte[]> signatures = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            byte[] message = ("token-" + i).getBytes(StandardCharsets.UTF_8);
+            messages.add(message);
+            signatures.add(scheme.sign(message, keyPair.getPrivate()));
+        }
+        signatures.set(3, new byte[]{0});
+        messages.set(300, "tampered".getBytes(StandardCharsets.UTF_8));
+        signatures.set(599, signatures.get(598));
+
+        BitSet invalid = scheme.verifyBatch(messages, signatures, keyPair.getPublic());
+
+        assertThat(invalid.stream().boxed().toList()).containsExactly(3, 300, 599);
+    }
+
+    @Test
+    @DisplayName("Should report every invalid signature across many parallel chunks, run after run")
+    void shouldVerifyBatchAcrossChunks() {
+        SignatureScheme scheme = signatureSchemes.get("Ed25519");
+        KeyPair keyPair = scheme.generateKeyPair();
+
+        // 16 chunks of 256, with one bad signature in each chunk and a few chunks holding several
+        List<byte[]> messages = new ArrayList<>();
+        List<byte[]> signatures = new ArrayList<>();
+        for (int i = 0; i < 4096; i++) {
+            byte[] message = ("ballot-" + i).getBytes(StandardCharsets.UTF_8);
+            messages.add(message);
+            signatures.add(scheme.sign(message, keyPair.getPrivate()));
+        }
+        List<Integer> expected = new ArrayList<>();
+        for (int chunk = 0; chunk < 16; chunk++) {
+            expected.add(chunk * 256 + chunk);
+        }
+        expected.addAll(List.of(1, 255, 2304, 4095));
+        for (int i : expected) {
+            signatures.set(i, new byte[]{1, 2, 3});
+        }
+
+        for (int run = 0; run < 10; run++) {
+            BitSet invalid = scheme.verifyBatch(messages, signatures, keyPair.getPublic());
+
+            assertThat(invalid.stream().boxed().toList()).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+}
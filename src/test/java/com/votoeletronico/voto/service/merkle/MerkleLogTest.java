@@ -0,0 +1,98 @@
+package com.votoeletronico.voto.service.merkle;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("MerkleLog Tests")
+class MerkleLogTest {
+
+    private static final int MAX_SIZE = 70;
+
+    /**
+     * Complete nodes of a log of MAX_SIZE leaves; a proof for a smaller size must only
+     * read nodes already complete at that size
+     */
+    private static final class Log {
+        final List<byte[]> leaves = new ArrayList<>();
+        final List<List<byte[]>> levels;
+
+        Log(int size) {
+            for (int i = 0; i < size; i++) {
+                leaves.add(MerkleTree.leafHash(new byte[]{(byte) i, (byte) (i >> 8)}));
+            }
+            levels = MerkleTree.levels(leaves);
+        }
+
+        MerkleLog.NodeSource nodesAt(long size) {
+            return (level, index) -> {
+                assertThat((index + 1) << level).as("node %d at level %d is complete", index, level).isLessThanOrEqualTo(size);
+                return levels.get(level).get((int) index);
+            };
+        }
+
+        byte[] expectedRoot(int size) {
+            List<List<byte[]>> prefix = MerkleTree.levels(leaves.subList(0, size));
+            return prefix.get(prefix.size() - 1).get(0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should rebuild the root of every size from complete nodes")
+    void shouldComputeRootOfEverySize() {
+        Log log = new Log(MAX_SIZE);
+        for (int n = 1; n <= MAX_SIZE; n++) {
+            assertThat(MerkleLog.root(n, log.nodesAt(n))).as("root of %d", n).isEqualTo(log.expectedRoot(n));
+        }
+    }
+
+    @Test
+    @DisplayName("Inclusion proofs should verify, and only for their own leaf")
+    void shouldProveInclusion() {
+        Log log = new Log(MAX_SIZE);
+        for (int n = 1; n <= MAX_SIZE; n++) {
+            byte[] root = log.expectedRoot(n);
+            for (int i = 0; i < n; i++) {
+                List<byte[]> path = MerkleLog.inclusionPath(i, n, log.nodesAt(n));
+
+                assertThat(MerkleLog.verifyInclusion(i, n, log.leaves.get(i), path, root))
+                        .as("leaf %d of %d", i, n).isTrue();
+                if (n > 1) {
+                    assertThat(MerkleLog.verifyInclusion((i + 1) % n, n, log.leaves.get(i), path, root)).isFalse();
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Consistency proofs should verify between every pair of sizes")
+    void shouldProveConsistency() {
+        Log log = new Log(MAX_SIZE);
+        for (int n = 1; n <= MAX_SIZE; n++) {
+            byte[] second = log.expectedRoot(n);
+            for (int m = 1; m <= n; m++) {
+                byte[] first = log.expectedRoot(m);
+                List<byte[]> proof = MerkleLog.consistencyProof(m, n, log.nodesAt(n));
+
+                assertThat(MerkleLog.verifyConsistency(m, n, first, second, proof)).as("%d -> %d", m, n).isTrue();
+                if (m < n) {
+                    assertThat(MerkleLog.verifyConsistency(m, n, second, second, proof)).isFalse();
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject sizes outside the tree")
+    void shouldRejectInvalidSizes() {
+        Log log = new Log(8);
+
+        assertThatThrownBy(() -> MerkleLog.root(0, log.nodesAt(8))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> MerkleLog.inclusionPath(8, 8, log.nodesAt(8))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> MerkleLog.consistencyProof(5, 4, log.nodesAt(8))).isInstanceOf(IllegalArgumentException.class);
+        assertThat(MerkleLog.verifyInclusion(8, 8, log.leaves.get(0), List.of(), log.expectedRoot(8))).isFalse();
+    }
+}
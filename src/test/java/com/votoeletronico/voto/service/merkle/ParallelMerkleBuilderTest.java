@@ -0,0 +1,67 @@
+package com.votoeletronico.voto.service.merkle;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ParallelMerkleBuilder Tests")
+class ParallelMerkleBuilderTest {
+
+    private static final int STORED_FROM_LEVEL = 2;
+    private static final int BLOCK_LEVEL = 5;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should produce the root and stored nodes of the sequential build")
+    void shouldMatchSequentialBuild() {
+        Random random = new Random(11);
+        for (int n : new int[]{1, 2, 3, 31, 32, 33, 63, 64, 65, 100, 257, 1000, 4097}) {
+            List<byte[]> hashes = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                byte[] hash = new byte[MerkleTree.HASH_LENGTH];
+                random.nextBytes(hash);
+                hashes.add(hash);
+            }
+
+            Map<String, String> expectedNodes = new TreeMap<>();
+            StreamingMerkleBuilder sequential = new StreamingMerkleBuilder(STORED_FROM_LEVEL, recorder(expectedNodes));
+            hashes.forEach(sequential::add);
+            byte[] expectedRoot = sequential.finish();
+
+            for (ForkJoinPool workers : Arrays.asList(null, pool)) {
+                Map<String, String> nodes = new TreeMap<>();
+                ParallelMerkleBuilder parallel = new ParallelMerkleBuilder(workers, STORED_FROM_LEVEL, recorder(nodes), BLOCK_LEVEL);
+                hashes.forEach(parallel::add);
+
+                assertThat(parallel.finish()).as("root of %d leaves", n).isEqualTo(expectedRoot);
+                assertThat(parallel.leafCount()).isEqualTo(n);
+                assertThat(nodes).as("stored nodes of %d leaves", n).isEqualTo(expectedNodes);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should return null for an empty tree")
+    void shouldReturnNullWhenEmpty() {
+        assertThat(new ParallelMerkleBuilder(pool, STORED_FROM_LEVEL, recorder(new HashMap<>())).finish()).isNull();
+    }
+
+    private static StreamingMerkleBuilder.NodeSink recorder(Map<String, String> nodes) {
+        return (level, index, buffer, offset) -> {
+            String previous = nodes.put(level + ":" + index,
+                    HexFormat.of().formatHex(buffer, offset, offset + MerkleTree.HASH_LENGTH));
+            assertThat(previous).as("node %d:%d emitted twice", level, index).isNull();
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package com.votoeletronico.voto.service.merkle;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("StreamingMerkleBuilder Tests")
+class StreamingMerkleBuilderTest {
+
+    private static final int STORED_FROM_LEVEL = 4;
+
+    @Test
+    @DisplayName("Should build the RFC 6962 tree shape for every leaf count")
+    void shouldMatchRfc6962Root() {
+        for (int n = 1; n <= 300; n++) {
+            List<byte[]> hashes = ballotHashes(n);
+            StreamingMerkleBuilder builder = new StreamingMerkleBuilder(STORED_FROM_LEVEL, (level, index, nodes, offset) -> {
+            });
+            hashes.forEach(builder::add);
+
+            assertThat(builder.finish()).as("root of %d leaves", n).isEqualTo(rfc6962Root(hashes));
+            assertThat(builder.leafCount()).isEqualTo(n);
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand every node of the stored levels to the sink, in index order")
+    void shouldEmitStoredLevels() {
+        List<byte[]> hashes = ballotHashes(1000);
+        Map<Integer, List<byte[]>> stored = new HashMap<>();
+        StreamingMerkleBuilder builder = new StreamingMerkleBuilder(STORED_FROM_LEVEL, (level, index, buffer, offset) -> {
+            List<byte[]> nodes = stored.computeIfAbsent(level, ignored -> new ArrayList<>());
+            assertThat(index).isEqualTo(nodes.size());
+            nodes.add(Arrays.copyOfRange(buffer, offset, offset + MerkleTree.HASH_LENGTH));
+        });
+        hashes.forEach(builder::add);
+        builder.finish();
+
+        List<List<byte[]>> levels = MerkleTree.levels(hashes.stream().map(MerkleTree::leafHash).toList());
+        assertThat(stored.keySet()).containsExactlyInAnyOrderElementsOf(
+                IntStream.range(STORED_FROM_LEVEL, levels.size()).boxed().toList());
+        for (int level = STORED_FROM_LEVEL; level < levels.size(); level++) {
+            assertThat(stored.get(level)).hasSize((int) MerkleTree.levelSize(hashes.size(), level));
+            assertThat(stored.get(level)).containsExactlyElementsOf(levels.get(level));
+        }
+    }
+
+    @Test
+    @DisplayName("Should return null for an empty tree")
+    void shouldReturnNullWhenEmpty() {
+        assertThat(new StreamingMerkleBuilder(STORED_FROM_LEVEL, (level, index, nodes, offset) -> {
+        }).finish()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should verify audit paths and reject a different ballot")
+    void shouldVerifyProofs() {
+        List<byte[]> hashes = ballotHashes(37);
+        List<List<byte[]>> levels = MerkleTree.levels(hashes.stream().map(MerkleTree::leafHash).toList());
+        byte[] root = levels.get(levels.size() - 1).get(0);
+
+        for (int index = 0; index < hashes.size(); index++) {
+            List<MerkleProof.Step> path = new ArrayList<>();
+            int node = index;
+            for (int level = 0; level < levels.size() - 1; level++, node >>= 1) {
+                int sibling = node ^ 1;
+                if (sibling < levels.get(level).size()) {
+                    path.add(new MerkleProof.Step(levels.get(level).get(sibling), sibling < node));
+                }
+            }
+            MerkleProof proof = new MerkleProof(index, hashes.size(), root, path);
+
+            assertThat(proof.verify(hashes.get(index))).isTrue();
+            assertThat(proof.verify(hashes.get((index + 1) % hashes.size()))).isFalse();
+        }
+    }
+
+    private static List<byte[]> ballotHashes(int n) {
+        Random random = new Random(n);
+        List<byte[]> hashes = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            byte[] hash = new byte[MerkleTree.HASH_LENGTH];
+            random.nextBytes(hash);
+            hashes.add(hash);
+        }
+        return hashes;
+    }
+
+    /**
+     * MTH from RFC 6962, section 2.1
+     */
+    private static byte[] rfc6962Root(List<byte[]> hashes) {
+        if (hashes.size() == 1) {
+            return MerkleTree.leafHash(hashes.get(0));
+        }
+        int split = Integer.highestOneBit(hashes.size() - 1);
+        return MerkleTree.nodeHash(rfc6962Root(hashes.subList(0, split)), rfc6962Root(hashes.subList(split, hashes.size())));
+    }
+}
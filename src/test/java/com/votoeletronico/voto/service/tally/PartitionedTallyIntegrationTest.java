@@ -0,0 +1,246 @@
+package com.votoeletronico.voto.service.tally;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.votoeletronico.voto.BaseCommittedIntegrationTest;
+import com.votoeletronico.voto.config.TallyProperties;
+import com.votoeletronico.voto.domain.election.Candidate;
+import com.votoeletronico.voto.domain.election.Election;
+import com.votoeletronico.voto.domain.election.ElectionStatus;
+import com.votoeletronico.voto.domain.results.ElectionResult;
+import com.votoeletronico.voto.domain.results.RecountJob;
+import com.votoeletronico.voto.domain.results.RecountReport;
+import com.votoeletronico.voto.domain.results.TallyJob;
+import com.votoeletronico.voto.domain.results.TallyJobStatus;
+import com.votoeletronico.voto.domain.results.TallyPartition;
+import com.votoeletronico.voto.domain.results.TallyStatus;
+import com.votoeletronico.voto.domain.voter.Voter;
+import com.votoeletronico.voto.dto.request.CastAbstentionRequest;
+import com.votoeletronico.voto.dto.request.CastVoteRequest;
+import com.votoeletronico.voto.dto.request.TokenRequest;
+import com.votoeletronico.voto.repository.CandidateRepository;
+import com.votoeletronico.voto.repository.ElectionRepository;
+import com.votoeletronico.voto.repository.TallyJobRepository;
+import com.votoeletronico.voto.repository.TallyLedgerRepository;
+import com.votoeletronico.voto.repository.TallyPartitionRepository;
+import com.votoeletronico.voto.repository.VoterRepository;
+import com.votoeletronico.voto.service.ElectionService;
+import com.votoeletronico.voto.service.TallyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two nodes, told apart by their lease owner, count the partitions of one tally job
+ * through tally_partitions. This context's own runner only polls at startup, so the
+ * test decides who claims what.
+ */
+@DisplayName("Partitioned Tally Integration Tests")
+@TestPropertySource(properties = {
+        "app.tally.partition-size=4",
+        "app.tally.job-poll-interval-ms=3600000",
+        "app.tally.partition-poll-interval-ms=3600000"
+})
+class PartitionedTallyIntegrationTest extends BaseCommittedIntegrationTest {
+
+    private static final long TIMEOUT_MS = 30_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ElectionRepository electionRepository;
+
+    @Autowired
+    private CandidateRepository candidateRepository;
+
+    @Autowired
+    private VoterRepository voterRepository;
+
+    @Autowired
+    private TallyJobRepository tallyJobRepository;
+
+    @Autowired
+    private TallyPartitionRepository tallyPartitionRepository;
+
+    @Autowired
+    private TallyLedgerRepository tallyLedgerRepository;
+
+    @Autowired
+    private TallyProperties tallyProperties;
+
+    @Autowired
+    private ElectionService electionService;
+
+    @Autowired
+    private TallyService tallyService;
+
+    @Autowired
+    private RecountService recountService;
+
+    private Election election;
+    private Candidate alice;
+    private Candidate bob;
+    private int voters;
+
+    @BeforeEach
+    void setUp() {
+        Instant now = Instant.now();
+        election = electionRepository.save(Election.builder()
+                .name("Partitioned Election")
+                .startTs(now.minus(1, ChronoUnit.HOURS))
+                .endTs(now.plus(2, ChronoUnit.HOURS))
+                .status(ElectionStatus.RUNNING)
+                .maxVotesPerVoter(1)
+                .allowAbstention(true)
+                .requireJustification(false)
+                .build());
+        alice = candidateRepository.save(Candidate.builder().election(election).name("Alice").ballotNumber(10).build());
+        bob = candidateRepository.save(Candidate.builder().election(election).name("Bob").ballotNumber(20).build());
+    }
+
+    @Test
+    @DisplayName("Partitions counted by two nodes and a lease handover should merge into the single-node result")
+    void shouldMergePartitionsCountedByTwoNodes() throws Exception {
+        // Alice 5, Bob 3, one abstention: partitions seq 1-4, 5-8 and 9
+        for (Candidate candidate : List.of(alice, bob, alice, alice, bob, alice, bob, alice)) {
+            castVote(candidate);
+        }
+        castAbstention();
+        electionService.closeElection(election.getId());
+
+        TallyJob queued = tallyService.startTally(election.getId(), null);
+        assertThat(tallyPartitionRepository.findByJobId(queued.id()))
+                .extracting(TallyPartition::fromSeq, TallyPartition::toSeq)
+                .containsExactly(tuple(1L, 4L), tuple(5L, 8L), tuple(9L, 9L));
+
+        Instant now = Instant.now();
+        TallyJob job = tallyJobRepository.claim(queued.id(), "node-a", now, lease(now)).orElseThrow();
+
+        // Node B takes the middle partition and dies without counting it
+        assertThat(claim(queued.id(), 1, "node-b", now, now.plusMillis(1))).isPresent();
+        assertThat(claim(queued.id(), 1, "node-a", now, lease(now))).isEmpty();
+
+        // Both nodes count a partition at the same time
+        CompletableFuture<Void> nodeA = CompletableFuture.runAsync(() ->
+                tallyService.runPartition(claim(queued.id(), 0, "node-a", now, lease(now)).orElseThrow(), "node-a"));
+        CompletableFuture<Void> nodeB = CompletableFuture.runAsync(() ->
+                tallyService.runPartition(claim(queued.id(), 2, "node-b", now, lease(now)).orElseThrow(), "node-b"));
+        CompletableFuture.allOf(nodeA, nodeB).get(30, TimeUnit.SECONDS);
+
+        // Once node B's lease expires, node A finds the middle partition claimable and takes it over
+        Instant later = now.plusSeconds(1);
+        assertThat(tallyPartitionRepository.findClaimable(later, tallyProperties.getPartitionMaxAttempts(), 10))
+                .extracting(TallyPartition::partitionNo)
+                .containsExactly(1);
+        TallyPartition retaken = claim(queued.id(), 1, "node-a", later, lease(later)).orElseThrow();
+        assertThat(retaken.attempts()).isEqualTo(2);
+        tallyService.runPartition(retaken, "node-a");
+
+        // Node B comes back: its lease is gone, so its counters are refused
+        assertThat(tallyPartitionRepository.complete(queued.id(), 1, "node-b", new long[]{4, 0}, 4, 0, 0,
+                Instant.now())).isFalse();
+
+        assertThat(tallyPartitionRepository.findByJobId(queued.id()))
+                .extracting(TallyPartition::status, TallyPartition::owner)
+                .containsExactly(tuple(TallyJobStatus.COMPLETED, "node-a"), tuple(TallyJobStatus.COMPLETED, "node-a"),
+                        tuple(TallyJobStatus.COMPLETED, "node-b"));
+
+        tallyService.runJob(job, "node-a");
+
+        assertThat(tallyJobRepository.findById(queued.id()).orElseThrow().status()).isEqualTo(TallyJobStatus.COMPLETED);
+        assertThat(tallyLedgerRepository.countTallied(election.getId())).isEqualTo(9);
+        ElectionResult result = tallyService.getResults(election.getId());
+        assertThat(result.getStatus()).isEqualTo(TallyStatus.COMPLETED);
+        assertThat(result.getTotalBallots()).isEqualTo(9);
+        assertThat(result.getValidVotes()).isEqualTo(8);
+        assertThat(result.getAbstentions()).isEqualTo(1);
+
+        // A single pass over every ballot gives the same counts, Merkle root and results hash
+        RecountJob started = recountService.startRecount(election.getId(), null);
+        RecountJob recount = await(() -> {
+            RecountJob latest = recountService.getRecountJob(election.getId(), started.id());
+            return latest.status() == TallyJobStatus.RUNNING ? null : latest;
+        });
+        assertThat(recount.status()).isEqualTo(TallyJobStatus.COMPLETED);
+        RecountReport report = recount.report();
+        assertThat(report.differences()).isEmpty();
+        assertThat(report.merkleRoot()).isEqualTo(result.getMerkleRoot());
+        assertThat(report.candidates())
+                .extracting(RecountReport.CandidateCount::candidateName, RecountReport.CandidateCount::storedVotes,
+                        RecountReport.CandidateCount::recountedVotes)
+                .containsExactlyInAnyOrder(tuple("Alice", 5L, 5L), tuple("Bob", 3L, 3L));
+    }
+
+    private Optional<TallyPartition> claim(UUID jobId, int partitionNo, String owner, Instant now,
+                                           Instant leaseExpiresAt) {
+        return tallyPartitionRepository.claim(jobId, partitionNo, owner, tallyProperties.getPartitionMaxAttempts(),
+                now, leaseExpiresAt);
+    }
+
+    private Instant lease(Instant now) {
+        return now.plusMillis(tallyProperties.getLeaseTimeoutMs());
+    }
+
+    private void castVote(Candidate candidate) throws Exception {
+        CastVoteRequest request = new CastVoteRequest(requestToken(), candidate.getId());
+        mockMvc.perform(post("/api/voting/elections/{electionId}/vote", election.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+    }
+
+    private void castAbstention() throws Exception {
+        CastAbstentionRequest request = new CastAbstentionRequest(requestToken(), "Personal reasons");
+        mockMvc.perform(post("/api/voting/elections/{electionId}/abstain", election.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+    }
+
+    private String requestToken() throws Exception {
+        Voter voter = new Voter();
+        voter.setElection(election);
+        voter.setExternalId("4440000000" + (++voters));
+        voter.setEligible(true);
+        voterRepository.save(voter);
+
+        String response = mockMvc.perform(post("/api/voting/elections/{electionId}/token", election.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TokenRequest(voter.getExternalId()))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("tokenValue").asText();
+    }
+
+    private static <T> T await(Supplier<T> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            T value = condition.get();
+            if (value != null) {
+                return value;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Timed out after " + TIMEOUT_MS + " ms");
+    }
+}
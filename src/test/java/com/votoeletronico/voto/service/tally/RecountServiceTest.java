@@ -0,0 +1,283 @@
+package com.votoeletronico.voto.service.tally;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.votoeletronico.voto.config.TallyProperties;
+import com.votoeletronico.voto.domain.election.Candidate;
+import com.votoeletronico.voto.domain.election.Election;
+import com.votoeletronico.voto.domain.election.ElectionStatus;
+import com.votoeletronico.voto.domain.results.CandidateResult;
+import com.votoeletronico.voto.domain.results.ElectionResult;
+import com.votoeletronico.voto.domain.results.RecountJob;
+import com.votoeletronico.voto.domain.results.RecountReport;
+import com.votoeletronico.voto.domain.results.TallyJobStatus;
+import com.votoeletronico.voto.domain.results.TallyStatus;
+import com.votoeletronico.voto.exception.BusinessException;
+import com.votoeletronico.voto.repository.ElectionResultRepository;
+import com.votoeletronico.voto.repository.EncryptedBallotJdbcRepository;
+import com.votoeletronico.voto.repository.EncryptedBallotJdbcRepository.BallotRow;
+import com.votoeletronico.voto.repository.RecountJobRepository;
+import com.votoeletronico.voto.service.TallyService;
+import com.votoeletronico.voto.service.VotingService;
+import com.votoeletronico.voto.service.crypto.BallotCodec;
+import com.votoeletronico.voto.service.crypto.CryptoService;
+import com.votoeletronico.voto.service.crypto.EncryptedData;
+import com.votoeletronico.voto.service.crypto.Hex;
+import com.votoeletronico.voto.service.merkle.StreamingMerkleBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.SecretKey;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Recounts encrypted ballots held in memory against a stored result, on the background path
+ */
+@DisplayName("RecountService Tests")
+class RecountServiceTest {
+
+    private static final int BALLOTS = 23;
+    private static final int CANDIDATES = 3;
+    private static final long TIMEOUT_MS = 10_000;
+
+    private final UUID electionId = UUID.randomUUID();
+    private final UUID jobId = UUID.randomUUID();
+
+    private final CryptoService cryptoService = new CryptoService();
+    private final BallotCodec ballotCodec = new BallotCodec(new ObjectMapper());
+    private final SecretKey key = cryptoService.generateAESKey();
+
+    private final ElectionResultRepository electionResultRepository = mock(ElectionResultRepository.class);
+    private final RecountJobRepository recountJobRepository = mock(RecountJobRepository.class);
+    private final EncryptedBallotJdbcRepository ballotJdbcRepository = mock(EncryptedBallotJdbcRepository.class);
+    private final VotingService votingService = mock(VotingService.class);
+    private final TallyService tallyService = mock(TallyService.class);
+
+    private final List<BallotRow> ballots = new ArrayList<>();
+    private final long[] votes = new long[CANDIDATES];
+    private long abstentions;
+    private String merkleRoot;
+
+    private Election election;
+    private RecountService recountService;
+
+    @BeforeEach
+    void setUp() {
+        election = Election.builder()
+                .name("Recount Election")
+                .startTs(Instant.now().minusSeconds(7200))
+                .endTs(Instant.now().minusSeconds(3600))
+                .status(ElectionStatus.CLOSED)
+                .build();
+        election.setId(electionId);
+        for (int i = 0; i < CANDIDATES; i++) {
+            Candidate candidate = Candidate.builder().name("Candidate " + i).ballotNumber(10 + i).build();
+            candidate.setId(UUID.randomUUID());
+            election.addCandidate(candidate);
+        }
+
+        StreamingMerkleBuilder merkle = new StreamingMerkleBuilder(Integer.MAX_VALUE, (level, index, nodes, offset) -> {
+        });
+        for (int seq = 1; seq <= BALLOTS; seq++) {
+            byte[] plaintext;
+            if (seq % 5 == 0) {
+                plaintext = ballotCodec.encodeAbstention(null, Instant.now());
+                abstentions++;
+            } else {
+                int ordinal = seq % CANDIDATES;
+                plaintext = ballotCodec.encodeVote(ordinal, Instant.now());
+                votes[ordinal]++;
+            }
+            EncryptedData encrypted = cryptoService.encryptAES(plaintext, key);
+            byte[] ballotHash = cryptoService.sha256(encrypted.ciphertext(), encrypted.nonce());
+            merkle.add(ballotHash);
+            ballots.add(new BallotRow(seq, UUID.randomUUID(), encrypted.ciphertext(), encrypted.nonce(), ballotHash));
+        }
+        merkleRoot = Hex.encode(merkle.finish());
+
+        when(votingService.getElectionKeyForTally(electionId)).thenReturn(key);
+        when(tallyService.resultsHash(anyLong(), anyLong(), anyString())).thenAnswer(invocation ->
+                resultsHash(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+        when(ballotJdbcRepository.findChunk(eq(electionId), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long afterSeq = invocation.getArgument(1);
+            int limit = invocation.getArgument(2);
+            return ballots.stream().filter(ballot -> ballot.seq() > afterSeq).limit(limit).toList();
+        });
+        when(recountJobRepository.create(eq(electionId), any(), eq((long) BALLOTS))).thenReturn(jobId);
+        when(recountJobRepository.findById(jobId)).thenReturn(Optional.of(new RecountJob(jobId, electionId,
+                TallyJobStatus.RUNNING, null, null, BALLOTS, 0, null, Instant.now(), Instant.now(), null)));
+        when(recountJobRepository.progress(eq(jobId), anyLong(), any())).thenReturn(true);
+        when(recountJobRepository.complete(eq(jobId), any(), any())).thenReturn(true);
+
+        TallyProperties tallyProperties = new TallyProperties();
+        tallyProperties.setChunkSize(4);
+        tallyProperties.setRecountParallelism(2);
+        tallyProperties.setRecountMaxBallotsPerSecond(0);
+        recountService = new RecountService(electionResultRepository, recountJobRepository, ballotJdbcRepository,
+                votingService, tallyService, cryptoService, ballotCodec,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), tallyProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        recountService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should report a match when the stored result equals the recount")
+    void shouldMatchUntamperedResult() {
+        storeResult(votes.clone(), resultsHash(validVotes(), abstentions, merkleRoot));
+
+        RecountJob job = recountService.startRecount(electionId, null);
+
+        assertThat(job.id()).isEqualTo(jobId);
+        assertThat(job.status()).isEqualTo(TallyJobStatus.RUNNING);
+        RecountReport report = awaitReport();
+        assertThat(report.matches()).isTrue();
+        assertThat(report.differences()).isEmpty();
+        assertThat(report.ballotsRecounted()).isEqualTo(BALLOTS);
+        assertThat(report.abstentions()).isEqualTo(abstentions);
+        assertThat(report.merkleRoot()).isEqualTo(merkleRoot);
+        assertThat(report.candidates())
+                .extracting(RecountReport.CandidateCount::recountedVotes)
+                .containsExactly(votes[0], votes[1], votes[2]);
+
+        // Progress is reported once per chunk, ending with every ballot
+        verify(recountJobRepository, times((BALLOTS + 3) / 4)).progress(eq(jobId), anyLong(), any());
+        verify(recountJobRepository).progress(eq(jobId), eq((long) BALLOTS), any());
+        verify(recountJobRepository, never()).fail(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should report every field of a tampered stored result")
+    void shouldReportTamperedResult() {
+        // Two votes moved from the second to the first candidate: the totals, and so the results hash, still agree
+        long[] tampered = votes.clone();
+        tampered[0] += 2;
+        tampered[1] -= 2;
+        storeResult(tampered, resultsHash(validVotes(), abstentions, merkleRoot));
+
+        recountService.startRecount(electionId, null);
+
+        RecountReport report = awaitReport();
+        assertThat(report.matches()).isFalse();
+        assertThat(report.differences())
+                .extracting(RecountReport.Difference::field)
+                .containsExactly("candidate[10].voteCount", "candidate[11].voteCount");
+        assertThat(report.differences())
+                .filteredOn(difference -> difference.field().equals("candidate[10].voteCount"))
+                .singleElement()
+                .satisfies(difference -> {
+                    assertThat(difference.stored()).isEqualTo(Long.toString(votes[0] + 2));
+                    assertThat(difference.recounted()).isEqualTo(Long.toString(votes[0]));
+                });
+    }
+
+    @Test
+    @DisplayName("Should report a stored Merkle root that does not cover the ballots")
+    void shouldReportTamperedMerkleRoot() {
+        String storedRoot = Hex.encode(new byte[32]);
+        ElectionResult result = storedResult(votes.clone(), resultsHash(validVotes(), abstentions, storedRoot));
+        result.setMerkleRoot(storedRoot);
+        when(electionResultRepository.findByElectionId(electionId)).thenReturn(Optional.of(result));
+
+        recountService.startRecount(electionId, null);
+
+        RecountReport report = awaitReport();
+        assertThat(report.matches()).isFalse();
+        assertThat(report.differences())
+                .extracting(RecountReport.Difference::field)
+                .containsExactly("merkleRoot", "resultsHash");
+        assertThat(report.merkleRoot()).isEqualTo(merkleRoot);
+    }
+
+    @Test
+    @DisplayName("Should reject an election without a completed tally before starting a job")
+    void shouldRejectIncompleteTally() {
+        ElectionResult inProgress = ElectionResult.builder().election(election).status(TallyStatus.IN_PROGRESS).build();
+        when(electionResultRepository.findByElectionId(electionId)).thenReturn(Optional.of(inProgress));
+
+        assertThatThrownBy(() -> recountService.startRecount(electionId, null))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("completed tally");
+        verify(recountJobRepository, never()).create(any(), any(), anyLong());
+
+        // The rejected request gave its permit back
+        storeResult(votes.clone(), resultsHash(validVotes(), abstentions, merkleRoot));
+        recountService.startRecount(electionId, null);
+        assertThat(awaitReport().matches()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should stop and fail a recount that is no longer running")
+    void shouldStopAbandonedRecount() {
+        storeResult(votes.clone(), resultsHash(validVotes(), abstentions, merkleRoot));
+        when(recountJobRepository.progress(eq(jobId), anyLong(), any())).thenReturn(false);
+
+        recountService.startRecount(electionId, null);
+
+        verify(recountJobRepository, timeout(TIMEOUT_MS)).fail(eq(jobId), contains("no longer running"), any());
+        verify(recountJobRepository, times(1)).progress(eq(jobId), anyLong(), any());
+        verify(recountJobRepository, never()).complete(any(), any(), any());
+    }
+
+    private RecountReport awaitReport() {
+        ArgumentCaptor<RecountReport> report = ArgumentCaptor.forClass(RecountReport.class);
+        verify(recountJobRepository, timeout(TIMEOUT_MS)).complete(eq(jobId), report.capture(), any());
+        return report.getValue();
+    }
+
+    private void storeResult(long[] candidateVotes, String resultsHash) {
+        ElectionResult result = storedResult(candidateVotes, resultsHash);
+        when(electionResultRepository.findByElectionId(electionId)).thenReturn(Optional.of(result));
+    }
+
+    private ElectionResult storedResult(long[] candidateVotes, String resultsHash) {
+        ElectionResult result = ElectionResult.builder()
+                .election(election)
+                .status(TallyStatus.COMPLETED)
+                .totalBallots((long) BALLOTS)
+                .validVotes(validVotes())
+                .abstentions(abstentions)
+                .invalidVotes(0L)
+                .merkleRoot(merkleRoot)
+                .resultsHash(resultsHash)
+                .build();
+        List<Candidate> candidates = election.getCandidatesInBallotOrder();
+        for (int i = 0; i < CANDIDATES; i++) {
+            result.addCandidateResult(CandidateResult.builder()
+                    .candidate(candidates.get(i))
+                    .voteCount(candidateVotes[i])
+                    .build());
+        }
+        return result;
+    }
+
+    private long validVotes() {
+        long valid = 0;
+        for (long count : votes) {
+            valid += count;
+        }
+        return valid;
+    }
+
+    private String resultsHash(long validVotes, long abstentions, String merkleRoot) {
+        return cryptoService.hashSHA256(validVotes + ":" + abstentions + ":" + merkleRoot);
+    }
+}
@@ -0,0 +1,188 @@
+package com.votoeletronico.voto.service.tally;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.votoeletronico.voto.BaseCommittedIntegrationTest;
+import com.votoeletronico.voto.domain.election.Candidate;
+import com.votoeletronico.voto.domain.election.Election;
+import com.votoeletronico.voto.domain.election.ElectionStatus;
+import com.votoeletronico.voto.domain.results.ElectionResult;
+import com.votoeletronico.voto.domain.results.RecountJob;
+import com.votoeletronico.voto.domain.results.RecountReport;
+import com.votoeletronico.voto.domain.results.TallyJob;
+import com.votoeletronico.voto.domain.results.TallyJobStatus;
+import com.votoeletronico.voto.domain.results.TallyStatus;
+import com.votoeletronico.voto.domain.voter.Voter;
+import com.votoeletronico.voto.dto.request.CastAbstentionRequest;
+import com.votoeletronico.voto.dto.request.CastVoteRequest;
+import com.votoeletronico.voto.dto.request.TokenRequest;
+import com.votoeletronico.voto.repository.CandidateRepository;
+import com.votoeletronico.voto.repository.ElectionRepository;
+import com.votoeletronico.voto.repository.SealedTallyRepository;
+import com.votoeletronico.voto.repository.VoterRepository;
+import com.votoeletronico.voto.service.ElectionService;
+import com.votoeletronico.voto.service.TallyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Casts ballots into an election with a sealed tally, closes it, and checks the decrypted
+ * aggregate against a recount that decrypts every ballot
+ */
+@DisplayName("Sealed Tally Integration Tests")
+class SealedTallyIntegrationTest extends BaseCommittedIntegrationTest {
+
+    private static final long TIMEOUT_MS = 30_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ElectionRepository electionRepository;
+
+    @Autowired
+    private CandidateRepository candidateRepository;
+
+    @Autowired
+    private VoterRepository voterRepository;
+
+    @Autowired
+    private SealedTallyRepository sealedTallyRepository;
+
+    @Autowired
+    private ElectionService electionService;
+
+    @Autowired
+    private TallyService tallyService;
+
+    @Autowired
+    private RecountService recountService;
+
+    private Election election;
+    private Candidate alice;
+    private Candidate bob;
+    private int voters;
+
+    @BeforeEach
+    void setUp() {
+        Instant now = Instant.now();
+        election = electionRepository.save(Election.builder()
+                .name("Sealed Election")
+                .startTs(now.minus(1, ChronoUnit.HOURS))
+                .endTs(now.plus(2, ChronoUnit.HOURS))
+                .status(ElectionStatus.DRAFT)
+                .maxVotesPerVoter(1)
+                .allowAbstention(true)
+                .requireJustification(false)
+                .sealedTally(true)
+                .build());
+        alice = candidateRepository.save(Candidate.builder().election(election).name("Alice").ballotNumber(10).build());
+        bob = candidateRepository.save(Candidate.builder().election(election).name("Bob").ballotNumber(20).build());
+
+        electionService.startElection(election.getId());
+    }
+
+    @Test
+    @DisplayName("Closing should decrypt the aggregate into the same counts as a pass over the ballots")
+    void shouldMatchBallotPass() throws Exception {
+        // Alice 3, Bob 2, one abstention
+        castVote(alice);
+        castVote(bob);
+        castVote(alice);
+        castAbstention();
+        castVote(alice);
+        castVote(bob);
+        assertThat(sealedTallyRepository.find(election.getId()).orElseThrow().ballotCount()).isEqualTo(6);
+
+        electionService.closeElection(election.getId());
+
+        TallyJob job = await(() -> {
+            try {
+                TallyJob latest = tallyService.getLatestTallyJob(election.getId());
+                return latest.status() == TallyJobStatus.COMPLETED ? latest : null;
+            } catch (RuntimeException notStartedYet) {
+                return null;
+            }
+        });
+        // The sealed pass covers the whole chain in one checkpoint
+        assertThat(job.lastSeq()).isEqualTo(6);
+
+        ElectionResult result = tallyService.getResults(election.getId());
+        assertThat(result.getStatus()).isEqualTo(TallyStatus.COMPLETED);
+        assertThat(result.getTotalBallots()).isEqualTo(6);
+        assertThat(result.getValidVotes()).isEqualTo(5);
+        assertThat(result.getAbstentions()).isEqualTo(1);
+
+        // The recount decrypts and counts every ballot, and compares with the stored result
+        RecountJob started = recountService.startRecount(election.getId(), null);
+        RecountJob recount = await(() -> {
+            RecountJob latest = recountService.getRecountJob(election.getId(), started.id());
+            return latest.status() == TallyJobStatus.RUNNING ? null : latest;
+        });
+        assertThat(recount.status()).isEqualTo(TallyJobStatus.COMPLETED);
+        RecountReport report = recount.report();
+        assertThat(report.ballotsRecounted()).isEqualTo(6);
+        assertThat(report.differences()).isEmpty();
+        assertThat(report.candidates())
+                .extracting(RecountReport.CandidateCount::candidateName, RecountReport.CandidateCount::storedVotes,
+                        RecountReport.CandidateCount::recountedVotes)
+                .containsExactlyInAnyOrder(tuple("Alice", 3L, 3L), tuple("Bob", 2L, 2L));
+    }
+
+    private void castVote(Candidate candidate) throws Exception {
+        String token = requestToken();
+        mockMvc.perform(post("/api/voting/elections/{electionId}/vote", election.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CastVoteRequest(token, candidate.getId()))))
+                .andExpect(status().isCreated());
+    }
+
+    private void castAbstention() throws Exception {
+        CastAbstentionRequest request = new CastAbstentionRequest(requestToken(), "Personal reasons");
+        mockMvc.perform(post("/api/voting/elections/{electionId}/abstain", election.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+    }
+
+    private String requestToken() throws Exception {
+        Voter voter = new Voter();
+        voter.setElection(election);
+        voter.setExternalId("5550000000" + (++voters));
+        voter.setEligible(true);
+        voterRepository.save(voter);
+
+        String response = mockMvc.perform(post("/api/voting/elections/{electionId}/token", election.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TokenRequest(voter.getExternalId()))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("tokenValue").asText();
+    }
+
+    private static <T> T await(Supplier<T> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            T value = condition.get();
+            if (value != null) {
+                return value;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Timed out after " + TIMEOUT_MS + " ms");
+    }
+}
@@ -0,0 +1,165 @@
+package com.votoeletronico.voto.service.tally;
+
+import com.votoeletronico.voto.config.CryptoProperties;
+import com.votoeletronico.voto.repository.SealedTallyRepository;
+import com.votoeletronico.voto.repository.SealedTallyRepository.SealedTally;
+import com.votoeletronico.voto.service.crypto.CryptoException;
+import com.votoeletronico.voto.service.crypto.CryptoService;
+import com.votoeletronico.voto.service.crypto.ElectionKeyRing;
+import com.votoeletronico.voto.service.voting.SealedVote;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the sealed tally against an in-memory sealed_tallies row
+ */
+@DisplayName("SealedTallyService Tests")
+class SealedTallyServiceTest {
+
+    private static final int CANDIDATES = 3;
+
+    private final UUID electionId = UUID.randomUUID();
+    private final CryptoService cryptoService = new CryptoService();
+    private final SealedTallyRepository sealedTallyRepository = mock(SealedTallyRepository.class);
+
+    // The election's sealed_tallies row
+    private final AtomicReference<SealedTally> row = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            row.set(new SealedTally(electionId, invocation.getArgument(1), invocation.getArgument(2),
+                    invocation.getArgument(3), 0));
+            return null;
+        }).when(sealedTallyRepository).create(eq(electionId), any(), anyInt(), any());
+        when(sealedTallyRepository.find(electionId)).thenAnswer(invocation -> Optional.ofNullable(row.get()));
+        when(sealedTallyRepository.findForUpdate(electionId)).thenAnswer(invocation -> Optional.ofNullable(row.get()));
+        doAnswer(invocation -> {
+            SealedTally tally = row.get();
+            long added = invocation.getArgument(2);
+            row.set(new SealedTally(electionId, tally.publicKey(), tally.slots(), invocation.getArgument(1),
+                    tally.ballotCount() + added));
+            return null;
+        }).when(sealedTallyRepository).updateAggregate(eq(electionId), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should decrypt the accumulated batches into the counts of each candidate and abstentions")
+    void shouldAccumulateAndDecrypt() {
+        SealedTallyService service = newService(new CryptoProperties());
+        service.open(electionId, CANDIDATES);
+
+        // Three batches: votes for candidates 0, 2, 2, 1, 2 and two abstentions
+        service.accumulate(electionId, List.of(vote(service, 0), vote(service, 2)));
+        service.accumulate(electionId, List.of(vote(service, 2), service.encryptAbstention(electionId, CANDIDATES)));
+        service.accumulate(electionId, List.of(vote(service, 1), vote(service, 2),
+                service.encryptAbstention(electionId, CANDIDATES)));
+
+        assertThat(service.canDecrypt(electionId)).isTrue();
+        TallyCounts counts = service.decrypt(electionId, CANDIDATES, 7);
+
+        assertThat(counts.candidateVotes()).containsExactly(1, 1, 3);
+        assertThat(counts.validVotes()).isEqualTo(5);
+        assertThat(counts.abstentions()).isEqualTo(2);
+        assertThat(counts.invalidVotes()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should refuse an aggregate that does not cover every ballot of the chain")
+    void shouldRefuseIncompleteAggregate() {
+        SealedTallyService service = newService(new CryptoProperties());
+        service.open(electionId, CANDIDATES);
+        service.accumulate(electionId, List.of(vote(service, 0), vote(service, 1)));
+
+        assertThatThrownBy(() -> service.decrypt(electionId, CANDIDATES, 3))
+                .isInstanceOf(CryptoException.class)
+                .hasMessageContaining("covers 2 ballots");
+    }
+
+    @Test
+    @DisplayName("Without a ballot key secret, only the node that opened the tally can decrypt it")
+    void shouldKeepGeneratedKeyOnOpeningNode() {
+        SealedTallyService opener = newService(new CryptoProperties());
+        opener.open(electionId, CANDIDATES);
+        opener.accumulate(electionId, List.of(vote(opener, 1)));
+
+        // Another node, or the same one after a restart
+        SealedTallyService other = newService(new CryptoProperties());
+        assertThat(other.canDecrypt(electionId)).isFalse();
+        assertThatThrownBy(() -> other.decrypt(electionId, CANDIDATES, 1))
+                .isInstanceOf(CryptoException.class)
+                .hasMessageContaining("not found");
+    }
+
+    @Test
+    @DisplayName("With a ballot key secret, every node derives the same tally key")
+    void shouldDeriveTallyKeyFromSecret() {
+        CryptoProperties properties = withSecret(cryptoService.generateNonce(32));
+        SealedTallyService opener = newService(properties);
+        opener.open(electionId, CANDIDATES);
+        opener.accumulate(electionId, List.of(vote(opener, 1), vote(opener, 1), vote(opener, 0)));
+
+        SealedTallyService other = newService(properties);
+        assertThat(other.canDecrypt(electionId)).isTrue();
+        assertThat(other.decrypt(electionId, CANDIDATES, 3).candidateVotes()).containsExactly(1, 2, 0);
+
+        // A node with another secret holds a key, but not the one the votes were encrypted to
+        SealedTallyService stranger = newService(withSecret(cryptoService.generateNonce(32)));
+        assertThat(stranger.canDecrypt(electionId)).isFalse();
+        assertThatThrownBy(() -> stranger.decrypt(electionId, CANDIDATES, 3))
+                .isInstanceOf(CryptoException.class)
+                .hasMessageContaining("does not match");
+    }
+
+    @Test
+    @DisplayName("Should drop a generated tally key when the start of the election rolls back")
+    void shouldDropGeneratedKeyOnRollback() {
+        SealedTallyService service = newService(new CryptoProperties());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.open(electionId, CANDIDATES);
+            List<TransactionSynchronization> synchronizations =
+                    new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+            synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        row.set(null);
+
+        // The retried start opens the tally with a new key
+        assertThatCode(() -> service.open(electionId, CANDIDATES)).doesNotThrowAnyException();
+        assertThat(service.canDecrypt(electionId)).isTrue();
+    }
+
+    private SealedTallyService newService(CryptoProperties properties) {
+        return new SealedTallyService(sealedTallyRepository, new ElectionKeyRing(properties, cryptoService));
+    }
+
+    private SealedVote vote(SealedTallyService service, int ordinal) {
+        return service.encryptVote(electionId, ordinal, CANDIDATES);
+    }
+
+    private static CryptoProperties withSecret(byte[] secret) {
+        CryptoProperties properties = new CryptoProperties();
+        properties.setBallotKeySecret(Base64.getEncoder().encodeToString(secret));
+        return properties;
+    }
+}
@@ -0,0 +1,47 @@
+package com.votoeletronico.voto.service.tally;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("TallyPartitioner Tests")
+class TallyPartitionerTest {
+
+    @Test
+    @DisplayName("Should cover the whole chain with contiguous ranges, the last one shorter")
+    void shouldCoverChainContiguously() {
+        List<long[]> ranges = TallyPartitioner.split(25_001, 10_000);
+
+        assertThat(ranges).hasSize(3);
+        assertThat(ranges.get(0)).containsExactly(1, 10_000);
+        assertThat(ranges.get(1)).containsExactly(10_001, 20_000);
+        assertThat(ranges.get(2)).containsExactly(20_001, 25_001);
+    }
+
+    @Test
+    @DisplayName("Should produce one range per full partition when the size divides the chain")
+    void shouldSplitEvenly() {
+        List<long[]> ranges = TallyPartitioner.split(30_000, 10_000);
+
+        assertThat(ranges).hasSize(3);
+        assertThat(ranges.get(2)).containsExactly(20_001, 30_000);
+    }
+
+    @Test
+    @DisplayName("Should only partition jobs larger than one partition")
+    void shouldPartitionOnlyLargeJobs() {
+        assertThat(TallyPartitioner.shouldPartition(10_000, 10_000)).isFalse();
+        assertThat(TallyPartitioner.shouldPartition(10_001, 10_000)).isTrue();
+        assertThat(TallyPartitioner.shouldPartition(1_000_000, 0)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive partition size")
+    void shouldRejectInvalidSize() {
+        assertThatThrownBy(() -> TallyPartitioner.split(100, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,99 @@
+package com.votoeletronico.voto.service.tally;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.votoeletronico.voto.config.TallyProperties;
+import com.votoeletronico.voto.repository.EncryptedBallotJdbcRepository.BallotRow;
+import com.votoeletronico.voto.service.crypto.BallotCodec;
+import com.votoeletronico.voto.service.crypto.CryptoService;
+import com.votoeletronico.voto.service.crypto.EncryptedData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.time.Instant;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("TallyWorkers Tests")
+class TallyWorkersTest {
+
+    private static final int CANDIDATES = 5;
+
+    private final CryptoService cryptoService = new CryptoService();
+    private final BallotCodec ballotCodec = new BallotCodec(new ObjectMapper());
+    private final SecretKey key = cryptoService.generateAESKey();
+
+    private final TallyWorkers sequential = workers(1);
+    private final TallyWorkers parallel = workers(4);
+
+    @AfterEach
+    void tearDown() {
+        sequential.shutdown();
+        parallel.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should count exactly like the sequential path, including abstentions and invalid ballots")
+    void shouldMatchSequentialCounts() {
+        Random random = new Random(42);
+        List<BallotRow> ballots = new ArrayList<>();
+        long[] expectedVotes = new long[CANDIDATES];
+        long expectedAbstentions = 0;
+        long expectedInvalid = 0;
+
+        for (int seq = 1; seq <= 10_000; seq++) {
+            int kind = random.nextInt(20);
+            byte[] plaintext;
+            if (kind == 0) {
+                plaintext = ballotCodec.encodeAbstention("reason", Instant.now());
+                expectedAbstentions++;
+            } else if (kind == 1) {
+                // Ordinal outside the election's candidates
+                plaintext = ballotCodec.encodeVote(CANDIDATES + 3, Instant.now());
+                expectedInvalid++;
+            } else {
+                int ordinal = random.nextInt(CANDIDATES);
+                plaintext = ballotCodec.encodeVote(ordinal, Instant.now());
+                expectedVotes[ordinal]++;
+            }
+
+            EncryptedData encrypted = cryptoService.encryptAES(plaintext, key);
+            byte[] ciphertext = encrypted.ciphertext();
+            if (kind == 2) {
+                // Tampered ciphertext fails authentication; undo the vote counted above
+                ciphertext = ciphertext.clone();
+                ciphertext[0] ^= 1;
+                expectedVotes[ballotCodec.decode(plaintext).candidateOrdinal()]--;
+                expectedInvalid++;
+            }
+            ballots.add(new BallotRow(seq, UUID.randomUUID(), ciphertext, encrypted.nonce(), new byte[32]));
+        }
+
+        BallotTallier tallier = new BallotTallier(cryptoService, ballotCodec, key, ordinals());
+        TallyCounts sequentialCounts = sequential.count(tallier, ballots);
+        TallyCounts parallelCounts = parallel.count(tallier, ballots);
+
+        for (TallyCounts counts : List.of(sequentialCounts, parallelCounts)) {
+            assertThat(counts.candidateVotes()).containsExactly(expectedVotes);
+            assertThat(counts.abstentions()).isEqualTo(expectedAbstentions);
+            assertThat(counts.invalidVotes()).isEqualTo(expectedInvalid);
+            assertThat(counts.totalBallots()).isEqualTo(ballots.size());
+        }
+    }
+
+    private static TallyWorkers workers(int parallelism) {
+        TallyProperties properties = new TallyProperties();
+        properties.setParallelism(parallelism);
+        return new TallyWorkers(properties);
+    }
+
+    private static Map<UUID, Integer> ordinals() {
+        Map<UUID, Integer> ordinals = new HashMap<>();
+        for (int i = 0; i < CANDIDATES; i++) {
+            ordinals.put(UUID.randomUUID(), i);
+        }
+        return ordinals;
+    }
+}
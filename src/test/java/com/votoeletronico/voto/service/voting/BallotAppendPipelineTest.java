@@ -0,0 +1,275 @@
+package com.votoeletronico.voto.service.voting;
+
+import com.votoeletronico.voto.audit.AuditService;
+import com.votoeletronico.voto.config.CryptoProperties;
+import com.votoeletronico.voto.config.VoteProperties;
+import com.votoeletronico.voto.domain.election.ElectionStatus;
+import com.votoeletronico.voto.domain.voting.BallotChainHead;
+import com.votoeletronico.voto.domain.voting.EncryptedBallot;
+import com.votoeletronico.voto.repository.EncryptedBallotJdbcRepository;
+import com.votoeletronico.voto.service.TokenService;
+import com.votoeletronico.voto.service.crypto.CryptoService;
+import com.votoeletronico.voto.service.crypto.ElectionKeyRing;
+import com.votoeletronico.voto.service.crypto.EncryptedData;
+import com.votoeletronico.voto.service.crypto.ExpElGamal;
+import com.votoeletronico.voto.service.crypto.SignatureSchemes;
+import com.votoeletronico.voto.service.tally.SealedTallyService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.KeyPair;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("BallotAppendPipeline Tests")
+class BallotAppendPipelineTest {
+
+    private static final int VOTERS = 40;
+
+    private final UUID electionId = UUID.randomUUID();
+    private final SignatureSchemes signatureSchemes = new SignatureSchemes(new CryptoProperties());
+    private final BallotHasher ballotHasher = new BallotHasher(new CryptoService());
+
+    private final TokenService tokenService = mock(TokenService.class);
+    private final BallotSequencer ballotSequencer = mock(BallotSequencer.class);
+    private final EncryptedBallotJdbcRepository ballotJdbcRepository = mock(EncryptedBallotJdbcRepository.class);
+    private final ElectionKeyRing electionKeyRing = mock(ElectionKeyRing.class);
+    private final ElectionSnapshotCache electionSnapshotCache = mock(ElectionSnapshotCache.class);
+    private final SealedTallyService sealedTallyService = mock(SealedTallyService.class);
+
+    // Committed chain: what a new transaction sees when it locks the head
+    private final List<EncryptedBallot> committed = new ArrayList<>();
+    private final List<List<EncryptedBallot>> insertedBatches = new ArrayList<>();
+    private final AtomicBoolean failNextInsert = new AtomicBoolean();
+
+    private BallotAppendPipeline pipeline;
+    private ExecutorService voters;
+
+    @BeforeEach
+    void setUp() {
+        KeyPair keyPair = signatureSchemes.get("Ed25519").generateKeyPair();
+        when(electionKeyRing.keyPair(eq(electionId), any())).thenReturn(keyPair);
+        when(electionSnapshotCache.get(electionId)).thenReturn(new ElectionSnapshot(electionId, ElectionStatus.RUNNING,
+                Instant.now().minus(1, ChronoUnit.HOURS), Instant.now().plus(1, ChronoUnit.HOURS),
+                true, false, "Ed25519", false, Map.of()));
+        when(tokenService.consumeToken(eq(electionId), anyString(), any()))
+                .thenAnswer(invocation -> Optional.of(UUID.randomUUID()));
+
+        // Each transaction gets its own copy of the committed head, so a failed batch leaves no trace
+        when(ballotSequencer.lockHead(electionId)).thenAnswer(invocation -> {
+            synchronized (committed) {
+                EncryptedBallot last = committed.isEmpty() ? null : committed.get(committed.size() - 1);
+                return BallotChainHead.builder()
+                        .electionId(electionId)
+                        .lastSeq(last != null ? last.getSequenceNumber() : 0L)
+                        .lastBallotHash(last != null ? last.getBallotHash() : null)
+                        .build();
+            }
+        });
+        doAnswer(invocation -> {
+            if (failNextInsert.getAndSet(false)) {
+                throw new IllegalStateException("connection reset");
+            }
+            synchronized (committed) {
+                committed.addAll(invocation.getArgument(1));
+                insertedBatches.add(List.copyOf(invocation.getArgument(1)));
+            }
+            return null;
+        }).when(ballotJdbcRepository).batchInsert(eq(electionId), anyList());
+
+        pipeline = newPipeline(8, 20);
+        voters = Executors.newFixedThreadPool(VOTERS);
+    }
+
+    private BallotAppendPipeline newPipeline(int maxBatchSize, long maxLingerMs) {
+        VoteProperties voteProperties = new VoteProperties();
+        voteProperties.getGroupCommit().setEnabled(true);
+        voteProperties.getGroupCommit().setMaxBatchSize(maxBatchSize);
+        voteProperties.getGroupCommit().setMaxLingerMs(maxLingerMs);
+
+        return new BallotAppendPipeline(tokenService, ballotSequencer, ballotJdbcRepository, signatureSchemes,
+                electionKeyRing, electionSnapshotCache, sealedTallyService, ballotHasher,
+                mock(AuditService.class), new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                voteProperties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        voters.shutdownNow();
+        pipeline.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should chain concurrent appends to one election with dense seqs and linked hashes")
+    void shouldChainConcurrentAppends() {
+        List<EncryptedBallot> returned = appendConcurrently(VOTERS).stream()
+                .map(BallotAppendPipelineTest::join)
+                .toList();
+
+        List<EncryptedBallot> chain = committed.stream()
+                .sorted(Comparator.comparingLong(EncryptedBallot::getSequenceNumber))
+                .toList();
+        assertThat(chain).hasSize(VOTERS);
+        byte[] prevHash = null;
+        for (int i = 0; i < chain.size(); i++) {
+            EncryptedBallot ballot = chain.get(i);
+            assertThat(ballot.getSequenceNumber()).isEqualTo(i + 1L);
+            assertThat(ballot.getPrevBallotHash()).isEqualTo(prevHash);
+            assertThat(ballot.getBallotHash()).isEqualTo(ballotHasher.hash(ballot));
+            prevHash = ballot.getBallotHash();
+        }
+        assertThat(returned).containsExactlyInAnyOrderElementsOf(committed);
+    }
+
+    @Test
+    @DisplayName("Should fail every waiter of a failed batch")
+    void shouldFailWholeBatch() {
+        // The batch only closes once all four ballots joined it
+        pipeline.shutdown();
+        pipeline = newPipeline(4, TimeUnit.SECONDS.toMillis(30));
+        failNextInsert.set(true);
+
+        List<Future<EncryptedBallot>> results = appendConcurrently(4);
+
+        for (Future<EncryptedBallot> result : results) {
+            assertThatThrownBy(() -> result.get(10, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .cause()
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("connection reset");
+        }
+        assertThat(committed).isEmpty();
+        verify(ballotJdbcRepository, times(1)).batchInsert(eq(electionId), anyList());
+    }
+
+    @Test
+    @DisplayName("Should keep chaining from the committed head after a failed batch")
+    void shouldRecoverAfterFailedBatch() throws Exception {
+        failNextInsert.set(true);
+        List<Future<EncryptedBallot>> results = appendConcurrently(VOTERS);
+
+        int failed = 0;
+        for (Future<EncryptedBallot> result : results) {
+            try {
+                result.get(10, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(IllegalStateException.class).hasMessage("connection reset");
+                failed++;
+            }
+        }
+
+        // Only the first batch failed, as a whole; the next one reused its seqs
+        assertThat(failed).isBetween(1, 8);
+        assertThat(committed.stream().map(EncryptedBallot::getSequenceNumber).sorted().toList())
+                .containsExactlyElementsOf(LongStream.rangeClosed(1, VOTERS - failed).boxed().toList());
+    }
+
+    @Test
+    @DisplayName("Should add each committed batch of sealed votes to the aggregate in the batch's transaction")
+    void shouldAccumulateSealedVotesPerBatch() {
+        when(electionSnapshotCache.get(electionId)).thenReturn(new ElectionSnapshot(electionId, ElectionStatus.RUNNING,
+                Instant.now().minus(1, ChronoUnit.HOURS), Instant.now().plus(1, ChronoUnit.HOURS),
+                true, false, "Ed25519", true, Map.of()));
+        List<List<SealedVote>> accumulated = new ArrayList<>();
+        doAnswer(invocation -> {
+            synchronized (committed) {
+                accumulated.add(List.copyOf(invocation.getArgument(1)));
+            }
+            return null;
+        }).when(sealedTallyService).accumulate(eq(electionId), anyList());
+
+        ExpElGamal.KeyPair tallyKey = ExpElGamal.generateKeyPair();
+        int slots = 3;
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<EncryptedBallot>> results = new ArrayList<>(VOTERS);
+        for (int i = 0; i < VOTERS; i++) {
+            SealedVote vote = SealedVote.of(ExpElGamal.encryptOneHot(tallyKey.publicKey(), i % slots, slots));
+            PendingBallot pending = pending(i, vote);
+            results.add(voters.submit(() -> {
+                go.await();
+                return pipeline.append(pending);
+            }));
+        }
+        go.countDown();
+        results.forEach(BallotAppendPipelineTest::join);
+
+        // One aggregate update per inserted batch, with the same ballots in the same order
+        assertThat(accumulated).hasSameSizeAs(insertedBatches);
+        ExpElGamal.Ciphertext[] aggregate = ExpElGamal.zero(slots);
+        for (int i = 0; i < insertedBatches.size(); i++) {
+            List<EncryptedBallot> batch = insertedBatches.get(i);
+            List<SealedVote> votes = accumulated.get(i);
+            assertThat(votes).extracting(SealedVote::encoded)
+                    .containsExactlyElementsOf(batch.stream().map(EncryptedBallot::getHomomorphicVote).toList());
+            votes.forEach(vote -> ExpElGamal.addTo(aggregate, vote.ciphertexts()));
+        }
+        for (int slot = 0; slot < slots; slot++) {
+            int expected = slot;
+            long votes = LongStream.range(0, VOTERS).filter(voter -> voter % slots == expected).count();
+            assertThat(ExpElGamal.decrypt(tallyKey.secret(), aggregate[slot], VOTERS)).as("slot %d", slot)
+                    .isEqualTo(votes);
+        }
+    }
+
+    private List<Future<EncryptedBallot>> appendConcurrently(int count) {
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<EncryptedBallot>> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int voter = i;
+            results.add(voters.submit(() -> {
+                go.await();
+                return pipeline.append(pending(voter));
+            }));
+        }
+        go.countDown();
+        return results;
+    }
+
+    private PendingBallot pending(int voter) {
+        return pending(voter, null);
+    }
+
+    private PendingBallot pending(int voter, SealedVote sealedVote) {
+        byte[] ciphertext = new byte[48];
+        Arrays.fill(ciphertext, (byte) voter);
+        byte[] nonce = new byte[12];
+        nonce[0] = (byte) voter;
+        return new PendingBallot(electionId, "token-" + voter, new EncryptedData(ciphertext, nonce, "AES-256-GCM"),
+                sealedVote, null, null, "Vote Cast");
+    }
+
+    private static EncryptedBallot join(Future<EncryptedBallot> result) {
+        try {
+            return result.get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new AssertionError("Append failed", e);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.votoeletronico.voto.service.voting;
+
+import com.votoeletronico.voto.config.CryptoProperties;
+import com.votoeletronico.voto.config.VerificationProperties;
+import com.votoeletronico.voto.domain.voting.BallotChainHead;
+import com.votoeletronico.voto.domain.voting.EncryptedBallot;
+import com.votoeletronico.voto.repository.BallotChainCheckpointRepository;
+import com.votoeletronico.voto.repository.BallotChainCheckpointRepository.Checkpoint;
+import com.votoeletronico.voto.repository.BallotChainHeadRepository;
+import com.votoeletronico.voto.repository.EncryptedBallotJdbcRepository;
+import com.votoeletronico.voto.repository.EncryptedBallotJdbcRepository.ChainRow;
+import com.votoeletronico.voto.service.crypto.CheckpointSigner;
+import com.votoeletronico.voto.service.crypto.CryptoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifies chains held in memory, split into segments of four ballots on three threads
+ */
+@DisplayName("BallotChainVerifier Tests")
+class BallotChainVerifierTest {
+
+    private static final int SEGMENT_SIZE = 4;
+    private static final int BALLOTS = 20;
+
+    private final UUID electionId = UUID.randomUUID();
+
+    private final CryptoService cryptoService = new CryptoService();
+    private final BallotHasher ballotHasher = new BallotHasher(cryptoService);
+    private final CheckpointSigner checkpointSigner = new CheckpointSigner(new CryptoProperties(), cryptoService);
+
+    private final EncryptedBallotJdbcRepository ballotJdbcRepository = mock(EncryptedBallotJdbcRepository.class);
+    private final BallotChainHeadRepository chainHeadRepository = mock(BallotChainHeadRepository.class);
+    private final BallotChainCheckpointRepository checkpointRepository = mock(BallotChainCheckpointRepository.class);
+
+    // The election's encrypted_ballots rows, its chain head and its checkpoints
+    private final Map<Long, ChainRow> rows = new ConcurrentSkipListMap<>();
+    private final BallotChainHead head = BallotChainHead.builder().build();
+    private final List<Checkpoint> checkpoints = new CopyOnWriteArrayList<>();
+
+    private BallotChainVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        head.setElectionId(electionId);
+        append(BALLOTS);
+
+        when(chainHeadRepository.findById(electionId)).thenReturn(Optional.of(head));
+        when(ballotJdbcRepository.findHash(eq(electionId), anyLong())).thenAnswer(invocation -> {
+            ChainRow row = rows.get(invocation.<Long>getArgument(1));
+            return row != null ? row.ballotHash() : null;
+        });
+        doAnswer(invocation -> {
+            long from = invocation.getArgument(1);
+            long to = invocation.getArgument(2);
+            Consumer<ChainRow> consumer = invocation.getArgument(3);
+            rows.values().stream().filter(row -> row.seq() >= from && row.seq() <= to).forEach(consumer);
+            return null;
+        }).when(ballotJdbcRepository).forEachChainRow(eq(electionId), anyLong(), anyLong(), any());
+        when(checkpointRepository.findLatest(eq(electionId), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long maxSeq = invocation.getArgument(1);
+            int limit = invocation.getArgument(2);
+            return checkpoints.stream()
+                    .filter(checkpoint -> checkpoint.seq() <= maxSeq)
+                    .sorted(Comparator.comparingLong(Checkpoint::seq).reversed())
+                    .limit(limit)
+                    .toList();
+        });
+        doAnswer(invocation -> checkpoints.add(invocation.getArgument(0))).when(checkpointRepository).insert(any());
+
+        VerificationProperties properties = new VerificationProperties();
+        properties.setSegmentSize(SEGMENT_SIZE);
+        properties.setParallelism(3);
+        verifier = new BallotChainVerifier(ballotJdbcRepository, chainHeadRepository, ballotHasher,
+                checkpointRepository, checkpointSigner, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifier.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should verify a clean chain spanning several segments and checkpoint its end")
+    void shouldVerifyCleanChain() {
+        ChainVerification result = verifier.verify(electionId, true);
+
+        assertThat(result.valid()).isTrue();
+        assertThat(result.fromSeq()).isEqualTo(1);
+        assertThat(result.ballotsVerified()).isEqualTo(BALLOTS);
+        assertThat(result.lastSeq()).isEqualTo(BALLOTS);
+        assertThat(result.firstBrokenSeq()).isNull();
+        verify(ballotJdbcRepository, times(BALLOTS / SEGMENT_SIZE)).forEachChainRow(eq(electionId), anyLong(), anyLong(), any());
+
+        assertThat(checkpoints).singleElement().satisfies(checkpoint -> {
+            assertThat(checkpoint.seq()).isEqualTo(BALLOTS);
+            assertThat(checkpoint.ballotHash()).isEqualTo(rows.get((long) BALLOTS).ballotHash());
+            assertThat(checkpointSigner.verify(checkpoint.signedMessage(), checkpoint.signature())).isTrue();
+        });
+    }
+
+    @Test
+    @DisplayName("Should report the lowest broken seq when later segments are tampered with")
+    void shouldReportLowestBrokenSeq() {
+        // A replaced hash in the fourth segment, and an altered ciphertext in the fifth
+        ChainRow replaced = rows.get(14L);
+        rows.put(14L, new ChainRow(14, replaced.hashVersion(), replaced.encryptedVote(), replaced.nonce(),
+                replaced.prevBallotHash(), cryptoService.sha256(new byte[]{14})));
+        ChainRow altered = rows.get(18L);
+        byte[] ciphertext = altered.encryptedVote().clone();
+        ciphertext[0] ^= 1;
+        rows.put(18L, new ChainRow(18, altered.hashVersion(), ciphertext, altered.nonce(), altered.prevBallotHash(),
+                altered.ballotHash()));
+
+        ChainVerification result = verifier.verify(electionId, true);
+
+        assertThat(result.valid()).isFalse();
+        assertThat(result.firstBrokenSeq()).isEqualTo(14);
+        assertThat(result.reason()).isEqualTo("Ballot hash does not match its contents");
+        assertThat(result.ballotsVerified()).isLessThan(BALLOTS);
+        assertThat(checkpoints).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should report a missing seq inside a segment")
+    void shouldReportMissingSeq() {
+        rows.remove(10L);
+
+        ChainVerification result = verifier.verify(electionId, true);
+
+        assertThat(result.valid()).isFalse();
+        assertThat(result.firstBrokenSeq()).isEqualTo(10);
+        assertThat(result.reason()).isEqualTo("Ballot is missing");
+        assertThat(checkpoints).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should report a missing last ballot of a segment")
+    void shouldReportMissingSegmentBoundary() {
+        rows.remove(12L);
+
+        ChainVerification result = verifier.verify(electionId, true);
+
+        assertThat(result.valid()).isFalse();
+        assertThat(result.firstBrokenSeq()).isEqualTo(12);
+        assertThat(result.reason()).isEqualTo("Ballot is missing");
+    }
+
+    @Test
+    @DisplayName("Should resume after a signed checkpoint and only verify the ballots appended since")
+    void shouldResumeFromCheckpoint() {
+        assertThat(verifier.verify(electionId, false).valid()).isTrue();
+        append(6);
+        clearInvocations(ballotJdbcRepository);
+
+        ChainVerification result = verifier.verify(electionId, false);
+
+        assertThat(result.valid()).isTrue();
+        assertThat(result.fromSeq()).isEqualTo(BALLOTS + 1);
+        assertThat(result.ballotsVerified()).isEqualTo(6);
+        assertThat(result.lastSeq()).isEqualTo(BALLOTS + 6);
+        verify(ballotJdbcRepository, never()).forEachChainRow(eq(electionId), longThat(from -> from <= BALLOTS),
+                anyLong(), any());
+        assertThat(checkpoints).extracting(Checkpoint::seq).containsExactly((long) BALLOTS, (long) BALLOTS + 6);
+
+        // A full run ignores the checkpoints
+        assertThat(verifier.verify(electionId, true).ballotsVerified()).isEqualTo(BALLOTS + 6);
+    }
+
+    @Test
+    @DisplayName("Should report a ballot changed under a checkpoint, and ignore a checkpoint with a bad signature")
+    void shouldDistrustChangedOrForgedCheckpoint() {
+        assertThat(verifier.verify(electionId, false).valid()).isTrue();
+
+        // The checkpointed ballot's stored hash changes afterwards
+        ChainRow last = rows.get((long) BALLOTS);
+        rows.put((long) BALLOTS, new ChainRow(BALLOTS, last.hashVersion(), last.encryptedVote(), last.nonce(),
+                last.prevBallotHash(), cryptoService.sha256(new byte[]{1})));
+        ChainVerification changed = verifier.verify(electionId, false);
+        assertThat(changed.valid()).isFalse();
+        assertThat(changed.firstBrokenSeq()).isEqualTo(BALLOTS);
+        assertThat(changed.reason()).isEqualTo("Ballot hash differs from the signed checkpoint");
+        rows.put((long) BALLOTS, last);
+
+        // A checkpoint whose signature does not hold is skipped: verification starts over
+        Checkpoint signed = checkpoints.get(0);
+        checkpoints.set(0, new Checkpoint(electionId, signed.seq(), signed.ballotHash(), signed.createdAt(),
+                new byte[signed.signature().length]));
+        ChainVerification forged = verifier.verify(electionId, false);
+        assertThat(forged.valid()).isTrue();
+        assertThat(forged.fromSeq()).isEqualTo(1);
+        assertThat(forged.ballotsVerified()).isEqualTo(BALLOTS);
+    }
+
+    /**
+     * Append ballots to the chain and move its head
+     */
+    private void append(int count) {
+        byte[] prev = head.getLastBallotHash();
+        long seq = head.getLastSeq();
+        List<ChainRow> appended = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            seq++;
+            byte[] ciphertext = cryptoService.generateNonce(48);
+            byte[] nonce = cryptoService.generateNonce(12);
+            byte[] hash = ballotHasher.hash(EncryptedBallot.HASH_VERSION_BINARY, ciphertext, nonce, prev);
+            appended.add(new ChainRow(seq, EncryptedBallot.HASH_VERSION_BINARY, ciphertext, nonce, prev, hash));
+            prev = hash;
+        }
+        appended.forEach(row -> rows.put(row.seq(), row));
+        head.setLastSeq(seq);
+        head.setLastBallotHash(prev);
+    }
+}
@@ -0,0 +1,98 @@
+package com.votoeletronico.voto.service.voting;
+
+import com.votoeletronico.voto.domain.voting.EncryptedBallot;
+import com.votoeletronico.voto.service.crypto.CryptoService;
+import com.votoeletronico.voto.service.crypto.Hex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("BallotHasher Tests")
+class BallotHasherTest {
+
+    private final CryptoService cryptoService = new CryptoService();
+    private final BallotHasher ballotHasher = new BallotHasher(cryptoService);
+
+    @Test
+    @DisplayName("Version 1 should match the legacy formula over Base64/hex text")
+    void shouldHashTextVersionLikeLegacyCode() {
+        byte[] ciphertext = bytes(48, 1);
+        byte[] nonce = bytes(12, 2);
+        byte[] prev = bytes(32, 3);
+
+        // What ballots were hashed with before V7
+        String legacy = cryptoService.hashSHA256(Base64.getEncoder().encodeToString(ciphertext)
+                + Base64.getEncoder().encodeToString(nonce) + Hex.encode(prev));
+        String legacyFirst = cryptoService.hashSHA256(Base64.getEncoder().encodeToString(ciphertext)
+                + Base64.getEncoder().encodeToString(nonce));
+
+        assertThat(ballotHasher.hash(EncryptedBallot.HASH_VERSION_TEXT, ciphertext, nonce, prev))
+                .isEqualTo(Hex.decode(legacy));
+        assertThat(ballotHasher.hash(EncryptedBallot.HASH_VERSION_TEXT, ciphertext, nonce, null))
+                .isEqualTo(Hex.decode(legacyFirst));
+    }
+
+    @Test
+    @DisplayName("Version 2 should hash the raw bytes")
+    void shouldHashBinaryVersionOverRawBytes() {
+        byte[] ciphertext = bytes(48, 1);
+        byte[] nonce = bytes(12, 2);
+        byte[] prev = bytes(32, 3);
+
+        assertThat(ballotHasher.hash(ciphertext, nonce, prev)).isEqualTo(cryptoService.sha256(ciphertext, nonce, prev));
+        assertThat(ballotHasher.hash(ciphertext, nonce, prev))
+                .isNotEqualTo(ballotHasher.hash(EncryptedBallot.HASH_VERSION_TEXT, ciphertext, nonce, prev));
+    }
+
+    @Test
+    @DisplayName("A chain continuing version 1 ballots with version 2 ballots should verify end to end")
+    void shouldVerifyMixedVersionChain() {
+        List<EncryptedBallot> chain = new ArrayList<>();
+        byte[] prev = null;
+        for (int i = 0; i < 6; i++) {
+            short version = i < 3 ? EncryptedBallot.HASH_VERSION_TEXT : EncryptedBallot.HASH_VERSION_BINARY;
+            byte[] ciphertext = bytes(40 + i, i);
+            byte[] nonce = bytes(12, 100 + i);
+            byte[] hash = ballotHasher.hash(version, ciphertext, nonce, prev);
+            chain.add(EncryptedBallot.builder()
+                    .sequenceNumber(i + 1L)
+                    .hashVersion(version)
+                    .encryptedVote(ciphertext)
+                    .nonce(nonce)
+                    .prevBallotHash(prev)
+                    .ballotHash(hash)
+                    .build());
+            prev = hash;
+        }
+
+        for (EncryptedBallot ballot : chain) {
+            assertThat(ballotHasher.hash(ballot)).isEqualTo(ballot.getBallotHash());
+        }
+
+        // The stored version decides the formula: reading a text ballot as binary breaks it
+        EncryptedBallot first = chain.get(0);
+        first.setHashVersion(EncryptedBallot.HASH_VERSION_BINARY);
+        assertThat(ballotHasher.hash(first)).isNotEqualTo(first.getBallotHash());
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown hash version")
+    void shouldRejectUnknownVersion() {
+        assertThatThrownBy(() -> ballotHasher.hash((short) 3, bytes(8, 1), bytes(8, 2), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("3");
+    }
+
+    private static byte[] bytes(int length, int seed) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (seed * 31 + i);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,136 @@
+package com.votoeletronico.voto.service.voting;
+
+import com.votoeletronico.voto.BaseCommittedIntegrationTest;
+import com.votoeletronico.voto.domain.election.Election;
+import com.votoeletronico.voto.domain.election.ElectionStatus;
+import com.votoeletronico.voto.domain.voting.BallotChainHead;
+import com.votoeletronico.voto.repository.BallotChainHeadRepository;
+import com.votoeletronico.voto.repository.ElectionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("BallotSequencer Integration Tests")
+class BallotSequencerIntegrationTest extends BaseCommittedIntegrationTest {
+
+    private static final int APPENDERS = 16;
+    private static final int APPENDS_EACH = 25;
+
+    @Autowired
+    private BallotSequencer ballotSequencer;
+
+    @Autowired
+    private BallotChainHeadRepository chainHeadRepository;
+
+    @Autowired
+    private ElectionRepository electionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UUID electionId;
+
+    @BeforeEach
+    void setUp() {
+        Instant now = Instant.now();
+        electionId = electionRepository.save(Election.builder()
+                .name("Sequencer Election")
+                .startTs(now.minus(1, ChronoUnit.HOURS))
+                .endTs(now.plus(1, ChronoUnit.HOURS))
+                .status(ElectionStatus.RUNNING)
+                .build()).getId();
+    }
+
+    @Test
+    @DisplayName("Should hand out dense, gap-free seqs to concurrent appenders")
+    void shouldSequenceConcurrentAppends() throws Exception {
+        ExecutorService appenders = Executors.newFixedThreadPool(APPENDERS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<List<Long>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < APPENDERS; i++) {
+                results.add(appenders.submit(() -> {
+                    go.await();
+                    List<Long> seqs = new ArrayList<>(APPENDS_EACH);
+                    for (int j = 0; j < APPENDS_EACH; j++) {
+                        seqs.add(appendOne());
+                    }
+                    return seqs;
+                }));
+            }
+            go.countDown();
+
+            List<Long> seqs = new ArrayList<>();
+            for (Future<List<Long>> result : results) {
+                seqs.addAll(result.get(60, TimeUnit.SECONDS));
+            }
+
+            long total = (long) APPENDERS * APPENDS_EACH;
+            assertThat(seqs).containsExactlyInAnyOrderElementsOf(LongStream.rangeClosed(1, total).boxed().toList());
+            BallotChainHead head = chainHeadRepository.findById(electionId).orElseThrow();
+            assertThat(head.getLastSeq()).isEqualTo(total);
+            assertThat(head.getLastBallotHash()).isEqualTo(hashOf(total));
+        } finally {
+            appenders.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should give the seq of a rolled back append to the next one")
+    void shouldReuseRolledBackSeq() {
+        appendOne();
+        transactionTemplate.executeWithoutResult(status -> {
+            BallotChainHead head = ballotSequencer.lockHead(electionId);
+            head.advance(head.nextSeq(), hashOf(head.nextSeq()));
+            status.setRollbackOnly();
+        });
+
+        assertThat(appendOne()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Should reject appends once the chain is sealed")
+    void shouldRejectAppendsToSealedChain() {
+        appendOne();
+        transactionTemplate.executeWithoutResult(status -> ballotSequencer.seal(electionId));
+
+        assertThatThrownBy(this::appendOne)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("sealed");
+        assertThat(chainHeadRepository.findById(electionId).orElseThrow().getLastSeq()).isEqualTo(1L);
+    }
+
+    /**
+     * Append one ballot the way the pipeline does: lock the head, advance, commit
+     */
+    private long appendOne() {
+        Long seq = transactionTemplate.execute(status -> {
+            BallotChainHead head = ballotSequencer.lockHead(electionId);
+            long next = head.nextSeq();
+            head.advance(next, hashOf(next));
+            return next;
+        });
+        return seq != null ? seq : 0;
+    }
+
+    private static byte[] hashOf(long seq) {
+        return ByteBuffer.allocate(32).putLong(seq).array();
+    }
+}
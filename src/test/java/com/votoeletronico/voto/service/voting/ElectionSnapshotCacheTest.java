@@ -0,0 +1,75 @@
+package com.votoeletronico.voto.service.voting;
+
+import com.votoeletronico.voto.config.VoteProperties;
+import com.votoeletronico.voto.domain.election.Election;
+import com.votoeletronico.voto.domain.election.ElectionStatus;
+import com.votoeletronico.voto.repository.ElectionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ElectionSnapshotCache Tests")
+class ElectionSnapshotCacheTest {
+
+    private final UUID electionId = UUID.randomUUID();
+    private final ElectionRepository electionRepository = mock(ElectionRepository.class);
+    private final VoteProperties voteProperties = new VoteProperties();
+    private final ElectionSnapshotCache cache = new ElectionSnapshotCache(electionRepository, voteProperties);
+
+    @Test
+    @DisplayName("Should serve a RUNNING election from the cache within the TTL")
+    void shouldCacheRunningElection() {
+        when(electionRepository.findByIdWithCandidates(electionId)).thenReturn(Optional.of(election(ElectionStatus.RUNNING)));
+
+        cache.get(electionId);
+        when(electionRepository.findByIdWithCandidates(electionId)).thenReturn(Optional.of(election(ElectionStatus.CLOSED)));
+
+        assertThat(cache.get(electionId).status()).isEqualTo(ElectionStatus.RUNNING);
+        verify(electionRepository, times(1)).findByIdWithCandidates(electionId);
+    }
+
+    @Test
+    @DisplayName("Should see a close made on another node once the snapshot expires")
+    void shouldReloadExpiredSnapshot() {
+        voteProperties.setSnapshotTtlMs(0);
+        when(electionRepository.findByIdWithCandidates(electionId)).thenReturn(Optional.of(election(ElectionStatus.RUNNING)));
+        assertThat(cache.get(electionId).isVotingOpen()).isTrue();
+
+        // Closed elsewhere: this node never ran invalidateAfterCommit
+        when(electionRepository.findByIdWithCandidates(electionId)).thenReturn(Optional.of(election(ElectionStatus.CLOSED)));
+
+        assertThat(cache.get(electionId).isVotingOpen()).isFalse();
+        assertThat(cache.get(electionId).status()).isEqualTo(ElectionStatus.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should drop the snapshot of an election closed on this node")
+    void shouldInvalidateClosedElection() {
+        when(electionRepository.findByIdWithCandidates(electionId)).thenReturn(Optional.of(election(ElectionStatus.RUNNING)));
+        cache.get(electionId);
+
+        when(electionRepository.findByIdWithCandidates(electionId)).thenReturn(Optional.of(election(ElectionStatus.CLOSED)));
+        cache.invalidateAfterCommit(electionId);
+
+        assertThat(cache.get(electionId).status()).isEqualTo(ElectionStatus.CLOSED);
+    }
+
+    private Election election(ElectionStatus status) {
+        Instant now = Instant.now();
+        Election election = Election.builder()
+                .name("Snapshot Election")
+                .startTs(now.minus(1, ChronoUnit.HOURS))
+                .endTs(now.plus(1, ChronoUnit.HOURS))
+                .status(status)
+                .build();
+        election.setId(electionId);
+        return election;
+    }
+}